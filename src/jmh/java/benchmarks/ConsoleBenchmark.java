@@ -0,0 +1,82 @@
+package benchmarks;
+
+import com.osiris.jgbrowser.JGBrowser;
+import com.osiris.jgbrowser.js.apis.console.ConsoleLevel;
+import com.osiris.jgbrowser.js.apis.console.JS_API_Console;
+import com.osiris.jgbrowser.utils.TrashOutput;
+import com.osiris.jgbrowser.window.JGWindow;
+import org.graalvm.polyglot.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of console.log() for the calling script: without output and listeners (the level is disabled), <br>
+ * with a listener and with an output stream. Messages are delivered in the background, thus that isn't included. <br>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-Dpolyglot.engine.WarnInterpreterOnly=false")
+@State(Scope.Benchmark)
+public class ConsoleBenchmark {
+    private static final int CALLS = 1000;
+    @Param({"disabled", "listener", "output"})
+    public String mode;
+    private JGBrowser browser;
+    private JGWindow window;
+    private JS_API_Console console;
+    private Value logLoop;
+    private final Object[] data = {"message", 42, 1.5};
+
+    @Setup(Level.Trial)
+    public void setup() {
+        browser = new JGBrowser();
+        window = browser.openWindow();
+        console = window.getJavaScriptContext().getConsole();
+        if (mode.equals("listener"))
+            console.on(ConsoleLevel.LOG, message -> Blackhole.consumeCPU(1));
+        else if (mode.equals("output"))
+            console.setOut(new PrintStream(new TrashOutput()));
+        logLoop = window.getJavaScriptContext().eval(
+                "(n) => { for (let i = 0; i < n; i++) console.log('message', i, 1.5); }", "benchmark-console.js");
+    }
+
+    @TearDown(Level.Iteration)
+    public void flush() {
+        console.flush();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        window.close();
+        browser.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CALLS)
+    public void logFromJavaScript() {
+        logLoop.execute(CALLS);
+    }
+
+    @Benchmark
+    public void logFromJava() {
+        console.log(data);
+    }
+}
@@ -0,0 +1,95 @@
+package benchmarks;
+
+import com.osiris.jgbrowser.JGBrowser;
+import com.osiris.jgbrowser.js.apis.JS_ProxyAPI;
+import com.osiris.jgbrowser.js.apis.console.ConsoleLevel;
+import com.osiris.jgbrowser.js.apis.console.JS_API_Console;
+import com.osiris.jgbrowser.window.JGWindow;
+import org.graalvm.polyglot.HostAccess;
+import org.graalvm.polyglot.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares calling console.log() in a tight loop via {@link HostAccess.Export} reflection, <br>
+ * (which is how the console was exposed before), with calling it via {@link JS_ProxyAPI} functions. <br>
+ * Both forward to the same console, thus only the dispatch and argument conversion differs. <br>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-Dpolyglot.engine.WarnInterpreterOnly=false")
+@State(Scope.Benchmark)
+public class ConsoleDispatchBenchmark {
+    private static final int CALLS = 1000;
+    @Param({"reflection", "proxy"})
+    public String dispatch;
+    @Param({"disabled", "listener"})
+    public String mode;
+    private JGBrowser browser;
+    private JGWindow window;
+    private JS_API_Console console;
+    private Object target;
+    private Value logLoop;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        browser = new JGBrowser();
+        window = browser.openWindow();
+        console = window.getJavaScriptContext().getConsole();
+        if (mode.equals("listener"))
+            console.on(ConsoleLevel.LOG, message -> Blackhole.consumeCPU(1));
+        target = dispatch.equals("proxy") ? console : new ReflectiveConsole(console);
+        logLoop = window.getJavaScriptContext().eval(
+                "(c, n) => { for (let i = 0; i < n; i++) c.log('message', i, 1.5, {a: i}); }", "benchmark-console-dispatch.js");
+    }
+
+    @TearDown(Level.Iteration)
+    public void flush() {
+        console.flush();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        window.close();
+        browser.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CALLS)
+    public void log() {
+        logLoop.execute(target, CALLS);
+    }
+
+    /**
+     * Exposes console.log() via reflection, like {@link JS_API_Console} did before it became a {@link JS_ProxyAPI}.
+     */
+    public static class ReflectiveConsole {
+        private final JS_API_Console console;
+
+        public ReflectiveConsole(JS_API_Console console) {
+            this.console = console;
+        }
+
+        @HostAccess.Export
+        public void log(Object... data) {
+            console.log(data);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package benchmarks;
+
+import com.osiris.jgbrowser.JGBrowser;
+import com.osiris.jgbrowser.exceptions.DuplicateFoundException;
+import com.osiris.jgbrowser.js.apis.JS_API;
+import com.osiris.jgbrowser.js.context.GraalContext;
+import com.osiris.jgbrowser.window.JGWindow;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures creating a {@link GraalContext} (which installs the placeholders of all Web-APIs) <br>
+ * with the browsers' shared engine and with an isolated one, creating one and using the console (which loads it), <br>
+ * and loading a single Web-API into an existing context. <br>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = "-Dpolyglot.engine.WarnInterpreterOnly=false")
+@State(Scope.Benchmark)
+public class ContextBenchmark {
+    @Param({"shared", "isolated"})
+    public String engine;
+    private JGBrowser browser;
+    private JGWindow window;
+    /**
+     * Fresh for every iteration, since registered APIs pile up.
+     */
+    private GraalContext context;
+    private final JS_API api = new JS_API() {
+        @Override
+        public String getJSGlobalVarName() {
+            return "benchmarkApi";
+        }
+
+        @Override
+        public String getOptionalJSCode() {
+            return "benchmarkApi.ready = true;";
+        }
+    };
+
+    @Setup(Level.Trial)
+    public void setup() {
+        browser = new JGBrowser();
+        window = browser.openCustomWindow().isolatedEngine(engine.equals("isolated")).build();
+    }
+
+    @Setup(Level.Iteration)
+    public void newContext() {
+        context = new GraalContext(window);
+    }
+
+    @TearDown(Level.Iteration)
+    public void closeContext() {
+        context.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        window.close();
+        browser.close();
+    }
+
+    @Benchmark
+    public GraalContext construct() {
+        GraalContext context = new GraalContext(window);
+        context.close();
+        return context;
+    }
+
+    @Benchmark
+    public GraalContext constructAndLog() {
+        GraalContext context = new GraalContext(window);
+        context.eval("console.log('started')", "benchmark.js");
+        context.close();
+        return context;
+    }
+
+    @Benchmark
+    public GraalContext registerAndLoad() throws DuplicateFoundException {
+        return context.registerAndLoad(api, true);
+    }
+}
@@ -0,0 +1,115 @@
+package benchmarks;
+
+import com.osiris.jgbrowser.JGBrowser;
+import com.osiris.jgbrowser.js.context.GraalContext;
+import com.osiris.jgbrowser.window.JGWindow;
+import org.graalvm.polyglot.Value;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of DOM-heavy scripts, running against the jsoup backed document. <br>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = "-Dpolyglot.engine.WarnInterpreterOnly=false")
+@State(Scope.Benchmark)
+public class DomBenchmark {
+    @Param({"2000"})
+    public int nodes;
+    private JGBrowser browser;
+    private JGWindow window;
+    private GraalContext context;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        browser = new JGBrowser();
+        window = browser.openWindow();
+        context = window.getJavaScriptContext();
+        context.getDocument().setDocument(createDocument(nodes));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        window.close();
+        browser.close();
+    }
+
+    /**
+     * Creates a document with the provided amount of elements.
+     */
+    static Document createDocument(int nodes) {
+        Document document = Jsoup.parse("<html><head></head><body></body></html>");
+        Element parent = document.body();
+        for (int i = 0; i < nodes; i++) {
+            if (i % 10 == 0) {
+                parent = document.body().appendElement("div").addClass("item").addClass("c" + (i / 10 % 10));
+                parent.id("n" + i);
+            } else
+                parent.appendElement("span").id("n" + i).addClass("c" + (i % 10)).text("text " + i);
+        }
+        return document;
+    }
+
+    @Benchmark
+    public Value walk() {
+        return context.eval("var count = 0; var stack = [document.documentElement];" +
+                "while (stack.length) { var n = stack.pop(); count++;" +
+                "  for (var c = n.firstChild; c !== null; c = c.nextSibling) stack.push(c); }" +
+                "count;", "benchmark-walk.js");
+    }
+
+    @Benchmark
+    public Value getElementById() {
+        return context.eval("var found = 0; for (var i = 0; i < 1000; i++) { if (document.getElementById('n' + (i * 7 % " + nodes + "))) found++; } found;",
+                "benchmark-getElementById.js");
+    }
+
+    @Benchmark
+    public Value querySelectorAll() {
+        return context.eval("document.querySelectorAll('div.item > span').length;", "benchmark-querySelectorAll.js");
+    }
+
+    @Benchmark
+    public Value getElementsByClassName() {
+        return context.eval("var found = 0; for (var i = 0; i < 100; i++) found += document.getElementsByClassName('c' + (i % 10)).length; found;",
+                "benchmark-getElementsByClassName.js");
+    }
+
+    /**
+     * Adds and removes 1000 elements, thus leaves the document as it was.
+     */
+    @Benchmark
+    public Value mutate() {
+        return context.eval("var body = document.body;" +
+                "for (var i = 0; i < 1000; i++) { var e = document.createElement('div'); e.className = 'tmp';" +
+                "  e.textContent = 'x' + i; body.appendChild(e); }" +
+                "var tmp = document.getElementsByClassName('tmp'); for (var i = 0; i < tmp.length; i++) tmp[i].remove();" +
+                "tmp.length;", "benchmark-mutate.js");
+    }
+
+    @Benchmark
+    public Value attributes() {
+        return context.eval("var list = document.getElementsByTagName('div');" +
+                "for (var i = 0; i < list.length; i++) { var d = list[i]; d.setAttribute('data-i', i); d.classList.toggle('seen'); }" +
+                "list.length;", "benchmark-attributes.js");
+    }
+}
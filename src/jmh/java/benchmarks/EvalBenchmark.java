@@ -0,0 +1,72 @@
+package benchmarks;
+
+import com.osiris.jgbrowser.JGBrowser;
+import com.osiris.jgbrowser.js.context.GraalContext;
+import com.osiris.jgbrowser.window.JGWindow;
+import org.graalvm.polyglot.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link GraalContext#eval(String, String)} of a small and a large script, <br>
+ * which get looked up in the browsers' source cache and are already parsed after the warmup. <br>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = "-Dpolyglot.engine.WarnInterpreterOnly=false")
+@State(Scope.Benchmark)
+public class EvalBenchmark {
+    @Param({"small", "large"})
+    public String size;
+    private JGBrowser browser;
+    private JGWindow window;
+    private GraalContext context;
+    private String code;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        browser = new JGBrowser();
+        window = browser.openWindow();
+        context = window.getJavaScriptContext();
+        code = size.equals("small") ? "var result = 6 * 7;" : createLargeScript(2000);
+    }
+
+    /**
+     * Returns a script of about 100 bytes per function, that defines the provided amount of functions and calls a few of them.
+     */
+    static String createLargeScript(int functions) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < functions; i++) {
+            sb.append("function f").append(i).append("(a, b) { var x = a * ").append(i)
+                    .append("; if (x > b) { return x - b; } return [a, b, x].join('-'); }\n");
+        }
+        sb.append("var result = f1(2, 3) + f").append(functions - 1).append("(4, 5);");
+        return sb.toString();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        window.close();
+        browser.close();
+    }
+
+    @Benchmark
+    public Value eval() {
+        return context.eval(code, "benchmark-" + size + ".js");
+    }
+}
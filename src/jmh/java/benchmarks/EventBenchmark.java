@@ -0,0 +1,92 @@
+package benchmarks;
+
+import com.osiris.jgbrowser.JGBrowser;
+import com.osiris.jgbrowser.js.apis.dom.JS_API_Document;
+import com.osiris.jgbrowser.js.apis.dom.JS_EventInit;
+import com.osiris.jgbrowser.window.JGWindow;
+import org.graalvm.polyglot.Value;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures event dispatch through a deep tree, from Java (pooled events) and from JavaScript. <br>
+ * Run with "-prof gc" to see the bytes allocated per dispatched event. <br>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-Dpolyglot.engine.WarnInterpreterOnly=false")
+@State(Scope.Benchmark)
+public class EventBenchmark {
+    private static final int BATCH = 1000;
+    @Param({"500"})
+    public int depth;
+    private JGBrowser browser;
+    private JGWindow window;
+    private JS_API_Document jsDocument;
+    private Element target;
+    private final JS_EventInit init = new JS_EventInit(true, true);
+    private Value dispatchBatch;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Document document = Jsoup.parse("<html><head></head><body></body></html>");
+        Element leaf = document.body();
+        for (int i = 0; i < depth; i++) {
+            leaf = leaf.appendElement("div").id("d" + i);
+        }
+        target = leaf;
+
+        browser = new JGBrowser();
+        window = browser.openWindow();
+        jsDocument = window.getJavaScriptContext().getDocument();
+        jsDocument.setDocument(document);
+        // Listeners at the top, the middle and the target, like event delegation does
+        window.executeJS("var count = 0;" +
+                "document.addEventListener('click', e => count++, true);" +
+                "document.getElementById('d" + depth / 2 + "').addEventListener('click', e => count++);" +
+                "document.getElementById('d" + (depth - 1) + "').addEventListener('click', e => count++);");
+        dispatchBatch = window.getJavaScriptContext().eval("(n) => { var t = document.getElementById('d" + (depth - 1) + "');" +
+                "for (var i = 0; i < n; i++) t.dispatchEvent(new Event('click', {bubbles: true})); }", "benchmark-dispatch.js");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        window.close();
+        browser.close();
+    }
+
+    @Benchmark
+    public boolean javaFireEvent() {
+        return jsDocument.fireEvent(target, "click", init);
+    }
+
+    @Benchmark
+    public boolean javaFireEventWithoutListeners() {
+        return jsDocument.fireEvent(target, "scroll", init);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void jsDispatchEvent() {
+        dispatchBatch.execute(BATCH);
+    }
+}
@@ -0,0 +1,89 @@
+package benchmarks;
+
+import com.osiris.jgbrowser.network.ResourceType;
+import com.osiris.jgbrowser.network.filter.FilterRule;
+import com.osiris.jgbrowser.network.filter.RequestFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long checking a single url against a large, EasyList sized {@link RequestFilter} takes, <br>
+ * and how long compiling the rules takes. The rules and urls are synthetic, but have the same shape as real ones: <br>
+ * mostly host rules (||ads.example.com^), path rules (/banner/*.js), a few with options and exceptions. <br>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2)
+@State(Scope.Benchmark)
+public class FilterBenchmark {
+    private static final int URLS = 256;
+    @Param({"50000"})
+    public int rules;
+    private List<String> lines;
+    private RequestFilter filter;
+    private String[] urls;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(42);
+        lines = new ArrayList<>(rules);
+        for (int i = 0; i < rules; i++) {
+            int kind = random.nextInt(100);
+            if (kind < 55) lines.add("||ads" + i + ".tracker" + (i % 97) + ".com^");
+            else if (kind < 70) lines.add("||cdn" + (i % 500) + ".example.net/ad" + i + "/");
+            else if (kind < 85) lines.add("/banner" + i + "/*.js");
+            else if (kind < 90) lines.add("&utm_ad" + i + "=");
+            else if (kind < 95) lines.add("/pixel" + i + ".gif$third-party");
+            else lines.add("@@||ads" + (i - 1) + ".tracker" + ((i - 1) % 97) + ".com/allowed.js");
+        }
+        filter = RequestFilter.of(lines);
+        urls = new String[URLS];
+        for (int i = 0; i < URLS; i++) {
+            int n = random.nextInt(rules);
+            switch (i % 8) {
+                case 0:
+                    urls[i] = "https://ads" + n + ".tracker" + (n % 97) + ".com/script.js?v=" + i;
+                    break;
+                case 1:
+                    urls[i] = "https://static.example.com/banner" + n + "/main.min.js";
+                    break;
+                default: // Most requests are not blocked
+                    urls[i] = "https://www.site" + i + ".org/assets/js/app." + Integer.toHexString(n) + ".js?page=" + i + "&lang=en";
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(URLS)
+    public void match(Blackhole blackhole) {
+        for (String url : urls) {
+            FilterRule rule = filter.match(url, ResourceType.SCRIPT, "https://www.news.example/");
+            blackhole.consume(rule);
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public RequestFilter compile() {
+        return RequestFilter.of(lines);
+    }
+}
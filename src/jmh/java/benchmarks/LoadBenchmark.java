@@ -0,0 +1,92 @@
+package benchmarks;
+
+import com.osiris.jgbrowser.JGBrowser;
+import com.osiris.jgbrowser.network.InMemoryResourceLoader;
+import com.osiris.jgbrowser.window.JGWindow;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a full {@link JGWindow#load(String)} of a page with inline and external scripts, <br>
+ * served from memory, thus without network. Either into the same window again and again, <br>
+ * or into a new window every time (which includes taking a context from the pool). <br>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = "-Dpolyglot.engine.WarnInterpreterOnly=false")
+@State(Scope.Benchmark)
+public class LoadBenchmark {
+    static final String URL = "https://example.com/";
+    @Param({"reused", "new"})
+    public String window;
+    private JGBrowser browser;
+    private InMemoryResourceLoader loader;
+    private JGWindow reusedWindow;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        loader = createFixture(500, 4);
+        browser = new JGBrowser();
+        browser.getContextPool().setMinSize(2);
+        reusedWindow = openWindow();
+    }
+
+    /**
+     * Returns a loader serving a page at {@link #URL} with the provided amount of elements and external scripts.
+     */
+    static InMemoryResourceLoader createFixture(int elements, int scripts) {
+        InMemoryResourceLoader loader = new InMemoryResourceLoader();
+        StringBuilder html = new StringBuilder("<!DOCTYPE html><html><head><title>Fixture</title>");
+        for (int i = 0; i < scripts; i++) {
+            html.append("<script src='/js/").append(i).append(".js'></script>");
+            loader.put(URL + "js/" + i + ".js", "text/javascript",
+                    "var module" + i + " = (function () { var items = [];" +
+                            " for (var i = 0; i < 100; i++) items.push({id: i, name: 'item' + i});" +
+                            " return {count: items.length, find: function (id) { return items[id]; }}; })();");
+        }
+        html.append("<script>var ready = module0.count + module").append(scripts - 1).append(".count;</script>");
+        html.append("</head><body><ul id='list'>");
+        for (int i = 0; i < elements; i++) {
+            html.append("<li class='item c").append(i % 10).append("' id='i").append(i).append("'><a href='/p/")
+                    .append(i).append("'>Item ").append(i).append("</a></li>");
+        }
+        html.append("</ul><script>var links = document.querySelectorAll('li.c3 > a').length;</script></body></html>");
+        loader.put(URL, "text/html", html.toString());
+        return loader;
+    }
+
+    private JGWindow openWindow() {
+        return browser.openCustomWindow().resourceLoader(loader).httpCacheSize(0).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        reusedWindow.close();
+        browser.close();
+    }
+
+    @Benchmark
+    public JGWindow load() throws Exception {
+        if (window.equals("reused"))
+            return reusedWindow.load(URL);
+        try (JGWindow w = openWindow()) {
+            return w.load(URL);
+        }
+    }
+}
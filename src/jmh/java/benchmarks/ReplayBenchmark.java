@@ -0,0 +1,70 @@
+package benchmarks;
+
+import com.osiris.jgbrowser.JGBrowser;
+import com.osiris.jgbrowser.network.InMemoryResourceLoader;
+import com.osiris.jgbrowser.utils.Utils;
+import com.osiris.jgbrowser.window.JGWindow;
+import com.osiris.jgbrowser.window.JGWindowBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a full {@link JGWindow#load(String)} of the {@link LoadBenchmark} page, <br>
+ * served either from memory, or replayed from an archive recorded beforehand (see {@link JGWindowBuilder#replayArchive}). <br>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = "-Dpolyglot.engine.WarnInterpreterOnly=false")
+@State(Scope.Benchmark)
+public class ReplayBenchmark {
+    @Param({"memory", "replay"})
+    public String source;
+    private File userDataDir;
+    private JGBrowser browser;
+    private JGWindow window;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        InMemoryResourceLoader loader = LoadBenchmark.createFixture(500, 4);
+        userDataDir = Files.createTempDirectory("jgbrowser-replay").toFile();
+        try (JGBrowser recorder = new JGBrowser();
+             JGWindow w = recorder.openCustomWindow().userDataDir(userDataDir).resourceLoader(loader).httpCacheSize(0)
+                     .recordArchive("fixture").build()) {
+            w.load(LoadBenchmark.URL);
+        }
+        browser = new JGBrowser();
+        JGWindowBuilder builder = browser.openCustomWindow().userDataDir(userDataDir).httpCacheSize(0);
+        if (source.equals("replay")) builder.replayArchive("fixture");
+        else builder.resourceLoader(loader);
+        window = builder.build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        window.close();
+        browser.close();
+        new Utils().deleteRecursively(userDataDir);
+    }
+
+    @Benchmark
+    public JGWindow load() throws Exception {
+        return window.load(LoadBenchmark.URL);
+    }
+}
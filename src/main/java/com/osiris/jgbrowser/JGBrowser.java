@@ -1,19 +1,84 @@
 package com.osiris.jgbrowser;
 
+import com.osiris.jgbrowser.crawl.Crawl;
+import com.osiris.jgbrowser.crawl.CrawlOptions;
+import com.osiris.jgbrowser.crawl.WindowFunction;
+import com.osiris.jgbrowser.exceptions.DuplicateFoundException;
 import com.osiris.jgbrowser.exceptions.JavaScriptException;
+import com.osiris.jgbrowser.js.apis.JS_APIProvider;
+import com.osiris.jgbrowser.js.apis.JS_APIRegistry;
+import com.osiris.jgbrowser.js.apis.console.JS_API_Console;
+import com.osiris.jgbrowser.js.context.GraalContextPool;
+import com.osiris.jgbrowser.js.context.JSWatchdog;
+import com.osiris.jgbrowser.js.context.SourceCache;
+import com.osiris.jgbrowser.js.context.WebApiBootstrap;
+import com.osiris.jgbrowser.metrics.LoadMetrics;
+import com.osiris.jgbrowser.network.FetchScheduler;
+import com.osiris.jgbrowser.network.HttpCache;
+import com.osiris.jgbrowser.network.HttpResourceLoader;
+import com.osiris.jgbrowser.network.archive.ArchiveWriter;
+import com.osiris.jgbrowser.network.archive.ResourceArchive;
 import com.osiris.jgbrowser.window.JGWindow;
 import com.osiris.jgbrowser.window.JGWindowBuilder;
+import org.graalvm.polyglot.Engine;
+import org.jsoup.nodes.Document;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * Headless-Browser.
+ * Headless-Browser. <br>
+ * Owns resources that are shared between all its windows, like the JavaScript {@link Engine}. <br>
+ * Remember to {@link #close()} the browser once you are done with it. <br>
  *
  * @author Osiris-Team
  */
-public class JGBrowser {
+public class JGBrowser implements AutoCloseable {
+    private static final AtomicInteger BROWSER_COUNT = new AtomicInteger();
+    private final String name = "browser-" + BROWSER_COUNT.incrementAndGet();
     private File mainDirectory = new File(System.getProperty("user.dir")+"/headless-browser");
+    private Engine engine;
+    private final SourceCache sourceCache = new SourceCache();
+    private final JS_APIRegistry apiRegistry = new JS_APIRegistry(JS_APIRegistry.getDefault());
+    /**
+     * Built from the {@link #apiRegistry} on first use, null if it changed since.
+     */
+    private WebApiBootstrap apiBootstrap;
+    private final GraalContextPool contextPool = new GraalContextPool(this);
+    private final FetchScheduler fetchScheduler = new FetchScheduler(32, 6);
+    private final Map<String, HttpCache> httpCaches = new HashMap<>();
+    /**
+     * Open archives for recording and replaying, by canonical path, guarded by {@link #archiveWriters}.
+     */
+    private final Map<String, ArchiveWriter> archiveWriters = new HashMap<>();
+    private final Map<String, ResourceArchive> resourceArchives = new HashMap<>();
+    private final HttpResourceLoader defaultResourceLoader = new HttpResourceLoader();
+    private final JSWatchdog jsWatchdog = new JSWatchdog();
+    private final ExecutorService consoleDrainer = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "JGBrowser-Console-" + name);
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ThreadPoolExecutor windowExecutor = newWindowExecutor(Math.max(4, 2 * Runtime.getRuntime().availableProcessors()));
+    private final LoadMetrics loadMetrics = new LoadMetrics();
+    private boolean closed;
+
+    public JGBrowser() {
+        try {
+            loadMetrics.registerMBeans(name);
+        } catch (Exception e) { // For example if JMX isn't available, the metrics are still readable via Java
+            System.err.println("Failed to register JMX beans of '" + name + "'. Details:");
+            e.printStackTrace();
+        }
+    }
 
     /**
      * Creates and returns a new window, built with defaults. <br>
@@ -34,6 +99,36 @@ public class JGBrowser {
         return openWindow().load(url);
     }
 
+    /**
+     * Loads all provided urls in parallel and returns their documents, in the order they finished loading. <br>
+     * See {@link #loadAll(Iterable, CrawlOptions, WindowFunction)} for details. <br>
+     */
+    public Crawl<Document> loadAll(Iterable<String> urls, CrawlOptions options) {
+        return loadAll(urls, options, JGWindow::getDocument);
+    }
+
+    /**
+     * Loads all provided urls in parallel, each into its own window, and returns the values extracted <br>
+     * by the provided function, in the order the pages finished loading. <br>
+     * At most {@link CrawlOptions#maxConcurrency} pages get loaded at the same time, <br>
+     * and at most {@link CrawlOptions#maxConcurrencyPerHost} from the same host. <br>
+     * The urls get taken lazily from the provided {@link Iterable}, thus it can also be huge or endless. <br>
+     * Example:
+     * <pre>
+     * try(Crawl&lt;String&gt; crawl = browser.loadAll(urls, new CrawlOptions(), w -&gt; w.getDocument().title())){
+     *     while (crawl.hasNext()) {
+     *         CrawlResult&lt;String&gt; result = crawl.next();
+     *         // Do stuff here...
+     *     }
+     * }
+     * </pre>
+     *
+     * @param function gets called with the loaded window, before it gets closed.
+     */
+    public <T> Crawl<T> loadAll(Iterable<String> urls, CrawlOptions options, WindowFunction<T> function) {
+        return Crawl.start(this, urls, options, function);
+    }
+
     /**
      * Returns the {@link JGWindowBuilder} to build custom window.
      */
@@ -54,6 +149,247 @@ public class JGBrowser {
         window.close();
     }
 
+    /**
+     * Returns the polyglot {@link Engine} shared by all windows of this browser, <br>
+     * except the ones built with {@link JGWindowBuilder#isolatedEngine}. <br>
+     * Contexts attached to the same engine share its code cache, which means that <br>
+     * the same JavaScript code doesn't get parsed and compiled again in every new window. <br>
+     * The engine gets created on first access and closed together with this browser. <br>
+     *
+     * @throws IllegalStateException if this browser was already closed.
+     */
+    public synchronized Engine getEngine() {
+        if (closed)
+            throw new IllegalStateException("Cannot access the engine of an already closed browser!");
+        if (engine == null)
+            engine = Engine.newBuilder().build();
+        return engine;
+    }
+
+    /**
+     * Returns the pool of pre-initialized JavaScript contexts, <br>
+     * from which all windows attached to the shared {@link #getEngine()} get their context. <br>
+     * Use it to configure the pools' size, or to read its hit/miss counters. <br>
+     */
+    public GraalContextPool getContextPool() {
+        return contextPool;
+    }
+
+    /**
+     * Returns the cache of JavaScript sources, shared by all windows of this browser. <br>
+     * Use it to configure the caches' size, or to read its hit rate and memory footprint. <br>
+     */
+    public SourceCache getSourceCache() {
+        return sourceCache;
+    }
+
+    /**
+     * Returns the bootstrap, which installs the Web-APIs of this browser into every new JavaScript context. <br>
+     * Built once and re-used by all contexts, until another Web-API gets registered via {@link #registerApi(JS_APIProvider)}. <br>
+     */
+    public synchronized WebApiBootstrap getApiBootstrap() {
+        if (apiBootstrap == null)
+            apiBootstrap = new WebApiBootstrap(apiRegistry);
+        return apiBootstrap;
+    }
+
+    /**
+     * Adds the provided Web-API to all JavaScript contexts created from now on. <br>
+     * Rebuilds the {@link #getApiBootstrap()}, and idle contexts of the {@link #getContextPool()} don't get re-used anymore. <br>
+     * For Web-APIs that every browser should have, see {@link JS_APIRegistry#getDefault()} instead. <br>
+     *
+     * @throws DuplicateFoundException  if the name or a global of the provided API is already taken.
+     * @throws IllegalArgumentException if one of its dependencies isn't registered.
+     */
+    public synchronized JGBrowser registerApi(JS_APIProvider provider) throws DuplicateFoundException {
+        apiRegistry.add(provider);
+        apiBootstrap = null;
+        return this;
+    }
+
+    /**
+     * Returns the scheduler that runs the downloads of all windows of this browser. <br>
+     * Runs at most 32 downloads in parallel and at most 6 per host by default. <br>
+     */
+    public FetchScheduler getFetchScheduler() {
+        return fetchScheduler;
+    }
+
+    /**
+     * Returns the loader used by all windows, that were not built with a custom {@link JGWindowBuilder#resourceLoader}. <br>
+     * Use it to configure timeouts for example. <br>
+     */
+    public HttpResourceLoader getDefaultResourceLoader() {
+        return defaultResourceLoader;
+    }
+
+    /**
+     * Returns the watchdog that cancels JavaScript code running longer than the windows' jsTimeout <br>
+     * (see {@link JGWindowBuilder#jsTimeout}). Use it to read how many evaluations were killed and why. <br>
+     */
+    public JSWatchdog getJSWatchdog() {
+        return jsWatchdog;
+    }
+
+    /**
+     * Returns the thread that delivers the console messages of all windows of this browser <br>
+     * to their output streams and listeners (see {@link JS_API_Console#setDrainer}). <br>
+     */
+    public ExecutorService getConsoleDrainer() {
+        return consoleDrainer;
+    }
+
+    /**
+     * Returns the time spent in the single phases of all page loads of this browser, like fetching, parsing <br>
+     * and executing scripts, as histograms. Also available via JMX as com.osiris.jgbrowser:type=LoadMetrics,browser={@link #getName()}. <br>
+     */
+    public LoadMetrics getLoadMetrics() {
+        return loadMetrics;
+    }
+
+    /**
+     * Returns the unique name of this browser, for example "browser-1".
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the threads that run the asynchronous tasks of all windows of this browser, <br>
+     * like {@link JGWindow#loadAsync(String)}. Each window runs its tasks one after another, <br>
+     * thus a few threads can drive many windows. <br>
+     * Uses at most 2 threads per CPU core (but at least 4) by default. <br>
+     */
+    public ExecutorService getWindowExecutor() {
+        return windowExecutor;
+    }
+
+    /**
+     * Sets the maximum amount of threads of the {@link #getWindowExecutor()}.
+     */
+    public JGBrowser setWindowThreads(int threads) {
+        if (threads < 1) throw new IllegalArgumentException("threads must be >= 1");
+        if (threads > windowExecutor.getMaximumPoolSize()) {
+            windowExecutor.setMaximumPoolSize(threads);
+            windowExecutor.setCorePoolSize(threads);
+        } else {
+            windowExecutor.setCorePoolSize(threads);
+            windowExecutor.setMaximumPoolSize(threads);
+        }
+        return this;
+    }
+
+    private static ThreadPoolExecutor newWindowExecutor(int threads) {
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+            Thread thread = new Thread(r, "JGBrowser-Window-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Returns the {@link HttpCache} stored in the provided directory, which is shared by all windows using that directory. <br>
+     * If the cache isn't open yet, it gets opened with the provided maximum size. <br>
+     */
+    public HttpCache getHttpCache(File directory, long maxBytes) throws IOException {
+        String key = directory.getCanonicalPath();
+        synchronized (httpCaches) {
+            HttpCache cache = httpCaches.get(key);
+            if (cache == null) {
+                cache = new HttpCache(directory, maxBytes);
+                httpCaches.put(key, cache);
+            }
+            return cache;
+        }
+    }
+
+    /**
+     * Returns the writer for the archive in the provided file, which is shared by all windows recording into that file <br>
+     * (see {@link JGWindowBuilder#recordArchive}). If it isn't open yet, it gets opened, continuing an existing archive. <br>
+     * The archive gets completed once the browser is closed, or when it gets replayed via {@link #getResourceArchive(File)}. <br>
+     *
+     * @throws IllegalStateException if the archive is being replayed by this browser.
+     */
+    public ArchiveWriter getArchiveWriter(File file) throws IOException {
+        String key = file.getCanonicalPath();
+        synchronized (archiveWriters) {
+            if (resourceArchives.containsKey(key))
+                throw new IllegalStateException("Can't record into archive '" + file + "', since it is being replayed.");
+            ArchiveWriter writer = archiveWriters.get(key);
+            if (writer == null) {
+                writer = new ArchiveWriter(file);
+                archiveWriters.put(key, writer);
+            }
+            return writer;
+        }
+    }
+
+    /**
+     * Returns the archive in the provided file, which is shared by all windows replaying it (see {@link JGWindowBuilder#replayArchive}). <br>
+     * If it isn't open yet, it gets opened and memory-mapped. If this browser is still recording into it, the recording gets completed first. <br>
+     */
+    public ResourceArchive getResourceArchive(File file) throws IOException {
+        String key = file.getCanonicalPath();
+        synchronized (archiveWriters) {
+            ResourceArchive archive = resourceArchives.get(key);
+            if (archive == null) {
+                ArchiveWriter writer = archiveWriters.remove(key);
+                if (writer != null) writer.close();
+                archive = ResourceArchive.open(file);
+                resourceArchives.put(key, archive);
+            }
+            return archive;
+        }
+    }
+
+    /**
+     * Closes this browser, its {@link #getContextPool()}, {@link #getFetchScheduler()}, {@link #getWindowExecutor()}, <br>
+     * {@link #getConsoleDrainer()} and its shared {@link Engine}. <br>
+     * Windows that are still open and attached to the shared engine get closed too, <br>
+     * and JavaScript code that is still running inside them gets cancelled. <br>
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) return;
+        closed = true;
+        contextPool.close();
+        sourceCache.clear();
+        fetchScheduler.close();
+        windowExecutor.shutdown();
+        consoleDrainer.shutdown(); // Messages written after this get delivered by the writing thread
+        jsWatchdog.close();
+        loadMetrics.unregisterMBeans();
+        synchronized (httpCaches) {
+            for (HttpCache cache : httpCaches.values()) {
+                cache.close();
+            }
+            httpCaches.clear();
+        }
+        synchronized (archiveWriters) {
+            for (ArchiveWriter writer : archiveWriters.values()) {
+                try {
+                    writer.close();
+                } catch (IOException e) {
+                    System.err.println("Failed to complete archive '" + writer.getFile() + "': " + e.getMessage());
+                }
+            }
+            archiveWriters.clear();
+            resourceArchives.clear();
+        }
+        if (engine != null) {
+            engine.close(true);
+            engine = null;
+        }
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
     public File getMainDirectory() {
         return mainDirectory;
     }
@@ -0,0 +1,341 @@
+package com.osiris.jgbrowser.crawl;
+
+import com.osiris.jgbrowser.JGBrowser;
+import com.osiris.jgbrowser.js.context.GraalContextPool;
+import com.osiris.jgbrowser.window.JGWindow;
+import com.osiris.jgbrowser.window.JGWindowBuilder;
+
+import java.net.URL;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Loads many urls in parallel and returns their results in the order they finished. <br>
+ * Created by {@link JGBrowser#loadAll(Iterable, CrawlOptions, WindowFunction)}. <br>
+ * The input gets consumed lazily by a background thread, and only if there are less than <br>
+ * {@link CrawlOptions#maxPending} urls loading or waiting to be consumed. <br>
+ * Each url gets loaded into its own window, which is closed right after the {@link WindowFunction} ran, <br>
+ * so that its JavaScript context can go back into the browsers' pool. <br>
+ * Remember to {@link #close()} the crawl if you stop iterating early. <br>
+ *
+ * @author Osiris-Team
+ */
+public class Crawl<T> implements Iterator<CrawlResult<T>>, AutoCloseable {
+    private static final AtomicInteger crawlCount = new AtomicInteger();
+    /**
+     * Added to the results once all urls were loaded.
+     */
+    private static final CrawlResult<?> END = new CrawlResult<>(null, null, null, 0);
+
+    private final Iterator<String> input;
+    private final WindowFunction<T> function;
+    private final JGWindowBuilder windowBuilder;
+    private final int maxConcurrency;
+    private final int maxConcurrencyPerHost;
+    private final Semaphore pendingPermits;
+    private final BlockingQueue<CrawlResult<?>> results;
+    private final ExecutorService workers;
+    private final Thread dispatcher;
+    /**
+     * The pool whose min size got raised for this crawl, or null if it wasn't or was restored already.
+     */
+    private GraalContextPool prewarmedPool;
+    private int previousMinSize;
+    /**
+     * Hosts with urls waiting for a free slot, in the order they get served. <br>
+     * A host goes to the back after one of its urls was started, which makes sure <br>
+     * that a host with many urls doesn't starve the other hosts. <br>
+     */
+    private final ArrayDeque<String> waitingHosts = new ArrayDeque<>();
+    private final Map<String, Host> hosts = new HashMap<>();
+    private int running;
+    private long submitted;
+    private long completed;
+    private boolean inputDone;
+    private volatile boolean closed;
+    private CrawlResult<?> next;
+
+    private Crawl(JGBrowser browser, Iterable<String> urls, CrawlOptions options, WindowFunction<T> function) {
+        if (options.maxConcurrency < 1 || options.maxConcurrencyPerHost < 1)
+            throw new IllegalArgumentException("maxConcurrency and maxConcurrencyPerHost must be >= 1");
+        this.input = urls.iterator();
+        this.function = function;
+        this.maxConcurrency = options.maxConcurrency;
+        this.maxConcurrencyPerHost = options.maxConcurrencyPerHost;
+        int maxPending = options.maxPending > 0 ? options.maxPending : 4 * maxConcurrency;
+        if (maxPending < maxConcurrency)
+            throw new IllegalArgumentException("maxPending must be >= maxConcurrency");
+        this.pendingPermits = new Semaphore(maxPending);
+        // +1 for END, so that adding it never blocks
+        this.results = new ArrayBlockingQueue<>(maxPending + 1);
+        this.windowBuilder = browser.openCustomWindow();
+        if (options.windowConfigurator != null)
+            options.windowConfigurator.accept(windowBuilder);
+        if (options.prewarmContexts && !windowBuilder.isolatedEngine
+                && browser.getContextPool().getMinSize() < maxConcurrency) {
+            prewarmedPool = browser.getContextPool();
+            previousMinSize = prewarmedPool.getMinSize();
+            prewarmedPool.setMinSize(maxConcurrency);
+        }
+
+        int id = crawlCount.incrementAndGet();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(maxConcurrency, maxConcurrency, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+            Thread thread = new Thread(r, "JGBrowser-Crawl-" + id + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.dispatcher = new Thread(this::dispatch, "JGBrowser-Crawl-" + id + "-Dispatcher");
+        this.dispatcher.setDaemon(true);
+    }
+
+    /**
+     * Creates and starts a new crawl. Use {@link JGBrowser#loadAll(Iterable, CrawlOptions, WindowFunction)} instead.
+     */
+    public static <T> Crawl<T> start(JGBrowser browser, Iterable<String> urls, CrawlOptions options, WindowFunction<T> function) {
+        Crawl<T> crawl = new Crawl<>(browser, urls, options, function);
+        crawl.dispatcher.start();
+        return crawl;
+    }
+
+    /**
+     * Takes urls from the input, as long as there are permits left.
+     */
+    private void dispatch() {
+        try {
+            while (!closed) {
+                pendingPermits.acquire();
+                String url;
+                try {
+                    if (!input.hasNext()) {
+                        pendingPermits.release();
+                        break;
+                    }
+                    url = input.next();
+                } catch (Exception e) {
+                    // Input failed, report it like a failed url and stop
+                    synchronized (this) {
+                        submitted++;
+                    }
+                    finish(null, new CrawlResult<>(null, null, e, 0));
+                    break;
+                }
+                schedule(url);
+            }
+        } catch (InterruptedException ignored) {
+        } finally {
+            synchronized (this) {
+                inputDone = true;
+                endIfDone();
+            }
+        }
+    }
+
+    private synchronized void schedule(String url) {
+        submitted++;
+        String hostName = hostOf(url);
+        Host host = hosts.get(hostName);
+        if (host == null) {
+            host = new Host();
+            hosts.put(hostName, host);
+        }
+        host.waiting.add(url);
+        if (host.waiting.size() == 1)
+            waitingHosts.add(hostName);
+        startWaiting();
+    }
+
+    /**
+     * Starts waiting urls, round-robin across hosts, until the global limit is reached <br>
+     * or all hosts with waiting urls reached their limit.
+     */
+    private void startWaiting() {
+        if (closed) return;
+        int checked = 0;
+        while (running < maxConcurrency && checked < waitingHosts.size()) {
+            String hostName = waitingHosts.poll();
+            Host host = hosts.get(hostName);
+            if (host.running >= maxConcurrencyPerHost) {
+                waitingHosts.add(hostName);
+                checked++;
+                continue;
+            }
+            String url = host.waiting.poll();
+            if (!host.waiting.isEmpty())
+                waitingHosts.add(hostName);
+            host.running++;
+            running++;
+            checked = 0;
+            workers.execute(() -> run(hostName, url));
+        }
+    }
+
+    private void run(String hostName, String url) {
+        long start = System.nanoTime();
+        CrawlResult<T> result;
+        if (closed) {
+            result = new CrawlResult<>(url, null, new IllegalStateException("Crawl was closed."), 0);
+        } else {
+            try (JGWindow window = windowBuilder.build()) {
+                window.load(url);
+                result = new CrawlResult<>(url, function.apply(window), null, System.nanoTime() - start);
+            } catch (Exception e) {
+                result = new CrawlResult<>(url, null, e, System.nanoTime() - start);
+            }
+        }
+        finish(hostName, result);
+    }
+
+    private void finish(String hostName, CrawlResult<?> result) {
+        synchronized (this) {
+            if (hostName != null) {
+                Host host = hosts.get(hostName);
+                host.running--;
+                running--;
+                if (host.running == 0 && host.waiting.isEmpty())
+                    hosts.remove(hostName);
+                startWaiting();
+            }
+        }
+        // Never full, since there can't be more results than pending permits.
+        // The permit gets released once the consumer took the result (see next()),
+        // thus a slow consumer stops the dispatcher from taking more urls.
+        if (!closed) results.offer(result);
+        synchronized (this) {
+            completed++;
+            endIfDone();
+        }
+    }
+
+    private void endIfDone() {
+        if (inputDone && completed == submitted && !closed)
+            results.offer(END);
+    }
+
+    private static String hostOf(String url) {
+        try {
+            if (!url.startsWith("http"))
+                url = "https://" + url;
+            return new URL(url).getAuthority();
+        } catch (Exception e) {
+            return "";
+        }
+    }
+
+    /**
+     * Blocks until the next result is available, or all urls were loaded.
+     */
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            if (closed) return false;
+            try {
+                next = results.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the next result.", e);
+            }
+        }
+        if (next == END) {
+            restoreMinSize();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Sets the min size of the context pool back to what it was before this crawl, <br>
+     * unless it was changed by someone else in the meantime. <br>
+     */
+    private synchronized void restoreMinSize() {
+        if (prewarmedPool == null) return;
+        if (prewarmedPool.getMinSize() == maxConcurrency)
+            prewarmedPool.setMinSize(previousMinSize);
+        prewarmedPool = null;
+    }
+
+    /**
+     * Blocks until the next result is available and returns it.
+     *
+     * @throws NoSuchElementException if all urls were loaded.
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public CrawlResult<T> next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        CrawlResult<T> result = (CrawlResult<T>) next;
+        next = null;
+        pendingPermits.release();
+        return result;
+    }
+
+    /**
+     * Returns a sequential stream of the results, that closes this crawl when it gets closed.
+     */
+    public Stream<CrawlResult<T>> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.NONNULL), false)
+                .onClose(this::close);
+    }
+
+    /**
+     * Stops taking urls from the input and waits for the pages that are currently loading. <br>
+     * Results that were not consumed yet get dropped. <br>
+     * Restores the min size of the context pool, if it was raised for this crawl (see {@link CrawlOptions#prewarmContexts}). <br>
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) return;
+            closed = true;
+        }
+        dispatcher.interrupt();
+        workers.shutdown();
+        try {
+            workers.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        results.clear();
+        next = null;
+        restoreMinSize();
+    }
+
+    /**
+     * Returns the amount of pages that are currently loading.
+     */
+    public synchronized int getRunningCount() {
+        return running;
+    }
+
+    /**
+     * Returns the amount of urls taken from the input so far.
+     */
+    public synchronized long getSubmittedCount() {
+        return submitted;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    private static class Host {
+        private final ArrayDeque<String> waiting = new ArrayDeque<>();
+        private int running;
+    }
+}
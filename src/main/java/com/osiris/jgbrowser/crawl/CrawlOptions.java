@@ -0,0 +1,82 @@
+package com.osiris.jgbrowser.crawl;
+
+import com.osiris.jgbrowser.JGBrowser;
+import com.osiris.jgbrowser.window.JGWindowBuilder;
+
+import java.util.function.Consumer;
+
+/**
+ * Options for {@link JGBrowser#loadAll(Iterable, CrawlOptions)}. <br>
+ * Uses public fields with chainable setters, just like the {@link JGWindowBuilder}. <br>
+ *
+ * @author Osiris-Team
+ */
+public class CrawlOptions {
+    /**
+     * Default is 8. The maximum amount of pages loaded at the same time.
+     */
+    public int maxConcurrency = 8;
+    /**
+     * Default is 2. The maximum amount of pages from the same host loaded at the same time. <br>
+     * If a host has reached its limit, pages from other hosts get loaded first. <br>
+     */
+    public int maxConcurrencyPerHost = 2;
+    /**
+     * Default is 0, which means 4 * {@link #maxConcurrency}. <br>
+     * The maximum amount of urls taken from the input, that are loading, waiting for their host, <br>
+     * or waiting to be consumed as result. Once reached, no more urls are taken from the input, <br>
+     * until results got consumed. This makes sure that huge inputs never end up in memory as open windows. <br>
+     */
+    public int maxPending = 0;
+    /**
+     * Default is true. Raises the min size of the browsers' context pool (see {@link JGBrowser#getContextPool()}) <br>
+     * to at least {@link #maxConcurrency}, so that windows get a pre-initialized context. <br>
+     * The previous min size gets restored once all urls were loaded, or the crawl was closed. <br>
+     */
+    public boolean prewarmContexts = true;
+    /**
+     * Default is null. Gets called once with the {@link JGWindowBuilder} used to build all windows of the crawl, <br>
+     * to customize them, for example to disable JavaScript or set a custom resource loader. <br>
+     */
+    public Consumer<JGWindowBuilder> windowConfigurator = null;
+
+    /**
+     * For details see {@link #maxConcurrency}.
+     */
+    public CrawlOptions maxConcurrency(int val) {
+        this.maxConcurrency = val;
+        return this;
+    }
+
+    /**
+     * For details see {@link #maxConcurrencyPerHost}.
+     */
+    public CrawlOptions maxConcurrencyPerHost(int val) {
+        this.maxConcurrencyPerHost = val;
+        return this;
+    }
+
+    /**
+     * For details see {@link #maxPending}.
+     */
+    public CrawlOptions maxPending(int val) {
+        this.maxPending = val;
+        return this;
+    }
+
+    /**
+     * For details see {@link #prewarmContexts}.
+     */
+    public CrawlOptions prewarmContexts(boolean val) {
+        this.prewarmContexts = val;
+        return this;
+    }
+
+    /**
+     * For details see {@link #windowConfigurator}.
+     */
+    public CrawlOptions windowConfigurator(Consumer<JGWindowBuilder> val) {
+        this.windowConfigurator = val;
+        return this;
+    }
+}
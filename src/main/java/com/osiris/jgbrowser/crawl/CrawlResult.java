@@ -0,0 +1,58 @@
+package com.osiris.jgbrowser.crawl;
+
+/**
+ * The result of loading a single url during a {@link Crawl}. <br>
+ * Either contains the value returned by the {@link WindowFunction}, or the exception that was thrown. <br>
+ *
+ * @author Osiris-Team
+ */
+public class CrawlResult<T> {
+    private final String url;
+    private final T value;
+    private final Exception exception;
+    private final long durationNanos;
+
+    CrawlResult(String url, T value, Exception exception, long durationNanos) {
+        this.url = url;
+        this.value = value;
+        this.exception = exception;
+        this.durationNanos = durationNanos;
+    }
+
+    /**
+     * The url from the input. Null if this result represents an exception thrown by the input itself.
+     */
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * The value returned by the {@link WindowFunction}, or null if it failed.
+     */
+    public T getValue() {
+        return value;
+    }
+
+    /**
+     * The exception thrown while loading the page or running the {@link WindowFunction}, or null if it succeeded.
+     */
+    public Exception getException() {
+        return exception;
+    }
+
+    public boolean isSuccess() {
+        return exception == null;
+    }
+
+    /**
+     * The time it took to load the page and run the {@link WindowFunction}.
+     */
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    @Override
+    public String toString() {
+        return (isSuccess() ? "SUCCESS " : "FAILED ") + url + (isSuccess() ? "" : " (" + exception + ")");
+    }
+}
@@ -0,0 +1,11 @@
+package com.osiris.jgbrowser.crawl;
+
+import com.osiris.jgbrowser.window.JGWindow;
+
+/**
+ * Extracts the wanted data from a loaded {@link JGWindow}, before it gets closed. <br>
+ * Runs on a crawler thread, thus the window can be used directly. <br>
+ */
+public interface WindowFunction<T> {
+    T apply(JGWindow window) throws Exception;
+}
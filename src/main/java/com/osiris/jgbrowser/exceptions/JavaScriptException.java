@@ -1,9 +1,17 @@
 package com.osiris.jgbrowser.exceptions;
 
+import com.osiris.jgbrowser.js.context.KillReason;
+
 import java.util.List;
 
-public class JavaScriptException extends Exception {
+/**
+ * Thrown when JavaScript code was cancelled, for example because it ran longer than the windows' jsTimeout. <br>
+ * Unchecked, since it can be thrown by every method that executes JavaScript code. <br>
+ */
+public class JavaScriptException extends RuntimeException {
     private final String message;
+    private final String sourceName;
+    private final KillReason reason;
 
     public JavaScriptException(String message, List<String> errors) {
         super();
@@ -14,10 +22,38 @@ public class JavaScriptException extends Exception {
                 message = message + line + "\n";
             }
         this.message = message;
+        this.sourceName = null;
+        this.reason = null;
+    }
+
+    /**
+     * @param sourceName the name of the script that was running, for example its url.
+     * @param reason     why the script was cancelled.
+     * @param cause      the original exception thrown by the JavaScript engine.
+     */
+    public JavaScriptException(String message, String sourceName, KillReason reason, Throwable cause) {
+        super(cause);
+        this.message = message;
+        this.sourceName = sourceName;
+        this.reason = reason;
     }
 
     @Override
     public String getMessage() {
         return this.message;
     }
+
+    /**
+     * Returns the name of the script that was running, for example its url, or null if unknown.
+     */
+    public String getSourceName() {
+        return sourceName;
+    }
+
+    /**
+     * Returns why the script was cancelled, or null if unknown.
+     */
+    public KillReason getReason() {
+        return reason;
+    }
 }
@@ -0,0 +1,32 @@
+package com.osiris.jgbrowser.exceptions;
+
+import com.osiris.jgbrowser.network.ResourceRequest;
+import com.osiris.jgbrowser.network.filter.FilterRule;
+
+import java.io.IOException;
+
+/**
+ * Thrown by the {@link com.osiris.jgbrowser.network.filter.FilteringResourceLoader}, <br>
+ * when a request was blocked instead of being loaded. <br>
+ */
+public class RequestBlockedException extends IOException {
+    private final ResourceRequest request;
+    private final FilterRule rule;
+
+    public RequestBlockedException(ResourceRequest request, FilterRule rule) {
+        super("Blocked " + request + " because of the rule: " + rule);
+        this.request = request;
+        this.rule = rule;
+    }
+
+    public ResourceRequest getRequest() {
+        return request;
+    }
+
+    /**
+     * Returns the rule that blocked the request.
+     */
+    public FilterRule getRule() {
+        return rule;
+    }
+}
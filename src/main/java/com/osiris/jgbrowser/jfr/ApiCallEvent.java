@@ -0,0 +1,58 @@
+package com.osiris.jgbrowser.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * A call from JavaScript into a Web-API, that can take long, like a DOM query, <br>
+ * setting innerHTML, dispatching an event or formatting a console message. <br>
+ * Only calls taking at least 1 ms are recorded by default, change the threshold to see all. <br>
+ * Only create it if {@link JFR#AVAILABLE}. <br>
+ */
+@Name("com.osiris.jgbrowser.ApiCall")
+@Label("Web-API Call")
+@Category({"JG-Browser", "JavaScript"})
+@Description("Call from JavaScript into a Web-API implemented in Java")
+@Threshold("1 ms")
+@StackTrace(false)
+public class ApiCallEvent extends Event {
+    static final int MAX_ARGUMENT_LENGTH = 256;
+    @Label("API")
+    @Description("The interface the method belongs to, for example Element")
+    public String api;
+    @Label("Method")
+    public String method;
+    @Label("Argument")
+    @Description("The first argument, for example the selector")
+    public String argument;
+
+    /**
+     * Returns a new, already started event.
+     */
+    public static ApiCallEvent start() {
+        ApiCallEvent event = new ApiCallEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Commits this event, if it is recorded. <br>
+     * The argument is only converted to a string in that case, and cut after 256 characters. <br>
+     */
+    public void end(String api, String method, Object argument) {
+        end();
+        if (!shouldCommit()) return;
+        this.api = api;
+        this.method = method;
+        if (argument != null) {
+            String string = String.valueOf(argument);
+            this.argument = string.length() > MAX_ARGUMENT_LENGTH ? string.substring(0, MAX_ARGUMENT_LENGTH) + "..." : string;
+        }
+        commit();
+    }
+}
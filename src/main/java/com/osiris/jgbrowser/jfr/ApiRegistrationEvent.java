@@ -0,0 +1,46 @@
+package com.osiris.jgbrowser.jfr;
+
+import com.osiris.jgbrowser.js.apis.JS_API;
+import com.osiris.jgbrowser.js.context.GraalContext;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Loading a {@link JS_API} into a context, see {@link GraalContext#registerAndLoad(JS_API, boolean)}. <br>
+ * Only create it if {@link JFR#AVAILABLE}. <br>
+ */
+@Name("com.osiris.jgbrowser.ApiRegistration")
+@Label("Web-API Registration")
+@Category({"JG-Browser", "JavaScript"})
+@Description("Loading of a Web-API into a JavaScript context")
+@StackTrace(false)
+public class ApiRegistrationEvent extends Event {
+    @Label("API Class")
+    public String apiClass;
+    @Label("Global Variable")
+    public String globalVarName;
+
+    /**
+     * Returns a new, already started event.
+     */
+    public static ApiRegistrationEvent start() {
+        ApiRegistrationEvent event = new ApiRegistrationEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Commits this event, if it is recorded.
+     */
+    public void end(JS_API api) {
+        end();
+        if (!shouldCommit()) return;
+        this.apiClass = api.getClass().getName();
+        this.globalVarName = api.getJSGlobalVarName();
+        commit();
+    }
+}
@@ -0,0 +1,61 @@
+package com.osiris.jgbrowser.jfr;
+
+import com.osiris.jgbrowser.network.Resource;
+import com.osiris.jgbrowser.network.ResourceType;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A document or script download of a window, from starting the request until the body was read. <br>
+ * Only create it if {@link JFR#AVAILABLE}. <br>
+ */
+@Name("com.osiris.jgbrowser.Fetch")
+@Label("Fetch")
+@Category({"JG-Browser", "Network"})
+@Description("Download of a document or script")
+@StackTrace(false)
+public class FetchEvent extends Event {
+    @Label("URL")
+    public String url;
+    @Label("Resource Type")
+    public String resourceType;
+    @Label("Status")
+    public int status;
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+    @Label("From Cache")
+    public boolean fromCache;
+
+    /**
+     * Returns a new, already started event.
+     */
+    public static FetchEvent start() {
+        FetchEvent event = new FetchEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Commits this event, if it is recorded.
+     *
+     * @param resource the fetched resource, or null if the fetch failed.
+     */
+    public void end(String url, ResourceType type, Resource resource) {
+        end();
+        if (!shouldCommit()) return;
+        this.url = url;
+        this.resourceType = type.name();
+        if (resource != null) {
+            this.status = resource.getStatus();
+            this.bytes = resource.getBytesRead();
+            this.fromCache = resource.isFromCache();
+        }
+        commit();
+    }
+}
@@ -0,0 +1,35 @@
+package com.osiris.jgbrowser.jfr;
+
+/**
+ * Java Flight Recorder support of the browser. <br>
+ * The events in this package let a recording show which fetch, script or Web-API call stalled a window. <br>
+ * They are cheap while not recorded: creating one and checking if it should be committed is all that happens. <br>
+ * Record them for example with: <br>
+ * <pre>
+ * java -XX:StartFlightRecording:filename=browser.jfr ...
+ * </pre>
+ * The events are in the "JG-Browser" category, see {@link FetchEvent}, {@link ScriptEvent}, <br>
+ * {@link ApiRegistrationEvent} and {@link ApiCallEvent}. <br>
+ * Always check {@link #AVAILABLE} before touching an event class, <br>
+ * since they can't be loaded on JVMs without Flight Recorder (for example Java 8 before update 262). <br>
+ *
+ * @author Osiris-Team
+ */
+public final class JFR {
+    /**
+     * True if the JVM has the Flight Recorder API, false if no events are created at all.
+     */
+    public static final boolean AVAILABLE = isAvailable();
+
+    private JFR() {
+    }
+
+    private static boolean isAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event", false, JFR.class.getClassLoader());
+            return true;
+        } catch (Throwable e) {
+            return false;
+        }
+    }
+}
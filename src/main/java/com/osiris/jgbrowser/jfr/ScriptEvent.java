@@ -0,0 +1,50 @@
+package com.osiris.jgbrowser.jfr;
+
+import com.osiris.jgbrowser.js.context.GraalContext;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A JavaScript evaluation or callback run by {@link GraalContext}, for example a page script or a timer. <br>
+ * Nested evaluations (from host calls) are part of the outer event. <br>
+ * Only create it if {@link JFR#AVAILABLE}. <br>
+ */
+@Name("com.osiris.jgbrowser.Script")
+@Label("JavaScript Evaluation")
+@Category({"JG-Browser", "JavaScript"})
+@Description("Evaluation of a script or callback in a JavaScript context")
+@StackTrace(false)
+public class ScriptEvent extends Event {
+    @Label("Source")
+    @Description("Name of the source or callback, usually its url")
+    public String source;
+    @Label("Window")
+    public String window;
+    @Label("Failed")
+    public boolean failed;
+
+    /**
+     * Returns a new, already started event.
+     */
+    public static ScriptEvent start() {
+        ScriptEvent event = new ScriptEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Commits this event, if it is recorded.
+     */
+    public void end(String source, Object window, boolean failed) {
+        end();
+        if (!shouldCommit()) return;
+        this.source = source;
+        this.window = window == null ? null : window.toString();
+        this.failed = failed;
+        commit();
+    }
+}
@@ -0,0 +1,58 @@
+package com.osiris.jgbrowser.js.apis;
+
+import com.osiris.jgbrowser.js.context.GraalContext;
+
+/**
+ * Creates a {@link JS_API} for a {@link GraalContext}, the first time a script uses it. <br>
+ * Every context installs a lightweight placeholder for each of the {@link #getGlobals()}, <br>
+ * which creates and loads the real API on first access. <br>
+ * Implementations listed in META-INF/services/com.osiris.jgbrowser.js.apis.JS_APIProvider <br>
+ * get discovered via {@link java.util.ServiceLoader} and are part of the {@link JS_APIRegistry#getDefault()}. <br>
+ *
+ * @author Osiris-Team
+ */
+public interface JS_APIProvider {
+
+    /**
+     * - Can NOT return null. <br>
+     * Unique name of the API, usually the {@link JS_API#getJSGlobalVarName()} of the created API. <br>
+     * Referenced by the {@link #getDependencies()} of other providers. <br>
+     */
+    String getName();
+
+    /**
+     * Global variables, that load the API once they are accessed. <br>
+     * Must contain the {@link JS_API#getJSGlobalVarName()}, unless scripts never access it directly <br>
+     * (like the timers, which are used via setTimeout etc.). <br>
+     * Default is the {@link #getName()}. <br>
+     */
+    default String[] getGlobals() {
+        return new String[]{getName()};
+    }
+
+    /**
+     * Names of the APIs, that must be loaded before this one. <br>
+     * Default is none. <br>
+     */
+    default String[] getDependencies() {
+        return new String[0];
+    }
+
+    /**
+     * - Can return null. <br>
+     * The {@link JS_API#getOptionalJSCode()} of the created API, if it is the same in every context. <br>
+     * Then it gets bundled into the browsers' {@link com.osiris.jgbrowser.js.context.WebApiBootstrap}, <br>
+     * which is parsed once, instead of getting evaluated as separate source in every context. <br>
+     * Bundled code runs inside a function, thus top-level declarations don't become global (assign to globalThis instead). <br>
+     * Default is null, which evaluates the {@link JS_API#getOptionalJSCode()} separately. <br>
+     */
+    default String getOptionalJSCode() {
+        return null;
+    }
+
+    /**
+     * Returns the API to load into the provided context. <br>
+     * Called at most once per context. <br>
+     */
+    JS_API create(GraalContext context);
+}
@@ -0,0 +1,196 @@
+package com.osiris.jgbrowser.js.apis;
+
+import com.osiris.jgbrowser.exceptions.DuplicateFoundException;
+import com.osiris.jgbrowser.js.apis.console.JS_API_Console;
+import com.osiris.jgbrowser.js.apis.dom.JS_Event_S;
+import com.osiris.jgbrowser.js.apis.dom.JS_Node_S;
+import com.osiris.jgbrowser.js.apis.performance.JS_API_Performance;
+import com.osiris.jgbrowser.js.apis.timers.JS_API_Timers;
+import com.osiris.jgbrowser.js.context.GraalContext;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.ServiceLoader;
+import java.util.function.Function;
+
+/**
+ * The {@link JS_APIProvider}s a {@link GraalContext} installs, in dependency order. <br>
+ * Every provider comes after the providers it depends on, thus loading them in iteration order always works. <br>
+ *
+ * @author Osiris-Team
+ */
+public class JS_APIRegistry {
+    private final Map<String, JS_APIProvider> providers = new LinkedHashMap<>();
+    private final Map<String, JS_APIProvider> globals = new HashMap<>();
+
+    public JS_APIRegistry() {
+    }
+
+    /**
+     * Creates a copy of the provided registry.
+     */
+    public JS_APIRegistry(JS_APIRegistry registry) {
+        providers.putAll(registry.providers);
+        globals.putAll(registry.globals);
+    }
+
+    /**
+     * Returns the registry with the built-in Web-APIs and all providers discovered via {@link ServiceLoader}. <br>
+     * Created once, on first use. Every {@link com.osiris.jgbrowser.JGBrowser} starts with a copy of it. <br>
+     *
+     * @throws IllegalStateException if a discovered provider is a duplicate or has unknown/cyclic dependencies.
+     */
+    public static JS_APIRegistry getDefault() {
+        return DefaultHolder.DEFAULT;
+    }
+
+    /**
+     * Returns a new registry, containing only the built-in Web-APIs (console, timers, performance and the DOM).
+     */
+    public static JS_APIRegistry builtIn() {
+        try {
+            return new JS_APIRegistry()
+                    .add(provider("console", GraalContext::getConsole, JS_API_Console.JS_CODE))
+                    .add(provider("__jgTimers", GraalContext::getTimers, JS_API_Timers.JS_CODE,
+                            "__jgTimers", "setTimeout", "setInterval", "clearTimeout", "clearInterval", "queueMicrotask"))
+                    .add(provider("performance", GraalContext::getPerformance, JS_API_Performance.JS_CODE))
+                    // DOM API:
+                    .add(provider("Event", JS_Event_S::new, null))
+                    .add(provider("Node", context -> new JS_Node_S(), null))
+                    .add(provider("document", GraalContext::getDocument, null));
+        } catch (DuplicateFoundException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Adds the provided provider, whose dependencies must have been added already. <br>
+     *
+     * @throws DuplicateFoundException  if a provider with the same name, or one of its globals, was already added.
+     * @throws IllegalArgumentException if one of its dependencies wasn't added yet.
+     */
+    public JS_APIRegistry add(JS_APIProvider provider) throws DuplicateFoundException {
+        String name = Objects.requireNonNull(provider.getName());
+        if (providers.containsKey(name))
+            throw new DuplicateFoundException("Duplicate Web-API name found for '" + name + "'. Names must be unique!");
+        for (String dependency : provider.getDependencies()) {
+            if (!providers.containsKey(dependency))
+                throw new IllegalArgumentException("Web-API '" + name + "' depends on '" + dependency + "', which wasn't added before it.");
+        }
+        for (String global : provider.getGlobals()) {
+            JS_APIProvider existing = globals.get(global);
+            if (existing != null)
+                throw new DuplicateFoundException("Global variable '" + global + "' of Web-API '" + name
+                        + "' is already provided by '" + existing.getName() + "'. Global variable names must be unique!");
+        }
+        providers.put(name, provider);
+        for (String global : provider.getGlobals()) {
+            globals.put(global, provider);
+        }
+        return this;
+    }
+
+    /**
+     * Adds the provided providers, in an order that satisfies their dependencies, regardless of the order in the collection. <br>
+     *
+     * @throws DuplicateFoundException  see {@link #add(JS_APIProvider)}.
+     * @throws IllegalArgumentException if a dependency is unknown or cyclic.
+     */
+    public JS_APIRegistry addAll(Collection<? extends JS_APIProvider> providers) throws DuplicateFoundException {
+        List<JS_APIProvider> remaining = new ArrayList<>(providers);
+        while (!remaining.isEmpty()) {
+            boolean added = false;
+            for (Iterator<JS_APIProvider> it = remaining.iterator(); it.hasNext(); ) {
+                JS_APIProvider provider = it.next();
+                if (!hasAll(provider.getDependencies())) continue;
+                add(provider);
+                it.remove();
+                added = true;
+            }
+            if (!added) {
+                List<String> names = new ArrayList<>();
+                for (JS_APIProvider provider : remaining) {
+                    names.add(provider.getName());
+                }
+                throw new IllegalArgumentException("Unknown or cyclic dependencies of the Web-APIs " + names + ".");
+            }
+        }
+        return this;
+    }
+
+    private boolean hasAll(String[] names) {
+        for (String name : names) {
+            if (!providers.containsKey(name)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the provider with the provided name, or null.
+     */
+    public JS_APIProvider get(String name) {
+        return providers.get(name);
+    }
+
+    /**
+     * Returns the provider, that has the provided global variable in its {@link JS_APIProvider#getGlobals()}, or null.
+     */
+    public JS_APIProvider getByGlobal(String global) {
+        return globals.get(global);
+    }
+
+    /**
+     * Returns all providers, in dependency order.
+     */
+    public Collection<JS_APIProvider> getProviders() {
+        return Collections.unmodifiableCollection(providers.values());
+    }
+
+    private static JS_APIProvider provider(String name, Function<GraalContext, JS_API> factory, String jsCode, String... globals) {
+        String[] finalGlobals = globals.length == 0 ? new String[]{name} : globals;
+        return new JS_APIProvider() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public String[] getGlobals() {
+                return finalGlobals;
+            }
+
+            @Override
+            public String getOptionalJSCode() {
+                return jsCode;
+            }
+
+            @Override
+            public JS_API create(GraalContext context) {
+                return factory.apply(context);
+            }
+        };
+    }
+
+    private static class DefaultHolder {
+        private static final JS_APIRegistry DEFAULT = load();
+
+        private static JS_APIRegistry load() {
+            List<JS_APIProvider> discovered = new ArrayList<>();
+            for (JS_APIProvider provider : ServiceLoader.load(JS_APIProvider.class, JS_APIRegistry.class.getClassLoader())) {
+                discovered.add(provider);
+            }
+            try {
+                return builtIn().addAll(discovered);
+            } catch (DuplicateFoundException | IllegalArgumentException e) {
+                throw new IllegalStateException("Failed to register the Web-APIs discovered via ServiceLoader.", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.osiris.jgbrowser.js.apis;
+
+import org.graalvm.polyglot.HostAccess;
+import org.graalvm.polyglot.Value;
+import org.graalvm.polyglot.proxy.ProxyArray;
+import org.graalvm.polyglot.proxy.ProxyExecutable;
+import org.graalvm.polyglot.proxy.ProxyObject;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Base class for Web-APIs that get called a lot, like the console. <br>
+ * Methods exported via {@link HostAccess.Export} are called via reflection, and every argument gets converted <br>
+ * into a Java object first (varargs into a new array), even if the method doesn't use it. <br>
+ * The functions of this object instead get the raw {@link Value} arguments, <br>
+ * thus they only convert what they actually need (see {@link #text(Value)}). <br>
+ * Add the functions in the constructor, via {@link #function(String, ProxyExecutable)}. <br>
+ * Scripts can't add or change members of this object. <br>
+ *
+ * @author Osiris-Team
+ */
+public abstract class JS_ProxyAPI implements JS_API, ProxyObject {
+    private final Map<String, ProxyExecutable> functions = new LinkedHashMap<>();
+    private Object[] keys = new Object[0];
+
+    /**
+     * Makes the provided function available to JavaScript under the provided name. <br>
+     * The function gets called with the arguments of the script and its return value is returned to the script. <br>
+     */
+    protected void function(String name, ProxyExecutable function) {
+        functions.put(name, function);
+        keys = functions.keySet().toArray();
+    }
+
+    /**
+     * Same as {@link #function(String, ProxyExecutable)}, for functions without return value.
+     */
+    protected void procedure(String name, Procedure procedure) {
+        function(name, args -> {
+            procedure.run(args);
+            return null;
+        });
+    }
+
+    /**
+     * Returns the provided argument as text, like String.valueOf() would, <br>
+     * but without creating a Java object for it. <br>
+     * Must be called from the thread running the script, while the call is still in progress. <br>
+     */
+    public static String text(Value value) {
+        if (value == null) return "null";
+        if (value.isString()) return value.asString();
+        return value.toString();
+    }
+
+    @Override
+    public Object getMember(String key) {
+        return functions.get(key);
+    }
+
+    @Override
+    public Object getMemberKeys() {
+        return ProxyArray.fromArray(keys);
+    }
+
+    @Override
+    public boolean hasMember(String key) {
+        return functions.containsKey(key);
+    }
+
+    @Override
+    public void putMember(String key, Value value) {
+        // Read-only
+    }
+
+    /**
+     * A function without return value.
+     */
+    @FunctionalInterface
+    public interface Procedure {
+        void run(Value... args);
+    }
+}
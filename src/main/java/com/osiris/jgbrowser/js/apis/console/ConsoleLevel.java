@@ -0,0 +1,17 @@
+package com.osiris.jgbrowser.js.apis.console;
+
+/**
+ * The levels of console messages, from least to most severe. <br>
+ *
+ * @author Osiris-Team
+ */
+public enum ConsoleLevel {
+    DEBUG, LOG, INFO, WARN, ERROR;
+
+    /**
+     * Bit of this level in masks of enabled levels.
+     */
+    final int bit = 1 << ordinal();
+
+    static final int ALL = (1 << values().length) - 1;
+}
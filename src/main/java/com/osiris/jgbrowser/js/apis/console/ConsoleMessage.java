@@ -0,0 +1,38 @@
+package com.osiris.jgbrowser.js.apis.console;
+
+/**
+ * A formatted message, written to the console by JavaScript code or the browser. <br>
+ *
+ * @author Osiris-Team
+ */
+public class ConsoleMessage {
+    private final ConsoleLevel level;
+    private final String message;
+    private final long timeMillis;
+
+    public ConsoleMessage(ConsoleLevel level, String message, long timeMillis) {
+        this.level = level;
+        this.message = message;
+        this.timeMillis = timeMillis;
+    }
+
+    public ConsoleLevel getLevel() {
+        return level;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * Returns the time the message was written at, see {@link System#currentTimeMillis()}.
+     */
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+
+    @Override
+    public String toString() {
+        return message;
+    }
+}
@@ -1,40 +1,140 @@
 package com.osiris.jgbrowser.js.apis.console;
 
-import com.osiris.jgbrowser.js.apis.JS_API;
+import com.osiris.jgbrowser.js.apis.JS_ProxyAPI;
 import com.osiris.jgbrowser.interfaces.Sendable;
-import org.graalvm.polyglot.HostAccess;
+import com.osiris.jgbrowser.jfr.ApiCallEvent;
+import com.osiris.jgbrowser.jfr.JFR;
+import com.osiris.jgbrowser.js.apis.performance.JS_API_Performance;
+import com.osiris.jgbrowser.js.apis.performance.PerformanceTimeline;
+import com.osiris.jgbrowser.utils.RingBuffer;
+import org.graalvm.polyglot.Value;
 
 import java.io.OutputStream;
 import java.io.PrintStream;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Implementation of: https://developer.mozilla.org/en-US/docs/Web/API/Console_API <br>
+ * Messages are only formatted if their level is enabled, which is the case if there are listeners for it <br>
+ * (see {@link #onLog(Sendable)} etc.), or if the output stream (see {@link #setOut(PrintStream)}) accepts it <br>
+ * (see {@link #setLevelEnabled(ConsoleLevel, boolean)}). Otherwise calls return right away. <br>
+ * Formatted messages go into a bounded lock-free {@link RingBuffer} and get delivered in batches <br>
+ * to the output stream and listeners, by a background thread (see {@link #setDrainer(Executor)}), <br>
+ * one batch at a time, thus consoles sharing a thread take turns. <br>
+ * Thus listeners are called asynchronously, call {@link #flush()} to wait for them. <br>
+ * Scripts call it via {@link JS_ProxyAPI} functions, thus the arguments of a disabled level never get converted. <br>
  *
  * @author Osiris-Team
  */
-public class JS_API_Console implements JS_API {
-
-    private final PrintStream out;
-    private final List<Sendable> onLog = new ArrayList<>();
-
-
-    // Only accessible from Java:
-    private final List<Sendable> onInfo = new ArrayList<>();
-    private final List<Sendable> onDebug = new ArrayList<>();
-    private final List<Sendable> onError = new ArrayList<>();
-    private final List<Sendable> onWarn = new ArrayList<>();
+public class JS_API_Console extends JS_ProxyAPI {
+    public static final int DEFAULT_CAPACITY = 1024;
+    private static final int BATCH_SIZE = 256;
+
+    private volatile PrintStream out;
+    /**
+     * See {@link #setDrainer(Executor)}.
+     */
+    private volatile Executor drainer;
+    /**
+     * Listeners by {@link ConsoleLevel#ordinal()}.
+     */
+    private final List<List<Sendable>> listeners;
+    /**
+     * Levels written to {@link #out}.
+     */
+    private volatile int outLevels = ConsoleLevel.ALL;
+    /**
+     * Levels that get formatted and buffered, see {@link #updateEnabledLevels()}.
+     */
+    private volatile int enabledLevels;
+    private volatile OverflowPolicy overflowPolicy = OverflowPolicy.DROP_NEWEST;
+    private final RingBuffer<ConsoleMessage> buffer;
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private final ReentrantLock drainLock = new ReentrantLock();
+    private final ConsoleMessage[] batch = new ConsoleMessage[BATCH_SIZE];
+    private final AtomicLongArray droppedCounts = new AtomicLongArray(ConsoleLevel.values().length);
+    /**
+     * Start times of the console.time() timers by label, only accessed from the JavaScript thread.
+     */
+    private final Map<String, Long> timers = new HashMap<>();
+    private JS_API_Performance performance;
+
+    /**
+     * Creates a console without output stream, whose messages only go to its listeners.
+     */
+    public JS_API_Console() {
+        this(null, DEFAULT_CAPACITY);
+    }
 
     public JS_API_Console(OutputStream out) {
         this(new PrintStream(out));
     }
 
     public JS_API_Console(PrintStream out) {
+        this(out, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param out      see {@link #setOut(PrintStream)}.
+     * @param capacity the maximum amount of messages waiting for delivery, see {@link #setOverflowPolicy(OverflowPolicy)}.
+     */
+    public JS_API_Console(PrintStream out, int capacity) {
         this.out = out;
+        this.buffer = new RingBuffer<>(capacity);
+        this.listeners = new ArrayList<>(ConsoleLevel.values().length);
+        for (int i = 0; i < ConsoleLevel.values().length; i++) {
+            listeners.add(new CopyOnWriteArrayList<>());
+        }
+        updateEnabledLevels();
+        // The arguments are passed on as they are, Values are only converted once formatted:
+        procedure("log", this::log);
+        procedure("info", this::info);
+        procedure("debug", this::debug);
+        procedure("warn", this::warn);
+        procedure("error", this::error);
+        procedure("trace", this::trace);
+        procedure("dirxml", this::dirxml);
+        procedure("time", this::time);
+        procedure("timeLog", this::timeLog);
+        procedure("timeEnd", this::timeEnd);
+        for (String name : new String[]{"table", "dir", "clear", "count", "countReset", "group", "groupCollapsed", "groupEnd"}) {
+            procedure(name, args -> {
+                // Do nothing.
+            });
+        }
     }
 
+    // Members can't be added to Java objects, thus console.assert() (which can't be defined in Java, since assert
+    // is a keyword) is added to a JavaScript object, that replaces the console and delegates to this object:
+    public static final String JS_CODE = "" +
+            "(function (javaConsole) {\n" +
+            "    const console = {};\n" +
+            "    for (const name of ['log', 'info', 'debug', 'warn', 'error', 'trace', 'dir', 'dirxml', 'table', 'clear',\n" +
+            "            'count', 'countReset', 'group', 'groupCollapsed', 'groupEnd', 'time', 'timeLog', 'timeEnd']) {\n" +
+            "        const fn = javaConsole[name];\n" +
+            "        console[name] = (...data) => fn(...data);\n" +
+            "    }\n" +
+            "    console.assert = function (condition, ...data) {\n" +
+            "        if (condition) return;\n" +
+            "        if (data.length === 0) javaConsole.error('Assertion failed');\n" +
+            "        else javaConsole.error('Assertion failed:', ...data);\n" +
+            "    };\n" +
+            "    globalThis.console = console;\n" +
+            "})(console);";
+
     @Override
     public String getJSGlobalVarName() {
         return "console";
@@ -42,158 +142,403 @@ public class JS_API_Console implements JS_API {
 
     @Override
     public String getOptionalJSCode() {
-        // Since the function console.assert() is named assert we cannot define it in Java
-        // and we must do it this way:
-        return "" +
-                "function myAssertFunc(bol, ...data) {\n" +
-                "    if (bol === true) return;\n" +
-                "    let message = 'Assertion failed!';\n" +
-                "    if (data.length === 0) data[0] = message;\n" +
-                "    console.log(data);\n" +
-                "}" +
-                "console.assert = myAssertFunc;";
+        return JS_CODE;
     }
 
+    // Only accessible from Java:
+
     public void onLog(Sendable runnable) {
-        onLog.add(runnable);
+        on(ConsoleLevel.LOG, runnable);
     }
 
     public void onInfo(Sendable runnable) {
-        onInfo.add(runnable);
+        on(ConsoleLevel.INFO, runnable);
     }
 
     public void onDebug(Sendable runnable) {
-        onDebug.add(runnable);
+        on(ConsoleLevel.DEBUG, runnable);
     }
 
     public void onError(Sendable runnable) {
-        onError.add(runnable);
+        on(ConsoleLevel.ERROR, runnable);
     }
 
     public void onWarn(Sendable runnable) {
-        onWarn.add(runnable);
+        on(ConsoleLevel.WARN, runnable);
     }
 
+    /**
+     * Adds a listener for messages of the provided level, which gets called from the consoles' background thread.
+     */
+    public void on(ConsoleLevel level, Sendable runnable) {
+        listeners.get(level.ordinal()).add(runnable);
+        updateEnabledLevels();
+    }
 
-    // Accessible from Java and JavaScript:
+    /**
+     * Removes all listeners, that were added via the onLog, onInfo, etc. methods.
+     */
+    public void removeAllListeners() {
+        for (List<Sendable> list : listeners) {
+            list.clear();
+        }
+        updateEnabledLevels();
+    }
 
-    @HostAccess.Export
-    public void table(String tableData, String... properties) {
-        // Do nothing.
+    public PrintStream getOut() {
+        return out;
     }
 
-    @HostAccess.Export
-    public void trace(String... data) {
-        log(data);
+    /**
+     * Sets the stream messages get written to, or null to not write them anywhere.
+     */
+    public void setOut(PrintStream out) {
+        this.out = out;
+        updateEnabledLevels();
     }
 
-    @HostAccess.Export
-    public void dir(Object objString, String... options) {
-        // Do nothing.
+    /**
+     * Enables or disables writing messages of the provided level to the output stream. All levels are enabled by default.
+     */
+    public void setLevelEnabled(ConsoleLevel level, boolean enabled) {
+        synchronized (this) {
+            outLevels = enabled ? outLevels | level.bit : outLevels & ~level.bit;
+        }
+        updateEnabledLevels();
     }
 
-    @HostAccess.Export
-    public void dirxml(String... data) {
-        log(data);
+    /**
+     * Returns true if messages of the provided level get formatted and delivered somewhere.
+     */
+    public boolean isEnabled(ConsoleLevel level) {
+        return (enabledLevels & level.bit) != 0;
     }
 
-    @HostAccess.Export
-    public void clear() {
-        // Do nothing.
+    private synchronized void updateEnabledLevels() {
+        int levels = out == null ? 0 : outLevels;
+        for (ConsoleLevel level : ConsoleLevel.values()) {
+            if (!listeners.get(level.ordinal()).isEmpty()) levels |= level.bit;
+        }
+        enabledLevels = levels;
     }
 
-    private String formatData(String... data) {
-        if (data != null)
-            if (data.length == 1)
-                return data[0];
-            else
-                return Arrays.toString(data);
-        else return null;
+    public Executor getDrainer() {
+        return drainer;
     }
 
-    @HostAccess.Export
-    public void debug(String... data) {
-        String msg = formatData(data);
-        if (out != null) out.println(msg);
-        for (Sendable sendable : onDebug) {
-            sendable.send(msg);
+    /**
+     * Sets the executor that delivers the buffered messages, usually the one of the browser (see {@link com.osiris.jgbrowser.JGBrowser#getConsoleDrainer()}). <br>
+     * Default is null, which uses a single thread shared by all consoles without drainer. <br>
+     * If the executor rejects a drain (for example because it was shut down), messages get delivered by the writing thread. <br>
+     */
+    public void setDrainer(Executor drainer) {
+        this.drainer = drainer;
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    /**
+     * Sets what happens, when messages are written faster than they can be delivered. Default is {@link OverflowPolicy#DROP_NEWEST}.
+     */
+    public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    /**
+     * Returns the amount of messages of the provided level, that were dropped because the buffer was full.
+     */
+    public long getDroppedCount(ConsoleLevel level) {
+        return droppedCounts.get(level.ordinal());
+    }
+
+    /**
+     * Returns the amount of messages of all levels, that were dropped because the buffer was full.
+     */
+    public long getDroppedCount() {
+        long count = 0;
+        for (int i = 0; i < droppedCounts.length(); i++) {
+            count += droppedCounts.get(i);
         }
+        return count;
+    }
+
+    /**
+     * Writes the provided message, if its level is enabled.
+     */
+    public void print(ConsoleLevel level, String message) {
+        if ((enabledLevels & level.bit) == 0) return;
+        publish(new ConsoleMessage(level, message, System.currentTimeMillis()));
     }
 
-    @HostAccess.Export
-    public void error(String... data) {
-        String msg = formatData(data);
-        if (out != null) out.println(msg);
-        for (Sendable sendable : onError) {
-            sendable.send(msg);
+    private void printData(ConsoleLevel level, Object[] data) {
+        if ((enabledLevels & level.bit) == 0) return;
+        ApiCallEvent event = JFR.AVAILABLE ? ApiCallEvent.start() : null;
+        try {
+            publish(new ConsoleMessage(level, format(data), System.currentTimeMillis()));
+        } finally {
+            if (event != null) event.end("console", level.name().toLowerCase(Locale.ROOT), null);
         }
     }
 
-    @HostAccess.Export
-    public void info(String... data) {
-        String msg = formatData(data);
-        if (out != null) out.println(msg);
-        for (Sendable sendable : onInfo) {
-            sendable.send(msg);
+    /**
+     * Formats the provided data like browsers do, separated by spaces. <br>
+     * Must be called from the JavaScript thread, since JavaScript objects get converted to strings. <br>
+     */
+    private static String format(Object[] data) {
+        if (data == null || data.length == 0) return "";
+        if (data.length == 1) return text(data[0]);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < data.length; i++) {
+            if (i > 0) sb.append(' ');
+            sb.append(text(data[i]));
         }
+        return sb.toString();
+    }
+
+    private static String text(Object object) {
+        return object instanceof Value ? text((Value) object) : String.valueOf(object);
+    }
+
+    private void publish(ConsoleMessage message) {
+        if (!buffer.offer(message)) {
+            switch (overflowPolicy) {
+                case DROP_NEWEST:
+                    droppedCounts.incrementAndGet(message.getLevel().ordinal());
+                    scheduleDrain();
+                    return;
+                case DROP_OLDEST:
+                    do {
+                        ConsoleMessage oldest = buffer.poll();
+                        if (oldest != null) droppedCounts.incrementAndGet(oldest.getLevel().ordinal());
+                    } while (!buffer.offer(message));
+                    break;
+                case BLOCK:
+                    do {
+                        scheduleDrain();
+                        LockSupport.parkNanos(100_000);
+                    } while (!buffer.offer(message));
+                    break;
+            }
+        }
+        scheduleDrain();
+    }
+
+    private void scheduleDrain() {
+        if (!drainScheduled.get() && drainScheduled.compareAndSet(false, true)) {
+            Executor drainer = this.drainer;
+            try {
+                (drainer != null ? drainer : DefaultDrainer.EXECUTOR).execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                drainScheduled.set(false);
+                flush();
+            }
+        }
+    }
+
+    /**
+     * Delivers a single batch and schedules the next one, instead of looping until the buffer is empty, <br>
+     * so that a console that keeps logging doesn't hold the drainer, which other consoles share. <br>
+     */
+    private void drain() {
+        drainLock.lock();
+        try {
+            drainBatch();
+        } finally {
+            drainLock.unlock();
+        }
+        drainScheduled.set(false);
+        if (!buffer.isEmpty()) scheduleDrain(); // More messages, or published after the last poll, but before the flag was reset
+    }
+
+    /**
+     * Delivers all buffered messages in batches. Must hold the {@link #drainLock}.
+     */
+    private void drainBuffer() {
+        while (drainBatch() > 0) ;
     }
 
-    @HostAccess.Export
-    public void log(String... data) {
-        String msg = formatData(data);
-        if (out != null) out.println(msg);
-        for (Sendable sendable : onLog) {
-            sendable.send(msg);
+    /**
+     * Delivers up to {@link #BATCH_SIZE} buffered messages. Must hold the {@link #drainLock}.
+     *
+     * @return the amount of delivered messages.
+     */
+    private int drainBatch() {
+        int count = 0;
+        ConsoleMessage message;
+        while (count < BATCH_SIZE && (message = buffer.poll()) != null) {
+            batch[count++] = message;
         }
+        if (count == 0) return 0;
+        PrintStream out = this.out;
+        int outLevels = this.outLevels;
+        for (int i = 0; i < count; i++) {
+            message = batch[i];
+            batch[i] = null;
+            if (out != null && (outLevels & message.getLevel().bit) != 0)
+                out.println(message.getMessage());
+            for (Sendable sendable : listeners.get(message.getLevel().ordinal())) {
+                try {
+                    sendable.send(message.getMessage());
+                } catch (Throwable t) {
+                    t.printStackTrace();
+                }
+            }
+        }
+        if (out != null) out.flush();
+        return count;
     }
 
-    @HostAccess.Export
-    public void warn(String... data) {
-        String msg = formatData(data);
-        if (out != null) out.println(msg);
-        for (Sendable sendable : onWarn) {
-            sendable.send(msg);
+    /**
+     * Delivers all messages that were written so far in the current thread, before returning.
+     */
+    public void flush() {
+        drainLock.lock();
+        try {
+            drainBuffer();
+        } finally {
+            drainLock.unlock();
         }
     }
 
-    @HostAccess.Export
+
+    // Accessible from Java, and from JavaScript via the functions added in the constructor:
+
+    public void table(Object tableData, Object... properties) {
+        // Do nothing.
+    }
+
+    public void trace(Object... data) {
+        log(data);
+    }
+
+    public void dir(Object objString, Object... options) {
+        // Do nothing.
+    }
+
+    public void dirxml(Object... data) {
+        log(data);
+    }
+
+    public void clear() {
+        // Do nothing.
+    }
+
+    public void debug(Object... data) {
+        printData(ConsoleLevel.DEBUG, data);
+    }
+
+    public void error(Object... data) {
+        printData(ConsoleLevel.ERROR, data);
+    }
+
+    public void info(Object... data) {
+        printData(ConsoleLevel.INFO, data);
+    }
+
+    public void log(Object... data) {
+        printData(ConsoleLevel.LOG, data);
+    }
+
+    public void warn(Object... data) {
+        printData(ConsoleLevel.WARN, data);
+    }
+
     public void count(String... args) {
         // Do nothing
     }
 
-    @HostAccess.Export
     public void countReset(String... args) {
         // Do nothing
     }
 
-    @HostAccess.Export
     public void group(String... args) {
         // Do nothing
     }
 
-    @HostAccess.Export
     public void groupCollapsed(String... args) {
         // Do nothing
     }
 
-    @HostAccess.Export
     public void groupEnd(String... args) {
         // Do nothing
     }
 
-    @HostAccess.Export
-    public void time(String... args) {
-        // Do nothing
+    public void time(Object... label) {
+        String name = label(label);
+        if (timers.containsKey(name)) {
+            print(ConsoleLevel.WARN, "Timer '" + name + "' already exists");
+            return;
+        }
+        timers.put(name, clock().nowNanos());
     }
 
-    @HostAccess.Export
-    public void timeLog(String... args) {
-        // Do nothing
+    public void timeLog(Object... labelAndData) {
+        String name = label(labelAndData);
+        Long start = timers.get(name);
+        if (start == null) {
+            print(ConsoleLevel.WARN, "Timer '" + name + "' does not exist");
+            return;
+        }
+        if (!isEnabled(ConsoleLevel.LOG)) return;
+        StringBuilder sb = new StringBuilder(formatTimer(name, clock().nowNanos() - start));
+        for (int i = 1; i < labelAndData.length; i++) {
+            sb.append(' ').append(text(labelAndData[i]));
+        }
+        print(ConsoleLevel.LOG, sb.toString());
     }
 
-    @HostAccess.Export
-    public void timeEnd(String... args) {
-        // Do nothing
+    public void timeEnd(Object... label) {
+        String name = label(label);
+        Long start = timers.remove(name);
+        if (start == null) {
+            print(ConsoleLevel.WARN, "Timer '" + name + "' does not exist");
+            return;
+        }
+        long duration = clock().nowNanos() - start;
+        clock().record(name, PerformanceTimeline.TYPE_CONSOLE_TIME, start, duration);
+        if (isEnabled(ConsoleLevel.LOG))
+            print(ConsoleLevel.LOG, formatTimer(name, duration));
     }
 
+    private static String label(Object[] args) {
+        if (args == null || args.length == 0 || args[0] == null) return "default";
+        if (args[0] instanceof Value && ((Value) args[0]).isNull()) return "default"; // undefined
+        return text(args[0]);
+    }
+
+    private static String formatTimer(String name, long nanos) {
+        return name + ": " + String.format(Locale.ROOT, "%.3f", nanos / 1_000_000.0) + " ms";
+    }
+
+    private JS_API_Performance clock() {
+        if (performance == null) performance = new JS_API_Performance();
+        return performance;
+    }
+
+    /**
+     * Sets the performance API, whose clock is used by console.time() and whose timeline receives the finished timers.
+     */
+    public void setPerformance(JS_API_Performance performance) {
+        this.performance = performance;
+    }
+
+    /**
+     * Removes all running console.time() timers.
+     */
+    public void resetTimers() {
+        timers.clear();
+    }
+
+    /**
+     * Created on first use, since consoles of a browser use its drainer instead.
+     */
+    private static class DefaultDrainer {
+        private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "JGBrowser-Console");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
 }
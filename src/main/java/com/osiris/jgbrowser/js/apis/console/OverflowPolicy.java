@@ -0,0 +1,22 @@
+package com.osiris.jgbrowser.js.apis.console;
+
+/**
+ * What to do with new console messages, when the buffer of the console is full, <br>
+ * because messages get written faster than they can be delivered. <br>
+ *
+ * @author Osiris-Team
+ */
+public enum OverflowPolicy {
+    /**
+     * The new message gets dropped. JavaScript code never waits.
+     */
+    DROP_NEWEST,
+    /**
+     * The oldest buffered message gets dropped, to make room for the new one. JavaScript code never waits.
+     */
+    DROP_OLDEST,
+    /**
+     * JavaScript code waits until there is room for the new message. No messages are lost.
+     */
+    BLOCK
+}
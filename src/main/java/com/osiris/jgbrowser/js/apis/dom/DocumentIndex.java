@@ -0,0 +1,270 @@
+package com.osiris.jgbrowser.js.apis.dom;
+
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Index of the elements of a jsoup {@link Document} by id, class and tag name, <br>
+ * which turns getElementById() and friends from tree scans into map lookups. <br>
+ * Built lazily on the first lookup and updated incrementally afterwards, <br>
+ * by the mutation methods of {@link JS_API_Document}, which every DOM change from JavaScript goes through. <br>
+ * Changes made to the jsoup document directly (from Java) are not noticed, call {@link #invalidate()} after them. <br>
+ * Results are always in document order. <br>
+ * Not thread-safe. <br>
+ *
+ * @author Osiris-Team
+ */
+public class DocumentIndex {
+    private final Document document;
+    private final Map<String, Bucket> ids = new HashMap<>();
+    private final Map<String, Bucket> classes = new HashMap<>();
+    private final Map<String, Bucket> tags = new HashMap<>();
+    private boolean built;
+    private int buildCount;
+
+    public DocumentIndex(Document document) {
+        this.document = document;
+    }
+
+    public Document getDocument() {
+        return document;
+    }
+
+    /**
+     * Returns the first element in document order with the provided id, or null.
+     */
+    public Element getElementById(String id) {
+        build();
+        Bucket bucket = ids.get(id);
+        return bucket == null ? null : bucket.first();
+    }
+
+    /**
+     * Returns all elements with the provided id, in document order.
+     */
+    public List<Element> getElementsById(String id) {
+        build();
+        return list(ids.get(id));
+    }
+
+    /**
+     * Returns all elements that have all of the provided space separated class names, in document order. <br>
+     * Class names are case-sensitive. <br>
+     */
+    public List<Element> getElementsByClassName(String classNames) {
+        build();
+        String[] names = classNames.trim().split("\\s+");
+        if (names[0].isEmpty()) return new ArrayList<>(0);
+        Bucket smallest = null;
+        Bucket[] buckets = new Bucket[names.length];
+        for (int i = 0; i < names.length; i++) {
+            Bucket bucket = classes.get(names[i]);
+            if (bucket == null) return new ArrayList<>(0);
+            buckets[i] = bucket;
+            if (smallest == null || bucket.elements.size() < smallest.elements.size())
+                smallest = bucket;
+        }
+        List<Element> result = list(smallest);
+        if (names.length > 1)
+            result.removeIf(e -> {
+                for (Bucket bucket : buckets) {
+                    if (!bucket.elements.contains(e)) return true;
+                }
+                return false;
+            });
+        return result;
+    }
+
+    /**
+     * Returns all elements with the provided tag name (case-insensitive), in document order.
+     */
+    public List<Element> getElementsByTagName(String tagName) {
+        build();
+        return list(tags.get(tagName.toLowerCase(Locale.ROOT)));
+    }
+
+    /**
+     * Forgets everything, the index gets rebuilt on the next lookup. <br>
+     * Must be called after the document was changed without going through {@link JS_API_Document}. <br>
+     */
+    public void invalidate() {
+        built = false;
+        ids.clear();
+        classes.clear();
+        tags.clear();
+    }
+
+    public boolean isBuilt() {
+        return built;
+    }
+
+    /**
+     * Returns how often this index was built from scratch.
+     */
+    public int getBuildCount() {
+        return buildCount;
+    }
+
+    private void build() {
+        if (built) return;
+        for (Element element : document.getAllElements()) {
+            add(element);
+        }
+        built = true;
+        buildCount++;
+    }
+
+    // Updates, called by JS_API_Document:
+
+    /**
+     * Adds the provided node and its descendants, must be called after it was attached to the document.
+     */
+    void added(Node node) {
+        if (!built || !(node instanceof Element) || node.root() != document) return;
+        for (Element element : ((Element) node).getAllElements()) {
+            add(element);
+        }
+    }
+
+    /**
+     * Removes the provided node and its descendants, must be called before it gets detached from the document.
+     */
+    void removed(Node node) {
+        if (!built || !(node instanceof Element) || node.root() != document) return;
+        for (Element element : ((Element) node).getAllElements()) {
+            remove(element);
+        }
+    }
+
+    /**
+     * Must be called before the provided attribute of the element gets changed.
+     */
+    void beforeAttributeChange(Element element, String name) {
+        if (!built || !isIndexed(name) || element.root() != document) return;
+        if (name.equalsIgnoreCase("id"))
+            remove(ids, element.id(), element);
+        else
+            for (String className : element.classNames()) {
+                remove(classes, className, element);
+            }
+    }
+
+    /**
+     * Must be called after the provided attribute of the element was changed.
+     */
+    void afterAttributeChange(Element element, String name) {
+        if (!built || !isIndexed(name) || element.root() != document) return;
+        if (name.equalsIgnoreCase("id"))
+            put(ids, element.id(), element);
+        else
+            for (String className : element.classNames()) {
+                put(classes, className, element);
+            }
+    }
+
+    private static boolean isIndexed(String attributeName) {
+        return attributeName.equalsIgnoreCase("id") || attributeName.equalsIgnoreCase("class");
+    }
+
+    private void add(Element element) {
+        if (element == document) return;
+        put(tags, element.normalName(), element);
+        put(ids, element.id(), element);
+        for (String className : element.classNames()) {
+            put(classes, className, element);
+        }
+    }
+
+    private void remove(Element element) {
+        remove(tags, element.normalName(), element);
+        remove(ids, element.id(), element);
+        for (String className : element.classNames()) {
+            remove(classes, className, element);
+        }
+    }
+
+    private void put(Map<String, Bucket> map, String key, Element element) {
+        if (key.isEmpty()) return;
+        Bucket bucket = map.get(key);
+        if (bucket == null) {
+            bucket = new Bucket();
+            map.put(key, bucket);
+        } else if (built && !bucket.elements.isEmpty())
+            bucket.sorted = false; // Elements added after building can be anywhere in the document
+        bucket.elements.add(element);
+    }
+
+    private static void remove(Map<String, Bucket> map, String key, Element element) {
+        if (key.isEmpty()) return;
+        Bucket bucket = map.get(key);
+        if (bucket == null) return;
+        bucket.elements.remove(element);
+        if (bucket.elements.isEmpty()) map.remove(key);
+    }
+
+    private static List<Element> list(Bucket bucket) {
+        if (bucket == null) return new ArrayList<>(0);
+        bucket.sort();
+        return new ArrayList<>(bucket.elements);
+    }
+
+    /**
+     * Elements sharing the same key. Jsoup nodes use identity for equals() and hashCode(), <br>
+     * thus adding and removing is O(1). <br>
+     */
+    private static final class Bucket {
+        private LinkedHashSet<Element> elements = new LinkedHashSet<>();
+        private boolean sorted = true;
+
+        private Element first() {
+            if (elements.isEmpty()) return null;
+            sort();
+            return elements.iterator().next();
+        }
+
+        private void sort() {
+            if (sorted) return;
+            sorted = true;
+            if (elements.size() < 2) return;
+            Map<Element, int[]> paths = new IdentityHashMap<>(elements.size());
+            for (Element element : elements) {
+                paths.put(element, path(element));
+            }
+            List<Element> list = new ArrayList<>(elements);
+            Collections.sort(list, Comparator.comparing(paths::get, Bucket::compare));
+            elements = new LinkedHashSet<>(list);
+        }
+
+        /**
+         * Returns the sibling indexes from the root down to the provided node.
+         */
+        private static int[] path(Node node) {
+            int depth = 0;
+            for (Node n = node; n.parent() != null; n = n.parent()) depth++;
+            int[] path = new int[depth];
+            for (Node n = node; n.parent() != null; n = n.parent()) {
+                path[--depth] = n.siblingIndex();
+            }
+            return path;
+        }
+
+        private static int compare(int[] a, int[] b) {
+            int length = Math.min(a.length, b.length);
+            for (int i = 0; i < length; i++) {
+                if (a[i] != b[i]) return Integer.compare(a[i], b[i]);
+            }
+            return Integer.compare(a.length, b.length); // Ancestors come first
+        }
+    }
+}
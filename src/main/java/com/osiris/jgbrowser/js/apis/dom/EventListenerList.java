@@ -0,0 +1,92 @@
+package com.osiris.jgbrowser.js.apis.dom;
+
+import org.graalvm.polyglot.Value;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The event listeners of an event target, by event type. <br>
+ * The listeners of a type are stored in an array, that gets replaced on every change (copy-on-write), <br>
+ * thus dispatching can iterate it without copying, while listeners add or remove other listeners. <br>
+ * Listeners are changed way less often than events are dispatched. <br>
+ *
+ * @author Osiris-Team
+ */
+class EventListenerList {
+    private static final Listener[] EMPTY = new Listener[0];
+    private final Map<String, Listener[]> listeners = new HashMap<>(4);
+
+    /**
+     * Returns the current listeners of the provided type, must not be modified.
+     */
+    Listener[] get(String type) {
+        Listener[] array = listeners.get(type);
+        return array == null ? EMPTY : array;
+    }
+
+    /**
+     * Adds the listener, if there is no listener with the same callback and capture flag yet.
+     */
+    void add(String type, Value callback, boolean capture, boolean once, boolean passive) {
+        Listener[] array = get(type);
+        for (Listener listener : array) {
+            if (listener.capture == capture && listener.callback.equals(callback)) return;
+        }
+        Listener[] newArray = Arrays.copyOf(array, array.length + 1);
+        newArray[array.length] = new Listener(callback, capture, once, passive);
+        listeners.put(type, newArray);
+    }
+
+    void remove(String type, Value callback, boolean capture) {
+        Listener[] array = get(type);
+        for (int i = 0; i < array.length; i++) {
+            Listener listener = array[i];
+            if (listener.capture == capture && listener.callback.equals(callback)) {
+                remove(type, listener);
+                return;
+            }
+        }
+    }
+
+    void remove(String type, Listener listener) {
+        Listener[] array = get(type);
+        for (int i = 0; i < array.length; i++) {
+            if (array[i] == listener) {
+                listener.removed = true;
+                if (array.length == 1) {
+                    listeners.remove(type);
+                    return;
+                }
+                Listener[] newArray = new Listener[array.length - 1];
+                System.arraycopy(array, 0, newArray, 0, i);
+                System.arraycopy(array, i + 1, newArray, i, array.length - i - 1);
+                listeners.put(type, newArray);
+                return;
+            }
+        }
+    }
+
+    boolean isEmpty() {
+        return listeners.isEmpty();
+    }
+
+    static final class Listener {
+        final Value callback;
+        final boolean capture;
+        final boolean once;
+        final boolean passive;
+        /**
+         * Set once removed, so that a running dispatch skips it.
+         */
+        boolean removed;
+
+        Listener(Value callback, boolean capture, boolean once, boolean passive) {
+            this.callback = callback;
+            this.capture = capture;
+            this.once = once;
+            this.passive = passive;
+        }
+    }
+}
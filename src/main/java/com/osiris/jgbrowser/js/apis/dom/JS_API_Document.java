@@ -1,14 +1,76 @@
 package com.osiris.jgbrowser.js.apis.dom;
 
+import com.osiris.jgbrowser.jfr.ApiCallEvent;
+import com.osiris.jgbrowser.jfr.JFR;
 import com.osiris.jgbrowser.js.apis.JS_API;
+import com.osiris.jgbrowser.js.context.GraalContext;
+import org.graalvm.polyglot.PolyglotException;
+import org.graalvm.polyglot.Value;
+import org.graalvm.polyglot.proxy.ProxyExecutable;
+import org.jsoup.nodes.Comment;
+import org.jsoup.nodes.DataNode;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+import org.jsoup.nodes.TextNode;
+import org.jsoup.select.Elements;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
 
 /**
- * Implementation of: https://developer.mozilla.org/en-US/docs/Web/API/Console_API <br>
+ * Implementation of: https://dom.spec.whatwg.org/#interface-document <br>
+ * Bridge between JavaScript and the jsoup {@link Document} of the window (see {@link #setDocument(Document)}). <br>
+ * Every jsoup node is represented by exactly one wrapper (see {@link #wrap(Node)}), <br>
+ * which is held weakly, thus walking the tree doesn't allocate new wrappers for nodes that were already visited, <br>
+ * and wrappers that aren't referenced by scripts anymore can be garbage collected. <br>
+ * All DOM mutations go through this class, so that they are applied consistently <br>
+ * and the {@link DocumentIndex} used for lookups by id, class and tag name stays up to date. <br>
+ * Events are dispatched by {@link #dispatch(JS_Node, JS_Event)} through capture, target and bubble phases, <br>
+ * along a path that only contains the nodes with listeners, stored in re-used arrays. <br>
  *
  * @author Osiris-Team
  */
-public class JS_API_Document implements JS_API {
+public class JS_API_Document extends JS_Element implements JS_API {
+    static final String[] KEYS = concat(JS_Element.KEYS, "documentElement", "head", "body", "title", "URL", "documentURI",
+            "readyState", "getElementById", "createElement", "createTextNode", "createComment");
+    private static final Set<String> KEY_SET = new HashSet<>(Arrays.asList(KEYS));
+
+    /**
+     * Node -> wrapper. Keys are compared by identity, since jsoup nodes don't override hashCode().
+     */
+    private final Map<Node, WeakReference<JS_Node>> wrappers = new WeakHashMap<>();
+    /**
+     * Wrappers with state that must survive garbage collection, like expandos. <br>
+     * Held strongly until the next {@link #setDocument(Document)}. <br>
+     */
+    private final Map<Node, JS_Node> pinned = new HashMap<>();
+    private DocumentIndex index;
+    private final GraalContext context;
+    /**
+     * Events fired via {@link #fireEvent(Node, String, JS_EventInit)}, ready to be re-used.
+     */
+    private final ArrayDeque<JS_Event> eventPool = new ArrayDeque<>();
+    private static final int MAX_POOLED_EVENTS = 16;
+    /**
+     * Propagation paths, one per nesting level of dispatches (listeners dispatching events), re-used between dispatches.
+     */
+    private JS_Node[][] paths = new JS_Node[4][16];
+    private int dispatchDepth;
 
+    public JS_API_Document(GraalContext context) {
+        super(null, Document.createShell(""));
+        this.context = context;
+        this.index = new DocumentIndex((Document) node);
+    }
 
     @Override
     public String getJSGlobalVarName() {
@@ -20,4 +82,378 @@ public class JS_API_Document implements JS_API {
         return null;
     }
 
+    /**
+     * Replaces the document represented by this object, for example after a new page was loaded. <br>
+     * Forgets all wrappers of the previous document. <br>
+     *
+     * @param document the new document, or null for an empty document.
+     */
+    public void setDocument(Document document) {
+        this.node = document == null ? Document.createShell("") : document;
+        this.index = new DocumentIndex((Document) node);
+        wrappers.clear();
+        pinned.clear();
+    }
+
+    /**
+     * Returns the document represented by this object.
+     */
+    public Document getDocument() {
+        return (Document) node;
+    }
+
+    /**
+     * Returns the index of the current document.
+     */
+    public DocumentIndex getIndex() {
+        return index;
+    }
+
+    /**
+     * Returns the wrapper of the provided node, creates it if there is none yet.
+     *
+     * @return null if the provided node is null.
+     */
+    public JS_Node wrap(Node node) {
+        if (node == null) return null;
+        if (node == this.node) return this;
+        WeakReference<JS_Node> ref = wrappers.get(node);
+        JS_Node wrapper = ref == null ? null : ref.get();
+        if (wrapper == null) {
+            if (node instanceof Element)
+                wrapper = new JS_Element(this, (Element) node);
+            else if (node instanceof TextNode || node instanceof DataNode || node instanceof Comment)
+                wrapper = new JS_CharacterData(this, node);
+            else
+                wrapper = new JS_Node(this, node);
+            wrappers.put(node, new WeakReference<>(wrapper));
+        }
+        return wrapper;
+    }
+
+    /**
+     * Keeps the provided wrapper alive, even if scripts don't reference it anymore.
+     */
+    void pin(JS_Node wrapper) {
+        if (wrapper != this)
+            pinned.put(wrapper.node, wrapper);
+    }
+
+    /**
+     * Returns the amount of wrappers that currently exist (including already collected ones, not yet expunged).
+     */
+    public int getWrapperCount() {
+        return wrappers.size();
+    }
+
+    @Override
+    public Object getMember(String key) {
+        Document document = (Document) node;
+        switch (key) {
+            case "documentElement":
+                return wrap(document.childrenSize() == 0 ? null : document.child(0));
+            case "head":
+                return wrap(document.head());
+            case "body":
+                return wrap(document.body());
+            case "title":
+                return document.title();
+            case "URL":
+            case "documentURI":
+                return document.location();
+            case "readyState":
+                return "complete";
+            case "getElementById":
+                return traced(key, args -> wrap(getElementById(string(arg(args, 0)))));
+            case "createElement":
+                return (ProxyExecutable) args -> wrap(document.createElement(string(arg(args, 0))));
+            case "createTextNode":
+                return (ProxyExecutable) args -> wrap(new TextNode(string(arg(args, 0))));
+            case "querySelector":
+                return traced(key, args -> {
+                    String selector = string(arg(args, 0));
+                    return wrap(isIdSelector(selector) ? index.getElementById(selector.substring(1)) : querySelector(document, selector));
+                });
+            case "createComment":
+                return (ProxyExecutable) args -> wrap(new Comment(string(arg(args, 0))));
+            case "tagName":
+            case "localName":
+            case "id":
+            case "className":
+            case "innerHTML":
+            case "outerHTML":
+            case "innerText":
+                return null; // Only elements have these
+            default:
+                return super.getMember(key);
+        }
+    }
+
+    @Override
+    public void putMember(String key, Value value) {
+        if ("title".equals(key))
+            ((Document) node).title(value.isNull() ? "" : string(value));
+        else if (!KEY_SET.contains(key) || "textContent".equals(key))
+            super.putMember(key, value);
+    }
+
+    @Override
+    protected String[] getKeys() {
+        return KEYS;
+    }
+
+    @Override
+    protected Set<String> getKeySet() {
+        return KEY_SET;
+    }
+
+    @Override
+    public short getNodeType() {
+        return DOCUMENT_NODE;
+    }
+
+    @Override
+    public String getNodeName() {
+        return "#document";
+    }
+
+    @Override
+    public String getTextContent() {
+        return null;
+    }
+
+    @Override
+    public void setTextContent(String text) {
+        // Does nothing for documents
+    }
+
+    // Events:
+
+    /**
+     * Fires an event of the provided type at the provided node, like the browser does for user input, thus it's trusted. <br>
+     * The event object is taken from a pool and returned to it after the dispatch, <br>
+     * thus firing many events doesn't create garbage. Listeners must not keep references to it. <br>
+     *
+     * @return false if the event is cancelable and a listener called preventDefault(), otherwise true.
+     */
+    public boolean fireEvent(Node target, String type, JS_EventInit init) {
+        return fireEvent(target, type, init, null);
+    }
+
+    /**
+     * For details see {@link #fireEvent(Node, String, JS_EventInit)}.
+     *
+     * @param properties additional properties of the event, like clientX, can be null.
+     */
+    public boolean fireEvent(Node target, String type, JS_EventInit init, Map<String, ?> properties) {
+        if (init == null) init = new JS_EventInit();
+        JS_Event event = eventPool.poll();
+        if (event == null) event = new JS_Event(type, init, 0);
+        event.init(type, init.bubbles, init.cancelable, init.composed, true, context.getTimers().now());
+        if (properties != null)
+            for (Map.Entry<String, ?> entry : properties.entrySet()) {
+                event.setProperty(entry.getKey(), entry.getValue());
+            }
+        try {
+            return dispatch(wrap(target), event);
+        } finally {
+            event.init(null, false, false, false, false, 0);
+            if (eventPool.size() < MAX_POOLED_EVENTS) eventPool.push(event);
+        }
+    }
+
+    /**
+     * Dispatches the provided event at the provided target. <br>
+     * Standard from: https://dom.spec.whatwg.org/#concept-event-dispatch <br>
+     * Errors thrown by listeners get reported via console.error and don't stop other listeners. <br>
+     *
+     * @return false if the event is cancelable and a listener called preventDefault(), otherwise true.
+     */
+    public boolean dispatch(JS_Node target, JS_Event event) {
+        if (event.dispatching)
+            throw new IllegalStateException("InvalidStateError: The event is already being dispatched.");
+        event.dispatching = true;
+        event.target = target;
+        event.stopPropagation = false;
+        event.stopImmediatePropagation = false;
+        event.canceled = false;
+
+        // Build the path, target first. Ancestors without listeners would be skipped anyway, thus they are left out.
+        // Nodes with listeners are always pinned, thus they can be looked up without creating wrappers.
+        int depth = dispatchDepth;
+        if (depth == paths.length) paths = Arrays.copyOf(paths, depth * 2);
+        JS_Node[] path = paths[depth];
+        if (path == null) path = paths[depth] = new JS_Node[16];
+        int length = 0;
+        path[length++] = target;
+        for (Node n = target.node.parent(); n != null; n = n.parent()) {
+            JS_Node wrapper = n == node ? this : pinned.get(n);
+            if (wrapper == null || wrapper.listeners == null) continue;
+            if (length == path.length) path = paths[depth] = Arrays.copyOf(path, length * 2);
+            path[length++] = wrapper;
+        }
+
+        dispatchDepth++;
+        try {
+            String type = event.getType();
+            for (int i = length - 1; i >= 0; i--) {
+                event.eventPhase = i == 0 ? JS_Event.AT_TARGET : JS_Event.CAPTURING_PHASE;
+                invoke(path[i], event, type, true);
+            }
+            for (int i = 0; i < length; i++) {
+                if (i > 0 && !event.isBubbles()) break;
+                event.eventPhase = i == 0 ? JS_Event.AT_TARGET : JS_Event.BUBBLING_PHASE;
+                invoke(path[i], event, type, false);
+            }
+            return !event.canceled;
+        } finally {
+            dispatchDepth--;
+            Arrays.fill(path, 0, length, null);
+            event.eventPhase = JS_Event.NONE;
+            event.currentTarget = null;
+            event.stopPropagation = false;
+            event.stopImmediatePropagation = false;
+            event.dispatching = false;
+        }
+    }
+
+    /**
+     * Invokes the listeners of the provided node, either the capturing or the non-capturing ones.
+     */
+    private void invoke(JS_Node current, JS_Event event, String type, boolean capture) {
+        if (event.stopPropagation || current.listeners == null) return;
+        EventListenerList.Listener[] listeners = current.listeners.get(type);
+        if (listeners.length == 0) return;
+        event.currentTarget = current;
+        for (EventListenerList.Listener listener : listeners) {
+            if (listener.removed || listener.capture != capture) continue;
+            if (listener.once) current.listeners.remove(type, listener);
+            event.inPassiveListener = listener.passive;
+            try {
+                if (listener.callback.canExecute())
+                    context.execute(listener.callback, type, event);
+                else if (listener.callback.canInvokeMember("handleEvent"))
+                    context.invoke(listener.callback, "handleEvent", type, event);
+            } catch (PolyglotException e) {
+                if (e.isCancelled() || e.isInterrupted() || e.isExit() || e.isResourceExhausted()) throw e;
+                context.getConsole().error("Uncaught " + e.getMessage());
+            } finally {
+                event.inPassiveListener = false;
+            }
+            if (event.stopImmediatePropagation) return;
+        }
+    }
+
+    // DOM queries and mutations:
+
+    /**
+     * Returns the first element with the provided id, or null.
+     */
+    public Element getElementById(String id) {
+        return index.getElementById(id);
+    }
+
+    /**
+     * Returns true if the provided selector only consists of an id, like #main.
+     */
+    private static boolean isIdSelector(String selector) {
+        if (selector.length() < 2 || selector.charAt(0) != '#' || Character.isDigit(selector.charAt(1))) return false;
+        for (int i = 1; i < selector.length(); i++) {
+            char c = selector.charAt(i);
+            if (!Character.isLetterOrDigit(c) && c != '-' && c != '_') return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns all descendants of the provided element with the provided tag name, or all for "*". <br>
+     * The element itself is not included. <br>
+     */
+    public List<Element> getElementsByTagName(Element root, String tagName) {
+        if (root == node && !"*".equals(tagName)) return index.getElementsByTagName(tagName);
+        Elements elements = "*".equals(tagName) ? root.getAllElements() : root.getElementsByTag(tagName);
+        if (!elements.isEmpty() && elements.get(0) == root) elements.remove(0);
+        return elements;
+    }
+
+    /**
+     * Returns all descendants of the provided element, that have all of the provided space separated class names. <br>
+     * The element itself is not included. <br>
+     */
+    public List<Element> getElementsByClassName(Element root, String classNames) {
+        if (root == node) return index.getElementsByClassName(classNames);
+        String[] names = classNames.trim().split("\\s+");
+        if (names[0].isEmpty()) return new Elements();
+        Elements elements = root.getElementsByClass(names[0]);
+        if (!elements.isEmpty() && elements.get(0) == root) elements.remove(0);
+        if (names.length > 1)
+            elements.removeIf(e -> {
+                Set<String> classes = e.classNames();
+                for (int i = 1; i < names.length; i++) {
+                    if (!classes.contains(names[i])) return true;
+                }
+                return false;
+            });
+        return elements;
+    }
+
+    /**
+     * Inserts the provided node into the provided parent at the provided index. The node must not have a parent.
+     */
+    void insert(Element parent, int index, Node child) {
+        parent.insertChildren(index, child);
+        this.index.added(child);
+    }
+
+    /**
+     * Removes the provided node from its parent.
+     */
+    void remove(Node child) {
+        index.removed(child);
+        child.remove();
+    }
+
+    /**
+     * Sets the provided attribute, or removes it if the value is null.
+     */
+    void setAttribute(Element element, String name, String value) {
+        index.beforeAttributeChange(element, name);
+        if (value == null)
+            element.removeAttr(name);
+        else
+            element.attr(name, value);
+        index.afterAttributeChange(element, name);
+    }
+
+    /**
+     * Replaces all children of the provided element with a single text node.
+     */
+    void setText(Element element, String text) {
+        while (element.childNodeSize() > 0) {
+            remove(element.childNode(element.childNodeSize() - 1));
+        }
+        if (!text.isEmpty())
+            insert(element, 0, new TextNode(text));
+    }
+
+    /**
+     * Replaces all children of the provided element with the parsed html.
+     */
+    void setInnerHtml(Element element, String html) {
+        ApiCallEvent event = JFR.AVAILABLE ? ApiCallEvent.start() : null;
+        try {
+            while (element.childNodeSize() > 0) {
+                remove(element.childNode(element.childNodeSize() - 1));
+            }
+            Element parsed = new Element(element.tagName()).html(html);
+            List<Node> children = new ArrayList<>(parsed.childNodes());
+            for (int i = 0; i < children.size(); i++) {
+                Node child = children.get(i);
+                child.remove();
+                insert(element, i, child);
+            }
+        } finally {
+            if (event != null) event.end("Element", "innerHTML", html);
+        }
+    }
 }
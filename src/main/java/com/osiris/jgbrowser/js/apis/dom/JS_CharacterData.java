@@ -0,0 +1,97 @@
+package com.osiris.jgbrowser.js.apis.dom;
+
+import org.graalvm.polyglot.Value;
+import org.jsoup.nodes.CDataNode;
+import org.jsoup.nodes.Comment;
+import org.jsoup.nodes.DataNode;
+import org.jsoup.nodes.Node;
+import org.jsoup.nodes.TextNode;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * JavaScript view of jsoup {@link TextNode}s, {@link DataNode}s (contents of script and style elements) and {@link Comment}s. <br>
+ * Standard from: https://dom.spec.whatwg.org/#interface-characterdata <br>
+ *
+ * @author Osiris-Team
+ */
+public class JS_CharacterData extends JS_Node {
+    static final String[] KEYS = concat(JS_Node.KEYS, "data", "length");
+    private static final Set<String> KEY_SET = new HashSet<>(Arrays.asList(KEYS));
+
+    JS_CharacterData(JS_API_Document document, Node node) {
+        super(document, node);
+    }
+
+    @Override
+    public Object getMember(String key) {
+        switch (key) {
+            case "data":
+                return getData();
+            case "length":
+                return getData().length();
+            default:
+                return super.getMember(key);
+        }
+    }
+
+    @Override
+    public void putMember(String key, Value value) {
+        if ("data".equals(key))
+            setData(value.isNull() ? "" : string(value));
+        else
+            super.putMember(key, value);
+    }
+
+    @Override
+    protected String[] getKeys() {
+        return KEYS;
+    }
+
+    @Override
+    protected Set<String> getKeySet() {
+        return KEY_SET;
+    }
+
+    public String getData() {
+        if (node instanceof TextNode) return ((TextNode) node).getWholeText();
+        if (node instanceof DataNode) return ((DataNode) node).getWholeData();
+        if (node instanceof Comment) return ((Comment) node).getData();
+        return "";
+    }
+
+    public void setData(String data) {
+        if (node instanceof TextNode) ((TextNode) node).text(data);
+        else if (node instanceof DataNode) ((DataNode) node).setWholeData(data);
+        else if (node instanceof Comment) ((Comment) node).setData(data);
+    }
+
+    @Override
+    public short getNodeType() {
+        if (node instanceof CDataNode) return CDATA_SECTION_NODE;
+        if (node instanceof Comment) return COMMENT_NODE;
+        return TEXT_NODE;
+    }
+
+    @Override
+    public String getNodeValue() {
+        return getData();
+    }
+
+    @Override
+    public void setNodeValue(String value) {
+        setData(value);
+    }
+
+    @Override
+    public String getTextContent() {
+        return getData();
+    }
+
+    @Override
+    public void setTextContent(String text) {
+        setData(text);
+    }
+}
@@ -0,0 +1,117 @@
+package com.osiris.jgbrowser.js.apis.dom;
+
+import org.graalvm.polyglot.Value;
+import org.graalvm.polyglot.proxy.ProxyArray;
+import org.graalvm.polyglot.proxy.ProxyExecutable;
+import org.graalvm.polyglot.proxy.ProxyObject;
+import org.jsoup.nodes.Element;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * JavaScript view of the class attribute of an {@link Element}, also known as classList. <br>
+ * Standard from: https://dom.spec.whatwg.org/#interface-domtokenlist <br>
+ *
+ * @author Osiris-Team
+ */
+public class JS_DOMTokenList implements ProxyObject {
+    private static final Object[] KEYS = {"length", "value", "item", "contains", "add", "remove", "toggle", "replace"};
+    private final JS_API_Document document;
+    private final Element element;
+
+    JS_DOMTokenList(JS_API_Document document, Element element) {
+        this.document = document;
+        this.element = element;
+    }
+
+    private Set<String> tokens() {
+        return new LinkedHashSet<>(element.classNames());
+    }
+
+    private void update(Set<String> tokens) {
+        document.setAttribute(element, "class", String.join(" ", tokens));
+    }
+
+    @Override
+    public Object getMember(String key) {
+        switch (key) {
+            case "length":
+                return element.classNames().size();
+            case "value":
+                return element.className();
+            case "item":
+                return (ProxyExecutable) args -> {
+                    List<String> tokens = new ArrayList<>(element.classNames());
+                    int index = args.length > 0 && args[0].fitsInInt() ? args[0].asInt() : -1;
+                    return index < 0 || index >= tokens.size() ? null : tokens.get(index);
+                };
+            case "contains":
+                return (ProxyExecutable) args -> element.hasClass(JS_Node.string(JS_Node.arg(args, 0)));
+            case "add":
+                return (ProxyExecutable) args -> {
+                    Set<String> tokens = tokens();
+                    for (Value arg : args) {
+                        tokens.add(JS_Node.string(arg));
+                    }
+                    update(tokens);
+                    return null;
+                };
+            case "remove":
+                return (ProxyExecutable) args -> {
+                    Set<String> tokens = tokens();
+                    for (Value arg : args) {
+                        tokens.remove(JS_Node.string(arg));
+                    }
+                    update(tokens);
+                    return null;
+                };
+            case "toggle":
+                return (ProxyExecutable) args -> {
+                    String token = JS_Node.string(JS_Node.arg(args, 0));
+                    Set<String> tokens = tokens();
+                    boolean add = args.length > 1 && args[1].isBoolean() ? args[1].asBoolean() : !tokens.contains(token);
+                    if (add) tokens.add(token);
+                    else tokens.remove(token);
+                    update(tokens);
+                    return add;
+                };
+            case "replace":
+                return (ProxyExecutable) args -> {
+                    String token = JS_Node.string(JS_Node.arg(args, 0));
+                    String newToken = JS_Node.string(JS_Node.arg(args, 1));
+                    Set<String> tokens = tokens();
+                    if (!tokens.contains(token)) return false;
+                    Set<String> replaced = new LinkedHashSet<>();
+                    for (String t : tokens) {
+                        replaced.add(t.equals(token) ? newToken : t);
+                    }
+                    update(replaced);
+                    return true;
+                };
+            default:
+                return null;
+        }
+    }
+
+    @Override
+    public Object getMemberKeys() {
+        return ProxyArray.fromArray(KEYS);
+    }
+
+    @Override
+    public boolean hasMember(String key) {
+        for (Object k : KEYS) {
+            if (k.equals(key)) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void putMember(String key, Value value) {
+        if ("value".equals(key))
+            document.setAttribute(element, "class", value.isNull() ? "" : JS_Node.string(value));
+    }
+}
@@ -0,0 +1,254 @@
+package com.osiris.jgbrowser.js.apis.dom;
+
+import org.graalvm.polyglot.Value;
+import org.graalvm.polyglot.proxy.ProxyArray;
+import org.graalvm.polyglot.proxy.ProxyExecutable;
+import org.graalvm.polyglot.proxy.ProxyObject;
+import org.jsoup.nodes.Attribute;
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+import org.jsoup.nodes.TextNode;
+import org.jsoup.select.Elements;
+import org.jsoup.select.Selector;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * JavaScript view of a jsoup {@link Element}. <br>
+ * Standard from: https://dom.spec.whatwg.org/#interface-element <br>
+ * Selectors are evaluated by jsoup, whose syntax is very close to CSS. <br>
+ *
+ * @author Osiris-Team
+ */
+public class JS_Element extends JS_Node {
+    static final String[] KEYS = concat(JS_Node.KEYS, "tagName", "localName", "id", "className", "classList", "attributes",
+            "getAttribute", "setAttribute", "removeAttribute", "hasAttribute", "hasAttributes", "getAttributeNames",
+            "children", "childElementCount", "firstElementChild", "lastElementChild", "nextElementSibling", "previousElementSibling",
+            "innerHTML", "outerHTML", "innerText", "querySelector", "querySelectorAll", "getElementsByTagName",
+            "getElementsByClassName", "matches", "closest", "append", "prepend", "remove");
+    private static final Set<String> KEY_SET = new HashSet<>(Arrays.asList(KEYS));
+
+    JS_Element(JS_API_Document document, Element element) {
+        super(document, element);
+    }
+
+    public Element getElement() {
+        return (Element) node;
+    }
+
+    @Override
+    public Object getMember(String key) {
+        Element element = (Element) node;
+        switch (key) {
+            case "tagName":
+                return element.tagName().toUpperCase(Locale.ROOT);
+            case "localName":
+                return element.normalName();
+            case "id":
+                return element.id();
+            case "className":
+                return element.className();
+            case "classList":
+                return new JS_DOMTokenList(document, element);
+            case "attributes": {
+                List<Object> attributes = new ArrayList<>(element.attributesSize());
+                for (Attribute attribute : element.attributes()) {
+                    Map<String, Object> map = new HashMap<>(4);
+                    map.put("name", attribute.getKey());
+                    map.put("value", attribute.getValue());
+                    attributes.add(ProxyObject.fromMap(map));
+                }
+                return ProxyArray.fromList(attributes);
+            }
+            case "getAttribute":
+                return (ProxyExecutable) args -> {
+                    String name = string(arg(args, 0));
+                    return element.hasAttr(name) ? element.attr(name) : null;
+                };
+            case "setAttribute":
+                return (ProxyExecutable) args -> {
+                    document.setAttribute(element, string(arg(args, 0)), string(arg(args, 1)));
+                    return null;
+                };
+            case "removeAttribute":
+                return (ProxyExecutable) args -> {
+                    document.setAttribute(element, string(arg(args, 0)), null);
+                    return null;
+                };
+            case "hasAttribute":
+                return (ProxyExecutable) args -> element.hasAttr(string(arg(args, 0)));
+            case "hasAttributes":
+                return (ProxyExecutable) args -> element.attributesSize() > 0;
+            case "getAttributeNames":
+                return (ProxyExecutable) args -> {
+                    List<Object> names = new ArrayList<>(element.attributesSize());
+                    for (Attribute attribute : element.attributes()) {
+                        names.add(attribute.getKey());
+                    }
+                    return ProxyArray.fromList(names);
+                };
+            case "children":
+                return new JS_NodeList(document, element.children());
+            case "childElementCount":
+                return element.childrenSize();
+            case "firstElementChild":
+                return document.wrap(element.childrenSize() == 0 ? null : element.child(0));
+            case "lastElementChild":
+                return document.wrap(element.childrenSize() == 0 ? null : element.child(element.childrenSize() - 1));
+            case "nextElementSibling":
+                return document.wrap(element.nextElementSibling());
+            case "previousElementSibling":
+                return document.wrap(element.previousElementSibling());
+            case "innerHTML":
+                return element.html();
+            case "outerHTML":
+                return element.outerHtml();
+            case "innerText":
+                return element.text();
+            case "querySelector":
+                return traced(key, args -> document.wrap(querySelector(element, string(arg(args, 0)))));
+            case "querySelectorAll":
+                return traced(key, args -> new JS_NodeList(document, querySelectorAll(element, string(arg(args, 0)))));
+            case "getElementsByTagName":
+                return traced(key, args -> new JS_NodeList(document, document.getElementsByTagName(element, string(arg(args, 0)))));
+            case "getElementsByClassName":
+                return traced(key, args -> new JS_NodeList(document, document.getElementsByClassName(element, string(arg(args, 0)))));
+            case "matches":
+                return traced(key, args -> {
+                    String selector = string(arg(args, 0));
+                    try {
+                        return element.is(selector);
+                    } catch (Selector.SelectorParseException e) {
+                        throw syntaxError(selector, e);
+                    }
+                });
+            case "closest":
+                return traced(key, args -> {
+                    String selector = string(arg(args, 0));
+                    try {
+                        return document.wrap(element.closest(selector));
+                    } catch (Selector.SelectorParseException e) {
+                        throw syntaxError(selector, e);
+                    }
+                });
+            case "append":
+                return (ProxyExecutable) args -> {
+                    for (Value arg : args) {
+                        insert(toNode(arg), element.childNodeSize());
+                    }
+                    return null;
+                };
+            case "prepend":
+                return (ProxyExecutable) args -> {
+                    for (int i = args.length - 1; i >= 0; i--) {
+                        insert(toNode(args[i]), 0);
+                    }
+                    return null;
+                };
+            case "remove":
+                return (ProxyExecutable) args -> {
+                    if (element.parent() != null) document.remove(element);
+                    return null;
+                };
+            default:
+                return super.getMember(key);
+        }
+    }
+
+    @Override
+    public void putMember(String key, Value value) {
+        Element element = (Element) node;
+        switch (key) {
+            case "id":
+                document.setAttribute(element, "id", value.isNull() ? "" : string(value));
+                return;
+            case "className":
+                document.setAttribute(element, "class", value.isNull() ? "" : string(value));
+                return;
+            case "innerHTML":
+                document.setInnerHtml(element, value.isNull() ? "" : string(value));
+                return;
+            case "innerText":
+                setTextContent(value.isNull() ? "" : string(value));
+                return;
+            default:
+                super.putMember(key, value);
+        }
+    }
+
+    @Override
+    protected String[] getKeys() {
+        return KEYS;
+    }
+
+    @Override
+    protected Set<String> getKeySet() {
+        return KEY_SET;
+    }
+
+    @Override
+    public short getNodeType() {
+        return ELEMENT_NODE;
+    }
+
+    @Override
+    public String getNodeName() {
+        return ((Element) node).tagName().toUpperCase(Locale.ROOT);
+    }
+
+    @Override
+    public String getTextContent() {
+        return ((Element) node).wholeText();
+    }
+
+    @Override
+    public void setTextContent(String text) {
+        document.setText((Element) node, text);
+    }
+
+    /**
+     * Converts the provided argument to a node, strings become text nodes, like in append() and prepend().
+     */
+    private Node toNode(Value value) {
+        Node node = nodeOrNull(value);
+        return node != null ? node : new TextNode(string(value));
+    }
+
+    /**
+     * Returns the first descendant matching the provided selector. The element itself is not included.
+     */
+    static Element querySelector(Element root, String selector) {
+        try {
+            Element first = root.selectFirst(selector);
+            if (first != root) return first;
+            Elements all = root.select(selector);
+            return all.size() > 1 ? all.get(1) : null;
+        } catch (Selector.SelectorParseException e) {
+            throw syntaxError(selector, e);
+        }
+    }
+
+    /**
+     * Returns all descendants matching the provided selector, in document order. The element itself is not included.
+     */
+    static Elements querySelectorAll(Element root, String selector) {
+        try {
+            Elements all = root.select(selector);
+            if (!all.isEmpty() && all.get(0) == root) all.remove(0);
+            return all;
+        } catch (Selector.SelectorParseException e) {
+            throw syntaxError(selector, e);
+        }
+    }
+
+    private static IllegalArgumentException syntaxError(String selector, Exception cause) {
+        return new IllegalArgumentException("SyntaxError: '" + selector + "' is not a valid selector.", cause);
+    }
+}
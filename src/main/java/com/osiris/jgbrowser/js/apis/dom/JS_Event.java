@@ -1,18 +1,234 @@
 package com.osiris.jgbrowser.js.apis.dom;
 
-import org.graalvm.polyglot.HostAccess;
+import org.graalvm.polyglot.Value;
+import org.graalvm.polyglot.proxy.ProxyArray;
+import org.graalvm.polyglot.proxy.ProxyExecutable;
+import org.graalvm.polyglot.proxy.ProxyObject;
+import org.jsoup.nodes.Node;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Standard from: https://dom.spec.whatwg.org/ <br>
  * Checked: 07.09.2021 <br>
+ * Created by scripts via new Event(type, eventInitDict) (see {@link JS_Event_S}), <br>
+ * or by Java via {@link JS_API_Document#fireEvent(Node, String, JS_EventInit)}, which re-uses pooled instances. <br>
+ * Methods are created once per instance, so accessing them doesn't allocate. <br>
+ *
+ * @author Osiris-Team
  */
-public class JS_Event {
+public class JS_Event implements ProxyObject {
+    public static final short NONE = 0;
+    public static final short CAPTURING_PHASE = 1;
+    public static final short AT_TARGET = 2;
+    public static final short BUBBLING_PHASE = 3;
+
+    private static final String[] KEYS = {"type", "target", "srcElement", "currentTarget", "composedPath", "eventPhase",
+            "stopPropagation", "cancelBubble", "stopImmediatePropagation", "bubbles", "cancelable", "returnValue",
+            "preventDefault", "defaultPrevented", "composed", "isTrusted", "timeStamp", "initEvent",
+            "NONE", "CAPTURING_PHASE", "AT_TARGET", "BUBBLING_PHASE"};
+    private static final Set<String> KEY_SET = new HashSet<>(Arrays.asList(KEYS));
+
+    private String type;
+    private boolean bubbles;
+    private boolean cancelable;
+    private boolean composed;
+    private boolean trusted;
+    private double timeStamp;
+    JS_Node target;
+    JS_Node currentTarget;
+    short eventPhase;
+    boolean stopPropagation;
+    boolean stopImmediatePropagation;
+    boolean canceled;
+    boolean inPassiveListener;
+    boolean dispatching;
+    private Map<String, Object> expandos;
+
+    private final ProxyExecutable composedPathFunction = args -> ProxyArray.fromList(composedPath());
+    private final ProxyExecutable stopPropagationFunction = args -> {
+        stopPropagation = true;
+        return null;
+    };
+    private final ProxyExecutable stopImmediatePropagationFunction = args -> {
+        stopPropagation = true;
+        stopImmediatePropagation = true;
+        return null;
+    };
+    private final ProxyExecutable preventDefaultFunction = args -> {
+        preventDefault();
+        return null;
+    };
+    private final ProxyExecutable initEventFunction = args -> {
+        if (!dispatching)
+            init(JS_Node.string(JS_Node.arg(args, 0)), args.length > 1 && args[1].isBoolean() && args[1].asBoolean(),
+                    args.length > 2 && args[2].isBoolean() && args[2].asBoolean(), false, trusted, timeStamp);
+        return null;
+    };
+
+    public JS_Event(String type, JS_EventInit eventInitDict, double timeStamp) {
+        if (eventInitDict == null) eventInitDict = new JS_EventInit();
+        init(type, eventInitDict.bubbles, eventInitDict.cancelable, eventInitDict.composed, false, timeStamp);
+    }
+
+    /**
+     * (Re-)initializes this event, clears all state of previous dispatches.
+     */
+    void init(String type, boolean bubbles, boolean cancelable, boolean composed, boolean trusted, double timeStamp) {
+        this.type = type;
+        this.bubbles = bubbles;
+        this.cancelable = cancelable;
+        this.composed = composed;
+        this.trusted = trusted;
+        this.timeStamp = timeStamp;
+        this.target = null;
+        this.currentTarget = null;
+        this.eventPhase = NONE;
+        this.stopPropagation = false;
+        this.stopImmediatePropagation = false;
+        this.canceled = false;
+        this.inPassiveListener = false;
+        this.expandos = null;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public boolean isBubbles() {
+        return bubbles;
+    }
+
+    public boolean isCancelable() {
+        return cancelable;
+    }
 
-    @HostAccess.Export
-    public JS_Event(String type, JS_EventInit eventInitDict) {
+    public boolean isTrusted() {
+        return trusted;
+    }
+
+    public boolean isDefaultPrevented() {
+        return canceled;
+    }
+
+    public JS_Node getTarget() {
+        return target;
+    }
+
+    public void preventDefault() {
+        if (cancelable && !inPassiveListener) canceled = true;
+    }
+
+    /**
+     * Sets an additional property, like detail or clientX, which scripts can read.
+     */
+    public JS_Event setProperty(String key, Object value) {
+        if (expandos == null) expandos = new HashMap<>(4);
+        expandos.put(key, value);
+        return this;
+    }
 
+    /**
+     * Returns the target and its ancestors up to the document, while this event is being dispatched.
+     */
+    public List<Object> composedPath() {
+        List<Object> path = new ArrayList<>();
+        if (!dispatching || target == null) return path;
+        for (Node n = target.node; n != null; n = n.parent()) {
+            path.add(target.document.wrap(n));
+        }
+        return path;
     }
 
+    @Override
+    public Object getMember(String key) {
+        switch (key) {
+            case "type":
+                return type;
+            case "target":
+            case "srcElement":
+                return target;
+            case "currentTarget":
+                return currentTarget;
+            case "composedPath":
+                return composedPathFunction;
+            case "eventPhase":
+                return eventPhase;
+            case "stopPropagation":
+                return stopPropagationFunction;
+            case "cancelBubble":
+                return stopPropagation;
+            case "stopImmediatePropagation":
+                return stopImmediatePropagationFunction;
+            case "bubbles":
+                return bubbles;
+            case "cancelable":
+                return cancelable;
+            case "returnValue":
+                return !canceled;
+            case "preventDefault":
+                return preventDefaultFunction;
+            case "defaultPrevented":
+                return canceled;
+            case "composed":
+                return composed;
+            case "isTrusted":
+                return trusted;
+            case "timeStamp":
+                return timeStamp;
+            case "initEvent":
+                return initEventFunction;
+            case "NONE":
+                return NONE;
+            case "CAPTURING_PHASE":
+                return CAPTURING_PHASE;
+            case "AT_TARGET":
+                return AT_TARGET;
+            case "BUBBLING_PHASE":
+                return BUBBLING_PHASE;
+            default:
+                return expandos == null ? null : expandos.get(key);
+        }
+    }
+
+    @Override
+    public void putMember(String key, Value value) {
+        switch (key) {
+            case "cancelBubble":
+                if (value.isBoolean() && value.asBoolean()) stopPropagation = true;
+                return;
+            case "returnValue":
+                if (value.isBoolean() && !value.asBoolean()) preventDefault();
+                return;
+            default:
+                if (KEY_SET.contains(key)) return; // Read-only
+                setProperty(key, value);
+        }
+    }
+
+    @Override
+    public boolean removeMember(String key) {
+        return expandos != null && expandos.remove(key) != null;
+    }
+
+    @Override
+    public boolean hasMember(String key) {
+        return KEY_SET.contains(key) || (expandos != null && expandos.containsKey(key));
+    }
+
+    @Override
+    public Object getMemberKeys() {
+        Set<Object> keys = new LinkedHashSet<>(Arrays.asList(KEYS));
+        if (expandos != null) keys.addAll(expandos.keySet());
+        return ProxyArray.fromArray(keys.toArray());
+    }
 
 /*
 
@@ -1,15 +1,40 @@
 package com.osiris.jgbrowser.js.apis.dom;
 
 import org.graalvm.polyglot.HostAccess;
+import org.graalvm.polyglot.Value;
 
 public class JS_EventInit {
 
     @HostAccess.Export
-    boolean bubbles = false;
+    public boolean bubbles = false;
 
     @HostAccess.Export
-    boolean cancelable = false;
+    public boolean cancelable = false;
 
     @HostAccess.Export
-    boolean composed = false;
+    public boolean composed = false;
+
+    public JS_EventInit() {
+    }
+
+    public JS_EventInit(boolean bubbles, boolean cancelable) {
+        this.bubbles = bubbles;
+        this.cancelable = cancelable;
+    }
+
+    /**
+     * Reads the provided JavaScript dictionary, missing members keep their defaults.
+     */
+    static JS_EventInit from(Value dict) {
+        JS_EventInit init = new JS_EventInit();
+        if (dict == null || dict.isNull() || !dict.hasMembers()) return init;
+        init.bubbles = isTrue(dict.getMember("bubbles"));
+        init.cancelable = isTrue(dict.getMember("cancelable"));
+        init.composed = isTrue(dict.getMember("composed"));
+        return init;
+    }
+
+    private static boolean isTrue(Value value) {
+        return value != null && value.isBoolean() && value.asBoolean();
+    }
 }
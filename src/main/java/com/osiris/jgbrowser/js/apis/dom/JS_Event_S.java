@@ -1,23 +1,62 @@
 package com.osiris.jgbrowser.js.apis.dom;
 
 import com.osiris.jgbrowser.js.apis.JS_API;
-import org.graalvm.polyglot.HostAccess;
+import com.osiris.jgbrowser.js.context.GraalContext;
+import org.graalvm.polyglot.Value;
+import org.graalvm.polyglot.proxy.ProxyArray;
+import org.graalvm.polyglot.proxy.ProxyInstantiable;
+import org.graalvm.polyglot.proxy.ProxyObject;
 
 /**
  * Fake statics class. <br>
  * Standard from: https://dom.spec.whatwg.org/ <br>
  * Checked: 07.09.2021 <br>
+ * Also the constructor of events, thus scripts can create them via new Event(type, eventInitDict). <br>
  */
-public class JS_Event_S implements JS_API {
-
-    @HostAccess.Export
-    public final short NONE = 0;
-    @HostAccess.Export
-    public final short CAPTURING_PHASE = 1;
-    @HostAccess.Export
-    public final short AT_TARGET = 2;
-    @HostAccess.Export
-    public final short BUBBLING_PHASE = 3;
+public class JS_Event_S implements JS_API, ProxyObject, ProxyInstantiable {
+    private static final Object[] KEYS = {"NONE", "CAPTURING_PHASE", "AT_TARGET", "BUBBLING_PHASE"};
+    private final GraalContext context;
+
+    public JS_Event_S(GraalContext context) {
+        this.context = context;
+    }
+
+    @Override
+    public Object newInstance(Value... args) {
+        return new JS_Event(JS_Node.string(JS_Node.arg(args, 0)),
+                JS_EventInit.from(args.length > 1 ? args[1] : null), context.getTimers().now());
+    }
+
+    @Override
+    public Object getMember(String key) {
+        switch (key) {
+            case "NONE":
+                return JS_Event.NONE;
+            case "CAPTURING_PHASE":
+                return JS_Event.CAPTURING_PHASE;
+            case "AT_TARGET":
+                return JS_Event.AT_TARGET;
+            case "BUBBLING_PHASE":
+                return JS_Event.BUBBLING_PHASE;
+            default:
+                return null;
+        }
+    }
+
+    @Override
+    public Object getMemberKeys() {
+        return ProxyArray.fromArray(KEYS);
+    }
+
+    @Override
+    public boolean hasMember(String key) {
+        return getMember(key) != null;
+    }
+
+    @Override
+    public void putMember(String key, Value value) {
+        // Read-only
+    }
 
     @Override
     public String getJSGlobalVarName() {
@@ -0,0 +1,363 @@
+package com.osiris.jgbrowser.js.apis.dom;
+
+import com.osiris.jgbrowser.jfr.ApiCallEvent;
+import com.osiris.jgbrowser.jfr.JFR;
+import org.graalvm.polyglot.Value;
+import org.graalvm.polyglot.proxy.ProxyArray;
+import org.graalvm.polyglot.proxy.ProxyExecutable;
+import org.graalvm.polyglot.proxy.ProxyObject;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.DocumentType;
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * JavaScript view of a jsoup {@link Node}. <br>
+ * Standard from: https://dom.spec.whatwg.org/#interface-node <br>
+ * Implemented as {@link ProxyObject}, since DOM attributes like textContent are properties with getters and setters, <br>
+ * which can't be expressed with exported fields or methods. <br>
+ * Never create wrappers directly, but get them from {@link JS_API_Document#wrap(Node)}, <br>
+ * which makes sure that the same node is always represented by the same JavaScript object. <br>
+ * Properties unknown to the DOM (expandos) can be set by scripts and are stored in the wrapper. <br>
+ * Every node is also an event target: https://dom.spec.whatwg.org/#interface-eventtarget <br>
+ *
+ * @author Osiris-Team
+ */
+public class JS_Node implements ProxyObject {
+    public static final short ELEMENT_NODE = 1;
+    public static final short TEXT_NODE = 3;
+    public static final short CDATA_SECTION_NODE = 4;
+    public static final short COMMENT_NODE = 8;
+    public static final short DOCUMENT_NODE = 9;
+    public static final short DOCUMENT_TYPE_NODE = 10;
+
+    static final String[] KEYS = {"nodeType", "nodeName", "nodeValue", "textContent", "parentNode", "parentElement",
+            "ownerDocument", "childNodes", "firstChild", "lastChild", "nextSibling", "previousSibling", "isConnected",
+            "hasChildNodes", "appendChild", "insertBefore", "removeChild", "replaceChild", "cloneNode", "contains", "isSameNode",
+            "addEventListener", "removeEventListener", "dispatchEvent"};
+    private static final Set<String> KEY_SET = new HashSet<>(Arrays.asList(KEYS));
+
+    protected final JS_API_Document document;
+    protected Node node;
+    private Map<String, Object> expandos;
+    /**
+     * Null until the first listener gets added.
+     */
+    EventListenerList listeners;
+
+    /**
+     * @param document the document this node belongs to, null if this is the document itself.
+     */
+    JS_Node(JS_API_Document document, Node node) {
+        this.document = document != null ? document : (JS_API_Document) this;
+        this.node = node;
+    }
+
+    /**
+     * Returns the jsoup node represented by this wrapper.
+     */
+    public Node getNode() {
+        return node;
+    }
+
+    @Override
+    public Object getMember(String key) {
+        switch (key) {
+            case "nodeType":
+                return getNodeType();
+            case "nodeName":
+                return getNodeName();
+            case "nodeValue":
+                return getNodeValue();
+            case "textContent":
+                return getTextContent();
+            case "parentNode":
+                return document.wrap(node.parent());
+            case "parentElement": {
+                Node parent = node.parent();
+                return parent instanceof Element && !(parent instanceof Document) ? document.wrap(parent) : null;
+            }
+            case "ownerDocument":
+                return node instanceof Document ? null : document;
+            case "childNodes":
+                return new JS_NodeList(document, node.childNodes());
+            case "firstChild":
+                return node.childNodeSize() == 0 ? null : document.wrap(node.childNode(0));
+            case "lastChild":
+                return node.childNodeSize() == 0 ? null : document.wrap(node.childNode(node.childNodeSize() - 1));
+            case "nextSibling":
+                return document.wrap(node.nextSibling());
+            case "previousSibling":
+                return document.wrap(node.previousSibling());
+            case "isConnected":
+                return node.root() == document.node;
+            case "hasChildNodes":
+                return (ProxyExecutable) args -> node.childNodeSize() > 0;
+            case "appendChild":
+                return (ProxyExecutable) args -> {
+                    Node child = node(arg(args, 0));
+                    insert(child, node.childNodeSize());
+                    return document.wrap(child);
+                };
+            case "insertBefore":
+                return (ProxyExecutable) args -> {
+                    Node child = node(arg(args, 0));
+                    Node reference = args.length > 1 ? nodeOrNull(args[1]) : null;
+                    if (reference == null)
+                        insert(child, node.childNodeSize());
+                    else {
+                        checkChild(reference);
+                        insert(child, reference.siblingIndex());
+                    }
+                    return document.wrap(child);
+                };
+            case "removeChild":
+                return (ProxyExecutable) args -> {
+                    Node child = node(arg(args, 0));
+                    checkChild(child);
+                    document.remove(child);
+                    return document.wrap(child);
+                };
+            case "replaceChild":
+                return (ProxyExecutable) args -> {
+                    Node child = node(arg(args, 0));
+                    Node old = node(arg(args, 1));
+                    checkChild(old);
+                    if (child != old) {
+                        int index = old.siblingIndex();
+                        document.remove(old);
+                        insert(child, index);
+                    }
+                    return document.wrap(old);
+                };
+            case "cloneNode":
+                return (ProxyExecutable) args -> {
+                    boolean deep = args.length > 0 && args[0].isBoolean() && args[0].asBoolean();
+                    return document.wrap(deep ? node.clone() : node.shallowClone());
+                };
+            case "contains":
+                return (ProxyExecutable) args -> {
+                    Node other = nodeOrNull(arg(args, 0));
+                    while (other != null) {
+                        if (other == node) return true;
+                        other = other.parent();
+                    }
+                    return false;
+                };
+            case "isSameNode":
+                return (ProxyExecutable) args -> nodeOrNull(arg(args, 0)) == node;
+            case "addEventListener":
+                return (ProxyExecutable) args -> {
+                    Value callback = args.length > 1 ? args[1] : null;
+                    if (callback == null || callback.isNull()) return null;
+                    Value options = args.length > 2 ? args[2] : null;
+                    if (listeners == null) {
+                        listeners = new EventListenerList();
+                        document.pin(this); // Listeners must survive, even if scripts don't reference this node anymore
+                    }
+                    listeners.add(string(arg(args, 0)), callback, option(options, "capture"),
+                            option(options, "once"), option(options, "passive"));
+                    return null;
+                };
+            case "removeEventListener":
+                return (ProxyExecutable) args -> {
+                    Value callback = args.length > 1 ? args[1] : null;
+                    if (listeners == null || callback == null || callback.isNull()) return null;
+                    listeners.remove(string(arg(args, 0)), callback, option(args.length > 2 ? args[2] : null, "capture"));
+                    return null;
+                };
+            case "dispatchEvent":
+                return (ProxyExecutable) args -> {
+                    Value value = arg(args, 0);
+                    Object event = value.isProxyObject() ? value.asProxyObject() : null;
+                    if (!(event instanceof JS_Event))
+                        throw new IllegalArgumentException("TypeError: Argument 1 is not an Event.");
+                    ApiCallEvent trace = JFR.AVAILABLE ? ApiCallEvent.start() : null;
+                    try {
+                        return document.dispatch(this, (JS_Event) event);
+                    } finally {
+                        if (trace != null) trace.end("EventTarget", "dispatchEvent", ((JS_Event) event).getType());
+                    }
+                };
+            default:
+                return expandos == null ? null : expandos.get(key);
+        }
+    }
+
+    @Override
+    public void putMember(String key, Value value) {
+        switch (key) {
+            case "textContent":
+                setTextContent(value.isNull() ? "" : string(value));
+                return;
+            case "nodeValue":
+                setNodeValue(value.isNull() ? "" : string(value));
+                return;
+            default:
+                if (getKeySet().contains(key)) return; // Like in non-strict JavaScript, assignments to read-only properties are ignored
+                if (expandos == null) {
+                    expandos = new HashMap<>();
+                    document.pin(this);
+                }
+                expandos.put(key, value);
+        }
+    }
+
+    @Override
+    public boolean removeMember(String key) {
+        return expandos != null && expandos.remove(key) != null;
+    }
+
+    @Override
+    public boolean hasMember(String key) {
+        return getKeySet().contains(key) || (expandos != null && expandos.containsKey(key));
+    }
+
+    @Override
+    public Object getMemberKeys() {
+        Set<Object> keys = new LinkedHashSet<>(Arrays.asList(getKeys()));
+        if (expandos != null) keys.addAll(expandos.keySet());
+        return ProxyArray.fromArray(keys.toArray());
+    }
+
+    /**
+     * Returns the names of all DOM properties and methods of this node.
+     */
+    protected String[] getKeys() {
+        return KEYS;
+    }
+
+    /**
+     * Returns {@link #getKeys()} as set, for fast lookups.
+     */
+    protected Set<String> getKeySet() {
+        return KEY_SET;
+    }
+
+    /**
+     * Returns a new array containing the provided keys, followed by the additional ones.
+     */
+    static String[] concat(String[] keys, String... additionalKeys) {
+        String[] all = Arrays.copyOf(keys, keys.length + additionalKeys.length);
+        System.arraycopy(additionalKeys, 0, all, keys.length, additionalKeys.length);
+        return all;
+    }
+
+    public short getNodeType() {
+        return node instanceof DocumentType ? DOCUMENT_TYPE_NODE : 0;
+    }
+
+    public String getNodeName() {
+        return node.nodeName();
+    }
+
+    public String getNodeValue() {
+        return null;
+    }
+
+    public void setNodeValue(String value) {
+        // Does nothing for elements and documents
+    }
+
+    public String getTextContent() {
+        return null;
+    }
+
+    public void setTextContent(String text) {
+        // Does nothing for documents
+    }
+
+    /**
+     * Inserts the provided node as child of this node, at the provided index. <br>
+     * Removes it from its old parent first. <br>
+     */
+    protected void insert(Node child, int index) {
+        if (!(node instanceof Element) || child instanceof Document)
+            throw new IllegalStateException("HierarchyRequestError: Cannot insert a " + child.nodeName() + " into a " + node.nodeName() + ".");
+        for (Node ancestor = node; ancestor != null; ancestor = ancestor.parent()) {
+            if (ancestor == child)
+                throw new IllegalStateException("HierarchyRequestError: The new child is an ancestor of the parent.");
+        }
+        if (child.parent() == node && child.siblingIndex() < index)
+            index--; // Removing it first shifts the index
+        if (child.parent() != null)
+            document.remove(child);
+        document.insert((Element) node, index, child);
+    }
+
+    /**
+     * Reads a flag of the options argument of add/removeEventListener, which is either a boolean (capture) or an object.
+     */
+    private static boolean option(Value options, String name) {
+        if (options == null || options.isNull()) return false;
+        if (options.isBoolean()) return "capture".equals(name) && options.asBoolean();
+        if (!options.hasMembers()) return false;
+        Value option = options.getMember(name);
+        return option != null && option.isBoolean() && option.asBoolean();
+    }
+
+    /**
+     * Returns true if this node has event listeners.
+     */
+    public boolean hasEventListeners() {
+        return listeners != null && !listeners.isEmpty();
+    }
+
+    private void checkChild(Node child) {
+        if (child.parent() != node)
+            throw new IllegalStateException("NotFoundError: The node is not a child of this node.");
+    }
+
+    /**
+     * Returns the provided method, traced as {@link ApiCallEvent} if Flight Recorder is available. <br>
+     * Used for methods that can take long, like queries, so that recordings show which call stalled a window. <br>
+     */
+    ProxyExecutable traced(String method, ProxyExecutable code) {
+        if (!JFR.AVAILABLE) return code;
+        String api = node instanceof Document ? "Document" : node instanceof Element ? "Element" : "Node";
+        return args -> {
+            ApiCallEvent event = ApiCallEvent.start();
+            try {
+                return code.execute(args);
+            } finally {
+                event.end(api, method, args.length > 0 ? args[0] : null);
+            }
+        };
+    }
+
+    static Value arg(Value[] args, int index) {
+        if (index >= args.length)
+            throw new IllegalArgumentException("TypeError: Expected at least " + (index + 1) + " argument(s), but got " + args.length + ".");
+        return args[index];
+    }
+
+    /**
+     * Returns the jsoup node of the provided JavaScript node.
+     */
+    static Node node(Value value) {
+        Node node = nodeOrNull(value);
+        if (node == null)
+            throw new IllegalArgumentException("TypeError: Argument is not a Node.");
+        return node;
+    }
+
+    static Node nodeOrNull(Value value) {
+        if (value == null || !value.isProxyObject()) return null;
+        Object proxy = value.asProxyObject();
+        return proxy instanceof JS_Node ? ((JS_Node) proxy).node : null;
+    }
+
+    /**
+     * Converts the provided value to a string, like JavaScript does.
+     */
+    static String string(Value value) {
+        return value.isString() ? value.asString() : value.toString();
+    }
+}
@@ -0,0 +1,78 @@
+package com.osiris.jgbrowser.js.apis.dom;
+
+import org.graalvm.polyglot.Value;
+import org.graalvm.polyglot.proxy.ProxyArray;
+import org.graalvm.polyglot.proxy.ProxyExecutable;
+import org.graalvm.polyglot.proxy.ProxyObject;
+import org.jsoup.nodes.Node;
+
+import java.util.List;
+
+/**
+ * JavaScript view of a list of jsoup {@link Node}s, used for NodeList and HTMLCollection. <br>
+ * Standard from: https://dom.spec.whatwg.org/#interface-nodelist <br>
+ * Is live if the provided list is live, like the one of {@link Node#childNodes()}. <br>
+ * Nodes get wrapped on access, not upfront. <br>
+ *
+ * @author Osiris-Team
+ */
+public class JS_NodeList implements ProxyArray, ProxyObject {
+    private static final Object[] KEYS = {"length", "item", "forEach"};
+    private final JS_API_Document document;
+    private final List<? extends Node> nodes;
+
+    JS_NodeList(JS_API_Document document, List<? extends Node> nodes) {
+        this.document = document;
+        this.nodes = nodes;
+    }
+
+    @Override
+    public Object get(long index) {
+        return index < 0 || index >= nodes.size() ? null : document.wrap(nodes.get((int) index));
+    }
+
+    @Override
+    public void set(long index, Value value) {
+        // Read-only
+    }
+
+    @Override
+    public long getSize() {
+        return nodes.size();
+    }
+
+    @Override
+    public Object getMember(String key) {
+        switch (key) {
+            case "length":
+                return nodes.size();
+            case "item":
+                return (ProxyExecutable) args -> args.length == 0 || !args[0].fitsInLong() ? null : get(args[0].asLong());
+            case "forEach":
+                return (ProxyExecutable) args -> {
+                    Value callback = JS_Node.arg(args, 0);
+                    for (int i = 0; i < nodes.size(); i++) {
+                        callback.execute(document.wrap(nodes.get(i)), i, this);
+                    }
+                    return null;
+                };
+            default:
+                return null;
+        }
+    }
+
+    @Override
+    public Object getMemberKeys() {
+        return ProxyArray.fromArray(KEYS);
+    }
+
+    @Override
+    public boolean hasMember(String key) {
+        return "length".equals(key) || "item".equals(key) || "forEach".equals(key);
+    }
+
+    @Override
+    public void putMember(String key, Value value) {
+        // Read-only
+    }
+}
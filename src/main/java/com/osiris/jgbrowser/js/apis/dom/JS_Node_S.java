@@ -0,0 +1,34 @@
+package com.osiris.jgbrowser.js.apis.dom;
+
+import com.osiris.jgbrowser.js.apis.JS_API;
+import org.graalvm.polyglot.HostAccess;
+
+/**
+ * Fake statics class. <br>
+ * Standard from: https://dom.spec.whatwg.org/#interface-node <br>
+ */
+public class JS_Node_S implements JS_API {
+
+    @HostAccess.Export
+    public final short ELEMENT_NODE = JS_Node.ELEMENT_NODE;
+    @HostAccess.Export
+    public final short TEXT_NODE = JS_Node.TEXT_NODE;
+    @HostAccess.Export
+    public final short CDATA_SECTION_NODE = JS_Node.CDATA_SECTION_NODE;
+    @HostAccess.Export
+    public final short COMMENT_NODE = JS_Node.COMMENT_NODE;
+    @HostAccess.Export
+    public final short DOCUMENT_NODE = JS_Node.DOCUMENT_NODE;
+    @HostAccess.Export
+    public final short DOCUMENT_TYPE_NODE = JS_Node.DOCUMENT_TYPE_NODE;
+
+    @Override
+    public String getJSGlobalVarName() {
+        return "Node";
+    }
+
+    @Override
+    public String getOptionalJSCode() {
+        return null;
+    }
+}
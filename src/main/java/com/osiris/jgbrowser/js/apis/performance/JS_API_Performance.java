@@ -0,0 +1,242 @@
+package com.osiris.jgbrowser.js.apis.performance;
+
+import com.osiris.jgbrowser.js.apis.JS_API;
+import org.graalvm.polyglot.HostAccess;
+import org.graalvm.polyglot.Value;
+import org.graalvm.polyglot.proxy.ProxyArray;
+import org.graalvm.polyglot.proxy.ProxyExecutable;
+import org.graalvm.polyglot.proxy.ProxyObject;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementation of: https://w3c.github.io/hr-time/ and https://w3c.github.io/user-timing/ <br>
+ * Provides performance.now(), mark(), measure() and the entry getters to JavaScript. <br>
+ * The clock is monotonic, based on {@link System#nanoTime()}, and starts at the time origin, <br>
+ * which is reset once a new page gets loaded (see {@link #reset()}). <br>
+ * Entries are stored in a {@link PerformanceTimeline}, which Java can read via {@link #getTimeline()}. <br>
+ *
+ * @author Osiris-Team
+ */
+public class JS_API_Performance implements JS_API {
+    private final PerformanceTimeline timeline = new PerformanceTimeline();
+    private volatile long originNanos = System.nanoTime();
+
+    /**
+     * The time of the time origin, in milliseconds since the unix epoch.
+     */
+    @HostAccess.Export
+    public double timeOrigin = System.currentTimeMillis();
+
+    // Like the console, the performance object gets replaced by a JavaScript object, that delegates to this one,
+    // so that the entry getters return real arrays (with map(), filter() etc.) instead of array-like proxies:
+    public static final String JS_CODE = "" +
+            "(function (javaPerformance) {\n" +
+            "    const performance = {\n" +
+            "        get timeOrigin() { return javaPerformance.timeOrigin; },\n" +
+            "        now: () => javaPerformance.now(),\n" +
+            "        mark: (...args) => javaPerformance.mark(...args),\n" +
+            "        measure: (...args) => javaPerformance.measure(...args),\n" +
+            "        clearMarks: (...args) => javaPerformance.clearMarks(...args),\n" +
+            "        clearMeasures: (...args) => javaPerformance.clearMeasures(...args),\n" +
+            "        toJSON: () => ({timeOrigin: javaPerformance.timeOrigin})\n" +
+            "    };\n" +
+            "    for (const name of ['getEntries', 'getEntriesByType', 'getEntriesByName']) {\n" +
+            "        performance[name] = (...args) => Array.from(javaPerformance[name](...args));\n" +
+            "    }\n" +
+            "    globalThis.performance = performance;\n" +
+            "})(performance);";
+
+    @Override
+    public String getJSGlobalVarName() {
+        return "performance";
+    }
+
+    @Override
+    public String getOptionalJSCode() {
+        return JS_CODE;
+    }
+
+    // Only accessible from Java:
+
+    /**
+     * Returns the timeline of the current page.
+     */
+    public PerformanceTimeline getTimeline() {
+        return timeline;
+    }
+
+    /**
+     * Removes all entries and sets the time origin to now.
+     */
+    public void reset() {
+        timeline.clear();
+        originNanos = System.nanoTime();
+        timeOrigin = System.currentTimeMillis();
+    }
+
+    /**
+     * Returns the nanoseconds elapsed since the time origin.
+     */
+    public long nowNanos() {
+        return System.nanoTime() - originNanos;
+    }
+
+    /**
+     * Adds an entry to the timeline.
+     *
+     * @param entryType     one of the types in {@link PerformanceTimeline}, like {@link PerformanceTimeline#TYPE_SCRIPT}.
+     * @param startNanos    start, relative to the time origin, see {@link #nowNanos()}.
+     * @param durationNanos duration in nanoseconds.
+     */
+    public void record(String name, String entryType, long startNanos, long durationNanos) {
+        timeline.add(name, type(entryType), startNanos, durationNanos);
+    }
+
+    private static byte type(String entryType) {
+        switch (entryType) {
+            case PerformanceTimeline.TYPE_MARK:
+                return PerformanceTimeline.MARK;
+            case PerformanceTimeline.TYPE_MEASURE:
+                return PerformanceTimeline.MEASURE;
+            case PerformanceTimeline.TYPE_SCRIPT:
+                return PerformanceTimeline.SCRIPT;
+            case PerformanceTimeline.TYPE_CONSOLE_TIME:
+                return PerformanceTimeline.CONSOLE_TIME;
+            default:
+                throw new IllegalArgumentException("Unknown entry type '" + entryType + "'.");
+        }
+    }
+
+    // Accessible from Java and JavaScript:
+
+    /**
+     * Returns the milliseconds elapsed since the time origin, with sub-millisecond precision.
+     */
+    @HostAccess.Export
+    public double now() {
+        return PerformanceTimeline.toMillis(nowNanos());
+    }
+
+    @HostAccess.Export
+    public Object mark(String name, Value... options) {
+        long start = nowNanos();
+        Value option = member(options, 0, "startTime");
+        if (option != null && option.isNumber()) start = nanos(option.asDouble());
+        timeline.add(name, PerformanceTimeline.MARK, start, 0);
+        return toJS(name, PerformanceTimeline.MARK, start, 0);
+    }
+
+    /**
+     * measure(name), measure(name, startMark), measure(name, startMark, endMark), <br>
+     * or measure(name, {start, end, duration}), where start and end are mark names or times. <br>
+     */
+    @HostAccess.Export
+    public Object measure(String name, Value... args) {
+        long end = nowNanos();
+        long start = 0;
+        Value startOrOptions = args.length > 0 ? args[0] : null;
+        if (startOrOptions != null && startOrOptions.hasMembers() && !startOrOptions.isString()) {
+            Value startValue = startOrOptions.getMember("start");
+            Value endValue = startOrOptions.getMember("end");
+            Value durationValue = startOrOptions.getMember("duration");
+            boolean hasStart = isPresent(startValue), hasEnd = isPresent(endValue), hasDuration = isPresent(durationValue);
+            if (hasEnd) end = resolve(endValue);
+            if (hasStart) start = resolve(startValue);
+            if (hasDuration) {
+                long duration = nanos(durationValue.asDouble());
+                if (hasStart) end = start + duration;
+                else if (hasEnd) start = end - duration;
+            }
+        } else {
+            if (isPresent(startOrOptions)) start = resolve(startOrOptions);
+            if (args.length > 1 && isPresent(args[1])) end = resolve(args[1]);
+        }
+        timeline.add(name, PerformanceTimeline.MEASURE, start, end - start);
+        return toJS(name, PerformanceTimeline.MEASURE, start, end - start);
+    }
+
+    @HostAccess.Export
+    public Object getEntries() {
+        return toJS(timeline.getEntries(null, null));
+    }
+
+    @HostAccess.Export
+    public Object getEntriesByType(String entryType) {
+        return toJS(timeline.getEntries(null, entryType));
+    }
+
+    @HostAccess.Export
+    public Object getEntriesByName(String name, Value... entryType) {
+        return toJS(timeline.getEntries(name, entryType.length > 0 && entryType[0].isString() ? entryType[0].asString() : null));
+    }
+
+    @HostAccess.Export
+    public void clearMarks(Value... name) {
+        timeline.clear(PerformanceTimeline.MARK, name.length > 0 && name[0].isString() ? name[0].asString() : null);
+    }
+
+    @HostAccess.Export
+    public void clearMeasures(Value... name) {
+        timeline.clear(PerformanceTimeline.MEASURE, name.length > 0 && name[0].isString() ? name[0].asString() : null);
+    }
+
+    private static boolean isPresent(Value value) {
+        return value != null && !value.isNull();
+    }
+
+    private static Value member(Value[] args, int index, String name) {
+        if (index >= args.length || !args[index].hasMembers()) return null;
+        return args[index].getMember(name);
+    }
+
+    /**
+     * Returns the time of the provided mark name or time in milliseconds, in nanoseconds.
+     */
+    private long resolve(Value markOrTime) {
+        if (markOrTime.isNumber()) return nanos(markOrTime.asDouble());
+        String name = markOrTime.toString();
+        long time = timeline.findMark(name);
+        if (time < 0)
+            throw new IllegalArgumentException("SyntaxError: The mark '" + name + "' does not exist.");
+        return time;
+    }
+
+    private static long nanos(double millis) {
+        return (long) (millis * 1_000_000);
+    }
+
+    /**
+     * Returns the provided entries as JavaScript array, without the ones that are only visible to Java.
+     */
+    private static Object toJS(List<PerformanceEntry> entries) {
+        List<Object> list = new ArrayList<>(entries.size());
+        for (PerformanceEntry entry : entries) {
+            if (entry.getEntryType().equals(PerformanceTimeline.TYPE_MARK) || entry.getEntryType().equals(PerformanceTimeline.TYPE_MEASURE))
+                list.add(toJS(entry.getName(), entry.getEntryType(), entry.getStartTime(), entry.getDuration()));
+        }
+        return ProxyArray.fromList(list);
+    }
+
+    private static Object toJS(String name, byte type, long startNanos, long durationNanos) {
+        return toJS(name, PerformanceTimeline.typeName(type), PerformanceTimeline.toMillis(startNanos), PerformanceTimeline.toMillis(durationNanos));
+    }
+
+    private static Object toJS(String name, String entryType, double startTime, double duration) {
+        Map<String, Object> map = new HashMap<>(8);
+        map.put("name", name);
+        map.put("entryType", entryType);
+        map.put("startTime", startTime);
+        map.put("duration", duration);
+        map.put("detail", null);
+        map.put("toJSON", (ProxyExecutable) args -> {
+            Map<String, Object> json = new HashMap<>(map);
+            json.remove("toJSON");
+            return ProxyObject.fromMap(json);
+        });
+        return ProxyObject.fromMap(map);
+    }
+}
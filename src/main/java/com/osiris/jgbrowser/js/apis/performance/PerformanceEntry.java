@@ -0,0 +1,46 @@
+package com.osiris.jgbrowser.js.apis.performance;
+
+/**
+ * Entry of a {@link PerformanceTimeline}. <br>
+ * Standard from: https://w3c.github.io/performance-timeline/#the-performanceentry-interface <br>
+ * Times are in milliseconds, relative to the time origin of the page (see {@link JS_API_Performance#now()}). <br>
+ *
+ * @author Osiris-Team
+ */
+public class PerformanceEntry {
+    private final String name;
+    private final String entryType;
+    private final double startTime;
+    private final double duration;
+
+    public PerformanceEntry(String name, String entryType, double startTime, double duration) {
+        this.name = name;
+        this.entryType = entryType;
+        this.startTime = startTime;
+        this.duration = duration;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the type, one of {@link PerformanceTimeline#TYPE_MARK}, {@link PerformanceTimeline#TYPE_MEASURE}, etc.
+     */
+    public String getEntryType() {
+        return entryType;
+    }
+
+    public double getStartTime() {
+        return startTime;
+    }
+
+    public double getDuration() {
+        return duration;
+    }
+
+    @Override
+    public String toString() {
+        return entryType + " '" + name + "' start=" + startTime + "ms duration=" + duration + "ms";
+    }
+}
@@ -0,0 +1,182 @@
+package com.osiris.jgbrowser.js.apis.performance;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Timeline of a page, containing the marks and measures created by its scripts, <br>
+ * and entries recorded by the browser, like the time each script took to execute. <br>
+ * Stored in parallel primitive arrays instead of one object per entry, <br>
+ * thus recording doesn't allocate (unless the arrays need to grow) and the memory footprint stays small. <br>
+ * Entries are only turned into {@link PerformanceEntry} objects when read. <br>
+ * Thread-safe, thus it can be read from any thread, while the page is running. <br>
+ *
+ * @author Osiris-Team
+ */
+public class PerformanceTimeline {
+    public static final String TYPE_MARK = "mark";
+    public static final String TYPE_MEASURE = "measure";
+    /**
+     * Execution of a page script, recorded by the browser. Not visible to JavaScript.
+     */
+    public static final String TYPE_SCRIPT = "script";
+    /**
+     * A console.time() timer, from console.time() until console.timeEnd(). Not visible to JavaScript.
+     */
+    public static final String TYPE_CONSOLE_TIME = "console-time";
+    private static final String[] TYPES = {TYPE_MARK, TYPE_MEASURE, TYPE_SCRIPT, TYPE_CONSOLE_TIME};
+    static final byte MARK = 0, MEASURE = 1, SCRIPT = 2, CONSOLE_TIME = 3;
+
+    private final int maxEntries;
+    private String[] names = new String[64];
+    private byte[] types = new byte[64];
+    private long[] startNanos = new long[64];
+    private long[] durationNanos = new long[64];
+    private int size;
+    private long droppedCount;
+
+    /**
+     * Creates a timeline that holds up to 100000 entries.
+     */
+    public PerformanceTimeline() {
+        this(100_000);
+    }
+
+    /**
+     * @param maxEntries the maximum amount of entries, further entries get dropped.
+     */
+    public PerformanceTimeline(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Adds an entry.
+     *
+     * @param startNanos    start, relative to the time origin.
+     * @param durationNanos duration, 0 for marks.
+     * @return false if the timeline is full.
+     */
+    synchronized boolean add(String name, byte type, long startNanos, long durationNanos) {
+        if (size == maxEntries) {
+            droppedCount++;
+            return false;
+        }
+        if (size == names.length) {
+            int capacity = Math.min(size * 2, maxEntries);
+            names = Arrays.copyOf(names, capacity);
+            types = Arrays.copyOf(types, capacity);
+            this.startNanos = Arrays.copyOf(this.startNanos, capacity);
+            this.durationNanos = Arrays.copyOf(this.durationNanos, capacity);
+        }
+        names[size] = name;
+        types[size] = type;
+        this.startNanos[size] = startNanos;
+        this.durationNanos[size] = durationNanos;
+        size++;
+        return true;
+    }
+
+    /**
+     * Returns the start of the latest mark with the provided name, or -1 if there is none.
+     */
+    synchronized long findMark(String name) {
+        for (int i = size - 1; i >= 0; i--) {
+            if (types[i] == MARK && names[i].equals(name)) return startNanos[i];
+        }
+        return -1;
+    }
+
+    /**
+     * Removes all entries of the provided type, that have the provided name, or all of them if the name is null.
+     */
+    synchronized void clear(byte type, String name) {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (types[i] == type && (name == null || names[i].equals(name))) continue;
+            names[kept] = names[i];
+            types[kept] = types[i];
+            startNanos[kept] = startNanos[i];
+            durationNanos[kept] = durationNanos[i];
+            kept++;
+        }
+        Arrays.fill(names, kept, size, null);
+        size = kept;
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public synchronized void clear() {
+        Arrays.fill(names, 0, size, null);
+        size = 0;
+        droppedCount = 0;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Returns the amount of entries that were dropped, because the timeline was full.
+     */
+    public synchronized long getDroppedCount() {
+        return droppedCount;
+    }
+
+    /**
+     * Returns all entries, in chronological order.
+     */
+    public List<PerformanceEntry> getEntries() {
+        return getEntries(null, null);
+    }
+
+    /**
+     * Returns all entries of the provided type, in chronological order.
+     */
+    public List<PerformanceEntry> getEntriesByType(String entryType) {
+        return getEntries(null, entryType);
+    }
+
+    /**
+     * Returns all entries with the provided name and type, in chronological order.
+     *
+     * @param name      null to not filter by name.
+     * @param entryType null to not filter by type.
+     */
+    public synchronized List<PerformanceEntry> getEntries(String name, String entryType) {
+        List<PerformanceEntry> entries = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            if (name != null && !names[i].equals(name)) continue;
+            if (entryType != null && !TYPES[types[i]].equals(entryType)) continue;
+            entries.add(entry(i));
+        }
+        entries.sort(Comparator.comparingDouble(PerformanceEntry::getStartTime)); // Stable
+        return entries;
+    }
+
+    /**
+     * Returns the entries with the longest durations, longest first. <br>
+     * Useful to find out which phases of a page cost the most. <br>
+     *
+     * @param limit the maximum amount of entries to return.
+     */
+    public List<PerformanceEntry> getSlowest(int limit) {
+        List<PerformanceEntry> entries = getEntries();
+        entries.sort(Comparator.comparingDouble(PerformanceEntry::getDuration).reversed());
+        return entries.size() > limit ? new ArrayList<>(entries.subList(0, limit)) : entries;
+    }
+
+    private PerformanceEntry entry(int i) {
+        return new PerformanceEntry(names[i], TYPES[types[i]], toMillis(startNanos[i]), toMillis(durationNanos[i]));
+    }
+
+    static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    static String typeName(byte type) {
+        return TYPES[type];
+    }
+}
@@ -0,0 +1,225 @@
+package com.osiris.jgbrowser.js.apis.timers;
+
+import com.osiris.jgbrowser.exceptions.JavaScriptException;
+import com.osiris.jgbrowser.js.apis.JS_API;
+import com.osiris.jgbrowser.js.context.GraalContext;
+import com.osiris.jgbrowser.utils.TimerWheel;
+import org.graalvm.polyglot.HostAccess;
+import org.graalvm.polyglot.PolyglotException;
+import org.graalvm.polyglot.Value;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The event loop of a {@link GraalContext}. <br>
+ * Implementation of: https://html.spec.whatwg.org/multipage/timers-and-user-prompts.html#timers <br>
+ * Provides setTimeout, setInterval, clearTimeout, clearInterval and queueMicrotask. <br>
+ * Timers are stored in a {@link TimerWheel} and run by {@link #runUntilIdle(long)}, on the thread calling it. <br>
+ * Microtasks are queued as promise jobs, which the JavaScript engine runs once the current task finished. <br>
+ * In virtual time mode (see {@link #setVirtualTime(boolean)}) the clock doesn't follow the real time, <br>
+ * but jumps straight to the next due timer, thus timers never have to be waited for. <br>
+ *
+ * @author Osiris-Team
+ */
+public class JS_API_Timers implements JS_API {
+    /**
+     * Timers nested deeper than this get their delay clamped to at least {@link #MIN_NESTED_DELAY}.
+     */
+    private static final int MAX_NESTING = 5;
+    private static final long MIN_NESTED_DELAY = 4;
+
+    private final GraalContext context;
+    private final TimerWheel<Timer> wheel = new TimerWheel<>();
+    private final Map<Integer, Timer> timers = new HashMap<>();
+    private int nextId = 1;
+    /**
+     * The nesting level of the timer currently running, or 0.
+     */
+    private int nestingLevel;
+    private boolean virtualTime;
+    private long originNanos = System.nanoTime();
+    private long virtualNow;
+
+    public JS_API_Timers(GraalContext context) {
+        this.context = context;
+    }
+
+    // Defines the timer functions as globals, which delegate to this object:
+    public static final String JS_CODE = "" +
+            "(function (timers) {\n" +
+            "    globalThis.setTimeout = function (handler, timeout, ...args) { return timers.set(handler, timeout, args, false); };\n" +
+            "    globalThis.setInterval = function (handler, timeout, ...args) { return timers.set(handler, timeout, args, true); };\n" +
+            "    globalThis.clearTimeout = function (id) { timers.clear(id); };\n" +
+            "    globalThis.clearInterval = function (id) { timers.clear(id); };\n" +
+            "    globalThis.queueMicrotask = function (callback) {\n" +
+            "        if (typeof callback !== 'function') throw new TypeError('queueMicrotask: Argument 1 is not callable.');\n" +
+            "        Promise.resolve().then(callback).catch(e => console.error('Uncaught ' + e));\n" +
+            "    };\n" +
+            "})(__jgTimers);";
+
+    @Override
+    public String getJSGlobalVarName() {
+        return "__jgTimers";
+    }
+
+    @Override
+    public String getOptionalJSCode() {
+        return JS_CODE;
+    }
+
+    // Accessible from JavaScript:
+
+    @HostAccess.Export
+    public int set(Value handler, Value timeout, Value args, boolean repeat) {
+        Timer timer = new Timer();
+        timer.id = nextId++;
+        timer.handler = handler;
+        timer.args = new Object[(int) args.getArraySize()];
+        for (int i = 0; i < timer.args.length; i++) {
+            timer.args[i] = args.getArrayElement(i);
+        }
+        double delay = timeout == null || !timeout.isNumber() ? 0 : timeout.asDouble();
+        timer.delay = Double.isNaN(delay) || delay < 0 ? 0 : (long) Math.min(delay, Integer.MAX_VALUE);
+        timer.repeat = repeat;
+        timer.nesting = nestingLevel + 1;
+        timers.put(timer.id, timer);
+        schedule(timer, now());
+        return timer.id;
+    }
+
+    @HostAccess.Export
+    public void clear(Value id) {
+        if (id == null || !id.fitsInInt()) return;
+        Timer timer = timers.remove(id.asInt());
+        if (timer != null && timer.timeout != null) wheel.cancel(timer.timeout);
+    }
+
+    // Only accessible from Java:
+
+    private void schedule(Timer timer, long now) {
+        long delay = timer.delay;
+        if (timer.nesting > MAX_NESTING && delay < MIN_NESTED_DELAY)
+            delay = MIN_NESTED_DELAY;
+        timer.timeout = wheel.schedule(timer, now + delay);
+    }
+
+    /**
+     * Runs all timers that are due, in the order of their deadlines. <br>
+     * Errors thrown by timers get reported via console.error and don't stop other timers. <br>
+     *
+     * @return the amount of timers that ran.
+     * @throws JavaScriptException if a timer was cancelled, for example because of the windows' jsTimeout.
+     */
+    public int runDueTimers() {
+        long now = now();
+        List<TimerWheel.Timeout<Timer>> due = wheel.expire(now);
+        int ran = 0;
+        for (TimerWheel.Timeout<Timer> timeout : due) {
+            Timer timer = timeout.getTask();
+            if (timers.get(timer.id) != timer) continue; // Cleared by a previous timer
+            ran++;
+            nestingLevel = timer.nesting;
+            try {
+                if (timer.handler.canExecute())
+                    context.execute(timer.handler, "timer-" + timer.id, timer.args);
+                else
+                    context.eval(timer.handler.toString(), "timer-" + timer.id + ".js");
+            } catch (PolyglotException e) {
+                if (e.isCancelled() || e.isInterrupted() || e.isExit() || e.isResourceExhausted()) throw e;
+                context.getConsole().error("Uncaught " + e.getMessage());
+            } finally {
+                nestingLevel = 0;
+            }
+            if (timers.get(timer.id) != timer) continue; // Cleared by itself
+            if (timer.repeat) {
+                timer.nesting++;
+                schedule(timer, now());
+            } else
+                timers.remove(timer.id);
+        }
+        return ran;
+    }
+
+    /**
+     * Runs timers until there are no pending timers left, or the clock advanced by the provided timeout. <br>
+     * Sleeps until the next timer is due, or in virtual time mode, advances the clock to it directly. <br>
+     * Returns early, once the next timer is due after the timeout. <br>
+     *
+     * @return true if there are no pending timers left, false if the timeout was reached before.
+     * @throws JavaScriptException if a timer was cancelled, for example because of the windows' jsTimeout.
+     */
+    public boolean runUntilIdle(long timeoutMillis) throws InterruptedException {
+        long end = now() + Math.max(0, timeoutMillis);
+        if (end < 0) end = Long.MAX_VALUE; // Overflow
+        while (true) {
+            runDueTimers();
+            if (wheel.isEmpty()) return true;
+            long next = wheel.nextDeadline();
+            if (next > end) {
+                if (virtualTime) virtualNow = end;
+                return false;
+            }
+            if (virtualTime)
+                virtualNow = Math.max(virtualNow, next);
+            else {
+                long wait = next - now();
+                if (wait > 0) Thread.sleep(wait);
+            }
+        }
+    }
+
+    /**
+     * Returns the current time of this event loop in milliseconds, <br>
+     * relative to when it was created or {@link #clearTimers()} was called last. <br>
+     */
+    public long now() {
+        return virtualTime ? virtualNow : (System.nanoTime() - originNanos) / 1_000_000;
+    }
+
+    /**
+     * Removes all timers and resets the clock.
+     */
+    public void clearTimers() {
+        wheel.clear();
+        timers.clear();
+        nextId = 1;
+        originNanos = System.nanoTime();
+        virtualNow = 0;
+    }
+
+    public boolean isVirtualTime() {
+        return virtualTime;
+    }
+
+    /**
+     * Enables or disables virtual time. The clock continues from its current time.
+     */
+    public void setVirtualTime(boolean virtualTime) {
+        if (this.virtualTime == virtualTime) return;
+        long now = now();
+        this.virtualTime = virtualTime;
+        if (virtualTime)
+            virtualNow = now;
+        else
+            originNanos = System.nanoTime() - now * 1_000_000;
+    }
+
+    /**
+     * Returns the amount of pending timers.
+     */
+    public int getPendingCount() {
+        return timers.size();
+    }
+
+    private static class Timer {
+        private int id;
+        private Value handler;
+        private Object[] args;
+        private long delay;
+        private boolean repeat;
+        private int nesting;
+        private TimerWheel.Timeout<Timer> timeout;
+    }
+}
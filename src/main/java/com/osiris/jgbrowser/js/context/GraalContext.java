@@ -1,17 +1,39 @@
 package com.osiris.jgbrowser.js.context;
 
+import com.osiris.jgbrowser.JGBrowser;
 import com.osiris.jgbrowser.exceptions.DuplicateFoundException;
+import com.osiris.jgbrowser.exceptions.JavaScriptException;
 import com.osiris.jgbrowser.js.apis.JS_API;
+import com.osiris.jgbrowser.js.apis.JS_APIProvider;
 import com.osiris.jgbrowser.js.apis.console.JS_API_Console;
-import com.osiris.jgbrowser.js.apis.dom.JS_Event_S;
+import com.osiris.jgbrowser.js.apis.dom.JS_API_Document;
+import com.osiris.jgbrowser.js.apis.performance.JS_API_Performance;
+import com.osiris.jgbrowser.js.apis.timers.JS_API_Timers;
+import com.osiris.jgbrowser.jfr.ApiRegistrationEvent;
+import com.osiris.jgbrowser.jfr.JFR;
+import com.osiris.jgbrowser.jfr.ScriptEvent;
+import com.osiris.jgbrowser.metrics.LoadMetrics;
+import com.osiris.jgbrowser.metrics.LoadPhase;
+import com.osiris.jgbrowser.trace.TraceCategory;
+import com.osiris.jgbrowser.trace.Tracer;
 import com.osiris.jgbrowser.window.JGWindow;
 import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Engine;
+import org.graalvm.polyglot.PolyglotException;
+import org.graalvm.polyglot.ResourceLimits;
 import org.graalvm.polyglot.Source;
+import org.graalvm.polyglot.SourceSection;
+import org.graalvm.polyglot.Value;
+import org.graalvm.polyglot.proxy.ProxyExecutable;
 
 import java.io.*;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 /**
  * JavaScript-Context. <br>
@@ -20,48 +42,170 @@ import java.util.Objects;
  * @author Osiris-Team
  */
 public class GraalContext implements AutoCloseable {
-    private final JGWindow window;
-    private final Context rawContext = Context.newBuilder("js")
-            .build();
-    // Currently used for debugging
-    private final PrintStream out;
+    /**
+     * Sources counted by the {@link #getStatementLimit()}. <br>
+     * GraalVM requires all contexts of an engine to use the very same predicate instance, <br>
+     * otherwise creating a context fails with "Using multiple source predicates per engine is not supported". <br>
+     */
+    private static final Predicate<Source> NON_INTERNAL = source -> !source.isInternal();
+    private JGWindow window;
+    private final Context rawContext;
+    private final SourceCache sourceCache;
+    private Tracer tracer;
     // Web-APIs:
-    private final JS_API_Console console = new JS_API_Console(System.out);
-    private final List<String> globalVarNames = new ArrayList<>();
-
+    private final JS_API_Console console = new JS_API_Console();
+    private final JS_API_Timers timers = new JS_API_Timers(this);
+    private final JS_API_Performance performance = new JS_API_Performance();
+    private final JS_API_Document document = new JS_API_Document(this);
+    private final WebApiBootstrap bootstrap;
+    /**
+     * The bundled code of the {@link WebApiBootstrap}, as one function per provider name.
+     */
+    private final Value bundledApis;
+    /**
+     * Global variables of all registered APIs, loaded or not.
+     */
+    private final Set<String> globalVarNames = new HashSet<>();
+    /**
+     * Names of the {@link JS_APIProvider}s, that were loaded, in load order.
+     */
+    private final Set<String> loadedApis = new LinkedHashSet<>();
+    /**
+     * True once the default Web-APIs were loaded.
+     */
+    private boolean initialized;
+    /**
+     * True once code that wasn't part of the default Web-APIs was executed in this context.
+     */
+    private boolean dirty;
+    private boolean closed;
+    /**
+     * See {@link #getStatementLimit()}.
+     */
+    private final long statementLimit;
+    /**
+     * Greater than 0 while code is being evaluated, to detect nested evaluations (from host calls).
+     */
+    private int evalDepth;
 
     public GraalContext(JGWindow window) {
-        Objects.requireNonNull(window);
-        this.window = window;
-        this.out = window.getOut();
-        out.println("Created new JavaScript context for window '" + window + "'.");
+        this(window.isIsolatedEngine() ? null : window.getParentBrowser().getEngine(),
+                window.getParentBrowser().getSourceCache(), window.getParentBrowser().getApiBootstrap(),
+                window.getParentBrowser().getLoadMetrics(), window.getTracer(), window.getStatementLimit());
+        attach(window);
+    }
+
+    /**
+     * Creates a new context, that isn't attached to any {@link JGWindow} yet. <br>
+     * Used by the {@link GraalContextPool} to create contexts ahead of time. <br>
+     *
+     * @param engine         the engine to attach this context to, or null to create an isolated engine.
+     * @param sourceCache    the cache to get sources from, usually the one of the browser.
+     * @param bootstrap      the Web-APIs to install, usually the ones of the browser.
+     * @param metrics        where the time spent loading the Web-APIs gets recorded, or null.
+     * @param tracer         writes debug information, until attached to a window.
+     * @param statementLimit see {@link #getStatementLimit()}, 0 to disable.
+     */
+    GraalContext(Engine engine, SourceCache sourceCache, WebApiBootstrap bootstrap, LoadMetrics metrics, Tracer tracer, long statementLimit) {
+        this.tracer = Objects.requireNonNull(tracer);
+        this.sourceCache = Objects.requireNonNull(sourceCache);
+        this.bootstrap = Objects.requireNonNull(bootstrap);
+        this.statementLimit = statementLimit;
+        Context.Builder builder = Context.newBuilder("js");
+        if (engine != null)
+            builder.engine(engine);
+        if (statementLimit > 0)
+            builder.resourceLimits(ResourceLimits.newBuilder()
+                    .statementLimit(statementLimit, NON_INTERNAL)
+                    .build());
+        this.rawContext = builder.build();
+        tracer.info(TraceCategory.API, () -> "Created new JavaScript context"
+                + (engine == null ? " with an isolated engine." : " with the browsers shared engine."));
 
         // Register all JavaScript Web-APIs:
-        // APIs in this list get loaded into this JSContext in the order they were added to this list.
-        // If you want to add an api that depends on another one make sure to add it after that one.
-        // Note that override should be false.
+        // Only placeholders get installed here, the real API gets loaded the first time a script accesses
+        // one of its globals. To add a new API, add its provider to the JS_APIRegistry.
         try {
-            out.println("Loading JS Web-APIs into context...");
-            long start = System.currentTimeMillis();
-            registerAndLoad(console, true); // If true overrides any existing variable with the same name
-            // DOM API:
-            registerAndLoad(new JS_Event_S(), false);
-
-            // Add future apis here:
-            //registerAndLoad(example, false);
-            //...
-
-            globalVarNames.clear();
-            out.println("Loaded all JS Web-APIs successfully. Took " + (System.currentTimeMillis() - start) + "ms.");
+            tracer.debug(TraceCategory.API, () -> "Installing JS Web-APIs into context...");
+            rawContext.initialize("js"); // Creates the global object etc., which has nothing to do with the Web-APIs
+            long start = System.nanoTime();
+            console.setPerformance(performance);
+            for (JS_APIProvider provider : bootstrap.getRegistry().getProviders()) {
+                Collections.addAll(globalVarNames, provider.getGlobals());
+            }
+            bundledApis = rawContext.eval(bootstrap.getSource())
+                    .execute((ProxyExecutable) args -> loadGlobal(args[0].asString()));
+            long nanos = System.nanoTime() - start;
+            if (metrics != null) metrics.record(LoadPhase.API_REGISTRATION, nanos);
+            tracer.info(TraceCategory.API, () -> "Installed all JS Web-APIs successfully. Took " + nanos / 1_000_000 + "ms.");
         } catch (Exception exception) {
             System.err.println("Failed to load JavaScript Web-API into the current JavaScript-Context! Details:");
             throw new RuntimeException(exception);
         }
+        initialized = true;
+    }
+
+    /**
+     * Attaches this context to the provided window. <br>
+     * Debug output gets written to the windows' output from now on. <br>
+     */
+    void attach(JGWindow window) {
+        Objects.requireNonNull(window);
+        this.window = window;
+        this.tracer = window.getTracer();
+        timers.clearTimers();
+        timers.setVirtualTime(window.isVirtualTime());
+        console.setOut(window.isDebugOutputEnabled() ? window.getOut() : null); // Every window has its own console output
+        console.setDrainer(window.getParentBrowser().getConsoleDrainer());
+        console.setOverflowPolicy(window.getConsoleOverflowPolicy());
+        console.resetTimers();
+        performance.reset();
+        tracer.debug(TraceCategory.API, () -> "Attached JavaScript context '" + this + "' to window '" + window + "'.");
+    }
 
+    /**
+     * Detaches this context from its window and removes everything the window left behind, <br>
+     * that can be removed without touching the JavaScript state. <br>
+     * Only clean contexts (see {@link #isDirty()}) should be re-used after this.
+     */
+    void scrub() {
+        this.window = null;
+        this.tracer = Tracer.OFF;
+        console.flush(); // Deliver the remaining messages of the window
+        console.removeAllListeners();
+        console.setOut(null);
+        console.resetTimers();
+        performance.reset();
+        timers.clearTimers();
+        document.setDocument(null);
+    }
+
+    /**
+     * Returns true if code, other than the default Web-APIs, was executed in this context, <br>
+     * or additional Web-APIs were registered. <br>
+     * The global JavaScript state of a dirty context cannot be reset reliably (for example top-level let/const declarations), <br>
+     * thus it must not be re-used by another window. <br>
+     */
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Returns the maximum amount of statements a single evaluation may execute, or 0 if there is no limit. <br>
+     * Evaluations exceeding it throw a {@link JavaScriptException} and cancel this context. <br>
+     */
+    public long getStatementLimit() {
+        return statementLimit;
     }
 
     @Override
     public void close() {
+        closed = true;
+        console.flush();
         rawContext.close();
     }
 
@@ -73,37 +217,121 @@ public class GraalContext implements AutoCloseable {
      * @param override if a global variable with the same name already exists, should it get overwritten?
      */
     public GraalContext registerAndLoad(JS_API jsAPI, boolean override) throws DuplicateFoundException {
-        out.print("Loading JS Web-API: '" + jsAPI.getClass().getName() + "' into context...");
-        out.flush();
-
+        if (initialized) dirty = true;
         String globalVarName = jsAPI.getJSGlobalVarName();
         Objects.requireNonNull(globalVarName);
-        if (!override && globalVarNames.contains(globalVarName))
+        if (!globalVarNames.add(globalVarName) && !override)
             throw new DuplicateFoundException("Duplicate global variable name found for '" + globalVarName + "'. Global variable names must be unique!");
 
-        globalVarNames.add(globalVarName);
-
-        if (!override && rawContext.getBindings("js").getMember(globalVarName) != null)
+        if (!override && rawContext.getBindings("js").hasMember(globalVarName))
             throw new DuplicateFoundException("Failed to register because of already existing/registered global class name '" + globalVarName + "'.");
 
-        rawContext.getBindings("js").putMember(globalVarName, jsAPI);
+        load(jsAPI, null);
+        return this;
+    }
 
-        if (jsAPI.getOptionalJSCode() != null)
-            eval(jsAPI.getOptionalJSCode());
+    /**
+     * Loads the API providing the global variable, because a script accessed it for the first time.
+     *
+     * @return the now loaded value of the global variable.
+     */
+    private Value loadGlobal(String global) {
+        Value bindings = rawContext.getBindings("js");
+        JS_APIProvider provider = bootstrap.getRegistry().getByGlobal(global);
+        if (loadedApis.contains(provider.getName())) {
+            // Loaded already, but didn't define this global, thus it isn't available in this context
+            bindings.removeMember(global);
+            return null;
+        }
+        load(provider);
+        return bindings.getMember(global);
+    }
 
-        out.println(" SUCCESS!");
-        return this;
+    /**
+     * Loads the provided API and its dependencies, if not loaded yet.
+     */
+    private void load(JS_APIProvider provider) {
+        if (loadedApis.contains(provider.getName())) return;
+        for (String dependency : provider.getDependencies()) { // The registry ensures there are no cycles
+            load(bootstrap.getRegistry().get(dependency));
+        }
+        loadedApis.add(provider.getName());
+        load(provider.create(this), bootstrap.isBundled(provider.getName()) ? provider.getName() : null);
+    }
+
+    /**
+     * @param bundledName name of the bundled code to run after loading the API, or null to evaluate its {@link JS_API#getOptionalJSCode()}.
+     */
+    private void load(JS_API jsAPI, String bundledName) {
+        ApiRegistrationEvent event = JFR.AVAILABLE ? ApiRegistrationEvent.start() : null;
+        String globalVarName = jsAPI.getJSGlobalVarName();
+        rawContext.getBindings("js").putMember(globalVarName, jsAPI); // Replaces the placeholder, if there is one
+
+        String jsCode = jsAPI.getOptionalJSCode();
+        if (bundledName != null)
+            invoke(bundledApis, bundledName, "jgbrowser-bootstrap.js");
+        else if (jsCode != null)
+            eval(bootstrap.getApiSource(globalVarName, jsCode));
+        if (event != null) event.end(jsAPI);
+
+        tracer.debug(TraceCategory.API, () -> "Loaded JS Web-API '" + jsAPI.getClass().getName() + "' as '" + globalVarName + "'.");
+    }
+
+    /**
+     * Returns the names of the {@link JS_APIProvider}s loaded into this context, in load order. <br>
+     * Web-APIs are only loaded once a script accesses them, thus this is empty for a new context. <br>
+     */
+    public Set<String> getLoadedApis() {
+        return Collections.unmodifiableSet(loadedApis);
+    }
+
+    /**
+     * Returns the Web-APIs this context provides, see {@link JGBrowser#getApiBootstrap()}.
+     */
+    public WebApiBootstrap getApiBootstrap() {
+        return bootstrap;
     }
 
     public JS_API_Console getConsole() {
         return console;
     }
 
+    /**
+     * Returns the event loop of this context, which runs its timers.
+     */
+    public JS_API_Timers getTimers() {
+        return timers;
+    }
+
+    /**
+     * Returns the document of this context, which represents the windows' jsoup document in JavaScript.
+     */
+    public JS_API_Document getDocument() {
+        return document;
+    }
+
+    /**
+     * Returns the performance API of this context, which holds the timeline of the current page.
+     */
+    public JS_API_Performance getPerformance() {
+        return performance;
+    }
+
     public JGWindow getWindow() {
         return window;
     }
 
+    public SourceCache getSourceCache() {
+        return sourceCache;
+    }
+
+    /**
+     * Returns the underlying GraalVM context. <br>
+     * Code executed through it can't be tracked, thus this context counts as dirty (see {@link #isDirty()}) afterwards <br>
+     * and won't be re-used by another window. <br>
+     */
     public Context getRawContext() {
+        if (initialized) dirty = true;
         return rawContext;
     }
 
@@ -115,7 +343,124 @@ public class GraalContext implements AutoCloseable {
      * @param jsCode JavaScript code to run in the current {@link GraalContext}.
      */
     public void eval(String jsCode) {
-        rawContext.eval("js", jsCode);
+        eval(jsCode, "Unnamed");
+    }
+
+    /**
+     * Executes the given jsCode in the current context, as a source with the provided name. <br>
+     * The source is taken from the browsers' {@link SourceCache}, thus if the same code <br>
+     * was already executed in another window, its parsed and compiled form gets re-used. <br>
+     *
+     * @param jsCode JavaScript code to run in the current {@link GraalContext}.
+     * @param name   name of the code, for example the url it was loaded from.
+     * @return the result of the execution.
+     */
+    public Value eval(String jsCode, String name) {
+        return eval(sourceCache.get(jsCode, name));
+    }
+
+    /**
+     * Parses and compiles the given jsCode, without running it. <br>
+     * For details see {@link #parse(Source)}.
+     */
+    public Value parse(String jsCode, String name) {
+        return parse(sourceCache.get(jsCode, name));
+    }
+
+    /**
+     * Parses and compiles the given source, without running it. <br>
+     * Run the returned value via {@link #execute(Value, String, Object...)}, which is the same as {@link #eval(Source)}, <br>
+     * but allows measuring the compilation and the execution separately. <br>
+     *
+     * @throws org.graalvm.polyglot.PolyglotException if the source contains syntax errors.
+     */
+    public Value parse(Source source) {
+        return rawContext.parse(source);
+    }
+
+    /**
+     * Executes the given source in the current context. <br>
+     * Sources are named (see {@link Source#getName()}), which makes it easy to find out <br>
+     * which script an error or stack trace originates from. <br>
+     * If the attached window has a jsTimeout (see {@link JGWindow#getJsTimeout()}), the browsers' {@link JSWatchdog} <br>
+     * cancels the evaluation once it runs longer than that. <br>
+     *
+     * @param source JavaScript source to run in the current {@link GraalContext}.
+     * @return the result of the execution.
+     * @throws JavaScriptException if the evaluation was cancelled because of the jsTimeout or {@link #getStatementLimit()}.
+     */
+    public Value eval(Source source) {
+        return guarded(source.getName(), () -> rawContext.eval(source));
+    }
+
+    /**
+     * Executes the provided JavaScript function in the current context, guarded like {@link #eval(Source)}. <br>
+     * Used to run callbacks, for example the ones of timers. <br>
+     *
+     * @param function the function to execute, must be a value of this context.
+     * @param name     name of the callback, used as origin in the {@link JavaScriptException}.
+     * @param args     the arguments to pass to the function.
+     * @return the result of the execution.
+     */
+    public Value execute(Value function, String name, Object... args) {
+        return guarded(name, () -> function.execute(args));
+    }
+
+    /**
+     * Invokes the provided member of the provided JavaScript object in the current context, guarded like {@link #eval(Source)}. <br>
+     * Unlike {@link #execute(Value, String, Object...)}, the object is bound to this. <br>
+     *
+     * @param receiver the object to invoke the member of, must be a value of this context.
+     * @param member   the name of the function to invoke.
+     * @param name     name of the callback, used as origin in the {@link JavaScriptException}.
+     * @param args     the arguments to pass to the function.
+     * @return the result of the execution.
+     */
+    public Value invoke(Value receiver, String member, String name, Object... args) {
+        return guarded(name, () -> receiver.invokeMember(member, args));
+    }
+
+    /**
+     * Runs the provided code, watched by the browsers' {@link JSWatchdog} and limited by the {@link #getStatementLimit()}.
+     */
+    private Value guarded(String name, Supplier<Value> code) {
+        if (initialized) dirty = true;
+        if (evalDepth > 0) // Nested evaluation from a host call, already watched
+            return code.get();
+        JSWatchdog watchdog = window == null ? null : window.getParentBrowser().getJSWatchdog();
+        JSWatchdog.Watch watch = null;
+        if (watchdog != null && window.getJsTimeout() > 0)
+            watch = watchdog.watch(rawContext, window.getJsTimeout() * 1000L);
+        if (statementLimit > 0)
+            rawContext.resetLimits();
+        evalDepth++;
+        ScriptEvent event = JFR.AVAILABLE ? ScriptEvent.start() : null;
+        boolean failed = true;
+        try {
+            Value result = code.get();
+            failed = false;
+            return result;
+        } catch (PolyglotException e) {
+            KillReason reason = null;
+            if (watch != null && watch.isFired() && (e.isInterrupted() || e.isCancelled()))
+                reason = KillReason.TIMEOUT;
+            else if (statementLimit > 0 && e.isResourceExhausted() && e.isCancelled()) // Other resources (like the stack) don't cancel the context
+                reason = KillReason.STATEMENT_LIMIT;
+            if (reason == null) throw e;
+            if (watchdog != null) watchdog.killed(reason);
+            String origin = name;
+            SourceSection location = e.getSourceLocation();
+            if (location != null && location.getSource() != null)
+                origin = location.getSource().getName() + ":" + location.getStartLine();
+            throw new JavaScriptException(reason == KillReason.TIMEOUT
+                    ? "JavaScript code from '" + origin + "' was cancelled, because it ran longer than " + window.getJsTimeout() + "s."
+                    : "JavaScript code from '" + origin + "' was cancelled, because it executed more than " + statementLimit + " statements.",
+                    origin, reason, e);
+        } finally {
+            evalDepth--;
+            if (watch != null) watch.cancel();
+            if (event != null) event.end(name, window, failed);
+        }
     }
 
     public void eval(InputStream jsCodesInputStream) throws IOException {
@@ -123,7 +468,13 @@ public class GraalContext implements AutoCloseable {
     }
 
     public void eval(Reader reader) throws IOException {
-        rawContext.eval(Source.newBuilder("js", reader, null).cached(false).build());
+        StringBuilder sb = new StringBuilder();
+        char[] buffer = new char[8192];
+        int read;
+        while ((read = reader.read(buffer)) != -1) {
+            sb.append(buffer, 0, read);
+        }
+        eval(sb.toString());
     }
 
 }
@@ -0,0 +1,306 @@
+package com.osiris.jgbrowser.js.context;
+
+import com.osiris.jgbrowser.JGBrowser;
+import com.osiris.jgbrowser.trace.Tracer;
+import com.osiris.jgbrowser.window.JGWindow;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool of pre-initialized {@link GraalContext}s, that are attached to the shared engine of a {@link JGBrowser}. <br>
+ * Creating a context and loading all Web-APIs into it takes time, thus the pool keeps at least {@link #getMinSize()} <br>
+ * contexts ready, which get created in the background. <br>
+ * Windows borrow their context from here via {@link #acquire(JGWindow)} and give it back via {@link #release(GraalContext)}. <br>
+ * Contexts that executed page code are dirty (see {@link GraalContext#isDirty()}) and get closed instead of re-used, <br>
+ * like contexts created before the Web-APIs of the browser changed (see {@link JGBrowser#registerApi}). <br>
+ *
+ * @author Osiris-Team
+ */
+public class GraalContextPool implements AutoCloseable {
+    private final JGBrowser browser;
+    /**
+     * Idle contexts, most recently released first.
+     */
+    private final Deque<IdleContext> idle = new ArrayDeque<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong discarded = new AtomicLong();
+    private final AtomicLong evicted = new AtomicLong();
+    private int minSize = 0;
+    private int maxSize = 8;
+    private long maxIdleMillis = TimeUnit.MINUTES.toMillis(1);
+    private int creating = 0;
+    private ScheduledExecutorService maintainer;
+    private boolean closed;
+
+    public GraalContextPool(JGBrowser browser) {
+        this.browser = Objects.requireNonNull(browser);
+    }
+
+    /**
+     * Returns an idle context attached to the provided window, or creates a new one if the pool is empty. <br>
+     */
+    public GraalContext acquire(JGWindow window) {
+        IdleContext entry;
+        synchronized (this) {
+            if (closed) throw new IllegalStateException("Cannot acquire context from closed pool!");
+            entry = idle.pollFirst();
+        }
+        if (entry != null && entry.context.getApiBootstrap() != browser.getApiBootstrap()) { // Web-APIs changed since
+            discarded.incrementAndGet();
+            entry.context.close();
+            entry = null;
+        }
+        GraalContext context;
+        if (entry != null) {
+            hits.incrementAndGet();
+            context = entry.context;
+        } else {
+            misses.incrementAndGet();
+            context = newContext();
+        }
+        refillAsync();
+        context.attach(window);
+        return context;
+    }
+
+    /**
+     * Gives the provided context back to the pool. <br>
+     * The context gets scrubbed and re-used if it is clean, otherwise, or if the pool is full, it gets closed. <br>
+     * Does nothing if the context is closed or already idle. <br>
+     */
+    public void release(GraalContext context) {
+        if (context.isClosed() || isIdle(context)) return;
+        if (!context.isDirty() && context.getApiBootstrap() == browser.getApiBootstrap()) {
+            context.scrub();
+            synchronized (this) {
+                if (!closed && idle.size() < maxSize) {
+                    idle.addFirst(new IdleContext(context, System.currentTimeMillis()));
+                    getMaintainer(); // Makes sure idle contexts get evicted
+                    return;
+                }
+            }
+        }
+        discarded.incrementAndGet();
+        context.close();
+        refillAsync();
+    }
+
+    private synchronized boolean isIdle(GraalContext context) {
+        for (IdleContext entry : idle) {
+            if (entry.context == context) return true;
+        }
+        return false;
+    }
+
+    private GraalContext newContext() {
+        GraalContext context = new GraalContext(browser.getEngine(), browser.getSourceCache(), browser.getApiBootstrap(),
+                browser.getLoadMetrics(), Tracer.OFF, 0);
+        created.incrementAndGet();
+        return context;
+    }
+
+    /**
+     * Closes contexts that were idle for longer than {@link #getMaxIdleMillis()}, <br>
+     * as long as there are more than {@link #getMinSize()} idle contexts.
+     */
+    public void evictIdle() {
+        List<IdleContext> expired = new ArrayList<>();
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            Iterator<IdleContext> it = idle.descendingIterator(); // Oldest first
+            while (it.hasNext() && idle.size() > minSize) {
+                IdleContext entry = it.next();
+                if (now - entry.since < maxIdleMillis) break;
+                it.remove();
+                expired.add(entry);
+            }
+        }
+        for (IdleContext entry : expired) {
+            evicted.incrementAndGet();
+            entry.context.close();
+        }
+    }
+
+    /**
+     * Creates new contexts until there are at least {@link #getMinSize()} idle contexts. <br>
+     * This method blocks, see {@link #refillAsync()} for the non-blocking variant. <br>
+     */
+    public void refill() {
+        while (true) {
+            synchronized (this) {
+                if (closed || idle.size() + creating >= minSize) return;
+                creating++;
+            }
+            GraalContext context = null;
+            try {
+                context = newContext();
+            } finally {
+                boolean pooled = false;
+                synchronized (this) {
+                    creating--;
+                    if (context != null && !closed && idle.size() < maxSize) {
+                        idle.addLast(new IdleContext(context, System.currentTimeMillis()));
+                        pooled = true;
+                    }
+                }
+                if (!pooled && context != null) context.close();
+            }
+        }
+    }
+
+    /**
+     * Runs {@link #refill()} in the background, if there are less than {@link #getMinSize()} idle contexts.
+     */
+    public void refillAsync() {
+        ScheduledExecutorService executor;
+        synchronized (this) {
+            if (closed || idle.size() + creating >= minSize) return;
+            executor = getMaintainer();
+        }
+        executor.execute(this::refill);
+    }
+
+    private synchronized ScheduledExecutorService getMaintainer() {
+        if (maintainer == null) {
+            maintainer = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "JGBrowser-ContextPool-" + Integer.toHexString(browser.hashCode()));
+                thread.setDaemon(true);
+                return thread;
+            });
+            long period = Math.max(1000, maxIdleMillis / 2);
+            maintainer.scheduleWithFixedDelay(() -> {
+                try {
+                    evictIdle();
+                    refill();
+                } catch (Exception e) {
+                    System.err.println("Error during maintenance of context pool '" + this + "'. Details:");
+                    e.printStackTrace();
+                }
+            }, period, period, TimeUnit.MILLISECONDS);
+        }
+        return maintainer;
+    }
+
+    /**
+     * Closes all idle contexts. Contexts that are currently in use get closed when released.
+     */
+    @Override
+    public void close() {
+        List<IdleContext> toClose;
+        synchronized (this) {
+            if (closed) return;
+            closed = true;
+            toClose = new ArrayList<>(idle);
+            idle.clear();
+            if (maintainer != null) maintainer.shutdownNow();
+        }
+        for (IdleContext entry : toClose) {
+            entry.context.close();
+        }
+    }
+
+    public synchronized int getMinSize() {
+        return minSize;
+    }
+
+    /**
+     * Default is 0. The amount of idle contexts to keep ready. <br>
+     * Missing contexts get created in the background. <br>
+     */
+    public GraalContextPool setMinSize(int minSize) {
+        synchronized (this) {
+            if (minSize < 0) throw new IllegalArgumentException("minSize must be >= 0");
+            this.minSize = minSize;
+            if (maxSize < minSize) maxSize = minSize;
+        }
+        refillAsync();
+        return this;
+    }
+
+    public synchronized int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Default is 8. The maximum amount of idle contexts. <br>
+     * Contexts that are released while the pool is full get closed. <br>
+     */
+    public synchronized GraalContextPool setMaxSize(int maxSize) {
+        if (maxSize < minSize) throw new IllegalArgumentException("maxSize must be >= minSize");
+        this.maxSize = maxSize;
+        return this;
+    }
+
+    public synchronized long getMaxIdleMillis() {
+        return maxIdleMillis;
+    }
+
+    /**
+     * Default is 60 seconds. Idle contexts above {@link #getMinSize()} get closed after this time. <br>
+     * Must be set before the pool starts its maintenance thread, to also affect the eviction interval. <br>
+     */
+    public synchronized GraalContextPool setMaxIdleMillis(long maxIdleMillis) {
+        this.maxIdleMillis = maxIdleMillis;
+        return this;
+    }
+
+    public synchronized int getIdleCount() {
+        return idle.size();
+    }
+
+    /**
+     * Returns the amount of {@link #acquire(JGWindow)} calls, that got an idle context.
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * Returns the amount of {@link #acquire(JGWindow)} calls, that had to create a new context.
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Returns the amount of contexts created by this pool.
+     */
+    public long getCreated() {
+        return created.get();
+    }
+
+    /**
+     * Returns the amount of contexts, that were closed because they were dirty, outdated or the pool was full.
+     */
+    public long getDiscarded() {
+        return discarded.get();
+    }
+
+    /**
+     * Returns the amount of idle contexts, that were closed by {@link #evictIdle()}.
+     */
+    public long getEvicted() {
+        return evicted.get();
+    }
+
+    private static class IdleContext {
+        private final GraalContext context;
+        private final long since;
+
+        private IdleContext(GraalContext context, long since) {
+            this.context = context;
+            this.since = since;
+        }
+    }
+}
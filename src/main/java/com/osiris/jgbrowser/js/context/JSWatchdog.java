@@ -0,0 +1,164 @@
+package com.osiris.jgbrowser.js.context;
+
+import org.graalvm.polyglot.Context;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cancels JavaScript code that runs longer than allowed, shared by all windows of a browser. <br>
+ * Running code gets interrupted first, which keeps the context usable. <br>
+ * If the code doesn't stop within {@link #getGraceMillis()} (for example because it's stuck in a host call), <br>
+ * the context gets closed forcefully. <br>
+ * Waiting for the code to stop happens on a separate thread per expired evaluation, <br>
+ * thus many evaluations timing out at the same time all get cancelled after their timeout. <br>
+ * Also counts how many evaluations were killed and why. <br>
+ *
+ * @author Osiris-Team
+ */
+public class JSWatchdog implements AutoCloseable {
+    private final ScheduledThreadPoolExecutor timer;
+    /**
+     * Interrupts expired evaluations and waits for them to stop, which blocks for up to {@link #getGraceMillis()}.
+     */
+    private final ThreadPoolExecutor killer;
+    private final Map<KillReason, AtomicLong> killed = new EnumMap<>(KillReason.class);
+    private final AtomicLong forceClosed = new AtomicLong();
+    private volatile long graceMillis = 1000;
+
+    public JSWatchdog() {
+        timer = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread thread = new Thread(r, "JGBrowser-JS-Watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.setRemoveOnCancelPolicy(true);
+        AtomicInteger killerCount = new AtomicInteger();
+        killer = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 30, TimeUnit.SECONDS, new SynchronousQueue<>(), r -> {
+            Thread thread = new Thread(r, "JGBrowser-JS-Killer-" + killerCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (KillReason reason : KillReason.values()) {
+            killed.put(reason, new AtomicLong());
+        }
+    }
+
+    /**
+     * Starts watching an evaluation in the provided context. <br>
+     * Remember to {@link Watch#cancel()} the returned watch once the evaluation finished. <br>
+     */
+    public Watch watch(Context context, long timeoutMillis) {
+        Watch watch = new Watch(context);
+        watch.future = timer.schedule(() -> {
+            try {
+                killer.execute(watch::fire); // Keeps the timer free for other expired watches
+            } catch (RejectedExecutionException ignored) {
+                // Watchdog was closed
+            }
+        }, timeoutMillis, TimeUnit.MILLISECONDS);
+        return watch;
+    }
+
+    /**
+     * Counts a killed evaluation.
+     */
+    public void killed(KillReason reason) {
+        killed.get(reason).incrementAndGet();
+    }
+
+    /**
+     * Returns how many evaluations were killed for the provided reason.
+     */
+    public long getKilledCount(KillReason reason) {
+        return killed.get(reason).get();
+    }
+
+    /**
+     * Returns how many evaluations were killed, for any reason.
+     */
+    public long getKilledCount() {
+        long count = 0;
+        for (AtomicLong value : killed.values()) {
+            count += value.get();
+        }
+        return count;
+    }
+
+    /**
+     * Returns how many contexts had to be closed forcefully, because interrupting them didn't work.
+     */
+    public long getForceClosedCount() {
+        return forceClosed.get();
+    }
+
+    public long getGraceMillis() {
+        return graceMillis;
+    }
+
+    /**
+     * Default is 1000. How long to wait for interrupted code to stop, before closing its context forcefully.
+     */
+    public JSWatchdog setGraceMillis(long graceMillis) {
+        this.graceMillis = graceMillis;
+        return this;
+    }
+
+    @Override
+    public void close() {
+        timer.shutdownNow();
+        killer.shutdown();
+    }
+
+    /**
+     * A running evaluation that gets cancelled, if it isn't done before its timeout.
+     */
+    public class Watch {
+        private final Context context;
+        private ScheduledFuture<?> future;
+        private volatile boolean fired;
+        private volatile boolean done;
+
+        private Watch(Context context) {
+            this.context = context;
+        }
+
+        private void fire() {
+            if (done) return;
+            fired = true;
+            try {
+                context.interrupt(Duration.ofMillis(graceMillis));
+            } catch (TimeoutException e) {
+                forceClosed.incrementAndGet();
+                context.close(true);
+            } catch (Exception ignored) {
+                // Context already closed or evaluation finished in the meantime
+            }
+        }
+
+        /**
+         * Stops watching. Must be called once the evaluation finished, even if it failed.
+         */
+        public void cancel() {
+            done = true;
+            future.cancel(false);
+        }
+
+        /**
+         * Returns true if the timeout was reached and the evaluation got cancelled.
+         */
+        public boolean isFired() {
+            return fired;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.osiris.jgbrowser.js.context;
+
+import com.osiris.jgbrowser.window.JGWindowBuilder;
+
+/**
+ * Why running JavaScript code was cancelled.
+ */
+public enum KillReason {
+    /**
+     * Ran longer than {@link JGWindowBuilder#jsTimeout}.
+     */
+    TIMEOUT,
+    /**
+     * Executed more statements than {@link JGWindowBuilder#statementLimit}.
+     */
+    STATEMENT_LIMIT
+}
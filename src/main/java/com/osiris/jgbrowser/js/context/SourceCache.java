@@ -0,0 +1,187 @@
+package com.osiris.jgbrowser.js.context;
+
+import org.graalvm.polyglot.Source;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of {@link Source}s keyed by their origin (name/url) and content hash, shared by all windows of a browser. <br>
+ * The engine only re-uses already parsed and compiled code for the same {@link Source}, <br>
+ * and forgets about it once the source isn't referenced anymore. <br>
+ * By handing out the same source instance for the same script, which is kept alive by this cache, <br>
+ * an identical script evaluated in any window attached to the shared engine doesn't get parsed again. <br>
+ * Least recently used sources get removed once {@link #getMaxEntries()} or {@link #getMaxBytes()} is exceeded. <br>
+ *
+ * @author Osiris-Team
+ */
+public class SourceCache {
+    private final LinkedHashMap<Key, Source> sources = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private long bytes;
+    private volatile int maxEntries = 1024;
+    private volatile long maxBytes = 64L * 1024 * 1024;
+    private volatile int minLength = 256;
+
+    /**
+     * Returns the cached source for the provided code and name, or builds and caches a new one. <br>
+     * Code shorter than {@link #getMinLength()} is cheap to parse and doesn't get cached. <br>
+     *
+     * @param code JavaScript code.
+     * @param name name of the source, for example the url the code was loaded from.
+     */
+    public Source get(String code, String name) {
+        if (code.length() < minLength)
+            return Source.newBuilder("js", code, name).buildLiteral();
+        Key key = new Key(name, code);
+        synchronized (sources) {
+            Source source = sources.get(key);
+            if (source != null) {
+                hits.incrementAndGet();
+                return source;
+            }
+        }
+        misses.incrementAndGet();
+        Source source = Source.newBuilder("js", code, name).cached(true).buildLiteral();
+        synchronized (sources) {
+            Source existing = sources.putIfAbsent(key, source);
+            if (existing != null) return existing; // Built by another thread in the meantime
+            bytes += key.bytes();
+            evict();
+        }
+        return source;
+    }
+
+    private void evict() {
+        Iterator<Key> it = sources.keySet().iterator();
+        while ((sources.size() > maxEntries || bytes > maxBytes) && it.hasNext()) {
+            Key eldest = it.next();
+            it.remove();
+            bytes -= eldest.bytes();
+            evictions.incrementAndGet();
+        }
+    }
+
+    /**
+     * Removes all sources.
+     */
+    public void clear() {
+        synchronized (sources) {
+            sources.clear();
+            bytes = 0;
+        }
+    }
+
+    /**
+     * Returns the ratio of {@link #get(String, String)} calls that returned a cached source, between 0 and 1.
+     * Calls for code shorter than {@link #getMinLength()} are not counted.
+     */
+    public double getHitRate() {
+        long hits = this.hits.get();
+        long total = hits + misses.get();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    /**
+     * Returns the approximate memory used by the code of all cached sources in bytes (2 bytes per char). <br>
+     * Note that this does not include the memory used by the engine for the parsed and compiled code. <br>
+     */
+    public long getByteFootprint() {
+        synchronized (sources) {
+            return bytes;
+        }
+    }
+
+    public int getEntryCount() {
+        synchronized (sources) {
+            return sources.size();
+        }
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * Default is 1024.
+     */
+    public SourceCache setMaxEntries(int maxEntries) {
+        this.maxEntries = maxEntries;
+        synchronized (sources) {
+            evict();
+        }
+        return this;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Default is 64MB. See {@link #getByteFootprint()} for details.
+     */
+    public SourceCache setMaxBytes(long maxBytes) {
+        this.maxBytes = maxBytes;
+        synchronized (sources) {
+            evict();
+        }
+        return this;
+    }
+
+    public int getMinLength() {
+        return minLength;
+    }
+
+    /**
+     * Default is 256. Code with less characters doesn't get cached.
+     */
+    public SourceCache setMinLength(int minLength) {
+        this.minLength = minLength;
+        return this;
+    }
+
+    private static class Key {
+        private final String name;
+        private final String code;
+        private final int hash;
+
+        private Key(String name, String code) {
+            this.name = name;
+            this.code = code;
+            this.hash = 31 * name.hashCode() + code.hashCode();
+        }
+
+        private long bytes() {
+            return 2L * (code.length() + name.length());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return hash == key.hash && name.equals(key.name) && code.equals(key.code);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.osiris.jgbrowser.js.context;
+
+import com.osiris.jgbrowser.JGBrowser;
+import com.osiris.jgbrowser.js.apis.JS_APIProvider;
+import com.osiris.jgbrowser.js.apis.JS_APIRegistry;
+import org.graalvm.polyglot.Source;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A single source, that installs all Web-APIs of a {@link JS_APIRegistry} into a {@link GraalContext}. <br>
+ * Contains the placeholders of all globals (see {@link JS_APIProvider#getGlobals()}) <br>
+ * and the bundled {@link JS_APIProvider#getOptionalJSCode()} of every provider. <br>
+ * Built once per {@link JGBrowser} (see {@link JGBrowser#getApiBootstrap()}), thus the engine parses it only once, <br>
+ * and every context only has to run it once. <br>
+ *
+ * @author Osiris-Team
+ */
+public class WebApiBootstrap {
+    private final JS_APIRegistry registry;
+    private final Set<String> bundled = new HashSet<>();
+    private final Source source;
+    /**
+     * Sources of Web-APIs, that are not bundled, by their global variable name (see {@link #getApiSource(String, String)}).
+     */
+    private final Map<String, Source> apiSources = new ConcurrentHashMap<>();
+
+    /**
+     * @param registry the Web-APIs to install, gets copied, thus later changes to it don't affect this bootstrap.
+     */
+    public WebApiBootstrap(JS_APIRegistry registry) {
+        this.registry = new JS_APIRegistry(registry);
+        // Evaluates to a function, that takes the load function of the context and returns the bundled code
+        // as one function per provider name:
+        StringBuilder sb = new StringBuilder();
+        sb.append("(function (load) {\n");
+        sb.append("    const apis = {\n");
+        for (JS_APIProvider provider : this.registry.getProviders()) {
+            String jsCode = provider.getOptionalJSCode();
+            if (jsCode == null) continue;
+            bundled.add(provider.getName());
+            sb.append("        ").append(quote(provider.getName())).append(": function () {\n")
+                    .append(jsCode).append("\n        },\n");
+        }
+        sb.append("    };\n");
+        sb.append("    for (const name of [");
+        boolean first = true;
+        for (JS_APIProvider provider : this.registry.getProviders()) {
+            for (String global : provider.getGlobals()) {
+                if (!first) sb.append(", ");
+                sb.append(quote(global));
+                first = false;
+            }
+        }
+        sb.append("]) {\n");
+        // Placeholder, that loads the API on first read and turns into a plain variable on first write:
+        sb.append("        Object.defineProperty(globalThis, name, {\n" +
+                "            get() { return load(name); },\n" +
+                "            set(value) { Object.defineProperty(globalThis, name, {value: value, writable: true, enumerable: true, configurable: true}); },\n" +
+                "            enumerable: true, configurable: true\n" +
+                "        });\n" +
+                "    }\n" +
+                "    return apis;\n" +
+                "})");
+        this.source = Source.newBuilder("js", sb.toString(), "jgbrowser-bootstrap.js").cached(true).buildLiteral();
+    }
+
+    private static String quote(String s) {
+        return "'" + s.replace("\\", "\\\\").replace("'", "\\'") + "'";
+    }
+
+    /**
+     * Returns the Web-APIs installed by this bootstrap.
+     */
+    public JS_APIRegistry getRegistry() {
+        return registry;
+    }
+
+    /**
+     * Returns the source, which evaluates to a function that installs the placeholders. <br>
+     * Pass it the function that loads a global, and it returns an object with the bundled code <br>
+     * as one function per provider name. <br>
+     */
+    public Source getSource() {
+        return source;
+    }
+
+    /**
+     * Returns the source for the code of a Web-API, that is not bundled, for example one registered <br>
+     * directly into a context (see {@link GraalContext#registerAndLoad}). <br>
+     * Shared by all contexts of the browser, thus the engine parses it only once, and kept apart from the {@link SourceCache}, <br>
+     * since it shouldn't count towards its statistics. Holds one source per global variable name. <br>
+     */
+    public Source getApiSource(String globalVarName, String jsCode) {
+        return apiSources.compute(globalVarName, (name, source) -> source != null && jsCode.contentEquals(source.getCharacters())
+                ? source
+                : Source.newBuilder("js", jsCode, "jgbrowser-api-" + name + ".js").cached(true).buildLiteral());
+    }
+
+    /**
+     * Returns true if the {@link JS_APIProvider#getOptionalJSCode()} of the provider with the provided name is part of the {@link #getSource()}.
+     */
+    public boolean isBundled(String name) {
+        return bundled.contains(name);
+    }
+
+    /**
+     * Returns the names of all providers, whose code is part of the {@link #getSource()}.
+     */
+    public Set<String> getBundled() {
+        return Collections.unmodifiableSet(bundled);
+    }
+}
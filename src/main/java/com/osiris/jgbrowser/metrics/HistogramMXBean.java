@@ -0,0 +1,20 @@
+package com.osiris.jgbrowser.metrics;
+
+/**
+ * JMX view of a {@link LatencyHistogram}. All times are in milliseconds. <br>
+ * Percentiles are accurate to about 6%, the maximum is exact. <br>
+ */
+public interface HistogramMXBean {
+
+    long getCount();
+
+    double getMeanMillis();
+
+    double getP50Millis();
+
+    double getP90Millis();
+
+    double getP99Millis();
+
+    double getMaxMillis();
+}
@@ -0,0 +1,74 @@
+package com.osiris.jgbrowser.metrics;
+
+import java.util.Locale;
+
+/**
+ * Immutable copy of a {@link LatencyHistogram} at a point in time. All times are in nanoseconds. <br>
+ *
+ * @author Osiris-Team
+ */
+public class HistogramSnapshot {
+    private final long[] counts;
+    private final long count;
+    private final long sum;
+    private final long max;
+
+    HistogramSnapshot(long[] counts, long count, long sum, long max) {
+        this.counts = counts;
+        this.count = count;
+        this.sum = sum;
+        this.max = max;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getSumNanos() {
+        return sum;
+    }
+
+    /**
+     * Returns the average, or 0 if nothing was recorded.
+     */
+    public double getMeanNanos() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    public long getMaxNanos() {
+        return max;
+    }
+
+    /**
+     * Returns the value below or equal to which the provided percentage of all values are, <br>
+     * or 0 if nothing was recorded. Accurate to about 6%, never greater than {@link #getMaxNanos()}. <br>
+     *
+     * @param percentile between 0 and 100, for example 99 for the p99.
+     */
+    public long getPercentileNanos(double percentile) {
+        if (percentile < 0 || percentile > 100)
+            throw new IllegalArgumentException("percentile must be between 0 and 100, but was " + percentile);
+        if (count == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) return Math.min(LatencyHistogram.highestValue(i), max);
+        }
+        return max;
+    }
+
+    public long getP50Nanos() {
+        return getPercentileNanos(50);
+    }
+
+    public long getP99Nanos() {
+        return getPercentileNanos(99);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "count=%d p50=%.3fms p99=%.3fms max=%.3fms",
+                count, getP50Nanos() / 1_000_000.0, getP99Nanos() / 1_000_000.0, max / 1_000_000.0);
+    }
+}
@@ -0,0 +1,109 @@
+package com.osiris.jgbrowser.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe histogram of durations in nanoseconds, with a fixed memory footprint. <br>
+ * Values are counted in log-linear buckets: every power of two is split into 16 buckets, <br>
+ * thus recording is a few bit operations plus an atomic increment, without allocation or locking, <br>
+ * and percentiles are accurate to about 6% (1/16), from nanoseconds up to centuries. <br>
+ * Use {@link #snapshot()} to read a consistent view. <br>
+ *
+ * @author Osiris-Team
+ */
+public class LatencyHistogram implements HistogramMXBean {
+    static final int SUB_BUCKET_BITS = 4;
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    /**
+     * Enough buckets for {@link Long#MAX_VALUE}.
+     */
+    static final int BUCKETS = (63 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Counts the provided duration. Negative durations are counted as 0.
+     */
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        counts.incrementAndGet(index(nanos));
+        sum.add(nanos);
+        long currentMax = max.get();
+        while (nanos > currentMax && !max.compareAndSet(currentMax, nanos)) {
+            currentMax = max.get();
+        }
+    }
+
+    /**
+     * Removes all recorded values. Values recorded at the same time might survive.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        sum.reset();
+        max.set(0);
+    }
+
+    public HistogramSnapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+            count += copy[i];
+        }
+        return new HistogramSnapshot(copy, count, sum.sum(), max.get());
+    }
+
+    static int index(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    /**
+     * Returns the highest value counted in the bucket at the provided index.
+     */
+    static long highestValue(int index) {
+        if (index < SUB_BUCKETS) return index;
+        int shift = index / SUB_BUCKETS - 1;
+        long lowest = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+
+    // JMX:
+
+    @Override
+    public long getCount() {
+        return snapshot().getCount();
+    }
+
+    @Override
+    public double getMeanMillis() {
+        return snapshot().getMeanNanos() / 1_000_000.0;
+    }
+
+    @Override
+    public double getP50Millis() {
+        return snapshot().getPercentileNanos(50) / 1_000_000.0;
+    }
+
+    @Override
+    public double getP90Millis() {
+        return snapshot().getPercentileNanos(90) / 1_000_000.0;
+    }
+
+    @Override
+    public double getP99Millis() {
+        return snapshot().getPercentileNanos(99) / 1_000_000.0;
+    }
+
+    @Override
+    public double getMaxMillis() {
+        return max.get() / 1_000_000.0;
+    }
+}
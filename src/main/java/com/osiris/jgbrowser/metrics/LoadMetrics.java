@@ -0,0 +1,152 @@
+package com.osiris.jgbrowser.metrics;
+
+import com.osiris.jgbrowser.JGBrowser;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Where the page loads of a {@link JGBrowser} spend their time. <br>
+ * Has a {@link LatencyHistogram} for every {@link LoadPhase}, aggregated over all windows of the browser, <br>
+ * and counts loaded and failed pages. Read it via {@link #snapshot()}, or via JMX once registered <br>
+ * (the browser does that by default, see {@link #registerMBeans(String)}). <br>
+ *
+ * @author Osiris-Team
+ */
+public class LoadMetrics implements LoadMetricsMXBean {
+    public static final String JMX_DOMAIN = "com.osiris.jgbrowser";
+    private final Map<LoadPhase, LatencyHistogram> histograms = new EnumMap<>(LoadPhase.class);
+    private final AtomicLong pagesLoaded = new AtomicLong();
+    private final AtomicLong pagesFailed = new AtomicLong();
+    private volatile long sinceMillis = System.currentTimeMillis();
+    private final List<ObjectName> registered = new ArrayList<>();
+
+    public LoadMetrics() {
+        for (LoadPhase phase : LoadPhase.values()) {
+            histograms.put(phase, new LatencyHistogram());
+        }
+    }
+
+    /**
+     * Counts the provided duration of the provided phase.
+     */
+    public void record(LoadPhase phase, long nanos) {
+        histograms.get(phase).record(nanos);
+    }
+
+    /**
+     * Counts a successful load, that took the provided time in total (see {@link LoadPhase#PAGE}).
+     */
+    public void pageLoaded(long nanos) {
+        pagesLoaded.incrementAndGet();
+        record(LoadPhase.PAGE, nanos);
+    }
+
+    /**
+     * Counts a failed load.
+     */
+    public void pageFailed() {
+        pagesFailed.incrementAndGet();
+    }
+
+    public LatencyHistogram getHistogram(LoadPhase phase) {
+        return histograms.get(phase);
+    }
+
+    /**
+     * Returns a copy of all counters and histograms. <br>
+     * Compare two snapshots via {@link LoadMetricsSnapshot#getPagesPerSecond(LoadMetricsSnapshot)} to get the current throughput. <br>
+     */
+    public LoadMetricsSnapshot snapshot() {
+        Map<LoadPhase, HistogramSnapshot> phases = new EnumMap<>(LoadPhase.class);
+        for (Map.Entry<LoadPhase, LatencyHistogram> entry : histograms.entrySet()) {
+            phases.put(entry.getKey(), entry.getValue().snapshot());
+        }
+        return new LoadMetricsSnapshot(System.currentTimeMillis(), pagesLoaded.get(), pagesFailed.get(), phases);
+    }
+
+    /**
+     * Registers this object and the histograms of all phases at the platforms' MBean server, as: <br>
+     * com.osiris.jgbrowser:type=LoadMetrics,browser=[name] and <br>
+     * com.osiris.jgbrowser:type=LoadMetrics,browser=[name],phase=[{@link LoadPhase#getId()}] <br>
+     * Does nothing if already registered. <br>
+     *
+     * @param name unique name of the browser, must be a valid JMX property value.
+     * @throws IllegalStateException if the registration failed, for example because of a duplicate name.
+     */
+    public synchronized void registerMBeans(String name) {
+        if (!registered.isEmpty()) return;
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName objectName = new ObjectName(JMX_DOMAIN + ":type=LoadMetrics,browser=" + name);
+            server.registerMBean(this, objectName);
+            registered.add(objectName);
+            for (LoadPhase phase : LoadPhase.values()) {
+                objectName = new ObjectName(JMX_DOMAIN + ":type=LoadMetrics,browser=" + name + ",phase=" + phase.getId());
+                server.registerMBean(histograms.get(phase), objectName);
+                registered.add(objectName);
+            }
+        } catch (Exception e) {
+            unregisterMBeans();
+            throw new IllegalStateException("Failed to register load metrics of '" + name + "' via JMX.", e);
+        }
+    }
+
+    /**
+     * Removes everything registered by {@link #registerMBeans(String)} from the MBean server.
+     */
+    public synchronized void unregisterMBeans() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (ObjectName objectName : registered) {
+            try {
+                server.unregisterMBean(objectName);
+            } catch (Exception ignored) {
+            }
+        }
+        registered.clear();
+    }
+
+    /**
+     * Returns the names this object is registered as, or an empty list.
+     */
+    public synchronized List<ObjectName> getObjectNames() {
+        return new ArrayList<>(registered);
+    }
+
+    // JMX:
+
+    @Override
+    public long getPagesLoaded() {
+        return pagesLoaded.get();
+    }
+
+    @Override
+    public long getPagesFailed() {
+        return pagesFailed.get();
+    }
+
+    @Override
+    public double getPagesPerSecond() {
+        long millis = System.currentTimeMillis() - sinceMillis;
+        return millis <= 0 ? 0 : pagesLoaded.get() * 1000.0 / millis;
+    }
+
+    /**
+     * Sets all counters and histograms to 0.
+     */
+    @Override
+    public void reset() {
+        for (LatencyHistogram histogram : histograms.values()) {
+            histogram.reset();
+        }
+        pagesLoaded.set(0);
+        pagesFailed.set(0);
+        sinceMillis = System.currentTimeMillis();
+    }
+}
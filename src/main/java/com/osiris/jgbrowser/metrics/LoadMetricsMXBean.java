@@ -0,0 +1,20 @@
+package com.osiris.jgbrowser.metrics;
+
+/**
+ * JMX view of the {@link LoadMetrics} of a browser. <br>
+ * The histograms of the single phases are registered as separate {@link HistogramMXBean}s. <br>
+ */
+public interface LoadMetricsMXBean {
+
+    long getPagesLoaded();
+
+    long getPagesFailed();
+
+    /**
+     * Average since the metrics were created or last reset. <br>
+     * For the current rate, graph the difference of {@link #getPagesLoaded()} over time instead. <br>
+     */
+    double getPagesPerSecond();
+
+    void reset();
+}
@@ -0,0 +1,64 @@
+package com.osiris.jgbrowser.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Immutable copy of {@link LoadMetrics} at a point in time.
+ *
+ * @author Osiris-Team
+ */
+public class LoadMetricsSnapshot {
+    private final long timeMillis;
+    private final long pagesLoaded;
+    private final long pagesFailed;
+    private final Map<LoadPhase, HistogramSnapshot> phases;
+
+    LoadMetricsSnapshot(long timeMillis, long pagesLoaded, long pagesFailed, Map<LoadPhase, HistogramSnapshot> phases) {
+        this.timeMillis = timeMillis;
+        this.pagesLoaded = pagesLoaded;
+        this.pagesFailed = pagesFailed;
+        this.phases = Collections.unmodifiableMap(phases);
+    }
+
+    /**
+     * When this snapshot was taken, in milliseconds since the unix epoch.
+     */
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+
+    public long getPagesLoaded() {
+        return pagesLoaded;
+    }
+
+    public long getPagesFailed() {
+        return pagesFailed;
+    }
+
+    public HistogramSnapshot get(LoadPhase phase) {
+        return phases.get(phase);
+    }
+
+    public Map<LoadPhase, HistogramSnapshot> getPhases() {
+        return phases;
+    }
+
+    /**
+     * Returns the pages loaded per second between the provided, earlier snapshot and this one.
+     */
+    public double getPagesPerSecond(LoadMetricsSnapshot earlier) {
+        long millis = timeMillis - earlier.timeMillis;
+        return millis <= 0 ? 0 : (pagesLoaded - earlier.pagesLoaded) * 1000.0 / millis;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("pages loaded=").append(pagesLoaded).append(" failed=").append(pagesFailed);
+        for (Map.Entry<LoadPhase, HistogramSnapshot> entry : phases.entrySet()) {
+            sb.append(System.lineSeparator()).append(entry.getKey().getId()).append(": ").append(entry.getValue());
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,48 @@
+package com.osiris.jgbrowser.metrics;
+
+import com.osiris.jgbrowser.js.context.GraalContext;
+import com.osiris.jgbrowser.window.JGWindow;
+
+import java.util.Locale;
+
+/**
+ * The phases of a {@link JGWindow#load(String)}, that get measured by {@link LoadMetrics}.
+ */
+public enum LoadPhase {
+    /**
+     * The whole load, from the first request until the last script was executed. Only successful loads are counted.
+     */
+    PAGE,
+    /**
+     * Downloading the document, from starting the request until its body was read completely.
+     */
+    DOCUMENT_FETCH,
+    /**
+     * Parsing the documents' body with jsoup.
+     */
+    DOCUMENT_PARSE,
+    /**
+     * Downloading a single external script. Runs in parallel to the other phases.
+     */
+    SCRIPT_FETCH,
+    /**
+     * Parsing and compiling a single script, see {@link GraalContext#parse(String, String)}.
+     */
+    SCRIPT_COMPILE,
+    /**
+     * Running a single, already compiled script.
+     */
+    SCRIPT_EVAL,
+    /**
+     * Creating a new {@link GraalContext} and loading all Web-APIs into it. <br>
+     * Happens once per context, thus only for windows that couldn't take one from the pool. <br>
+     */
+    API_REGISTRATION;
+
+    /**
+     * Returns the lower case, dash separated name, for example "script-eval".
+     */
+    public String getId() {
+        return name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+}
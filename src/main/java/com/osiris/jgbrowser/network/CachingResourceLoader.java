@@ -0,0 +1,76 @@
+package com.osiris.jgbrowser.network;
+
+import com.osiris.jgbrowser.utils.ByteBufferInputStream;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * {@link ResourceLoader} that serves responses from a {@link HttpCache} and <br>
+ * only asks its delegate for responses that are missing or stale. <br>
+ * Fresh cached responses are returned without touching the delegate. <br>
+ * Stale cached responses get revalidated with a conditional request (If-None-Match/If-Modified-Since). <br>
+ * Responses that can't be cached are streamed directly from the delegate. <br>
+ *
+ * @author Osiris-Team
+ */
+public class CachingResourceLoader implements ResourceLoader {
+    private final ResourceLoader delegate;
+    private final HttpCache cache;
+
+    public CachingResourceLoader(ResourceLoader delegate, HttpCache cache) {
+        this.delegate = Objects.requireNonNull(delegate);
+        this.cache = Objects.requireNonNull(cache);
+    }
+
+    /**
+     * If the request contains Cache-Control: no-cache or max-age=0, cached responses always get revalidated.
+     */
+    @Override
+    public Resource load(ResourceRequest request) throws IOException {
+        long start = System.nanoTime();
+        String url = request.getUrl();
+        HttpCache.Entry cached = cache.get(url);
+        if (cached != null && !forcesRevalidation(request) && cached.isFresh(System.currentTimeMillis()))
+            return fromCache(cached, start);
+
+        if (cached != null) request = request.withHeaders(cached.getConditionalHeaders());
+        long requestTime = System.currentTimeMillis();
+        Resource response = delegate.load(request);
+        long responseTime = System.currentTimeMillis();
+
+        if (response.getStatus() == 304 && cached != null) {
+            response.close();
+            return fromCache(cache.revalidated(cached, response.getHeaders(), requestTime, responseTime), start);
+        }
+        // Redirected responses are not cached, since the cache doesn't know about the final url
+        if (!url.equals(response.getUrl()) || !HttpCache.isCacheable(response.getStatus(), response.getHeaders()))
+            return response;
+
+        byte[] body = response.readBytes();
+        cache.put(url, response.getStatus(), response.getHeaders(), ByteBuffer.wrap(body), requestTime, responseTime);
+        return new Resource(response.getUrl(), response.getStatus(), response.getHeaders(), new ByteArrayInputStream(body),
+                response.getRequestStartNanos(), response.getResponseStartNanos(), false);
+    }
+
+    private static Resource fromCache(HttpCache.Entry entry, long start) {
+        return new Resource(entry.getUrl(), entry.getStatus(), entry.getHeaders(), new ByteBufferInputStream(entry.getBody()),
+                start, System.nanoTime(), true);
+    }
+
+    private static boolean forcesRevalidation(ResourceRequest request) {
+        Map<String, String> cacheControl = HttpCache.parseCacheControl(request.getHeader("cache-control"));
+        return cacheControl.containsKey("no-cache") || "0".equals(cacheControl.get("max-age"));
+    }
+
+    public ResourceLoader getDelegate() {
+        return delegate;
+    }
+
+    public HttpCache getCache() {
+        return cache;
+    }
+}
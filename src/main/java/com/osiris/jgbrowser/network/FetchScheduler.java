@@ -0,0 +1,120 @@
+package com.osiris.jgbrowser.network;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs fetches (network requests) on a bounded amount of threads, <br>
+ * while making sure that there are never more than {@link #getMaxFetchesPerHost()} fetches <br>
+ * running against the same host at the same time. <br>
+ * Fetches that exceed the per-host limit wait in a queue for that host, without blocking a thread. <br>
+ * Shared by all windows of a browser. <br>
+ *
+ * @author Osiris-Team
+ */
+public class FetchScheduler implements AutoCloseable {
+    private final ThreadPoolExecutor executor;
+    private final Map<String, HostQueue> hosts = new HashMap<>();
+    private volatile int maxFetchesPerHost;
+
+    /**
+     * @param maxThreads        the maximum amount of fetches running in parallel, across all hosts.
+     * @param maxFetchesPerHost the maximum amount of fetches running in parallel, against the same host.
+     */
+    public FetchScheduler(int maxThreads, int maxFetchesPerHost) {
+        if (maxThreads < 1 || maxFetchesPerHost < 1)
+            throw new IllegalArgumentException("maxThreads and maxFetchesPerHost must be >= 1");
+        this.maxFetchesPerHost = maxFetchesPerHost;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(maxThreads, maxThreads, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+            Thread thread = new Thread(r, "JGBrowser-Fetch-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Schedules the provided fetch. <br>
+     * It runs as soon as a thread and a permit for its host are available. <br>
+     * If the returned future gets cancelled before the fetch started, it never runs. <br>
+     *
+     * @param host  the host the fetch connects to, for example example.com:8080.
+     * @param fetch the code that does the actual fetching.
+     */
+    public <T> CompletableFuture<T> submit(String host, Callable<T> fetch) {
+        Objects.requireNonNull(host);
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Runnable runnable = () -> {
+            try {
+                if (!future.isDone())
+                    future.complete(fetch.call());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            } finally {
+                release(host);
+            }
+        };
+        boolean runNow;
+        synchronized (hosts) {
+            HostQueue queue = hosts.computeIfAbsent(host, k -> new HostQueue());
+            runNow = queue.running < maxFetchesPerHost;
+            if (runNow) queue.running++;
+            else queue.waiting.add(runnable);
+        }
+        if (runNow) executor.execute(runnable);
+        return future;
+    }
+
+    private void release(String host) {
+        Runnable next;
+        synchronized (hosts) {
+            HostQueue queue = hosts.get(host);
+            next = queue.waiting.poll();
+            if (next == null) {
+                queue.running--;
+                if (queue.running == 0) hosts.remove(host);
+            }
+        }
+        if (next != null) executor.execute(next);
+    }
+
+    public int getMaxFetchesPerHost() {
+        return maxFetchesPerHost;
+    }
+
+    /**
+     * Applies only to fetches scheduled from now on.
+     */
+    public FetchScheduler setMaxFetchesPerHost(int maxFetchesPerHost) {
+        if (maxFetchesPerHost < 1) throw new IllegalArgumentException("maxFetchesPerHost must be >= 1");
+        this.maxFetchesPerHost = maxFetchesPerHost;
+        return this;
+    }
+
+    public int getMaxThreads() {
+        return executor.getMaximumPoolSize();
+    }
+
+    /**
+     * Stops accepting new fetches. Already running fetches are not interrupted.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    private static class HostQueue {
+        private final ArrayDeque<Runnable> waiting = new ArrayDeque<>();
+        private int running;
+    }
+}
@@ -0,0 +1,73 @@
+package com.osiris.jgbrowser.network;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLDecoder;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * {@link ResourceLoader} that serves resources from a directory, without any network access. <br>
+ * The url https://example.com/js/app.js is served from the file root/example.com/js/app.js. <br>
+ * Urls ending with a slash are served from the index.html file in that directory. <br>
+ * Missing files result in a 404 response. <br>
+ *
+ * @author Osiris-Team
+ */
+public class FileSystemResourceLoader implements ResourceLoader {
+    private final File root;
+
+    /**
+     * @param root directory containing one sub-directory per host.
+     */
+    public FileSystemResourceLoader(File root) {
+        this.root = root;
+    }
+
+    /**
+     * Returns the file the provided url gets served from, or null if the url is invalid or points outside of the root directory.
+     */
+    public File fileOf(String url) {
+        try {
+            URL u = new URL(url);
+            String path = URLDecoder.decode(u.getPath(), "UTF-8");
+            if (path.isEmpty() || path.endsWith("/")) path += "index.html";
+            File file = new File(new File(root, u.getAuthority().replace(':', '_')), path);
+            if (!file.getCanonicalPath().startsWith(root.getCanonicalPath() + File.separator))
+                return null;
+            return file;
+        } catch (IOException | IllegalArgumentException e) { // Malformed url
+            return null;
+        }
+    }
+
+    @Override
+    public Resource load(ResourceRequest request) throws IOException {
+        long start = System.nanoTime();
+        File file = fileOf(request.getUrl());
+        if (file == null || !file.isFile())
+            return new Resource(request.getUrl(), 404, null, null, start, System.nanoTime(), false);
+        Map<String, List<String>> headers = new HashMap<>();
+        headers.put("content-type", Collections.singletonList(contentTypeOf(file.getName())));
+        headers.put("content-length", Collections.singletonList(String.valueOf(file.length())));
+        return new Resource(request.getUrl(), 200, headers, new FileInputStream(file), start, System.nanoTime(), false);
+    }
+
+    private static String contentTypeOf(String fileName) {
+        String name = fileName.toLowerCase(Locale.ROOT);
+        if (name.endsWith(".html") || name.endsWith(".htm")) return "text/html; charset=utf-8";
+        if (name.endsWith(".js") || name.endsWith(".mjs")) return "text/javascript; charset=utf-8";
+        if (name.endsWith(".css")) return "text/css; charset=utf-8";
+        if (name.endsWith(".json")) return "application/json; charset=utf-8";
+        return "application/octet-stream";
+    }
+
+    public File getRoot() {
+        return root;
+    }
+}
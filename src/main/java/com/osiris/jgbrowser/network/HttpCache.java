@@ -0,0 +1,526 @@
+package com.osiris.jgbrowser.network;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Disk-backed HTTP response cache (private browser cache, see RFC 7234). <br>
+ * Each response is stored in its own file, named after the hash of its url, <br>
+ * which gets read through a memory-mapped buffer, thus the body is never copied onto the heap by the cache. <br>
+ * Files are written to a temporary file first and then atomically moved into place, <br>
+ * which makes the cache safe to share between windows and to re-use after JVM restarts. <br>
+ * If the cache exceeds {@link #getMaxBytes()}, the least recently used entries get deleted. <br>
+ *
+ * @author Osiris-Team
+ */
+public class HttpCache implements AutoCloseable {
+    private static final int MAGIC = 0x4A474843; // JGHC
+    private static final int VERSION = 1;
+    private static final String SUFFIX = ".entry";
+
+    private final File directory;
+    private final long maxBytes;
+    /**
+     * File name to file size, in least recently used order.
+     */
+    private final LinkedHashMap<String, Long> index = new LinkedHashMap<>(16, 0.75f, true);
+    private long size;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong revalidations = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Opens the cache in the provided directory, which gets created if needed. <br>
+     * Entries from previous runs get loaded into the index, oldest (by last access) first.
+     *
+     * @param directory where the entries are stored.
+     * @param maxBytes  the maximum total size of all entries.
+     */
+    public HttpCache(File directory, long maxBytes) throws IOException {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        if (!directory.isDirectory() && !directory.mkdirs())
+            throw new IOException("Failed to create cache directory '" + directory + "'.");
+        File[] files = directory.listFiles();
+        if (files != null) {
+            List<File> entries = new ArrayList<>();
+            for (File file : files) {
+                if (file.getName().endsWith(SUFFIX)) entries.add(file);
+                else if (file.getName().endsWith(".tmp")) file.delete(); // Leftover from crash
+            }
+            entries.sort((f1, f2) -> Long.compare(f1.lastModified(), f2.lastModified()));
+            synchronized (index) {
+                for (File file : entries) {
+                    index.put(file.getName(), file.length());
+                    size += file.length();
+                }
+                evict();
+            }
+        }
+    }
+
+    /**
+     * Returns the cached response for the provided url, or null if there is none. <br>
+     * Note that the returned entry might be stale, see {@link Entry#isFresh(long)}. <br>
+     */
+    public Entry get(String url) throws IOException {
+        String fileName = fileNameOf(url);
+        synchronized (index) {
+            if (index.get(fileName) == null) { // Also updates the access order
+                misses.incrementAndGet();
+                return null;
+            }
+        }
+        File file = new File(directory, fileName);
+        Entry entry;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+             FileChannel channel = raf.getChannel()) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            entry = Entry.read(buffer);
+        } catch (IOException | RuntimeException e) { // Deleted by another window, or corrupt
+            removeFile(fileName);
+            misses.incrementAndGet();
+            return null;
+        }
+        if (!entry.url.equals(url)) { // Hash collision
+            misses.incrementAndGet();
+            return null;
+        }
+        file.setLastModified(System.currentTimeMillis()); // Keeps the access order after restarts
+        hits.incrementAndGet();
+        return entry;
+    }
+
+    /**
+     * Returns true if a response with the provided status code and headers may be stored <br>
+     * and can be re-used later, either because it is fresh for some time, or because it can be revalidated.
+     */
+    public static boolean isCacheable(int status, Map<String, List<String>> headers) {
+        if (status != 200 && status != 203 && status != 300 && status != 301)
+            return false;
+        Map<String, String> cacheControl = parseCacheControl(header(headers, "cache-control"));
+        if (cacheControl.containsKey("no-store")) return false;
+        String vary = header(headers, "vary");
+        if (vary != null && vary.trim().equals("*")) return false;
+        return freshnessLifetime(status, headers) > 0
+                || header(headers, "etag") != null
+                || header(headers, "last-modified") != null;
+    }
+
+    /**
+     * Stores the provided response, if it is cacheable (see {@link #isCacheable(int, Map)}).
+     *
+     * @param requestTime  time in ms, when the request was sent.
+     * @param responseTime time in ms, when the response was received.
+     * @return the stored entry, or null if the response was not cacheable.
+     */
+    public Entry put(String url, int status, Map<String, List<String>> headers, ByteBuffer body,
+                     long requestTime, long responseTime) throws IOException {
+        if (!isCacheable(status, headers)) {
+            removeFile(fileNameOf(url));
+            return null;
+        }
+        Entry entry = new Entry(url, status, lowerCaseKeys(headers), requestTime, responseTime, body.asReadOnlyBuffer());
+        String fileName = fileNameOf(url);
+        File file = new File(directory, fileName);
+        File tmp = File.createTempFile(fileName, ".tmp", directory);
+        try {
+            try (RandomAccessFile raf = new RandomAccessFile(tmp, "rw");
+                 FileChannel channel = raf.getChannel()) {
+                entry.write(channel);
+            }
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            tmp.delete();
+        }
+        synchronized (index) {
+            Long oldSize = index.put(fileName, file.length());
+            if (oldSize != null) size -= oldSize;
+            size += file.length();
+            evict();
+        }
+        return entry;
+    }
+
+    /**
+     * Updates the provided entry with the headers of a 304 (Not Modified) response <br>
+     * to a conditional request (see {@link Entry#getConditionalHeaders()}) and stores it again.
+     *
+     * @return the updated entry, which is fresh again.
+     */
+    public Entry revalidated(Entry entry, Map<String, List<String>> notModifiedHeaders,
+                             long requestTime, long responseTime) throws IOException {
+        revalidations.incrementAndGet();
+        Map<String, List<String>> headers = new HashMap<>(entry.headers);
+        for (Map.Entry<String, List<String>> header : lowerCaseKeys(notModifiedHeaders).entrySet()) {
+            // Headers describing the body must not change
+            if (!header.getKey().equals("content-length") && !header.getKey().equals("content-encoding"))
+                headers.put(header.getKey(), header.getValue());
+        }
+        Entry updated = put(entry.url, entry.status, headers, entry.body, requestTime, responseTime);
+        return updated != null ? updated : new Entry(entry.url, entry.status, headers, requestTime, responseTime, entry.body);
+    }
+
+    /**
+     * Removes the entry for the provided url, if it exists.
+     */
+    public void remove(String url) {
+        removeFile(fileNameOf(url));
+    }
+
+    private void removeFile(String fileName) {
+        synchronized (index) {
+            Long oldSize = index.remove(fileName);
+            if (oldSize != null) size -= oldSize;
+        }
+        new File(directory, fileName).delete();
+    }
+
+    /**
+     * Deletes least recently used entries, until the cache fits into {@link #maxBytes}. <br>
+     * Must be called while holding the lock on {@link #index}.
+     */
+    private void evict() {
+        Iterator<Map.Entry<String, Long>> it = index.entrySet().iterator();
+        while (size > maxBytes && it.hasNext()) {
+            Map.Entry<String, Long> eldest = it.next();
+            it.remove();
+            size -= eldest.getValue();
+            new File(directory, eldest.getKey()).delete();
+            evictions.incrementAndGet();
+        }
+    }
+
+    private static String fileNameOf(String url) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(url.getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder(hash.length * 2 + SUFFIX.length());
+            for (byte b : hash) {
+                sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return sb.append(SUFFIX).toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Returns the first value of the provided header, or null. Header names are case-insensitive.
+     */
+    static String header(Map<String, List<String>> headers, String name) {
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            if (header.getKey() != null && header.getKey().equalsIgnoreCase(name)
+                    && header.getValue() != null && !header.getValue().isEmpty())
+                return header.getValue().get(0);
+        }
+        return null;
+    }
+
+    private static Map<String, List<String>> lowerCaseKeys(Map<String, List<String>> headers) {
+        Map<String, List<String>> map = new HashMap<>();
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            if (header.getKey() != null)
+                map.put(header.getKey().toLowerCase(Locale.ROOT), header.getValue());
+        }
+        return map;
+    }
+
+    /**
+     * Parses a Cache-Control header value like "public, max-age=60" into a map of directive to value (or "" if there is no value).
+     */
+    public static Map<String, String> parseCacheControl(String value) {
+        if (value == null || value.isEmpty()) return Collections.emptyMap();
+        Map<String, String> directives = new HashMap<>();
+        for (String directive : value.split(",")) {
+            int i = directive.indexOf('=');
+            if (i < 0) directives.put(directive.trim().toLowerCase(Locale.ROOT), "");
+            else directives.put(directive.substring(0, i).trim().toLowerCase(Locale.ROOT),
+                    directive.substring(i + 1).trim().replace("\"", ""));
+        }
+        return directives;
+    }
+
+    /**
+     * Returns the time in ms, represented by the provided HTTP-date, or -1 if it is invalid.
+     */
+    static long parseDate(String value) {
+        if (value == null) return -1;
+        try {
+            return ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+
+    private static long parseSeconds(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Returns the time in ms a response stays fresh, from the moment it was created by the server. <br>
+     * Uses max-age, then Expires, then 10% of the time since Last-Modified (heuristic freshness). <br>
+     */
+    static long freshnessLifetime(int status, Map<String, List<String>> headers) {
+        Map<String, String> cacheControl = parseCacheControl(header(headers, "cache-control"));
+        if (cacheControl.containsKey("no-cache")) return 0;
+        String maxAge = cacheControl.get("max-age");
+        if (maxAge != null) return Math.max(0, parseSeconds(maxAge)) * 1000;
+        long date = parseDate(header(headers, "date"));
+        String expiresValue = header(headers, "expires");
+        if (expiresValue != null) {
+            long expires = parseDate(expiresValue);
+            if (expires < 0 || date < 0) return 0; // Invalid dates like "0" mean already expired
+            return Math.max(0, expires - date);
+        }
+        long lastModified = parseDate(header(headers, "last-modified"));
+        if ((status == 200 || status == 203 || status == 301) && lastModified >= 0 && date >= lastModified)
+            return (date - lastModified) / 10;
+        return 0;
+    }
+
+    /**
+     * The directory the entries are stored in.
+     */
+    public File getDirectory() {
+        return directory;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Returns the total size of all entries in bytes.
+     */
+    public long getSize() {
+        synchronized (index) {
+            return size;
+        }
+    }
+
+    public int getEntryCount() {
+        synchronized (index) {
+            return index.size();
+        }
+    }
+
+    /**
+     * Returns the amount of {@link #get(String)} calls that found an entry.
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * Returns the amount of {@link #get(String)} calls that didn't find an entry.
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Returns the amount of stale entries, that were confirmed by the server to be still valid.
+     */
+    public long getRevalidations() {
+        return revalidations.get();
+    }
+
+    /**
+     * Returns the amount of entries that were deleted to stay below {@link #getMaxBytes()}.
+     */
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    /**
+     * Entries are written directly to disk, thus there is nothing to flush. <br>
+     * Exists to be able to use the cache in try-with-resources blocks. <br>
+     */
+    @Override
+    public void close() {
+    }
+
+    /**
+     * A cached response.
+     */
+    public static class Entry {
+        private final String url;
+        private final int status;
+        private final Map<String, List<String>> headers;
+        private final long requestTime;
+        private final long responseTime;
+        private final ByteBuffer body;
+
+        private Entry(String url, int status, Map<String, List<String>> headers, long requestTime, long responseTime, ByteBuffer body) {
+            this.url = url;
+            this.status = status;
+            this.headers = Collections.unmodifiableMap(headers);
+            this.requestTime = requestTime;
+            this.responseTime = responseTime;
+            this.body = body;
+        }
+
+        private static Entry read(ByteBuffer buffer) throws IOException {
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION)
+                throw new IOException("Not a cache entry, or unsupported version.");
+            String url = readString(buffer);
+            int status = buffer.getInt();
+            long requestTime = buffer.getLong();
+            long responseTime = buffer.getLong();
+            int headerCount = buffer.getInt();
+            Map<String, List<String>> headers = new HashMap<>();
+            for (int i = 0; i < headerCount; i++) {
+                String name = readString(buffer);
+                headers.computeIfAbsent(name, k -> new ArrayList<>()).add(readString(buffer));
+            }
+            long bodyLength = buffer.getLong();
+            if (bodyLength != buffer.remaining())
+                throw new IOException("Corrupt cache entry, expected " + bodyLength + " body bytes but found " + buffer.remaining() + ".");
+            return new Entry(url, status, headers, requestTime, responseTime, buffer.slice().asReadOnlyBuffer());
+        }
+
+        private static String readString(ByteBuffer buffer) {
+            byte[] bytes = new byte[buffer.getInt()];
+            buffer.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        private void write(FileChannel channel) throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            writeString(out, url);
+            out.writeInt(status);
+            out.writeLong(requestTime);
+            out.writeLong(responseTime);
+            int headerCount = 0;
+            for (List<String> values : headers.values()) headerCount += values.size();
+            out.writeInt(headerCount);
+            for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+                for (String value : header.getValue()) {
+                    writeString(out, header.getKey());
+                    writeString(out, value);
+                }
+            }
+            out.writeLong(body.remaining());
+            out.flush();
+            ByteBuffer head = ByteBuffer.wrap(bytes.toByteArray());
+            ByteBuffer bodyToWrite = body.duplicate();
+            while (head.hasRemaining()) channel.write(head);
+            while (bodyToWrite.hasRemaining()) channel.write(bodyToWrite);
+        }
+
+        private static void writeString(DataOutputStream out, String s) throws IOException {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+
+        /**
+         * Returns true if this entry can be used without asking the server first.
+         *
+         * @param now current time in ms.
+         */
+        public boolean isFresh(long now) {
+            return getFreshnessLifetime() > getAge(now);
+        }
+
+        /**
+         * See {@link HttpCache#freshnessLifetime(int, Map)}.
+         */
+        public long getFreshnessLifetime() {
+            return freshnessLifetime(status, headers);
+        }
+
+        /**
+         * Returns the age of this response in ms (RFC 7234 section 4.2.3).
+         *
+         * @param now current time in ms.
+         */
+        public long getAge(long now) {
+            long date = parseDate(getHeader("date"));
+            long apparentAge = date < 0 ? 0 : Math.max(0, responseTime - date);
+            long ageValue = Math.max(0, parseSeconds(getHeader("age"))) * 1000;
+            long correctedInitialAge = Math.max(apparentAge, ageValue + (responseTime - requestTime));
+            return correctedInitialAge + (now - responseTime);
+        }
+
+        /**
+         * Returns the headers to add to a request, so that the server only sends the body if it changed. <br>
+         * Empty if this entry has neither an ETag nor a Last-Modified header. <br>
+         */
+        public Map<String, String> getConditionalHeaders() {
+            Map<String, String> conditional = new HashMap<>();
+            String etag = getHeader("etag");
+            if (etag != null) conditional.put("If-None-Match", etag);
+            String lastModified = getHeader("last-modified");
+            if (lastModified != null) conditional.put("If-Modified-Since", lastModified);
+            return conditional;
+        }
+
+        /**
+         * Returns the first value of the provided header, or null. Header names are case-insensitive.
+         */
+        public String getHeader(String name) {
+            return header(headers, name);
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        /**
+         * Header names are in lower case.
+         */
+        public Map<String, List<String>> getHeaders() {
+            return headers;
+        }
+
+        public long getRequestTime() {
+            return requestTime;
+        }
+
+        public long getResponseTime() {
+            return responseTime;
+        }
+
+        /**
+         * Returns a read-only view of the body, backed by the memory-mapped cache file.
+         */
+        public ByteBuffer getBody() {
+            return body.duplicate();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.osiris.jgbrowser.network;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Default {@link ResourceLoader}, that loads resources over HTTP/HTTPS. <br>
+ * Built on {@link HttpURLConnection}, which keeps idle connections alive in a JVM-wide pool <br>
+ * and re-uses them for subsequent requests to the same host, as long as the body was read completely and closed. <br>
+ * The pool size per host can be changed via the "http.maxConnections" system property (default 5). <br>
+ * Redirects are followed (also from http to https) and gzip/deflate encoded bodies are decoded. <br>
+ *
+ * @author Osiris-Team
+ */
+public class HttpResourceLoader implements ResourceLoader {
+    private volatile int connectTimeoutMillis = 30000;
+    private volatile int readTimeoutMillis = 30000;
+    private volatile int maxRedirects = 20;
+
+    @Override
+    public Resource load(ResourceRequest request) throws IOException {
+        long start = System.nanoTime();
+        URL url = new URL(request.getUrl());
+        for (int redirects = 0; ; redirects++) {
+            HttpURLConnection con = (HttpURLConnection) url.openConnection();
+            con.setInstanceFollowRedirects(false);
+            con.setConnectTimeout(connectTimeoutMillis);
+            con.setReadTimeout(readTimeoutMillis);
+            for (Map.Entry<String, String> header : request.getHeaders().entrySet()) {
+                if (!header.getKey().equalsIgnoreCase("accept-encoding"))
+                    con.setRequestProperty(header.getKey(), header.getValue());
+            }
+            con.setRequestProperty("Accept-Encoding", "gzip, deflate"); // Only the ones we can decode
+            int status = con.getResponseCode();
+            String location = con.getHeaderField("Location");
+            if (isRedirect(status) && location != null && redirects < maxRedirects) {
+                drainAndClose(con, status);
+                url = new URL(url, location);
+                continue;
+            }
+
+            Map<String, List<String>> headers = new HashMap<>();
+            for (Map.Entry<String, List<String>> header : con.getHeaderFields().entrySet()) {
+                if (header.getKey() != null) // The status line has a null key
+                    headers.put(header.getKey().toLowerCase(Locale.ROOT), header.getValue());
+            }
+            InputStream body = status >= 400 ? con.getErrorStream() : con.getInputStream();
+            if (body != null) {
+                String encoding = con.getContentEncoding();
+                if (encoding != null) encoding = encoding.trim();
+                InputStream raw = body;
+                if ("gzip".equalsIgnoreCase(encoding)) body = new GZIPInputStream(body);
+                else if ("deflate".equalsIgnoreCase(encoding)) body = new InflaterInputStream(body);
+                if (body != raw) { // Body gets decoded, thus these headers are not valid anymore
+                    headers.remove("content-encoding");
+                    headers.remove("content-length");
+                }
+            }
+            return new Resource(url.toString(), status, headers, body, start, System.nanoTime(), false);
+        }
+    }
+
+    private static boolean isRedirect(int status) {
+        return status == 301 || status == 302 || status == 303 || status == 307 || status == 308;
+    }
+
+    /**
+     * Reads the body completely, so that the connection can be re-used.
+     */
+    private static void drainAndClose(HttpURLConnection con, int status) {
+        try (InputStream in = status >= 400 ? con.getErrorStream() : con.getInputStream()) {
+            if (in == null) return;
+            byte[] buffer = new byte[8192];
+            while (in.read(buffer) != -1) ;
+        } catch (IOException ignored) {
+        }
+    }
+
+    public int getConnectTimeoutMillis() {
+        return connectTimeoutMillis;
+    }
+
+    /**
+     * Default is 30 seconds.
+     */
+    public HttpResourceLoader setConnectTimeoutMillis(int connectTimeoutMillis) {
+        this.connectTimeoutMillis = connectTimeoutMillis;
+        return this;
+    }
+
+    public int getReadTimeoutMillis() {
+        return readTimeoutMillis;
+    }
+
+    /**
+     * Default is 30 seconds.
+     */
+    public HttpResourceLoader setReadTimeoutMillis(int readTimeoutMillis) {
+        this.readTimeoutMillis = readTimeoutMillis;
+        return this;
+    }
+
+    public int getMaxRedirects() {
+        return maxRedirects;
+    }
+
+    /**
+     * Default is 20.
+     */
+    public HttpResourceLoader setMaxRedirects(int maxRedirects) {
+        this.maxRedirects = maxRedirects;
+        return this;
+    }
+}
@@ -0,0 +1,71 @@
+package com.osiris.jgbrowser.network;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link ResourceLoader} that serves resources from memory, without any network access. <br>
+ * Useful for tests and offline benchmarks. Unknown urls result in a 404 response. <br>
+ * <pre>
+ * InMemoryResourceLoader loader = new InMemoryResourceLoader()
+ *         .put("https://example.com/", "text/html", "&lt;script src='/app.js'&gt;&lt;/script&gt;")
+ *         .put("https://example.com/app.js", "text/javascript", "console.log('hi')");
+ * browser.openCustomWindow().resourceLoader(loader).build().load("https://example.com/");
+ * </pre>
+ *
+ * @author Osiris-Team
+ */
+public class InMemoryResourceLoader implements ResourceLoader {
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Serves the provided body with status 200 for the provided url.
+     *
+     * @param contentType for example text/html, a UTF-8 charset gets added.
+     */
+    public InMemoryResourceLoader put(String url, String contentType, String body) {
+        Map<String, List<String>> headers = new HashMap<>();
+        headers.put("content-type", Collections.singletonList(contentType + "; charset=utf-8"));
+        return put(url, 200, headers, body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Serves the provided response for the provided url.
+     */
+    public InMemoryResourceLoader put(String url, int status, Map<String, List<String>> headers, byte[] body) {
+        entries.put(url, new Entry(status, headers, body));
+        return this;
+    }
+
+    public InMemoryResourceLoader remove(String url) {
+        entries.remove(url);
+        return this;
+    }
+
+    @Override
+    public Resource load(ResourceRequest request) {
+        long start = System.nanoTime();
+        Entry entry = entries.get(request.getUrl());
+        if (entry == null)
+            return new Resource(request.getUrl(), 404, null, null, start, System.nanoTime(), false);
+        return new Resource(request.getUrl(), entry.status, entry.headers, new ByteArrayInputStream(entry.body),
+                start, System.nanoTime(), false);
+    }
+
+    private static class Entry {
+        private final int status;
+        private final Map<String, List<String>> headers;
+        private final byte[] body;
+
+        private Entry(int status, Map<String, List<String>> headers, byte[] body) {
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+        }
+    }
+}
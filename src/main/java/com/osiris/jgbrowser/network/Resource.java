@@ -0,0 +1,210 @@
+package com.osiris.jgbrowser.network;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A response returned by a {@link ResourceLoader}, with a streaming body. <br>
+ * Remember to close it, otherwise pooled connections can't be re-used. <br>
+ * All times are in nanoseconds, from {@link System#nanoTime()}. <br>
+ *
+ * @author Osiris-Team
+ */
+public class Resource implements Closeable {
+    private final String url;
+    private final int status;
+    private final Map<String, List<String>> headers;
+    private final TimedInputStream body;
+    private final long requestStartNanos;
+    private final long responseStartNanos;
+    private final boolean fromCache;
+
+    /**
+     * @param url                the final url of this resource, which might differ from the requested one, because of redirects.
+     * @param status             HTTP status code.
+     * @param headers            response headers.
+     * @param body               the body, can be null for an empty body.
+     * @param requestStartNanos  when the request was started.
+     * @param responseStartNanos when the response status and headers were received.
+     * @param fromCache          true if this response was served from a cache.
+     */
+    public Resource(String url, int status, Map<String, List<String>> headers, InputStream body,
+                    long requestStartNanos, long responseStartNanos, boolean fromCache) {
+        this.url = url;
+        this.status = status;
+        this.headers = headers == null ? Collections.emptyMap() : Collections.unmodifiableMap(headers);
+        this.body = new TimedInputStream(body == null ? new ByteArrayInputStream(new byte[0]) : body);
+        this.requestStartNanos = requestStartNanos;
+        this.responseStartNanos = responseStartNanos;
+        this.fromCache = fromCache;
+    }
+
+    /**
+     * Reads the remaining body and closes this resource.
+     */
+    public byte[] readBytes() throws IOException {
+        try (InputStream in = body) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(32, body.available()));
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        }
+    }
+
+    /**
+     * Reads the remaining body, decodes it with {@link #getCharset()} (or UTF-8 if there is none) and closes this resource.
+     */
+    public String readString() throws IOException {
+        String charset = getCharset();
+        return new String(readBytes(), charset == null ? StandardCharsets.UTF_8 : Charset.forName(charset));
+    }
+
+    /**
+     * Returns the charset from the Content-Type header, or null if there is none or it's not supported.
+     */
+    public String getCharset() {
+        String contentType = getHeader("content-type");
+        if (contentType == null) return null;
+        for (String param : contentType.split(";")) {
+            param = param.trim();
+            if (param.toLowerCase(Locale.ROOT).startsWith("charset=")) {
+                String charset = param.substring("charset=".length()).replace("\"", "").trim();
+                try {
+                    if (Charset.isSupported(charset)) return charset;
+                } catch (Exception ignored) {
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the first value of the provided header, or null. Header names are case-insensitive.
+     */
+    public String getHeader(String name) {
+        return HttpCache.header(headers, name);
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public Map<String, List<String>> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * Returns the streaming body. Can only be read once.
+     */
+    public InputStream getBody() {
+        return body;
+    }
+
+    public boolean isFromCache() {
+        return fromCache;
+    }
+
+    public long getRequestStartNanos() {
+        return requestStartNanos;
+    }
+
+    public long getResponseStartNanos() {
+        return responseStartNanos;
+    }
+
+    /**
+     * Returns when the body was read completely or closed, or -1 if that didn't happen yet.
+     */
+    public long getResponseEndNanos() {
+        return body.endNanos;
+    }
+
+    /**
+     * Returns the time it took from starting the request until receiving the status and headers.
+     */
+    public long getTimeToFirstByteNanos() {
+        return responseStartNanos - requestStartNanos;
+    }
+
+    /**
+     * Returns the time it took from starting the request until the body was read completely, or -1 if it wasn't yet.
+     */
+    public long getTotalNanos() {
+        return body.endNanos < 0 ? -1 : body.endNanos - requestStartNanos;
+    }
+
+    /**
+     * Returns the amount of body bytes read so far.
+     */
+    public long getBytesRead() {
+        return body.bytesRead;
+    }
+
+    @Override
+    public void close() throws IOException {
+        body.close();
+    }
+
+    @Override
+    public String toString() {
+        return status + " " + url + (fromCache ? " (cache)" : "");
+    }
+
+    /**
+     * Counts read bytes and remembers when the stream was read completely or closed.
+     */
+    private static class TimedInputStream extends FilterInputStream {
+        private volatile long bytesRead;
+        private volatile long endNanos = -1;
+
+        private TimedInputStream(InputStream in) {
+            super(in);
+        }
+
+        private int count(int read) {
+            if (read < 0) end();
+            else bytesRead += read;
+            return read;
+        }
+
+        private void end() {
+            if (endNanos < 0) endNanos = System.nanoTime();
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = in.read();
+            if (b < 0) end();
+            else bytesRead++;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return count(in.read(b, off, len));
+        }
+
+        @Override
+        public void close() throws IOException {
+            end();
+            in.close();
+        }
+    }
+}
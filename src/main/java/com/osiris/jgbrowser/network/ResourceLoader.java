@@ -0,0 +1,23 @@
+package com.osiris.jgbrowser.network;
+
+import java.io.IOException;
+
+/**
+ * Loads the resources (HTML-Documents, scripts, etc.) of a page. <br>
+ * The default implementation is the {@link HttpResourceLoader}, <br>
+ * others can be provided to a window via {@link com.osiris.jgbrowser.window.JGWindowBuilder#resourceLoader}. <br>
+ * Implementations must be thread-safe, since scripts are loaded in parallel. <br>
+ *
+ * @author Osiris-Team
+ */
+public interface ResourceLoader {
+
+    /**
+     * Loads the requested resource. <br>
+     * Responses with error status codes (like 404) must be returned normally, not thrown. <br>
+     * The caller must close the returned {@link Resource}. <br>
+     *
+     * @throws IOException if the resource could not be loaded at all, for example because the host was not reachable.
+     */
+    Resource load(ResourceRequest request) throws IOException;
+}
@@ -0,0 +1,86 @@
+package com.osiris.jgbrowser.network;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A request for a {@link ResourceLoader}.
+ *
+ * @author Osiris-Team
+ */
+public class ResourceRequest {
+    private final String url;
+    private final Map<String, String> headers;
+    private final ResourceType type;
+    private final String documentUrl;
+
+    /**
+     * @param url     the absolute url to load.
+     * @param headers request headers, can be null.
+     * @param type    what kind of resource gets loaded.
+     */
+    public ResourceRequest(String url, Map<String, String> headers, ResourceType type) {
+        this(url, headers, type, null);
+    }
+
+    /**
+     * @param url         the absolute url to load.
+     * @param headers     request headers, can be null.
+     * @param type        what kind of resource gets loaded.
+     * @param documentUrl the url of the page, that needs this resource, can be null.
+     */
+    public ResourceRequest(String url, Map<String, String> headers, ResourceType type, String documentUrl) {
+        this.url = Objects.requireNonNull(url);
+        this.headers = headers == null ? Collections.emptyMap() : Collections.unmodifiableMap(headers);
+        this.type = Objects.requireNonNull(type);
+        this.documentUrl = documentUrl;
+    }
+
+    /**
+     * Returns a copy of this request, with the provided headers added.
+     */
+    public ResourceRequest withHeaders(Map<String, String> additionalHeaders) {
+        Map<String, String> map = new HashMap<>(headers);
+        map.putAll(additionalHeaders);
+        return new ResourceRequest(url, map, type, documentUrl);
+    }
+
+    /**
+     * Returns the first value of the provided header, or null. Header names are case-insensitive.
+     */
+    public String getHeader(String name) {
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            if (header.getKey().equalsIgnoreCase(name)) return header.getValue();
+        }
+        return null;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * Unmodifiable map of request headers.
+     */
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    public ResourceType getType() {
+        return type;
+    }
+
+    /**
+     * Returns the url of the page, that needs this resource, or null if unknown or this is the page itself.
+     */
+    public String getDocumentUrl() {
+        return documentUrl;
+    }
+
+    @Override
+    public String toString() {
+        return type + " " + url;
+    }
+}
@@ -0,0 +1,19 @@
+package com.osiris.jgbrowser.network;
+
+/**
+ * What a {@link ResourceRequest} is loading.
+ */
+public enum ResourceType {
+    /**
+     * The HTML-Document of a page.
+     */
+    DOCUMENT,
+    /**
+     * An external script, referenced by a &lt;script src="..."&gt; element.
+     */
+    SCRIPT,
+    /**
+     * Anything else.
+     */
+    OTHER
+}
@@ -0,0 +1,265 @@
+package com.osiris.jgbrowser.network.archive;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records responses into a single archive file, that can be replayed later via {@link ResourceArchive}. <br>
+ * Every response is appended as one record, thus a crash only loses the response being written. <br>
+ * Bodies that were already recorded (same content, for example the same library on many pages) are stored only once. <br>
+ * On {@link #close()} the index gets appended, which makes opening the archive fast. <br>
+ * Opening an existing archive continues it, responses for urls that were already recorded replace the old ones. <br>
+ * Archives are limited to 2GB, since they get memory-mapped as a whole for replaying. <br>
+ * Thread-safe, thus all windows recording into the same file can share one writer (see {@link com.osiris.jgbrowser.JGBrowser#getArchiveWriter(File)}). <br>
+ * See {@link ResourceArchive} for the file format. <br>
+ *
+ * @author Osiris-Team
+ */
+public class ArchiveWriter implements AutoCloseable {
+    private final File file;
+    private final RandomAccessFile raf;
+    private final FileChannel channel;
+    private final MessageDigest digest;
+    /**
+     * Requested url to record position, in recording order.
+     */
+    private final Map<String, Long> index = new LinkedHashMap<>();
+    /**
+     * SHA-256 of a body to its position and length.
+     */
+    private final Map<String, long[]> bodies = new HashMap<>();
+    private long position;
+    /**
+     * Size of the index, that gets written on close.
+     */
+    private long indexBytes = 8;
+    private long bodyBytes;
+    private long dedupedBytes;
+    private boolean closed;
+
+    /**
+     * Opens the provided archive for recording, which gets created (together with its parent directories) if needed.
+     *
+     * @throws IOException if the file is not an archive, or can't be written.
+     */
+    public ArchiveWriter(File file) throws IOException {
+        this.file = file;
+        try {
+            this.digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (!parent.isDirectory() && !parent.mkdirs())
+            throw new IOException("Failed to create archive directory '" + parent + "'.");
+        this.raf = new RandomAccessFile(file, "rw");
+        this.channel = raf.getChannel();
+        try {
+            if (channel.size() == 0) {
+                ByteBuffer header = ByteBuffer.allocate(ResourceArchive.HEADER_SIZE);
+                header.putInt(ResourceArchive.MAGIC).putInt(ResourceArchive.VERSION).flip();
+                writeFully(header);
+                position = ResourceArchive.HEADER_SIZE;
+            } else {
+                continueArchive();
+            }
+        } catch (IOException | RuntimeException e) {
+            raf.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Loads the records and bodies of the existing archive and removes its index, which gets re-written on close. <br>
+     * Read into the heap instead of mapping it, since the file gets truncated afterwards. <br>
+     */
+    private void continueArchive() throws IOException {
+        if (channel.size() > Integer.MAX_VALUE)
+            throw new IOException("Archive '" + file + "' is larger than 2GB.");
+        ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, buffer.position()) < 0) break;
+        }
+        buffer.flip();
+        ResourceArchive.read(file, buffer); // Validates the header
+        Map<String, Integer> records = new LinkedHashMap<>();
+        List<ResourceArchive.Record> inlineBodies = new ArrayList<>();
+        position = ResourceArchive.scan(buffer, records, inlineBodies);
+        for (Map.Entry<String, Integer> record : records.entrySet()) {
+            index.put(record.getKey(), (long) record.getValue());
+            indexBytes += indexEntrySize(record.getKey());
+        }
+        for (ResourceArchive.Record record : inlineBodies) {
+            ByteBuffer body = buffer.duplicate();
+            body.limit((int) record.bodyOffset + record.bodyLength).position((int) record.bodyOffset);
+            digest.update(body);
+            bodies.put(hex(digest.digest()), new long[]{record.bodyOffset, record.bodyLength});
+        }
+        channel.truncate(position);
+    }
+
+    /**
+     * Appends the provided response.
+     *
+     * @param requestedUrl the url, that was requested, used to look up the response when replaying.
+     * @param url          the final url of the response, which differs from the requested one, if it was redirected.
+     * @throws IOException if writing failed, or the archive would become larger than 2GB.
+     */
+    public synchronized void write(String requestedUrl, String url, int status, Map<String, List<String>> headers, byte[] body) throws IOException {
+        if (closed) throw new IOException("Archive '" + file + "' was already closed.");
+        String hash = hex(digest.digest(body));
+        long[] existing = bodies.get(hash);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(ResourceArchive.RECORD_MAGIC);
+        writeString(out, requestedUrl);
+        writeString(out, url);
+        out.writeInt(status);
+        int headerCount = 0;
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            if (header.getKey() != null) headerCount += header.getValue().size(); // The status line has no name
+        }
+        out.writeInt(headerCount);
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            if (header.getKey() == null) continue;
+            for (String value : header.getValue()) {
+                writeString(out, header.getKey());
+                writeString(out, value);
+            }
+        }
+        long bodyOffset = existing != null ? existing[0] : position + bytes.size() + 8 + 4 + 1;
+        out.writeLong(bodyOffset);
+        out.writeInt(body.length);
+        out.writeByte(existing != null ? 0 : 1);
+        out.flush();
+        long recordSize = bytes.size() + (existing != null ? 0 : body.length);
+        long newIndexBytes = index.containsKey(requestedUrl) ? indexBytes : indexBytes + indexEntrySize(requestedUrl);
+        if (position + recordSize + newIndexBytes + ResourceArchive.TRAILER_SIZE > Integer.MAX_VALUE)
+            throw new IOException("Archive '" + file + "' is full, it can't be larger than 2GB.");
+
+        long recordOffset = position;
+        try {
+            writeFully(ByteBuffer.wrap(bytes.toByteArray()));
+            if (existing == null) writeFully(ByteBuffer.wrap(body));
+        } catch (IOException e) { // Remove the incomplete record
+            position = recordOffset;
+            channel.truncate(recordOffset);
+            throw e;
+        }
+        if (existing == null) {
+            bodies.put(hash, new long[]{bodyOffset, body.length});
+            bodyBytes += body.length;
+        } else {
+            dedupedBytes += body.length;
+        }
+        index.remove(requestedUrl); // Keeps the index in recording order
+        index.put(requestedUrl, recordOffset);
+        indexBytes = newIndexBytes;
+    }
+
+    private static long indexEntrySize(String url) {
+        return 4 + url.getBytes(StandardCharsets.UTF_8).length + 8;
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String hex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Returns true if a response for the provided url was recorded.
+     */
+    public synchronized boolean contains(String requestedUrl) {
+        return index.containsKey(requestedUrl);
+    }
+
+    /**
+     * Returns the amount of recorded responses (one per url).
+     */
+    public synchronized int size() {
+        return index.size();
+    }
+
+    /**
+     * Returns the amount of stored body bytes.
+     */
+    public synchronized long getBodyBytes() {
+        return bodyBytes;
+    }
+
+    /**
+     * Returns the amount of body bytes, that were not stored again, because the same body was already stored.
+     */
+    public synchronized long getDedupedBytes() {
+        return dedupedBytes;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public synchronized boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Appends the index and closes the file. Does nothing if already closed.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(index.size() * 64 + 32);
+            DataOutputStream out = new DataOutputStream(bytes);
+            long indexOffset = position;
+            out.writeInt(ResourceArchive.INDEX_MAGIC);
+            out.writeInt(index.size());
+            for (Map.Entry<String, Long> entry : index.entrySet()) {
+                writeString(out, entry.getKey());
+                out.writeLong(entry.getValue());
+            }
+            out.writeLong(indexOffset);
+            out.writeInt(ResourceArchive.MAGIC);
+            out.flush();
+            writeFully(ByteBuffer.wrap(bytes.toByteArray()));
+            channel.force(false);
+        } finally {
+            raf.close();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ArchiveWriter{" + file + ", responses=" + size() + "}";
+    }
+}
@@ -0,0 +1,44 @@
+package com.osiris.jgbrowser.network.archive;
+
+import com.osiris.jgbrowser.network.Resource;
+import com.osiris.jgbrowser.network.ResourceLoader;
+import com.osiris.jgbrowser.network.ResourceRequest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * {@link ResourceLoader} that records every response of its delegate into an {@link ArchiveWriter}, <br>
+ * thus the same page loads can be replayed later, without network (see {@link ReplayResourceLoader}). <br>
+ * Error responses (like 404) get recorded too, requests that failed completely (IOException) don't. <br>
+ * The body gets read completely before it is returned, to record it. <br>
+ *
+ * @author Osiris-Team
+ */
+public class RecordingResourceLoader implements ResourceLoader {
+    private final ResourceLoader delegate;
+    private final ArchiveWriter writer;
+
+    public RecordingResourceLoader(ResourceLoader delegate, ArchiveWriter writer) {
+        this.delegate = Objects.requireNonNull(delegate);
+        this.writer = Objects.requireNonNull(writer);
+    }
+
+    @Override
+    public Resource load(ResourceRequest request) throws IOException {
+        Resource response = delegate.load(request);
+        byte[] body = response.readBytes();
+        writer.write(request.getUrl(), response.getUrl(), response.getStatus(), response.getHeaders(), body);
+        return new Resource(response.getUrl(), response.getStatus(), response.getHeaders(), new ByteArrayInputStream(body),
+                response.getRequestStartNanos(), response.getResponseStartNanos(), response.isFromCache());
+    }
+
+    public ResourceLoader getDelegate() {
+        return delegate;
+    }
+
+    public ArchiveWriter getWriter() {
+        return writer;
+    }
+}
@@ -0,0 +1,58 @@
+package com.osiris.jgbrowser.network.archive;
+
+import com.osiris.jgbrowser.network.Resource;
+import com.osiris.jgbrowser.network.ResourceLoader;
+import com.osiris.jgbrowser.network.ResourceRequest;
+import com.osiris.jgbrowser.utils.ByteBufferInputStream;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link ResourceLoader} that serves the responses recorded in a {@link ResourceArchive}, without any network access. <br>
+ * Bodies are streamed directly from the memory-mapped archive, without being copied first. <br>
+ * Urls that were not recorded result in a 404 response and are counted as misses (see {@link #getMisses()}), <br>
+ * which shows whether the archive is complete for the replayed pages. <br>
+ *
+ * @author Osiris-Team
+ */
+public class ReplayResourceLoader implements ResourceLoader {
+    private final ResourceArchive archive;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public ReplayResourceLoader(ResourceArchive archive) {
+        this.archive = Objects.requireNonNull(archive);
+    }
+
+    @Override
+    public Resource load(ResourceRequest request) {
+        long start = System.nanoTime();
+        ResourceArchive.Record record = archive.get(request.getUrl());
+        if (record == null) {
+            misses.increment();
+            return new Resource(request.getUrl(), 404, null, null, start, System.nanoTime(), false);
+        }
+        hits.increment();
+        return new Resource(record.getUrl(), record.getStatus(), record.getHeaders(), new ByteBufferInputStream(archive.getBody(record)),
+                start, System.nanoTime(), false);
+    }
+
+    public ResourceArchive getArchive() {
+        return archive;
+    }
+
+    /**
+     * Returns the amount of requests served from the archive.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the amount of requests for urls, that are not in the archive.
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+}
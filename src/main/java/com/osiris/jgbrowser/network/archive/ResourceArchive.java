@@ -0,0 +1,263 @@
+package com.osiris.jgbrowser.network.archive;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Read-only view of an archive written by an {@link ArchiveWriter}, used to replay recorded responses <br>
+ * (see {@link ReplayResourceLoader}). The whole file gets memory-mapped once, and the index (url to record position) <br>
+ * is loaded into memory, thus a lookup is a single hash map access, and bodies are returned as slices <br>
+ * of the mapped file, without ever being copied onto the heap. <br>
+ * If the archive wasn't closed properly (no index at its end), its records are scanned instead and all complete ones are used. <br>
+ * Immutable and thread-safe. <br>
+ * <br>
+ * File format (all numbers big-endian, strings as int length + UTF-8 bytes): <br>
+ * <pre>
+ * header:  int MAGIC, int VERSION
+ * record:  int RECORD_MAGIC, string requested url, string final url, int status,
+ *          int header count, (string name, string value)*,
+ *          long body offset, int body length, byte inline (1 if the body follows, 0 if it belongs to an earlier record)
+ *          [body]
+ * index:   int INDEX_MAGIC, int count, (string requested url, long record offset)*
+ * trailer: long index offset, int MAGIC
+ * </pre>
+ *
+ * @author Osiris-Team
+ */
+public class ResourceArchive {
+    static final int MAGIC = 0x4A475241; // JGRA
+    static final int VERSION = 1;
+    static final int RECORD_MAGIC = 0x4A475252; // JGRR
+    static final int INDEX_MAGIC = 0x4A475249; // JGRI
+    static final int HEADER_SIZE = 8;
+    static final int TRAILER_SIZE = 12;
+
+    private final File file;
+    private final ByteBuffer buffer;
+    private final Map<String, Integer> index;
+    private final boolean complete;
+
+    private ResourceArchive(File file, ByteBuffer buffer, Map<String, Integer> index, boolean complete) {
+        this.file = file;
+        this.buffer = buffer;
+        this.index = index;
+        this.complete = complete;
+    }
+
+    /**
+     * Opens the archive stored in the provided file and maps it into memory.
+     *
+     * @throws IOException if the file can't be read, is not an archive or is larger than 2GB.
+     */
+    public static ResourceArchive open(File file) throws IOException {
+        ByteBuffer buffer;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+             FileChannel channel = raf.getChannel()) {
+            if (channel.size() > Integer.MAX_VALUE)
+                throw new IOException("Archive '" + file + "' is larger than 2GB.");
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()); // Stays valid after closing the channel
+        }
+        return read(file, buffer);
+    }
+
+    /**
+     * Parses the provided archive contents, see {@link #open(File)}.
+     */
+    static ResourceArchive read(File file, ByteBuffer buffer) throws IOException {
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION)
+            throw new IOException("'" + file + "' is not an archive, or has an unsupported version.");
+        Map<String, Integer> index = new HashMap<>();
+        int indexOffset = findIndex(buffer);
+        if (indexOffset > 0) {
+            ByteBuffer in = buffer.duplicate();
+            in.position(indexOffset + 4);
+            int count = in.getInt();
+            index = new HashMap<>(count * 4 / 3 + 1);
+            for (int i = 0; i < count; i++) {
+                String url = readString(in);
+                index.put(url, (int) in.getLong());
+            }
+            return new ResourceArchive(file, buffer, index, true);
+        }
+        scan(buffer, index, null);
+        return new ResourceArchive(file, buffer, index, false);
+    }
+
+    /**
+     * Returns the position of the index, or -1 if the archive has no valid trailer.
+     */
+    private static int findIndex(ByteBuffer buffer) {
+        int end = buffer.limit();
+        if (end < HEADER_SIZE + TRAILER_SIZE || buffer.getInt(end - 4) != MAGIC) return -1;
+        long indexOffset = buffer.getLong(end - TRAILER_SIZE);
+        if (indexOffset < HEADER_SIZE || indexOffset > end - TRAILER_SIZE - 8 || buffer.getInt((int) indexOffset) != INDEX_MAGIC)
+            return -1;
+        return (int) indexOffset;
+    }
+
+    /**
+     * Reads all complete records, from the start of the archive, until the index or the first incomplete record. <br>
+     *
+     * @param index  receives the requested url and position of each record, later records replace earlier ones.
+     * @param bodies receives the position of each inline body, can be null.
+     * @return the position after the last complete record.
+     */
+    static int scan(ByteBuffer buffer, Map<String, Integer> index, List<Record> bodies) {
+        ByteBuffer in = buffer.duplicate();
+        int position = HEADER_SIZE;
+        while (true) {
+            in.position(position);
+            try {
+                if (in.remaining() < 4 || in.getInt() != RECORD_MAGIC) break;
+                Record record = readRecord(in, position);
+                int end = record.inline ? (int) record.bodyOffset + record.bodyLength : in.position();
+                if (end > in.limit() || end < in.position()) break;
+                index.put(record.requestedUrl, position);
+                if (bodies != null && record.inline) bodies.add(record);
+                position = end;
+            } catch (RuntimeException e) { // Truncated
+                break;
+            }
+        }
+        return position;
+    }
+
+    /**
+     * Reads the record after its magic number.
+     */
+    private static Record readRecord(ByteBuffer in, int offset) {
+        String requestedUrl = readString(in);
+        String url = readString(in);
+        int status = in.getInt();
+        int headerCount = in.getInt();
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        for (int i = 0; i < headerCount; i++) {
+            String name = readString(in);
+            headers.computeIfAbsent(name, k -> new ArrayList<>(1)).add(readString(in));
+        }
+        long bodyOffset = in.getLong();
+        int bodyLength = in.getInt();
+        boolean inline = in.get() == 1;
+        return new Record(offset, requestedUrl, url, status, headers, bodyOffset, bodyLength, inline);
+    }
+
+    static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0 || length > in.remaining()) throw new IllegalStateException("Corrupt string length " + length + ".");
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the recorded response for the provided url, or null if there is none. <br>
+     * The url must be the same as the recorded request (before redirects). <br>
+     */
+    public Record get(String url) {
+        Integer offset = index.get(url);
+        if (offset == null) return null;
+        ByteBuffer in = buffer.duplicate();
+        in.position(offset + 4);
+        return readRecord(in, offset);
+    }
+
+    /**
+     * Returns the body of the provided record, as read-only slice of the mapped archive.
+     */
+    public ByteBuffer getBody(Record record) {
+        ByteBuffer body = buffer.duplicate();
+        body.limit((int) record.bodyOffset + record.bodyLength).position((int) record.bodyOffset);
+        return body.slice().asReadOnlyBuffer();
+    }
+
+    /**
+     * Returns the requested urls of all recorded responses.
+     */
+    public Set<String> getUrls() {
+        return Collections.unmodifiableSet(index.keySet());
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * Returns false if the archive wasn't closed properly, thus its records had to be scanned, <br>
+     * and the last one of them might be missing. <br>
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    @Override
+    public String toString() {
+        return "ResourceArchive{" + file + ", responses=" + index.size() + "}";
+    }
+
+    /**
+     * A recorded response, without its body (see {@link #getBody(Record)}).
+     */
+    public static class Record {
+        final int offset;
+        private final String requestedUrl;
+        private final String url;
+        private final int status;
+        private final Map<String, List<String>> headers;
+        final long bodyOffset;
+        final int bodyLength;
+        final boolean inline;
+
+        Record(int offset, String requestedUrl, String url, int status, Map<String, List<String>> headers,
+               long bodyOffset, int bodyLength, boolean inline) {
+            this.offset = offset;
+            this.requestedUrl = requestedUrl;
+            this.url = url;
+            this.status = status;
+            this.headers = Collections.unmodifiableMap(headers);
+            this.bodyOffset = bodyOffset;
+            this.bodyLength = bodyLength;
+            this.inline = inline;
+        }
+
+        /**
+         * Returns the url, that was requested.
+         */
+        public String getRequestedUrl() {
+            return requestedUrl;
+        }
+
+        /**
+         * Returns the final url of the response, which differs from the requested one, if it was redirected.
+         */
+        public String getUrl() {
+            return url;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public Map<String, List<String>> getHeaders() {
+            return headers;
+        }
+
+        public int getBodyLength() {
+            return bodyLength;
+        }
+    }
+}
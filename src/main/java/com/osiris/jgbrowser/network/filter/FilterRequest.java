@@ -0,0 +1,172 @@
+package com.osiris.jgbrowser.network.filter;
+
+import com.osiris.jgbrowser.network.ResourceType;
+
+import java.util.Arrays;
+
+/**
+ * A request prepared for matching against the rules of a {@link RequestFilter}. <br>
+ * Splits the url once into its host and tokens, which every index of the filter then looks up. <br>
+ *
+ * @author Osiris-Team
+ */
+class FilterRequest {
+    final String url;
+    final String lowerUrl;
+    /**
+     * Position of the host inside the url.
+     */
+    final int hostStart, hostEnd;
+    final int typeBit;
+    private final String documentUrl;
+    private final boolean isDocument;
+    private String host;
+    private String documentHost;
+    private int thirdParty; // 0 = not checked yet, 1 = yes, -1 = no
+    private int[] tokenHashes;
+    private int tokenCount = -1;
+    private int[] hostHashes;
+
+    FilterRequest(String url, ResourceType type, String documentUrl) {
+        this.url = url;
+        this.lowerUrl = FilterRule.lowerAscii(url);
+        this.typeBit = 1 << type.ordinal();
+        this.isDocument = type == ResourceType.DOCUMENT;
+        this.documentUrl = documentUrl;
+        int[] range = hostRange(lowerUrl);
+        this.hostStart = range[0];
+        this.hostEnd = range[1];
+    }
+
+    /**
+     * Returns the start and end of the host inside the provided url, or 0 and 0 if it has none.
+     */
+    static int[] hostRange(String url) {
+        int scheme = url.indexOf("://");
+        if (scheme < 0) return new int[]{0, 0};
+        int start = scheme + 3;
+        int end = start;
+        while (end < url.length() && "/?#".indexOf(url.charAt(end)) < 0) end++;
+        int userInfo = url.lastIndexOf('@', end - 1);
+        if (userInfo >= start) start = userInfo + 1;
+        if (start < end && url.charAt(start) == '[') { // IPv6
+            int close = url.indexOf(']', start);
+            if (close > 0 && close < end) return new int[]{start, close + 1};
+        }
+        int port = url.indexOf(':', start);
+        if (port >= 0 && port < end) end = port;
+        return new int[]{start, end};
+    }
+
+    static String hostOf(String url) {
+        if (url == null) return null;
+        String lowerUrl = FilterRule.lowerAscii(url);
+        int[] range = hostRange(lowerUrl);
+        return range[0] == range[1] ? null : lowerUrl.substring(range[0], range[1]);
+    }
+
+    String getHost() {
+        if (host == null) host = lowerUrl.substring(hostStart, hostEnd);
+        return host;
+    }
+
+    /**
+     * Returns the host of the page, that made this request, or null if unknown. <br>
+     * For documents without {@link #documentUrl} that is their own host. <br>
+     */
+    String getDocumentHost() {
+        if (documentHost == null) {
+            if (documentUrl != null) documentHost = hostOf(documentUrl);
+            else if (isDocument && hostEnd > hostStart) documentHost = getHost();
+        }
+        return documentHost;
+    }
+
+    /**
+     * Returns true if the requested url belongs to another site than the page, that made this request. <br>
+     * Sites are compared by {@link #baseDomain(String)}. If the page is unknown, this returns false. <br>
+     */
+    boolean isThirdParty() {
+        if (thirdParty == 0) {
+            String document = getDocumentHost();
+            thirdParty = document != null && !baseDomain(document).equals(baseDomain(getHost())) ? 1 : -1;
+        }
+        return thirdParty == 1;
+    }
+
+    /**
+     * Returns the registrable part of the provided host, for example example.com for www.example.com. <br>
+     * Approximated without a public suffix list: the last two labels, or three if the second-last <br>
+     * looks like part of a country suffix (like co.uk or com.au). <br>
+     */
+    static String baseDomain(String host) {
+        int last = host.lastIndexOf('.');
+        if (last <= 0) return host;
+        int second = host.lastIndexOf('.', last - 1);
+        if (second < 0) return host;
+        if (host.length() - last - 1 == 2 && last - second - 1 <= 3) { // For example .co.uk
+            int third = host.lastIndexOf('.', second - 1);
+            return third < 0 ? host : host.substring(third + 1);
+        }
+        return host.substring(second + 1);
+    }
+
+    /**
+     * Returns the hashes ({@link String#hashCode()}) of all tokens of the url, see {@link #getTokenCount()}. <br>
+     * A token is a run of {@link FilterRule#isTokenChar(char)} characters in the lower case url. <br>
+     */
+    int[] getTokenHashes() {
+        if (tokenCount < 0) {
+            int[] hashes = new int[16];
+            int count = 0;
+            int i = 0;
+            int length = lowerUrl.length();
+            while (i < length) {
+                if (!FilterRule.isTokenChar(lowerUrl.charAt(i))) {
+                    i++;
+                    continue;
+                }
+                int hash = 0;
+                while (i < length && FilterRule.isTokenChar(lowerUrl.charAt(i))) {
+                    hash = 31 * hash + lowerUrl.charAt(i);
+                    i++;
+                }
+                if (count == hashes.length) hashes = Arrays.copyOf(hashes, count * 2);
+                hashes[count++] = hash;
+            }
+            tokenHashes = hashes;
+            tokenCount = count;
+        }
+        return tokenHashes;
+    }
+
+    int getTokenCount() {
+        getTokenHashes();
+        return tokenCount;
+    }
+
+    /**
+     * Returns the hashes ({@link String#hashCode()}) of the host and all its parent domains, <br>
+     * for example of a.example.com, example.com and com. <br>
+     */
+    int[] getHostHashes() {
+        if (hostHashes == null) {
+            int count = 0;
+            for (int i = hostStart; i < hostEnd; i++) {
+                if (i == hostStart || lowerUrl.charAt(i - 1) == '.') count++;
+            }
+            int[] hashes = new int[count];
+            int n = 0;
+            for (int i = hostStart; i < hostEnd; i++) {
+                if (i != hostStart && lowerUrl.charAt(i - 1) != '.') continue;
+                int hash = 0;
+                for (int j = i; j < hostEnd; j++) {
+                    hash = 31 * hash + lowerUrl.charAt(j);
+                }
+                hashes[n++] = hash;
+            }
+            hostHashes = hashes;
+        }
+        return hostHashes;
+    }
+}
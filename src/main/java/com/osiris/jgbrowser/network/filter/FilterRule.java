@@ -0,0 +1,360 @@
+package com.osiris.jgbrowser.network.filter;
+
+import com.osiris.jgbrowser.network.ResourceType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A single network rule of an EasyList/Adblock Plus filter list, for example: <br>
+ * <pre>
+ * ||ads.example.com^              blocks everything from ads.example.com and its subdomains
+ * /banner/*.js$script,third-party blocks scripts from other sites, whose url contains /banner/ and .js
+ * @@||example.com/ads.js|         allows exactly this url (exception)
+ * </pre>
+ * Supported syntax: the anchors | and ||, the wildcard *, the separator ^, and the options <br>
+ * script, document, other (and the other resource types, which are {@link ResourceType#OTHER} here), <br>
+ * third-party, domain=, match-case and important (also with ~ to negate, where it makes sense). <br>
+ * Rules with anything else (regular expressions, element hiding, redirect=, csp= etc.) are not supported <br>
+ * and get skipped by {@link RequestFilter}, since applying only part of them could block too much. <br>
+ *
+ * @author Osiris-Team
+ */
+public class FilterRule {
+    static final int DOCUMENT = 1 << ResourceType.DOCUMENT.ordinal();
+    static final int SCRIPT = 1 << ResourceType.SCRIPT.ordinal();
+    static final int OTHER = 1 << ResourceType.OTHER.ordinal();
+    private static final int ALL = DOCUMENT | SCRIPT | OTHER;
+    private static final String[] OTHER_TYPES = {"image", "stylesheet", "object", "xmlhttprequest", "subdocument", "ping",
+            "websocket", "webrtc", "font", "media", "other", "object-subrequest"};
+
+    private final String text;
+    private final boolean exception;
+    private final boolean important;
+    private final boolean matchCase;
+    /**
+     * Bits of the {@link ResourceType}s this rule applies to.
+     */
+    private final int types;
+    /**
+     * 1 if only third-party requests, -1 if only first-party requests, 0 if both.
+     */
+    private final int thirdParty;
+    private final String[] includedDomains;
+    private final String[] excludedDomains;
+    private final boolean hostAnchor;
+    private final boolean startAnchor;
+    private final boolean endAnchor;
+    /**
+     * The pattern split at its wildcards, can contain ^.
+     */
+    private final String[] segments;
+
+    private FilterRule(String text, boolean exception, boolean important, boolean matchCase, int types, int thirdParty,
+                       String[] includedDomains, String[] excludedDomains,
+                       boolean hostAnchor, boolean startAnchor, boolean endAnchor, String[] segments) {
+        this.text = text;
+        this.exception = exception;
+        this.important = important;
+        this.matchCase = matchCase;
+        this.types = types;
+        this.thirdParty = thirdParty;
+        this.includedDomains = includedDomains;
+        this.excludedDomains = excludedDomains;
+        this.hostAnchor = hostAnchor;
+        this.startAnchor = startAnchor;
+        this.endAnchor = endAnchor;
+        this.segments = segments;
+    }
+
+    /**
+     * Parses the provided line of a filter list. <br>
+     *
+     * @return the rule, or null if the line is empty, a comment, or not supported (see {@link FilterRule}).
+     */
+    public static FilterRule parse(String line) {
+        String text = line.trim();
+        if (text.isEmpty() || text.startsWith("!") || text.startsWith("["))
+            return null;
+        if (text.contains("##") || text.contains("#@#") || text.contains("#?#") || text.contains("#$#"))
+            return null; // Element hiding
+        String pattern = text;
+        boolean exception = pattern.startsWith("@@");
+        if (exception) pattern = pattern.substring(2);
+
+        boolean important = false;
+        boolean matchCase = false;
+        int includedTypes = 0;
+        int excludedTypes = 0;
+        int thirdParty = 0;
+        List<String> includedDomains = new ArrayList<>();
+        List<String> excludedDomains = new ArrayList<>();
+        int optionsStart = pattern.lastIndexOf('$');
+        if (optionsStart >= 0) {
+            for (String option : pattern.substring(optionsStart + 1).split(",")) {
+                option = option.trim().toLowerCase(Locale.ROOT);
+                boolean negated = option.startsWith("~");
+                String name = negated ? option.substring(1) : option;
+                int type = typeOf(name);
+                if (type != 0) {
+                    if (negated) excludedTypes |= type;
+                    else includedTypes |= type;
+                } else if (name.equals("third-party") || name.equals("3p")) {
+                    thirdParty = negated ? -1 : 1;
+                } else if (name.equals("first-party") || name.equals("1p")) {
+                    thirdParty = negated ? 1 : -1;
+                } else if (name.equals("match-case") && !negated) {
+                    matchCase = true;
+                } else if (name.equals("important") && !negated) {
+                    important = true;
+                } else if (name.startsWith("domain=") && !negated) {
+                    for (String domain : name.substring(7).split("\\|")) {
+                        if (domain.startsWith("~")) excludedDomains.add(domain.substring(1));
+                        else if (!domain.isEmpty()) includedDomains.add(domain);
+                    }
+                } else {
+                    return null; // Unsupported option
+                }
+            }
+            pattern = pattern.substring(0, optionsStart);
+        }
+        int types = includedTypes != 0 ? includedTypes : ALL & ~DOCUMENT; // Pages themselves only get blocked explicitly
+        types &= ~excludedTypes;
+        if (types == 0) return null;
+
+        if (pattern.length() > 1 && pattern.startsWith("/") && pattern.endsWith("/"))
+            return null; // Regular expression
+        boolean hostAnchor = pattern.startsWith("||");
+        boolean startAnchor = !hostAnchor && pattern.startsWith("|");
+        if (hostAnchor) pattern = pattern.substring(2);
+        else if (startAnchor) pattern = pattern.substring(1);
+        boolean endAnchor = pattern.endsWith("|");
+        if (endAnchor) pattern = pattern.substring(0, pattern.length() - 1);
+        if (pattern.contains("|")) return null;
+        if (!matchCase) pattern = lowerAscii(pattern);
+        // Leading and trailing wildcards make the anchors pointless
+        if (pattern.startsWith("*")) {
+            hostAnchor = false;
+            startAnchor = false;
+        }
+        if (pattern.endsWith("*")) endAnchor = false;
+        List<String> segments = new ArrayList<>();
+        for (String segment : pattern.split("\\*")) {
+            if (!segment.isEmpty()) segments.add(segment);
+        }
+        if (segments.isEmpty() && !hostAnchor && !startAnchor) segments.add(""); // Matches everything
+        return new FilterRule(text, exception, important, matchCase, types, thirdParty,
+                includedDomains.toArray(new String[0]), excludedDomains.toArray(new String[0]),
+                hostAnchor, startAnchor, endAnchor, segments.toArray(new String[0]));
+    }
+
+    private static int typeOf(String option) {
+        if (option.equals("script")) return SCRIPT;
+        if (option.equals("document")) return DOCUMENT;
+        for (String type : OTHER_TYPES) {
+            if (type.equals(option)) return OTHER;
+        }
+        return 0;
+    }
+
+    /**
+     * The rule as written in the filter list.
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * Returns true if this rule allows requests (it started with @@), false if it blocks them.
+     */
+    public boolean isException() {
+        return exception;
+    }
+
+    /**
+     * Returns true if this blocking rule can't be overridden by exceptions of the same {@link RequestFilter}.
+     */
+    public boolean isImportant() {
+        return important;
+    }
+
+    boolean isMatchCase() {
+        return matchCase;
+    }
+
+    /**
+     * Returns the host, that urls matched by this rule must have (or be a subdomain of), or null if there is none. <br>
+     * Only known for rules like ||example.com^ and ||example.com/path, used by {@link RequestFilter} to index them by host. <br>
+     */
+    String getHost() {
+        if (!hostAnchor || segments.length == 0) return null;
+        String first = segments[0];
+        int end = 0;
+        while (end < first.length() && isHostChar(first.charAt(end))) end++;
+        if (end == 0 || end == first.length() && segments.length == 1 && !endAnchor) return null; // ||exam could match example.com
+        if (end < first.length() && "^/:".indexOf(first.charAt(end)) < 0) return null;
+        if (end == first.length() && segments.length > 1) return null; // ||example.* could match example.com
+        return first.substring(0, end);
+    }
+
+    /**
+     * Returns the literal character runs of this rule, that every matching url contains as complete token <br>
+     * (see {@link RequestFilter}), for example "banner" and "js" for /banner/*.js <br>
+     */
+    List<String> getTokens() {
+        List<String> tokens = new ArrayList<>();
+        for (int s = 0; s < segments.length; s++) {
+            String segment = segments[s];
+            int i = 0;
+            while (i < segment.length()) {
+                if (!isTokenChar(segment.charAt(i))) {
+                    i++;
+                    continue;
+                }
+                int start = i;
+                while (i < segment.length() && isTokenChar(segment.charAt(i))) i++;
+                // A token next to a wildcard (or an unanchored pattern start/end) might only be part of the urls' token
+                boolean leftBounded = start > 0 || (s == 0 && (hostAnchor || startAnchor));
+                boolean rightBounded = i < segment.length() || (s == segments.length - 1 && endAnchor);
+                if (leftBounded && rightBounded)
+                    tokens.add(matchCase ? lowerAscii(segment.substring(start, i)) : segment.substring(start, i));
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Returns true if this rule matches the provided request, ignoring whether it is an exception.
+     */
+    boolean matches(FilterRequest request) {
+        if ((types & request.typeBit) == 0) return false;
+        if (thirdParty != 0 && (thirdParty == 1) != request.isThirdParty()) return false;
+        if (includedDomains.length > 0 || excludedDomains.length > 0) {
+            String domain = request.getDocumentHost();
+            if (domain == null) return false;
+            if (includedDomains.length > 0 && !anyDomainMatches(includedDomains, domain)) return false;
+            if (anyDomainMatches(excludedDomains, domain)) return false;
+        }
+        String url = matchCase ? request.url : request.lowerUrl;
+        if (hostAnchor) {
+            // Try every start of a domain label inside the host
+            if (matchesAt(url, request.hostStart)) return true;
+            for (int i = request.hostStart; i < request.hostEnd; i++) {
+                if (url.charAt(i) == '.' && matchesAt(url, i + 1)) return true;
+            }
+            return false;
+        }
+        if (startAnchor) return matchesAt(url, 0);
+        return matchesFrom(url, 0);
+    }
+
+    private static boolean anyDomainMatches(String[] domains, String host) {
+        for (String domain : domains) {
+            if (isSameOrSubdomain(host, domain)) return true;
+        }
+        return false;
+    }
+
+    static boolean isSameOrSubdomain(String host, String domain) {
+        return host.endsWith(domain) && (host.length() == domain.length() || host.charAt(host.length() - domain.length() - 1) == '.');
+    }
+
+    /**
+     * Matches the pattern, with its first segment starting exactly at the provided position.
+     */
+    private boolean matchesAt(String url, int position) {
+        if (segments.length == 0) return !endAnchor || position == url.length();
+        int end = segmentAt(url, position, segments[0]);
+        if (end < 0) return false;
+        if (segments.length == 1) return !endAnchor || end == url.length();
+        return matchSegments(url, end, 1);
+    }
+
+    /**
+     * Matches the pattern, with its first segment starting anywhere at or after the provided position.
+     */
+    private boolean matchesFrom(String url, int position) {
+        return matchSegments(url, position, 0);
+    }
+
+    /**
+     * Matches the segments starting at the provided index, each one at the first position it fits. <br>
+     * Taking the first fitting position is always correct, since the segments are separated by wildcards. <br>
+     */
+    private boolean matchSegments(String url, int position, int index) {
+        for (int s = index; s < segments.length; s++) {
+            String segment = segments[s];
+            boolean last = s == segments.length - 1;
+            if (last && endAnchor) {
+                for (int i = position; i <= url.length(); i++) {
+                    if (segmentAt(url, i, segment) == url.length()) return true;
+                }
+                return false;
+            }
+            int end = -1;
+            for (int i = position; i <= url.length() && end < 0; i++) {
+                end = segmentAt(url, i, segment);
+            }
+            if (end < 0) return false;
+            position = end;
+        }
+        return true;
+    }
+
+    /**
+     * Returns where the provided segment ends, if it matches at the provided position, otherwise -1. <br>
+     * ^ matches a single separator character, or the end of the url. <br>
+     */
+    private static int segmentAt(String url, int position, String segment) {
+        int k = position;
+        for (int j = 0; j < segment.length(); j++) {
+            char c = segment.charAt(j);
+            if (c == '^') {
+                if (k == url.length()) {
+                    if (j == segment.length() - 1) return k; // Matches the end
+                    return -1;
+                }
+                if (!isSeparator(url.charAt(k))) return -1;
+            } else if (k >= url.length() || url.charAt(k) != c) {
+                return -1;
+            }
+            k++;
+        }
+        return k;
+    }
+
+    /**
+     * Converts only A-Z to lower case, thus the result has the same length and positions as the provided text.
+     */
+    static String lowerAscii(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= 'A' && c <= 'Z') {
+                char[] chars = text.toCharArray();
+                for (int j = i; j < chars.length; j++) {
+                    if (chars[j] >= 'A' && chars[j] <= 'Z') chars[j] += 'a' - 'A';
+                }
+                return new String(chars);
+            }
+        }
+        return text;
+    }
+
+    static boolean isSeparator(char c) {
+        return !isTokenChar(c) && c != '_' && c != '-' && c != '.';
+    }
+
+    static boolean isTokenChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || (c >= 'A' && c <= 'Z') || c == '%';
+    }
+
+    private static boolean isHostChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '.' || c == '-';
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+}
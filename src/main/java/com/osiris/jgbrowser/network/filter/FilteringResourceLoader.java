@@ -0,0 +1,153 @@
+package com.osiris.jgbrowser.network.filter;
+
+import com.osiris.jgbrowser.exceptions.RequestBlockedException;
+import com.osiris.jgbrowser.network.Resource;
+import com.osiris.jgbrowser.network.ResourceLoader;
+import com.osiris.jgbrowser.network.ResourceRequest;
+import com.osiris.jgbrowser.network.ResourceType;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link ResourceLoader} that checks every request against a {@link RequestFilter}, before passing it to its delegate. <br>
+ * Blocked requests never reach the delegate (nor the network), instead a {@link RequestBlockedException} gets thrown. <br>
+ * The overrides get checked first, and if one of their rules matches, it decides alone (see {@link #getOverrides()}). <br>
+ * Counts blocked and allowed requests, and the body bytes of allowed ones. <br>
+ * Note that the size of blocked responses is unknown, since they are never downloaded. <br>
+ *
+ * @author Osiris-Team
+ */
+public class FilteringResourceLoader implements ResourceLoader {
+    private final ResourceLoader delegate;
+    private final RequestFilter filter;
+    private final RequestFilter overrides;
+    private final LongAdder[] blockedRequests = new LongAdder[ResourceType.values().length];
+    private final LongAdder allowedRequests = new LongAdder();
+    private final LongAdder allowedBytes = new LongAdder();
+
+    /**
+     * @param delegate  loads the allowed requests.
+     * @param filter    the shared filter list, like EasyList, can be null.
+     * @param overrides rules that win over the filter, for example to allow a single script blocked by the filter, can be null.
+     */
+    public FilteringResourceLoader(ResourceLoader delegate, RequestFilter filter, RequestFilter overrides) {
+        this.delegate = Objects.requireNonNull(delegate);
+        this.filter = filter;
+        this.overrides = overrides;
+        for (int i = 0; i < blockedRequests.length; i++) {
+            blockedRequests[i] = new LongAdder();
+        }
+    }
+
+    @Override
+    public Resource load(ResourceRequest request) throws IOException {
+        FilterRule rule = overrides == null ? null : overrides.matchAny(request);
+        if (rule == null && filter != null) rule = filter.match(request);
+        if (rule != null && !rule.isException()) {
+            blockedRequests[request.getType().ordinal()].increment();
+            throw new RequestBlockedException(request, rule);
+        }
+        allowedRequests.increment();
+        Resource resource = delegate.load(request);
+        return new Resource(resource.getUrl(), resource.getStatus(), resource.getHeaders(), new CountingInputStream(resource.getBody()),
+                resource.getRequestStartNanos(), resource.getResponseStartNanos(), resource.isFromCache());
+    }
+
+    /**
+     * Returns the amount of blocked requests.
+     */
+    public long getBlockedRequests() {
+        long sum = 0;
+        for (LongAdder adder : blockedRequests) {
+            sum += adder.sum();
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the amount of blocked requests of the provided type.
+     */
+    public long getBlockedRequests(ResourceType type) {
+        return blockedRequests[type.ordinal()].sum();
+    }
+
+    /**
+     * Returns the amount of requests passed to the delegate.
+     */
+    public long getAllowedRequests() {
+        return allowedRequests.sum();
+    }
+
+    /**
+     * Returns the amount of body bytes read from allowed responses.
+     */
+    public long getAllowedBytes() {
+        return allowedBytes.sum();
+    }
+
+    /**
+     * Sets all counters to 0.
+     */
+    public void resetCounters() {
+        for (LongAdder adder : blockedRequests) {
+            adder.reset();
+        }
+        allowedRequests.reset();
+        allowedBytes.reset();
+    }
+
+    public ResourceLoader getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * Returns the filter list, or null.
+     */
+    public RequestFilter getFilter() {
+        return filter;
+    }
+
+    /**
+     * Returns the rules, that are checked before the {@link #getFilter()}, or null. <br>
+     * A matching exception allows a request, even if the filter would block it, <br>
+     * and a matching blocking rule blocks it, even if the filter has an exception for it. <br>
+     */
+    public RequestFilter getOverrides() {
+        return overrides;
+    }
+
+    /**
+     * Adds the read bytes to {@link #allowedBytes}.
+     */
+    private class CountingInputStream extends FilterInputStream {
+
+        private CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = in.read();
+            if (b >= 0) allowedBytes.increment();
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = in.read(b, off, len);
+            if (read > 0) allowedBytes.add(read);
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = in.skip(n);
+            if (skipped > 0) allowedBytes.add(skipped);
+            return skipped;
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package com.osiris.jgbrowser.network.filter;
+
+import com.osiris.jgbrowser.network.ResourceRequest;
+import com.osiris.jgbrowser.network.ResourceType;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Decides which requests get blocked, based on a list of {@link FilterRule}s, like EasyList or EasyPrivacy. <br>
+ * The rules get compiled into hash indexes once, thus a request only gets checked against the few rules, <br>
+ * that could match it, instead of all of them: <br>
+ * - Rules for a host (like ||ads.example.com^) are found by the host of the url and its parent domains. <br>
+ * - All other rules are found by one of their tokens (like "banner" for /banner/*.js), the rarest one. <br>
+ * Every token of the url is looked up once. <br>
+ * - Only the rules without any usable token are checked for every request. <br>
+ * Immutable and thread-safe, thus a single instance can be shared by all windows. <br>
+ *
+ * @author Osiris-Team
+ */
+public class RequestFilter {
+    /**
+     * Tokens that are part of almost every url, thus only used if a rule has no other token.
+     */
+    private static final Set<String> COMMON_TOKENS = new HashSet<>(Arrays.asList("http", "https", "www", "com", "js"));
+    private final RuleIndex importantBlocks;
+    private final RuleIndex blocks;
+    private final RuleIndex exceptions;
+    private final int ruleCount;
+    private final int unsupportedCount;
+
+    private RequestFilter(List<FilterRule> rules, int unsupportedCount) {
+        List<FilterRule> importantBlocks = new ArrayList<>();
+        List<FilterRule> blocks = new ArrayList<>();
+        List<FilterRule> exceptions = new ArrayList<>();
+        for (FilterRule rule : rules) {
+            if (rule.isException()) exceptions.add(rule);
+            else if (rule.isImportant()) importantBlocks.add(rule);
+            else blocks.add(rule);
+        }
+        this.importantBlocks = new RuleIndex(importantBlocks);
+        this.blocks = new RuleIndex(blocks);
+        this.exceptions = new RuleIndex(exceptions);
+        this.ruleCount = rules.size();
+        this.unsupportedCount = unsupportedCount;
+    }
+
+    /**
+     * Reads and compiles a filter list, one rule per line, like EasyList. <br>
+     * Comments, empty lines and unsupported rules (see {@link FilterRule}) are skipped. <br>
+     * Doesn't close the reader. <br>
+     */
+    public static RequestFilter parse(Reader reader) throws IOException {
+        BufferedReader in = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        List<String> lines = new ArrayList<>();
+        String line;
+        while ((line = in.readLine()) != null) {
+            lines.add(line);
+        }
+        return of(lines);
+    }
+
+    /**
+     * Compiles the provided rules. For details see {@link #parse(Reader)}.
+     */
+    public static RequestFilter of(String... rules) {
+        return of(Arrays.asList(rules));
+    }
+
+    /**
+     * Compiles the provided rules. For details see {@link #parse(Reader)}.
+     */
+    public static RequestFilter of(Iterable<String> rules) {
+        List<FilterRule> parsed = new ArrayList<>();
+        int unsupported = 0;
+        for (String line : rules) {
+            FilterRule rule = FilterRule.parse(line);
+            if (rule != null) parsed.add(rule);
+            else if (!isComment(line)) unsupported++;
+        }
+        return new RequestFilter(parsed, unsupported);
+    }
+
+    private static boolean isComment(String line) {
+        String text = line.trim();
+        return text.isEmpty() || text.startsWith("!") || text.startsWith("[");
+    }
+
+    /**
+     * Returns true if the provided request should be blocked.
+     */
+    public boolean isBlocked(ResourceRequest request) {
+        FilterRule rule = match(request);
+        return rule != null && !rule.isException();
+    }
+
+    /**
+     * Returns the rule, that decides what happens with the provided request: <br>
+     * A blocking rule if it should be blocked, an exception if it would be blocked, but is explicitly allowed, <br>
+     * or null if no blocking rule matches it. Important blocking rules win over exceptions. <br>
+     */
+    public FilterRule match(ResourceRequest request) {
+        return match(request.getUrl(), request.getType(), request.getDocumentUrl());
+    }
+
+    /**
+     * For details see {@link #match(ResourceRequest)}.
+     *
+     * @param documentUrl the url of the page, that made the request, can be null.
+     */
+    public FilterRule match(String url, ResourceType type, String documentUrl) {
+        FilterRequest request = new FilterRequest(url, type, documentUrl);
+        FilterRule rule = importantBlocks.find(request);
+        if (rule != null) return rule;
+        rule = blocks.find(request);
+        if (rule == null) return null;
+        FilterRule exception = exceptions.find(request);
+        return exception != null ? exception : rule;
+    }
+
+    /**
+     * Returns the first rule, that matches the provided request, even if it is an exception and no blocking rule matches, <br>
+     * or null. Important blocking rules come first, then exceptions and then the other blocking rules. <br>
+     * Used for rules that override other filters, see {@link FilteringResourceLoader#getOverrides()}. <br>
+     */
+    public FilterRule matchAny(ResourceRequest request) {
+        FilterRequest filterRequest = new FilterRequest(request.getUrl(), request.getType(), request.getDocumentUrl());
+        FilterRule rule = importantBlocks.find(filterRequest);
+        if (rule == null) rule = exceptions.find(filterRequest);
+        if (rule == null) rule = blocks.find(filterRequest);
+        return rule;
+    }
+
+    /**
+     * Returns the amount of compiled rules, including exceptions.
+     */
+    public int getRuleCount() {
+        return ruleCount;
+    }
+
+    /**
+     * Returns the amount of rules, that were skipped, because they are not supported (see {@link FilterRule}).
+     */
+    public int getUnsupportedCount() {
+        return unsupportedCount;
+    }
+
+    @Override
+    public String toString() {
+        return "RequestFilter{rules=" + ruleCount + ", unsupported=" + unsupportedCount + "}";
+    }
+
+    /**
+     * Rules indexed by host and token, see {@link RequestFilter}.
+     */
+    private static class RuleIndex {
+        private final HashTable byHost;
+        private final HashTable byToken;
+        private final FilterRule[] unindexed;
+
+        private RuleIndex(List<FilterRule> rules) {
+            Map<String, List<FilterRule>> byHost = new LinkedHashMap<>();
+            List<FilterRule> others = new ArrayList<>();
+            for (FilterRule rule : rules) {
+                String host = rule.getHost();
+                if (host != null) byHost.computeIfAbsent(host, key -> new ArrayList<>()).add(rule);
+                else others.add(rule);
+            }
+
+            // Count how many rules share each token, to index every rule by its rarest one
+            Map<String, Integer> frequencies = new HashMap<>();
+            List<List<String>> tokens = new ArrayList<>(others.size());
+            for (FilterRule rule : others) {
+                List<String> ruleTokens = rule.getTokens();
+                tokens.add(ruleTokens);
+                for (String token : ruleTokens) {
+                    frequencies.merge(token, 1, Integer::sum);
+                }
+            }
+            Map<String, List<FilterRule>> byToken = new LinkedHashMap<>();
+            List<FilterRule> unindexed = new ArrayList<>();
+            for (int i = 0; i < others.size(); i++) {
+                String best = null;
+                for (String token : tokens.get(i)) {
+                    if (best == null || isBetter(token, best, frequencies)) best = token;
+                }
+                if (best != null) byToken.computeIfAbsent(best, key -> new ArrayList<>()).add(others.get(i));
+                else unindexed.add(others.get(i));
+            }
+            this.byHost = new HashTable(byHost);
+            this.byToken = new HashTable(byToken);
+            this.unindexed = unindexed.toArray(new FilterRule[0]);
+        }
+
+        private static boolean isBetter(String token, String than, Map<String, Integer> frequencies) {
+            boolean common = COMMON_TOKENS.contains(token), thanCommon = COMMON_TOKENS.contains(than);
+            if (common != thanCommon) return !common;
+            int frequency = frequencies.get(token), thanFrequency = frequencies.get(than);
+            if (frequency != thanFrequency) return frequency < thanFrequency;
+            return token.length() > than.length();
+        }
+
+        private FilterRule find(FilterRequest request) {
+            if (byHost.size > 0) {
+                for (int hash : request.getHostHashes()) {
+                    FilterRule rule = firstMatch(byHost.get(hash), request);
+                    if (rule != null) return rule;
+                }
+            }
+            if (byToken.size > 0) {
+                int[] hashes = request.getTokenHashes();
+                int count = request.getTokenCount();
+                for (int i = 0; i < count; i++) {
+                    FilterRule rule = firstMatch(byToken.get(hashes[i]), request);
+                    if (rule != null) return rule;
+                }
+            }
+            return firstMatch(unindexed, request);
+        }
+
+        private static FilterRule firstMatch(FilterRule[] rules, FilterRequest request) {
+            if (rules == null) return null;
+            for (FilterRule rule : rules) {
+                if (rule.matches(request)) return rule;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Open addressing hash table from the {@link String#hashCode()} of a key to its rules, without boxing. <br>
+     * Keys with the same hash share their rules, which is fine, since every rule gets checked anyway. <br>
+     */
+    private static class HashTable {
+        private final int[] hashes;
+        private final FilterRule[][] rules;
+        private final int mask;
+        private final int size;
+
+        private HashTable(Map<String, List<FilterRule>> map) {
+            Map<Integer, List<FilterRule>> byHash = new LinkedHashMap<>();
+            for (Map.Entry<String, List<FilterRule>> entry : map.entrySet()) {
+                byHash.computeIfAbsent(entry.getKey().hashCode(), key -> new ArrayList<>()).addAll(entry.getValue());
+            }
+            int capacity = Integer.highestOneBit(Math.max(2, byHash.size() * 2 - 1)) << 1;
+            this.hashes = new int[capacity];
+            this.rules = new FilterRule[capacity][];
+            this.mask = capacity - 1;
+            this.size = byHash.size();
+            for (Map.Entry<Integer, List<FilterRule>> entry : byHash.entrySet()) {
+                int i = index(entry.getKey());
+                while (rules[i] != null) i = (i + 1) & mask;
+                hashes[i] = entry.getKey();
+                rules[i] = entry.getValue().toArray(new FilterRule[0]);
+            }
+        }
+
+        private int index(int hash) {
+            return (hash ^ (hash >>> 16)) * 0x9E3779B9 >>> 7 & mask;
+        }
+
+        private FilterRule[] get(int hash) {
+            for (int i = index(hash); rules[i] != null; i = (i + 1) & mask) {
+                if (hashes[i] == hash) return rules[i];
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.osiris.jgbrowser.trace;
+
+import java.util.Locale;
+
+/**
+ * What a message written by a {@link Tracer} is about. Every category can have its own {@link TraceLevel}.
+ */
+public enum TraceCategory {
+    /**
+     * Downloading documents and scripts.
+     */
+    FETCH,
+    /**
+     * Parsing documents.
+     */
+    PARSE,
+    /**
+     * Executing JavaScript code.
+     */
+    EVAL,
+    /**
+     * Creating JavaScript contexts and loading Web-APIs into them.
+     */
+    API;
+
+    /**
+     * Returns the lower case name, for example "fetch".
+     */
+    public String getId() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
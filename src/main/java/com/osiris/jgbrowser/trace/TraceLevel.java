@@ -0,0 +1,26 @@
+package com.osiris.jgbrowser.trace;
+
+/**
+ * How detailed the debug information written by a {@link Tracer} is. <br>
+ * Every level includes the ones before it, for example {@link #INFO} also includes {@link #WARN} and {@link #ERROR}. <br>
+ */
+public enum TraceLevel {
+    /**
+     * Nothing gets written.
+     */
+    OFF,
+    ERROR,
+    WARN,
+    /**
+     * One line per page load or context, for example which url is loaded.
+     */
+    INFO,
+    /**
+     * One line per fetch, script or Web-API, for example which script is executed.
+     */
+    DEBUG,
+    /**
+     * Everything, even details that are only needed when hunting bugs.
+     */
+    TRACE
+}
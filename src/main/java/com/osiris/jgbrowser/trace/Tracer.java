@@ -0,0 +1,92 @@
+package com.osiris.jgbrowser.trace;
+
+import com.osiris.jgbrowser.window.JGWindowBuilder;
+
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Writes debug information to a {@link PrintStream}, filtered by {@link TraceCategory} and {@link TraceLevel}. <br>
+ * Messages are passed as {@link Supplier}s, which only get called if their level is enabled, <br>
+ * thus disabled messages cost a single array lookup and are never built. <br>
+ * For expensive messages, that would capture a lot, check {@link #isEnabled(TraceCategory, TraceLevel)} first. <br>
+ * Immutable and thread-safe. Configure it per window via {@link JGWindowBuilder#traceLevel}. <br>
+ *
+ * @author Osiris-Team
+ */
+public class Tracer {
+    /**
+     * Writes nothing.
+     */
+    public static final Tracer OFF = new Tracer(null, TraceLevel.OFF);
+    private final PrintStream out;
+    /**
+     * The {@link TraceLevel#ordinal()} of the most detailed enabled level, per {@link TraceCategory#ordinal()}.
+     */
+    private final int[] levels = new int[TraceCategory.values().length];
+
+    /**
+     * @param out   where to write the messages to, can be null if the level is {@link TraceLevel#OFF}.
+     * @param level the level of all categories.
+     */
+    public Tracer(PrintStream out, TraceLevel level) {
+        this(out, level, null);
+    }
+
+    /**
+     * @param out           where to write the messages to, can be null if all levels are {@link TraceLevel#OFF}.
+     * @param defaultLevel  the level of the categories that are not in the provided map.
+     * @param categoryLevel the levels of single categories, or null.
+     */
+    public Tracer(PrintStream out, TraceLevel defaultLevel, Map<TraceCategory, TraceLevel> categoryLevel) {
+        Objects.requireNonNull(defaultLevel);
+        for (TraceCategory category : TraceCategory.values()) {
+            TraceLevel level = categoryLevel == null ? null : categoryLevel.get(category);
+            levels[category.ordinal()] = (level == null ? defaultLevel : level).ordinal();
+        }
+        boolean anyEnabled = false;
+        for (int level : levels) {
+            anyEnabled |= level != TraceLevel.OFF.ordinal();
+        }
+        if (anyEnabled && out == null) throw new NullPointerException("out must not be null, if tracing is enabled.");
+        this.out = out;
+    }
+
+    public boolean isEnabled(TraceCategory category, TraceLevel level) {
+        return level.ordinal() <= levels[category.ordinal()] && level != TraceLevel.OFF;
+    }
+
+    public TraceLevel getLevel(TraceCategory category) {
+        return TraceLevel.values()[levels[category.ordinal()]];
+    }
+
+    /**
+     * Writes the message returned by the provided supplier, if the level is enabled for the category.
+     */
+    public void log(TraceCategory category, TraceLevel level, Supplier<String> message) {
+        if (!isEnabled(category, level)) return;
+        out.println("[" + level + "] [" + category.getId() + "] " + message.get());
+    }
+
+    public void error(TraceCategory category, Supplier<String> message) {
+        log(category, TraceLevel.ERROR, message);
+    }
+
+    public void warn(TraceCategory category, Supplier<String> message) {
+        log(category, TraceLevel.WARN, message);
+    }
+
+    public void info(TraceCategory category, Supplier<String> message) {
+        log(category, TraceLevel.INFO, message);
+    }
+
+    public void debug(TraceCategory category, Supplier<String> message) {
+        log(category, TraceLevel.DEBUG, message);
+    }
+
+    public void trace(TraceCategory category, Supplier<String> message) {
+        log(category, TraceLevel.TRACE, message);
+    }
+}
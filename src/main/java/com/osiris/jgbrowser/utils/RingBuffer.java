@@ -0,0 +1,105 @@
+package com.osiris.jgbrowser.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free queue, backed by an array that is used as ring. <br>
+ * Any amount of threads can offer and poll concurrently, without locking. <br>
+ * Every slot has a sequence number, which tells producers and consumers if it's their turn, <br>
+ * thus a slot is never read before it was written completely (see Dmitry Vyukov's bounded MPMC queue). <br>
+ *
+ * @author Osiris-Team
+ */
+public class RingBuffer<T> {
+    private final AtomicReferenceArray<T> elements;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    /**
+     * Position of the next element to poll.
+     */
+    private final AtomicLong head = new AtomicLong();
+    /**
+     * Position of the next element to offer.
+     */
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * @param capacity the maximum amount of elements, gets rounded up to the next power of two.
+     */
+    public RingBuffer(int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("Capacity must be at least 1, but was " + capacity + ".");
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) size <<= 1;
+        if (size < 2) size = 2;
+        this.elements = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * Adds the provided element.
+     *
+     * @return false if the buffer is full.
+     */
+    public boolean offer(T element) {
+        if (element == null) throw new NullPointerException();
+        while (true) {
+            long position = tail.get();
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements.lazySet(index, element);
+                    sequences.lazySet(index, position + 1); // Publishes the element to consumers
+                    return true;
+                }
+            } else if (difference < 0)
+                return false; // The slot wasn't consumed yet, thus full
+            // Else another producer took the slot, retry with the next one
+        }
+    }
+
+    /**
+     * Removes and returns the oldest element.
+     *
+     * @return null if the buffer is empty.
+     */
+    public T poll() {
+        while (true) {
+            long position = head.get();
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - (position + 1);
+            if (difference == 0) {
+                if (head.compareAndSet(position, position + 1)) {
+                    T element = elements.get(index);
+                    elements.lazySet(index, null);
+                    sequences.lazySet(index, position + mask + 1); // Frees the slot for the next round of producers
+                    return element;
+                }
+            } else if (difference < 0)
+                return null; // The slot wasn't published yet, thus empty
+            // Else another consumer took the slot, retry with the next one
+        }
+    }
+
+    /**
+     * Returns the amount of elements, which might already be outdated once returned.
+     */
+    public int size() {
+        long size = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(size, capacity()));
+    }
+
+    public boolean isEmpty() {
+        return tail.get() == head.get();
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,171 @@
+package com.osiris.jgbrowser.utils;
+
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Runs tasks one after another, in submission order, on the threads of a shared {@link Executor}. <br>
+ * Many serial executors can share the same few threads, without ever running two of their own tasks at the same time. <br>
+ * Besides submitting tasks, a thread can also run code directly via {@link #runInline(Callable)}, <br>
+ * which waits until no task is running and then blocks other tasks until it's done. <br>
+ * This is reentrant, meaning a task can call {@link #runInline(Callable)} without deadlocking. <br>
+ *
+ * @author Osiris-Team
+ */
+public class SerialExecutor implements Executor {
+    private final Executor executor;
+    private final ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+    /**
+     * The thread currently running tasks or inline code, or null.
+     */
+    private Thread owner;
+    /**
+     * True while a drain is scheduled on the {@link #executor} or tasks/inline code are running.
+     */
+    private boolean active;
+    /**
+     * Amount of threads waiting in {@link #runInline(Callable)}.
+     */
+    private int inlineWaiting;
+    /**
+     * True if a drain gave up its turn for an inline caller, while staying {@link #active}.
+     */
+    private boolean handOver;
+    private final Runnable drain = this::drain;
+
+    public SerialExecutor(Executor executor) {
+        this.executor = Objects.requireNonNull(executor);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        Objects.requireNonNull(task);
+        synchronized (this) {
+            tasks.add(task);
+            if (active) return;
+            active = true;
+        }
+        schedule();
+    }
+
+    /**
+     * Runs the provided task after all previously submitted tasks.
+     */
+    public <T> CompletableFuture<T> submit(Callable<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        execute(() -> {
+            try {
+                if (!future.isDone())
+                    future.complete(task.call());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Runs the provided code in the current thread, once no other task is running. <br>
+     * Runs it directly if the current thread already is the owner, for example inside a task. <br>
+     */
+    public <T> T runInline(Callable<T> code) throws Exception {
+        synchronized (this) {
+            if (owner == Thread.currentThread())
+                return code.call();
+            inlineWaiting++;
+            try {
+                while (active && !handOver) {
+                    wait();
+                }
+            } catch (InterruptedException e) {
+                inlineWaiting--;
+                if (handOver && inlineWaiting == 0) {
+                    // Nobody left to take the turn, give it back to the tasks
+                    handOver = false;
+                    active = !tasks.isEmpty();
+                    if (active) executor.execute(drain);
+                }
+                throw e;
+            }
+            inlineWaiting--;
+            handOver = false;
+            active = true;
+            owner = Thread.currentThread();
+        }
+        try {
+            return code.call();
+        } finally {
+            boolean scheduleNext;
+            synchronized (this) {
+                owner = null;
+                scheduleNext = !tasks.isEmpty();
+                active = scheduleNext;
+                notifyAll();
+            }
+            if (scheduleNext) schedule();
+        }
+    }
+
+    /**
+     * Returns true if the current thread is running a task or inline code of this executor.
+     */
+    public synchronized boolean isOwner() {
+        return owner == Thread.currentThread();
+    }
+
+    /**
+     * Returns the amount of tasks waiting to be run.
+     */
+    public synchronized int getQueuedCount() {
+        return tasks.size();
+    }
+
+    private void schedule() {
+        try {
+            executor.execute(drain);
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                active = false;
+                notifyAll();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Runs all queued tasks. Gives the thread back to the shared executor once the queue is empty, <br>
+     * or once an inline caller is waiting, so that it isn't starved by a busy queue.
+     */
+    private void drain() {
+        synchronized (this) {
+            owner = Thread.currentThread();
+        }
+        Runnable task;
+        while (true) {
+            synchronized (this) {
+                if (inlineWaiting > 0) {
+                    owner = null;
+                    handOver = true;
+                    notifyAll();
+                    return;
+                }
+                task = tasks.poll();
+                if (task == null) {
+                    owner = null;
+                    active = false;
+                    notifyAll();
+                    return;
+                }
+            }
+            try {
+                task.run();
+            } catch (Throwable t) {
+                Thread thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, t);
+            }
+        }
+    }
+}
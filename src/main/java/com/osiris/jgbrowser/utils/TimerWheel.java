@@ -0,0 +1,197 @@
+package com.osiris.jgbrowser.utils;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Hashed timer wheel. <br>
+ * Timeouts get hashed by their deadline tick into a fixed amount of slots, <br>
+ * which makes scheduling and cancelling O(1) and expiring proportional to the elapsed ticks, <br>
+ * instead of O(log n) like a priority queue. <br>
+ * Time is provided by the caller (see {@link #expire(long)}), which allows virtual clocks. <br>
+ * Not thread-safe. <br>
+ *
+ * @author Osiris-Team
+ */
+public class TimerWheel<T> {
+    private final long tickMillis;
+    private final List<List<Timeout<T>>> slots;
+    private final int mask;
+    /**
+     * The next tick that wasn't completely expired yet.
+     */
+    private long currentTick;
+    private int size;
+    private long sequence;
+
+    /**
+     * Creates a wheel with 1ms ticks and 512 slots.
+     */
+    public TimerWheel() {
+        this(1, 512);
+    }
+
+    /**
+     * @param tickMillis the duration of a tick, timeouts within the same tick share a slot.
+     * @param slotCount  the amount of slots, gets rounded up to the next power of two.
+     */
+    public TimerWheel(long tickMillis, int slotCount) {
+        if (tickMillis < 1 || slotCount < 1)
+            throw new IllegalArgumentException("tickMillis and slotCount must be >= 1");
+        int size = Integer.highestOneBit(slotCount);
+        if (size < slotCount) size <<= 1;
+        this.tickMillis = tickMillis;
+        this.slots = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            slots.add(new ArrayList<>(2));
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * Schedules the provided task. Deadlines that already passed are due on the next {@link #expire(long)}.
+     *
+     * @param deadlineMillis the time at which the task is due.
+     */
+    public Timeout<T> schedule(T task, long deadlineMillis) {
+        long tick = Math.max(deadlineMillis / tickMillis, currentTick);
+        Timeout<T> timeout = new Timeout<>(task, deadlineMillis, sequence++, tick);
+        slots.get((int) (tick & mask)).add(timeout);
+        size++;
+        return timeout;
+    }
+
+    /**
+     * Cancels the provided timeout. Returns false if it already expired or was cancelled.
+     */
+    public boolean cancel(Timeout<T> timeout) {
+        if (timeout.state != Timeout.PENDING) return false;
+        timeout.state = Timeout.CANCELLED;
+        slots.get((int) (timeout.tick & mask)).remove(timeout);
+        size--;
+        return true;
+    }
+
+    /**
+     * Removes and returns all timeouts with a deadline at or before the provided time, <br>
+     * ordered by their deadline, and timeouts with the same deadline in the order they were scheduled.
+     */
+    public List<Timeout<T>> expire(long nowMillis) {
+        List<Timeout<T>> due = new ArrayList<>();
+        long nowTick = nowMillis / tickMillis;
+        if (size > 0) {
+            if (nowTick - currentTick >= slots.size()) {
+                // Passed at least one full rotation, thus every slot must be checked once
+                for (List<Timeout<T>> slot : slots) {
+                    expire(slot, nowMillis, due);
+                }
+            } else {
+                for (long tick = currentTick; tick <= nowTick && size > 0; tick++) {
+                    expire(slots.get((int) (tick & mask)), nowMillis, due);
+                }
+            }
+        }
+        // The current tick might still contain timeouts due later within the same tick
+        currentTick = Math.max(currentTick, nowTick);
+        if (due.size() > 1)
+            due.sort((a, b) -> a.deadline != b.deadline ? Long.compare(a.deadline, b.deadline) : Long.compare(a.sequence, b.sequence));
+        return due;
+    }
+
+    private void expire(List<Timeout<T>> slot, long nowMillis, List<Timeout<T>> due) {
+        if (slot.isEmpty()) return;
+        Iterator<Timeout<T>> it = slot.iterator();
+        while (it.hasNext()) {
+            Timeout<T> timeout = it.next();
+            if (timeout.deadline <= nowMillis) {
+                it.remove();
+                timeout.state = Timeout.EXPIRED;
+                size--;
+                due.add(timeout);
+            }
+        }
+    }
+
+    /**
+     * Returns the earliest deadline of all pending timeouts, or {@link Long#MAX_VALUE} if there are none.
+     */
+    public long nextDeadline() {
+        if (size == 0) return Long.MAX_VALUE;
+        // Timeouts within the next rotation are found by checking the slots in tick order
+        for (long tick = currentTick; tick < currentTick + slots.size(); tick++) {
+            long min = Long.MAX_VALUE;
+            for (Timeout<T> timeout : slots.get((int) (tick & mask))) {
+                if (timeout.tick == tick && timeout.deadline < min)
+                    min = timeout.deadline;
+            }
+            if (min != Long.MAX_VALUE) return min;
+        }
+        long min = Long.MAX_VALUE;
+        for (List<Timeout<T>> slot : slots) {
+            for (Timeout<T> timeout : slot) {
+                min = Math.min(min, timeout.deadline);
+            }
+        }
+        return min;
+    }
+
+    /**
+     * Cancels all pending timeouts and resets the wheel to time 0, like a new wheel. <br>
+     * Thus the clock passed to {@link #expire(long)} may start from 0 again afterwards. <br>
+     */
+    public void clear() {
+        for (List<Timeout<T>> slot : slots) {
+            for (Timeout<T> timeout : slot) {
+                timeout.state = Timeout.CANCELLED;
+            }
+            slot.clear();
+        }
+        size = 0;
+        currentTick = 0;
+        sequence = 0;
+    }
+
+    /**
+     * Returns the amount of pending timeouts.
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public static class Timeout<T> {
+        private static final int PENDING = 0, EXPIRED = 1, CANCELLED = 2;
+        private final T task;
+        private final long deadline;
+        private final long sequence;
+        private final long tick;
+        private int state = PENDING;
+
+        private Timeout(T task, long deadline, long sequence, long tick) {
+            this.task = task;
+            this.deadline = deadline;
+            this.sequence = sequence;
+            this.tick = tick;
+        }
+
+        public T getTask() {
+            return task;
+        }
+
+        public long getDeadline() {
+            return deadline;
+        }
+
+        public boolean isPending() {
+            return state == PENDING;
+        }
+
+        public boolean isCancelled() {
+            return state == CANCELLED;
+        }
+    }
+}
@@ -70,5 +70,18 @@ public class Utils {
             throw new FileNotFoundException("Provided jar file with path '" + pathOfJar + "' doesnt exist!");
     }
 
+    /**
+     * Deletes the provided file, or directory with all its contents.
+     *
+     * @return true if the file/directory doesn't exist anymore.
+     */
+    public boolean deleteRecursively(File file) {
+        File[] children = file.listFiles();
+        if (children != null)
+            for (File child : children) {
+                deleteRecursively(child);
+            }
+        return file.delete() || !file.exists();
+    }
 
 }
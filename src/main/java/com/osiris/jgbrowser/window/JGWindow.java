@@ -3,21 +3,62 @@ package com.osiris.jgbrowser.window;
 
 import com.osiris.jgbrowser.JGBrowser;
 import com.osiris.jgbrowser.data.chrome.ChromeHeaders;
+import com.osiris.jgbrowser.exceptions.RequestBlockedException;
+import com.osiris.jgbrowser.js.apis.console.OverflowPolicy;
+import com.osiris.jgbrowser.js.apis.dom.DocumentIndex;
+import com.osiris.jgbrowser.js.apis.dom.JS_API_Document;
+import com.osiris.jgbrowser.js.apis.dom.JS_EventInit;
+import com.osiris.jgbrowser.js.apis.performance.JS_API_Performance;
+import com.osiris.jgbrowser.js.apis.performance.PerformanceTimeline;
+import com.osiris.jgbrowser.js.apis.timers.JS_API_Timers;
 import com.osiris.jgbrowser.js.context.GraalContext;
+import com.osiris.jgbrowser.js.context.GraalContextPool;
+import com.osiris.jgbrowser.jfr.FetchEvent;
+import com.osiris.jgbrowser.jfr.JFR;
+import com.osiris.jgbrowser.metrics.LoadMetrics;
+import com.osiris.jgbrowser.metrics.LoadPhase;
+import com.osiris.jgbrowser.network.CachingResourceLoader;
+import com.osiris.jgbrowser.network.HttpCache;
+import com.osiris.jgbrowser.network.Resource;
+import com.osiris.jgbrowser.network.ResourceLoader;
+import com.osiris.jgbrowser.network.ResourceRequest;
+import com.osiris.jgbrowser.network.ResourceType;
+import com.osiris.jgbrowser.network.archive.RecordingResourceLoader;
+import com.osiris.jgbrowser.network.archive.ReplayResourceLoader;
+import com.osiris.jgbrowser.network.filter.FilteringResourceLoader;
+import com.osiris.jgbrowser.network.filter.RequestFilter;
+import com.osiris.jgbrowser.trace.TraceCategory;
+import com.osiris.jgbrowser.trace.Tracer;
+import com.osiris.jgbrowser.utils.SerialExecutor;
 import com.osiris.jgbrowser.utils.TrashOutput;
+import com.osiris.jgbrowser.utils.Utils;
+import org.graalvm.polyglot.Value;
+import org.jsoup.HttpStatusException;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
 
+import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.io.PrintStream;
+import java.io.UncheckedIOException;
 import java.net.URL;
-import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 
 /**
- * Headless-Window with GraalJS as JavaScript engine.
+ * Headless-Window with GraalJS as JavaScript engine. <br>
+ * A JavaScript context can only be used by one thread at a time, thus each window has its own lane (see {@link #getLane()}), <br>
+ * that runs everything touching the context one after another. Its methods are thread-safe because of that, <br>
+ * and the async methods like {@link #loadAsync(String)} allow driving many windows from a few threads. <br>
  *
  * @author Osiris-Team
  */
@@ -28,22 +69,111 @@ public class JGWindow implements AutoCloseable {
     private Map<String, String> customHeaders;
     private Document document;
     private String authority;
+    private List<PageScript> scripts;
+    /**
+     * Lazily built from {@link #scripts}, see {@link #getLoadedJavaScriptCode()}.
+     */
     private String javaScriptCode;
     private final PrintStream out;
+    private final Tracer tracer;
+    private final boolean isolatedEngine;
+    private int maxParallelFetches;
+    /**
+     * The pool {@link #graalContext} was borrowed from, or null if it has an isolated engine.
+     */
+    private final GraalContextPool contextPool;
+    private final File userDataDir;
+    private final boolean temporaryUserDataDir;
+    private final long httpCacheSize;
+    private final ResourceLoader resourceLoader;
+    private ResourceLoader effectiveResourceLoader;
+    private final RequestFilter requestFilter;
+    /**
+     * The {@link JGWindowBuilder#allowedRequests} and {@link JGWindowBuilder#blockedRequests}, or null if there are none.
+     */
+    private final RequestFilter requestOverrides;
+    private FilteringResourceLoader filteringResourceLoader;
+    private final String recordArchive;
+    private final String replayArchive;
+    private final SerialExecutor lane;
+    private int jsTimeout;
+    private final long statementLimit;
+    private final boolean virtualTime;
+    private final boolean debugOutputEnabled;
+    private final OverflowPolicy consoleOverflowPolicy;
+    private volatile boolean closed;
 
     /**
      * <p style="color: red;">Note that this is not the recommended way of creating the window object.</p>
      * Use the {@link JGWindowBuilder} instead. The {@link JGBrowser} has a shortcut method for creating custom windows: {@link JGBrowser#openCustomWindow()}.
      */
     public JGWindow(JGBrowser parentBrowser, boolean enableJavaScript, Map<String, String> customHeaders, OutputStream debugOutput) {
-        this.parentBrowser = parentBrowser;
-        this.enableJavaScript = enableJavaScript;
-        this.customHeaders = customHeaders;
+        this(new JGWindowBuilder(parentBrowser)
+                .enableJavaScript(enableJavaScript)
+                .customHeaders(customHeaders)
+                .debugOutputStream(debugOutput));
+    }
+
+    /**
+     * Creates a new window with the settings of the provided {@link JGWindowBuilder}. <br>
+     * Same as {@link JGWindowBuilder#build()}.
+     */
+    public JGWindow(JGWindowBuilder builder) {
+        this.parentBrowser = builder.parentBrowser;
+        this.enableJavaScript = builder.enableJavaScript;
+        this.customHeaders = builder.customHeaders;
+        this.isolatedEngine = builder.isolatedEngine;
+        this.maxParallelFetches = builder.maxParallelFetches;
+        this.temporaryUserDataDir = builder.temporaryUserDataDir;
+        if (temporaryUserDataDir)
+            this.userDataDir = new File(parentBrowser.getMainDirectory() + "/user-data-" + Integer.toHexString(hashCode()));
+        else
+            this.userDataDir = builder.userDataDir;
+        this.httpCacheSize = builder.httpCacheSize;
+        this.resourceLoader = builder.resourceLoader;
+        this.requestFilter = builder.requestFilter;
+        this.requestOverrides = compileOverrides(builder.allowedRequests, builder.blockedRequests);
+        if (builder.recordArchive != null && builder.replayArchive != null)
+            throw new IllegalArgumentException("A window can't record and replay at the same time.");
+        this.recordArchive = builder.recordArchive;
+        this.replayArchive = builder.replayArchive;
+        this.jsTimeout = builder.jsTimeout;
+        this.statementLimit = builder.statementLimit;
+        this.virtualTime = builder.virtualTime;
+        this.consoleOverflowPolicy = builder.consoleOverflowPolicy;
+        this.debugOutputEnabled = builder.debugOutputStream != null;
+        OutputStream debugOutput = builder.debugOutputStream;
         if (debugOutput==null)
             debugOutput = new TrashOutput();
         this.out = new PrintStream(debugOutput);
+        this.tracer = debugOutputEnabled ? new Tracer(out, builder.traceLevel, builder.traceLevels) : Tracer.OFF;
+        this.lane = new SerialExecutor(parentBrowser.getWindowExecutor());
+
+        if (isolatedEngine || statementLimit > 0) {
+            contextPool = null;
+            graalContext = new GraalContext(this);
+        } else {
+            contextPool = parentBrowser.getContextPool();
+            graalContext = contextPool.acquire(this);
+        }
+    }
 
-        graalContext = new GraalContext(this);
+    /**
+     * @throws IllegalArgumentException if one of the rules is not supported.
+     */
+    private static RequestFilter compileOverrides(List<String> allowed, List<String> blocked) {
+        List<String> rules = new ArrayList<>();
+        if (allowed != null) {
+            for (String rule : allowed) {
+                rules.add(rule.startsWith("@@") ? rule : "@@" + rule);
+            }
+        }
+        if (blocked != null) rules.addAll(blocked);
+        if (rules.isEmpty()) return null;
+        RequestFilter overrides = RequestFilter.of(rules);
+        if (overrides.getUnsupportedCount() > 0 || overrides.getRuleCount() != rules.size())
+            throw new IllegalArgumentException("Some of the allowed/blocked request rules " + rules + " are not supported.");
+        return overrides;
     }
 
     /**
@@ -54,6 +184,31 @@ public class JGWindow implements AutoCloseable {
      * @throws IOException
      */
     public JGWindow load(String url) throws IOException {
+        return runOnLane(() -> doLoad(url));
+    }
+
+    /**
+     * Same as {@link #load(String)}, but runs on this windows' lane, without blocking the current thread.
+     */
+    public CompletableFuture<JGWindow> loadAsync(String url) {
+        return lane.submit(() -> doLoad(url));
+    }
+
+    private JGWindow doLoad(String url) throws IOException {
+        LoadMetrics metrics = parentBrowser.getLoadMetrics();
+        long start = System.nanoTime();
+        boolean loaded = false;
+        try {
+            loadPage(url, metrics);
+            loaded = true;
+            return this;
+        } finally {
+            if (loaded) metrics.pageLoaded(System.nanoTime() - start);
+            else metrics.pageFailed();
+        }
+    }
+
+    private void loadPage(String url, LoadMetrics metrics) throws IOException {
         if (!url.startsWith("http"))
             url = "https://" + url;
 
@@ -63,48 +218,163 @@ public class JGWindow implements AutoCloseable {
         else
             headers = this.customHeaders;
 
-        out.println("Loading contents into "+this+" from: "+url);
-        authority = new URL(url).getAuthority();
-        document = Jsoup.connect(url).headers(headers)
-                .get();
+        String requestedUrl = url;
+        tracer.info(TraceCategory.FETCH, () -> "Loading contents into " + this + " from: " + requestedUrl);
+        ResourceLoader loader = getResourceLoader();
+        byte[] body;
+        String charset, documentUrl;
+        long fetchStart = System.nanoTime();
+        FetchEvent event = JFR.AVAILABLE ? FetchEvent.start() : null;
+        Resource fetched = null;
+        try (Resource resource = loader.load(new ResourceRequest(url, headers, ResourceType.DOCUMENT))) {
+            fetched = resource;
+            checkStatus(resource);
+            tracer.debug(TraceCategory.FETCH, () -> "Loaded document: " + resource);
+            authority = new URL(resource.getUrl()).getAuthority();
+            body = resource.readBytes(); // Read completely before parsing, to measure fetching and parsing separately
+            charset = resource.getCharset();
+            documentUrl = resource.getUrl();
+        } finally {
+            if (event != null) event.end(url, ResourceType.DOCUMENT, fetched);
+        }
+        long parseStart = System.nanoTime();
+        metrics.record(LoadPhase.DOCUMENT_FETCH, parseStart - fetchStart);
+        document = Jsoup.parse(new ByteArrayInputStream(body), charset, documentUrl);
+        long parseNanos = System.nanoTime() - parseStart;
+        metrics.record(LoadPhase.DOCUMENT_PARSE, parseNanos);
+        tracer.debug(TraceCategory.PARSE, () -> "Parsed " + body.length + " bytes from " + documentUrl + " in " + parseNanos / 1_000_000 + "ms.");
 
+        graalContext.getDocument().setDocument(document);
+        JS_API_Performance performance = graalContext.getPerformance();
+        performance.reset(); // New time origin for the new page
         if (enableJavaScript) {
-            int scriptElements = 0;
-            javaScriptCode = "";
-            for (Element e :
-                    document.getElementsByTag("script")) {
-                if (e.hasAttr("src")) {
-                    String externalScriptUrl = e.attr("src");
-                    if (!externalScriptUrl.startsWith("http")) {
-                        if (externalScriptUrl.startsWith("/"))
-                            externalScriptUrl = "https://" + authority + externalScriptUrl;
-                        else
-                            externalScriptUrl = "https://" + authority + "/" + externalScriptUrl;
-                    }
+            scripts = new ArrayList<>();
+            javaScriptCode = null;
+            try (ScriptLoader scriptLoader = new ScriptLoader(document, authority, parentBrowser.getFetchScheduler(), maxParallelFetches,
+                    scriptUrl -> loadScript(loader, scriptUrl, documentUrl, metrics, tracer))) {
+                scriptLoader.start();
+                while (scriptLoader.hasNext()) {
+                    PageScript script = scriptLoader.next();
+                    if (script.getCode() == null) continue; // Blocked
+                    scripts.add(script);
+                    javaScriptCode = null;
 
-                    javaScriptCode = javaScriptCode + "\n" +
-                            "//\n" +
-                            "// Following lines are external JS-Code from " + externalScriptUrl + "\n" +
-                            "//\n" +
-                            "\n" +
-                            "" + new String(Jsoup.connect(externalScriptUrl).ignoreContentType(true)
-                            .get()
-                            .connection().response().bodyAsBytes(), StandardCharsets.UTF_8);
-                } else {
-                    javaScriptCode = javaScriptCode + "\n" +
-                            "//\n" +
-                            "// Following lines are JS-Code from <script> number " + (scriptElements++) + "\n" +
-                            "//\n" +
-                            "\n" +
-                            "" + e.data();
+                    // Execute code
+                    tracer.debug(TraceCategory.EVAL, () -> "Executing JavaScript code from: " + script.getName());
+                    long start = performance.nowNanos();
+                    try {
+                        long compileStart = System.nanoTime();
+                        Value compiled = graalContext.parse(script.getCode(), script.getName());
+                        long evalStart = System.nanoTime();
+                        metrics.record(LoadPhase.SCRIPT_COMPILE, evalStart - compileStart);
+                        graalContext.execute(compiled, script.getName());
+                        metrics.record(LoadPhase.SCRIPT_EVAL, System.nanoTime() - evalStart);
+                    } finally {
+                        performance.record(script.getName(), PerformanceTimeline.TYPE_SCRIPT, start, performance.nowNanos() - start);
+                    }
                 }
+            }
+        }
+    }
+
+    /**
+     * Runs the provided code on this windows' lane in the current thread, once the lane is free. <br>
+     * Runs it directly if already called from the lane. <br>
+     */
+    private <T> T runOnLane(Callable<T> code) throws IOException {
+        try {
+            return lane.runInline(code);
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the lane of " + this);
+        } catch (Exception e) {
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * Returns the scripts' code, or null if it was blocked (see {@link JGWindowBuilder#requestFilter}).
+     */
+    private static String loadScript(ResourceLoader loader, String url, String documentUrl, LoadMetrics metrics, Tracer tracer) throws IOException {
+        long start = System.nanoTime();
+        FetchEvent event = JFR.AVAILABLE ? FetchEvent.start() : null;
+        Resource fetched = null;
+        try (Resource resource = loader.load(new ResourceRequest(url, null, ResourceType.SCRIPT, documentUrl))) {
+            fetched = resource;
+            checkStatus(resource);
+            String code = resource.readString();
+            metrics.record(LoadPhase.SCRIPT_FETCH, System.nanoTime() - start);
+            tracer.debug(TraceCategory.FETCH, () -> "Loaded script: " + resource);
+            return code;
+        } catch (RequestBlockedException e) {
+            tracer.debug(TraceCategory.FETCH, () -> "Blocked script: " + url + " (" + e.getRule() + ")");
+            return null;
+        } finally {
+            if (event != null) event.end(url, ResourceType.SCRIPT, fetched);
+        }
+    }
+
+    private static void checkStatus(Resource resource) throws HttpStatusException {
+        if (resource.getStatus() >= 400)
+            throw new HttpStatusException("HTTP error fetching URL", resource.getStatus(), resource.getUrl());
+    }
 
-                // Execute code
-                out.println("Executing JavaScript code: \n"+javaScriptCode);
-                graalContext.eval(javaScriptCode);
+    /**
+     * Returns the loader used to load the page and its scripts. <br>
+     * That is the {@link JGWindowBuilder#resourceLoader}, wrapped in a {@link CachingResourceLoader} <br>
+     * if the HTTP cache is enabled (see {@link JGWindowBuilder#httpCacheSize}), <br>
+     * or a {@link ReplayResourceLoader} if an archive gets replayed (see {@link JGWindowBuilder#replayArchive}). <br>
+     * That gets wrapped in a {@link RecordingResourceLoader} if responses get recorded (see {@link JGWindowBuilder#recordArchive}), <br>
+     * and in a {@link FilteringResourceLoader} if requests get filtered (see {@link JGWindowBuilder#requestFilter}), <br>
+     * which then comes first, thus blocked requests don't even reach the cache. <br>
+     * Created on first access, together with its {@link HttpCache} inside the {@link #getUserDataDir()}. <br>
+     */
+    public synchronized ResourceLoader getResourceLoader() throws IOException {
+        if (effectiveResourceLoader == null) {
+            ResourceLoader loader;
+            if (replayArchive != null) {
+                loader = new ReplayResourceLoader(parentBrowser.getResourceArchive(getArchiveFile(replayArchive)));
+            } else {
+                loader = resourceLoader != null ? resourceLoader : parentBrowser.getDefaultResourceLoader();
+                if (httpCacheSize > 0) {
+                    File cacheDir = new File(userDataDir, "http-cache");
+                    HttpCache cache;
+                    if (temporaryUserDataDir)
+                        cache = new HttpCache(cacheDir, httpCacheSize);
+                    else
+                        cache = parentBrowser.getHttpCache(cacheDir, httpCacheSize);
+                    loader = new CachingResourceLoader(loader, cache);
+                }
+            }
+            if (recordArchive != null)
+                loader = new RecordingResourceLoader(loader, parentBrowser.getArchiveWriter(getArchiveFile(recordArchive)));
+            if (requestFilter != null || requestOverrides != null) {
+                filteringResourceLoader = new FilteringResourceLoader(loader, requestFilter, requestOverrides);
+                loader = filteringResourceLoader;
             }
+            effectiveResourceLoader = loader;
         }
-        return this;
+        return effectiveResourceLoader;
+    }
+
+    /**
+     * Returns the file of the archive with the provided name, inside the {@link #getUserDataDir()}. <br>
+     * See {@link JGWindowBuilder#recordArchive} for details. <br>
+     */
+    public File getArchiveFile(String name) {
+        return new File(userDataDir, "archives/" + name + ".jga");
+    }
+
+    /**
+     * Returns the loader that blocks requests of this window and counts them, <br>
+     * or null if no {@link JGWindowBuilder#requestFilter} or allowed/blocked requests were set. <br>
+     */
+    public FilteringResourceLoader getFilteringResourceLoader() throws IOException {
+        if (requestFilter == null && requestOverrides == null) return null;
+        getResourceLoader();
+        return filteringResourceLoader;
     }
 
     /**
@@ -115,6 +385,47 @@ public class JGWindow implements AutoCloseable {
         return document;
     }
 
+    /**
+     * Returns the element with the provided id from the current document, or null. <br>
+     * Looked up in the {@link DocumentIndex}, which is shared with JavaScript and kept up to date on DOM changes. <br>
+     * If you changed the document directly via jsoup, call {@link DocumentIndex#invalidate()} (see {@link #getDocumentIndex()}) first. <br>
+     */
+    public Element getElementById(String id) {
+        return getDocumentIndex().getElementById(id);
+    }
+
+    /**
+     * Returns all elements of the current document that have all of the provided space separated class names. <br>
+     * For details see {@link #getElementById(String)}.
+     */
+    public List<Element> getElementsByClassName(String classNames) {
+        return getDocumentIndex().getElementsByClassName(classNames);
+    }
+
+    /**
+     * Returns all elements of the current document with the provided tag name. <br>
+     * For details see {@link #getElementById(String)}.
+     */
+    public List<Element> getElementsByTagName(String tagName) {
+        return getDocumentIndex().getElementsByTagName(tagName);
+    }
+
+    /**
+     * Returns the index of the current document, used for fast lookups by id, class and tag name.
+     */
+    public DocumentIndex getDocumentIndex() {
+        return graalContext.getDocument().getIndex();
+    }
+
+    /**
+     * Returns the performance timeline of the current page, which contains the marks and measures of its scripts <br>
+     * and how long the execution of each script took (see {@link PerformanceTimeline#TYPE_SCRIPT}). <br>
+     * Use {@link PerformanceTimeline#getSlowest(int)} to find out which phases of the page cost the most. <br>
+     */
+    public PerformanceTimeline getPerformanceTimeline() {
+        return graalContext.getPerformance().getTimeline();
+    }
+
     public GraalContext getJavaScriptContext() {
         return graalContext;
     }
@@ -124,25 +435,143 @@ public class JGWindow implements AutoCloseable {
      * If no page has been loaded this will return null. <br>
      */
     public String getLoadedJavaScriptCode() {
+        if (javaScriptCode == null && scripts != null) {
+            StringBuilder sb = new StringBuilder();
+            for (PageScript script : scripts) {
+                script.appendTo(sb);
+            }
+            javaScriptCode = sb.toString();
+        }
         return javaScriptCode;
     }
 
+    /**
+     * Returns the scripts extracted from the pages script elements, in the order they were executed. <br>
+     * If no page has been loaded this will return null. <br>
+     */
+    public List<PageScript> getLoadedScripts() {
+        return scripts == null ? null : Collections.unmodifiableList(scripts);
+    }
+
     /**
      * Executes the provided JavaScript code in the current context. <br>
      * See {@link GraalContext} for details. <br>
      */
     public JGWindow executeJS(String jsCode) {
-        graalContext.eval(jsCode);
-        return this;
+        try {
+            return runOnLane(() -> {
+                graalContext.eval(jsCode);
+                return this;
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Fires an event of the provided type at the provided element of the current document, <br>
+     * which runs the JavaScript listeners registered for it, like a user interaction would. <br>
+     * See {@link JS_API_Document#fireEvent(Node, String, JS_EventInit)} for details. <br>
+     *
+     * @param init options of the event, like if it bubbles, can be null.
+     * @return false if the event is cancelable and a listener called preventDefault(), otherwise true.
+     */
+    public boolean fireEvent(Node target, String type, JS_EventInit init) {
+        try {
+            return runOnLane(() -> graalContext.getDocument().fireEvent(target, type, init));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Same as {@link #executeJS(String)}, but runs on this windows' lane, without blocking the current thread.
+     */
+    public CompletableFuture<JGWindow> executeJSAsync(String jsCode) {
+        return lane.submit(() -> {
+            graalContext.eval(jsCode);
+            return this;
+        });
+    }
+
+    /**
+     * Runs the timers of this windows' event loop (setTimeout, setInterval, etc.), until there are none left, <br>
+     * or the clock advanced by the provided timeout. Blocks this windows' lane meanwhile. <br>
+     * Doesn't busy-wait, but sleeps until the next timer is due, or with {@link JGWindowBuilder#virtualTime} <br>
+     * doesn't wait at all. See {@link JS_API_Timers#runUntilIdle(long)} for details. <br>
+     *
+     * @return true if there are no pending timers left, false if the timeout was reached before.
+     */
+    public boolean runUntilIdle(long timeoutMillis) throws InterruptedException {
+        try {
+            return lane.runInline(() -> graalContext.getTimers().runUntilIdle(timeoutMillis));
+        } catch (InterruptedException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Runs the provided task on this windows' lane, without blocking the current thread. <br>
+     * Use this to access the {@link #getJavaScriptContext()} or {@link #getDocument()} safely from other threads, <br>
+     * since the task never runs at the same time as other tasks of this window. <br>
+     */
+    public <T> CompletableFuture<T> submit(Callable<T> task) {
+        return lane.submit(task);
+    }
+
+    /**
+     * Same as {@link #close()}, but runs on this windows' lane, after all previously submitted tasks.
+     */
+    public CompletableFuture<Void> closeAsync() {
+        return lane.submit(() -> {
+            doClose();
+            return null;
+        });
+    }
+
+    /**
+     * Returns the executor that runs everything of this window one after another. <br>
+     * See {@link JGBrowser#getWindowExecutor()} for details. <br>
+     */
+    public SerialExecutor getLane() {
+        return lane;
     }
 
     public String getAuthority() {
         return authority;
     }
 
+    /**
+     * Closes this window once its lane is free and gives its JavaScript context back to the pool. <br>
+     * Does nothing if the window was already closed. <br>
+     */
     @Override
     public void close() {
-        graalContext.close();
+        try {
+            runOnLane(() -> {
+                doClose();
+                return null;
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void doClose() {
+        if (closed) return;
+        closed = true;
+        if (contextPool == null)
+            graalContext.close();
+        else
+            contextPool.release(graalContext);
+        if (temporaryUserDataDir && !new Utils().deleteRecursively(userDataDir))
+            System.err.println("Failed to delete temporary user data directory '" + userDataDir + "' of window '" + this + "'.");
+    }
+
+    public boolean isClosed() {
+        return closed;
     }
 
     public JGBrowser getParentBrowser() {
@@ -169,7 +598,77 @@ public class JGWindow implements AutoCloseable {
         this.customHeaders = customHeaders;
     }
 
+    /**
+     * Returns the directory this window stores its data in, like its HTTP cache. <br>
+     * See {@link JGWindowBuilder#userDataDir} and {@link JGWindowBuilder#temporaryUserDataDir} for details. <br>
+     */
+    public File getUserDataDir() {
+        return userDataDir;
+    }
+
+    public int getMaxParallelFetches() {
+        return maxParallelFetches;
+    }
+
+    public void setMaxParallelFetches(int maxParallelFetches) {
+        this.maxParallelFetches = maxParallelFetches;
+    }
+
+    /**
+     * Returns the timeout in seconds, after which running JavaScript code gets cancelled, or 0 if disabled. <br>
+     * See {@link JGWindowBuilder#jsTimeout} for details. <br>
+     */
+    public int getJsTimeout() {
+        return jsTimeout;
+    }
+
+    public void setJsTimeout(int jsTimeout) {
+        this.jsTimeout = jsTimeout;
+    }
+
+    /**
+     * See {@link JGWindowBuilder#statementLimit} for details.
+     */
+    public long getStatementLimit() {
+        return statementLimit;
+    }
+
+    /**
+     * See {@link JGWindowBuilder#virtualTime} for details.
+     */
+    public boolean isVirtualTime() {
+        return virtualTime;
+    }
+
     public PrintStream getOut() {
         return out;
     }
+
+    /**
+     * Returns the tracer that writes the debug information of this window and its context to {@link #getOut()}. <br>
+     * See {@link JGWindowBuilder#traceLevel} for details. <br>
+     */
+    public Tracer getTracer() {
+        return tracer;
+    }
+
+    /**
+     * Returns true if a debug output stream was provided (see {@link JGWindowBuilder#debugOutputStream}), <br>
+     * otherwise {@link #getOut()} discards everything. <br>
+     */
+    public boolean isDebugOutputEnabled() {
+        return debugOutputEnabled;
+    }
+
+    public OverflowPolicy getConsoleOverflowPolicy() {
+        return consoleOverflowPolicy;
+    }
+
+    /**
+     * Returns true if this window has its own JavaScript engine. <br>
+     * See {@link JGWindowBuilder#isolatedEngine} for details. <br>
+     */
+    public boolean isIsolatedEngine() {
+        return isolatedEngine;
+    }
 }
@@ -2,9 +2,24 @@ package com.osiris.jgbrowser.window;
 
 import com.osiris.jgbrowser.JGBrowser;
 import com.osiris.jgbrowser.exceptions.JavaScriptException;
+import com.osiris.jgbrowser.js.apis.console.OverflowPolicy;
+import com.osiris.jgbrowser.network.HttpResourceLoader;
+import com.osiris.jgbrowser.network.ResourceLoader;
+import com.osiris.jgbrowser.network.archive.ArchiveWriter;
+import com.osiris.jgbrowser.network.archive.ReplayResourceLoader;
+import com.osiris.jgbrowser.network.filter.FilterRule;
+import com.osiris.jgbrowser.network.filter.FilteringResourceLoader;
+import com.osiris.jgbrowser.network.filter.RequestFilter;
+import com.osiris.jgbrowser.trace.TraceCategory;
+import com.osiris.jgbrowser.trace.TraceLevel;
+import com.osiris.jgbrowser.trace.Tracer;
 
 import java.io.File;
 import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
 import java.util.Map;
 
 public class JGWindowBuilder {
@@ -60,6 +75,90 @@ public class JGWindowBuilder {
      * The directory will get deleted on {@link JGWindow#close()}. <br>
      */
     public boolean temporaryUserDataDir = false;
+    /**
+     * Default is false. If true, this window gets its own JavaScript engine, instead of the one shared by all windows <br>
+     * of the {@link #parentBrowser} (see {@link JGBrowser#getEngine()}). <br>
+     * An isolated engine doesn't share its code cache, thus the same JavaScript code must be parsed and compiled again, <br>
+     * but it also gets closed together with the window. <br>
+     */
+    public boolean isolatedEngine = false;
+    /**
+     * Default is 6. The maximum amount of external scripts, that get downloaded in parallel while loading a page. <br>
+     * Scripts are still executed in the order they appear in the page. <br>
+     * Note that {@link JGBrowser#getFetchScheduler()} additionally limits the parallel downloads per host, across all windows. <br>
+     */
+    public int maxParallelFetches = 6;
+    /**
+     * Default is 256MB. The maximum size in bytes of the HTTP cache, which is stored in the {@link #userDataDir}. <br>
+     * Windows with the same {@link #userDataDir} share one cache and the first window decides its size. <br>
+     * Set to 0 to disable caching. <br>
+     */
+    public long httpCacheSize = 256L * 1024 * 1024;
+    /**
+     * Default is null, which means that the {@link HttpResourceLoader} shared by all windows of the browser gets used <br>
+     * (see {@link JGBrowser#getDefaultResourceLoader()}). Otherwise, loads the page and its scripts with the provided {@link ResourceLoader}, <br>
+     * for example to serve them from memory or the file system. <br>
+     */
+    public ResourceLoader resourceLoader = null;
+    /**
+     * Default is 0, which means no limit. The maximum amount of JavaScript statements a single script <br>
+     * (or {@link JGWindow#executeJS(String)} call) may execute, before it gets cancelled with a {@link JavaScriptException}. <br>
+     * Note that a cancelled context cannot be used anymore. Windows with a limit get their own context <br>
+     * instead of one from the {@link JGBrowser#getContextPool()}, since limits must be set when creating it. <br>
+     */
+    public long statementLimit = 0;
+    /**
+     * Default is false. If true, the clock of the windows' event loop doesn't follow the real time, <br>
+     * but jumps straight to the next due timer in {@link JGWindow#runUntilIdle(long)}. <br>
+     * A page that waits 5 seconds via setTimeout, is then done in milliseconds. <br>
+     * Note that only the timers are affected, not for example Date.now(). <br>
+     */
+    public boolean virtualTime = false;
+    /**
+     * Default is {@link OverflowPolicy#DROP_NEWEST}. What happens with JavaScript console messages, <br>
+     * when they are written faster than they can be delivered to the {@link #debugOutputStream} and console listeners. <br>
+     */
+    public OverflowPolicy consoleOverflowPolicy = OverflowPolicy.DROP_NEWEST;
+    /**
+     * Default is {@link TraceLevel#DEBUG}. How detailed the debug information written to the {@link #debugOutputStream} is, <br>
+     * for all categories that have no level in {@link #traceLevels}. Messages of disabled levels are never built (see {@link Tracer}). <br>
+     * Has no effect without a {@link #debugOutputStream}. <br>
+     */
+    public TraceLevel traceLevel = TraceLevel.DEBUG;
+    /**
+     * Default is null. Otherwise, the levels of single categories, that override the {@link #traceLevel}. <br>
+     * For example, to only see downloads: traceLevel(TraceLevel.OFF).traceLevel(TraceCategory.FETCH, TraceLevel.DEBUG) <br>
+     */
+    public Map<TraceCategory, TraceLevel> traceLevels = null;
+    /**
+     * Default is null. Otherwise, requests of this window that match the provided filter list (for example EasyList) <br>
+     * are blocked before they reach the {@link #resourceLoader} or the network, see {@link FilteringResourceLoader}. <br>
+     * Blocked scripts are skipped, a blocked page fails to load. Share one filter between windows, since compiling it takes time. <br>
+     */
+    public RequestFilter requestFilter = null;
+    /**
+     * Default is null. Otherwise, {@link FilterRule}s (like ||example.com/ads.js) for requests of this window, <br>
+     * that are allowed, even if the {@link #requestFilter} blocks them. <br>
+     */
+    public List<String> allowedRequests = null;
+    /**
+     * Default is null. Otherwise, {@link FilterRule}s (like ||tracker.example.com^) for requests of this window, <br>
+     * that are blocked, even if the {@link #requestFilter} allows them. Add $document to also block pages. <br>
+     */
+    public List<String> blockedRequests = null;
+    /**
+     * Default is null. Otherwise, every response this window loads (pages, scripts, also from the HTTP cache) gets recorded <br>
+     * into the archive with the provided name, stored as {@link #userDataDir}/archives/[name].jga, to replay it later via {@link #replayArchive}. <br>
+     * Windows recording into the same archive share one {@link ArchiveWriter}, which completes the archive once the browser gets closed. <br>
+     * Note that a {@link #temporaryUserDataDir} gets deleted together with its archives. <br>
+     */
+    public String recordArchive = null;
+    /**
+     * Default is null. Otherwise, everything this window loads gets served from the archive with the provided name <br>
+     * (see {@link #recordArchive}), instead of the {@link #resourceLoader} and without HTTP cache, thus without any network access. <br>
+     * Unknown urls result in 404 responses, see {@link ReplayResourceLoader}. <br>
+     */
+    public String replayArchive = null;
 
     public JGWindowBuilder(JGBrowser parentBrowser) {
         this.parentBrowser = parentBrowser;
@@ -67,7 +166,7 @@ public class JGWindowBuilder {
     }
 
     public JGWindow build() {
-        return new JGWindow(this.parentBrowser, this.enableJavaScript, this.customHeaders, this.debugOutputStream);
+        return new JGWindow(this);
     }
 
     /**
@@ -158,4 +257,119 @@ public class JGWindowBuilder {
         return this;
     }
 
+    /**
+     * For details see {@link #isolatedEngine}.
+     */
+    public JGWindowBuilder isolatedEngine(boolean val) {
+        this.isolatedEngine = val;
+        return this;
+    }
+
+    /**
+     * For details see {@link #maxParallelFetches}.
+     */
+    public JGWindowBuilder maxParallelFetches(int val) {
+        this.maxParallelFetches = val;
+        return this;
+    }
+
+    /**
+     * For details see {@link #httpCacheSize}.
+     */
+    public JGWindowBuilder httpCacheSize(long val) {
+        this.httpCacheSize = val;
+        return this;
+    }
+
+    /**
+     * For details see {@link #resourceLoader}.
+     */
+    public JGWindowBuilder resourceLoader(ResourceLoader val) {
+        this.resourceLoader = val;
+        return this;
+    }
+
+    /**
+     * For details see {@link #statementLimit}.
+     */
+    public JGWindowBuilder statementLimit(long val) {
+        this.statementLimit = val;
+        return this;
+    }
+
+    /**
+     * For details see {@link #virtualTime}.
+     */
+    public JGWindowBuilder virtualTime(boolean val) {
+        this.virtualTime = val;
+        return this;
+    }
+
+    /**
+     * For details see {@link #consoleOverflowPolicy}.
+     */
+    public JGWindowBuilder consoleOverflowPolicy(OverflowPolicy val) {
+        this.consoleOverflowPolicy = val;
+        return this;
+    }
+
+    /**
+     * For details see {@link #traceLevel}.
+     */
+    public JGWindowBuilder traceLevel(TraceLevel val) {
+        this.traceLevel = val;
+        return this;
+    }
+
+    /**
+     * For details see {@link #traceLevels}.
+     */
+    public JGWindowBuilder traceLevel(TraceCategory category, TraceLevel val) {
+        if (this.traceLevels == null) this.traceLevels = new EnumMap<>(TraceCategory.class);
+        this.traceLevels.put(category, val);
+        return this;
+    }
+
+    /**
+     * For details see {@link #requestFilter}.
+     */
+    public JGWindowBuilder requestFilter(RequestFilter val) {
+        this.requestFilter = val;
+        return this;
+    }
+
+    /**
+     * For details see {@link #recordArchive}.
+     */
+    public JGWindowBuilder recordArchive(String val) {
+        this.recordArchive = val;
+        return this;
+    }
+
+    /**
+     * For details see {@link #replayArchive}.
+     */
+    public JGWindowBuilder replayArchive(String val) {
+        this.replayArchive = val;
+        return this;
+    }
+
+    /**
+     * For details see {@link #allowedRequests}.
+     */
+    public JGWindowBuilder allowRequests(String... rules) {
+        if (this.allowedRequests == null) this.allowedRequests = new ArrayList<>();
+        this.allowedRequests.addAll(Arrays.asList(rules));
+        return this;
+    }
+
+    /**
+     * For details see {@link #blockedRequests}.
+     */
+    public JGWindowBuilder blockRequests(String... rules) {
+        if (this.blockedRequests == null) this.blockedRequests = new ArrayList<>();
+        this.blockedRequests.addAll(Arrays.asList(rules));
+        return this;
+    }
+
 }
@@ -0,0 +1,82 @@
+package com.osiris.jgbrowser.window;
+
+/**
+ * JavaScript code from a single &lt;script&gt; element of a page. <br>
+ * Either external (loaded from the elements' src attribute) or inline (the elements' content). <br>
+ *
+ * @author Osiris-Team
+ */
+public class PageScript {
+    private final String name;
+    private final String url;
+    private final int inlineIndex;
+    private final String code;
+
+    private PageScript(String name, String url, int inlineIndex, String code) {
+        this.name = name;
+        this.url = url;
+        this.inlineIndex = inlineIndex;
+        this.code = code;
+    }
+
+    /**
+     * Creates a script with code loaded from the provided url.
+     */
+    public static PageScript external(String url, String code) {
+        return new PageScript(url, url, -1, code);
+    }
+
+    /**
+     * Creates a script with code from the content of the n-th inline &lt;script&gt; element.
+     */
+    public static PageScript inline(int inlineIndex, String code) {
+        return new PageScript("inline-script-" + inlineIndex + ".js", null, inlineIndex, code);
+    }
+
+    /**
+     * Appends this scripts code, preceded by a comment header with its origin, to the provided builder.
+     */
+    void appendTo(StringBuilder sb) {
+        sb.append("\n//\n");
+        if (isExternal())
+            sb.append("// Following lines are external JS-Code from ").append(url).append("\n");
+        else
+            sb.append("// Following lines are JS-Code from <script> number ").append(inlineIndex).append("\n");
+        sb.append("//\n\n").append(code);
+    }
+
+    /**
+     * The url for external scripts, otherwise something like inline-script-0.js. <br>
+     * Used as name of the scripts' {@link org.graalvm.polyglot.Source} when it gets executed. <br>
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the url this script was loaded from, or null if this is an inline script.
+     */
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * Returns the index of this inline script, counting only inline scripts, or -1 if this is an external script.
+     */
+    public int getInlineIndex() {
+        return inlineIndex;
+    }
+
+    public boolean isExternal() {
+        return url != null;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,182 @@
+package com.osiris.jgbrowser.window;
+
+import com.osiris.jgbrowser.network.FetchScheduler;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Loads all scripts of a page. <br>
+ * All external script urls are found up front and their code gets downloaded in parallel, <br>
+ * with at most {@link JGWindowBuilder#maxParallelFetches} downloads at once. <br>
+ * The scripts are still handed out strictly in document order via {@link #next()}, <br>
+ * each one as soon as its code is available. <br>
+ *
+ * @author Osiris-Team
+ */
+class ScriptLoader implements AutoCloseable {
+    private final FetchScheduler scheduler;
+    private final Fetcher fetcher;
+    private final int maxParallelFetches;
+    /**
+     * All scripts of the page in document order.
+     */
+    private final List<PendingScript> scripts = new ArrayList<>();
+    /**
+     * Only the external scripts of the page in document order.
+     */
+    private final List<PendingScript> externalScripts = new ArrayList<>();
+    private int nextToReturn = 0;
+    private int nextToFetch = 0;
+    private int fetching = 0;
+    private boolean closed;
+
+    /**
+     * @param document           the page to load the scripts from.
+     * @param authority          the pages' authority, used to resolve relative urls, if the document has no base uri.
+     * @param scheduler          runs the fetches.
+     * @param maxParallelFetches the maximum amount of scripts fetched at once for this page.
+     * @param fetcher            downloads a scripts' code.
+     */
+    ScriptLoader(Document document, String authority, FetchScheduler scheduler, int maxParallelFetches, Fetcher fetcher) {
+        if (maxParallelFetches < 1) throw new IllegalArgumentException("maxParallelFetches must be >= 1");
+        this.scheduler = scheduler;
+        this.fetcher = fetcher;
+        this.maxParallelFetches = maxParallelFetches;
+        int scriptElements = 0;
+        for (Element e :
+                document.getElementsByTag("script")) {
+            PendingScript script;
+            if (e.hasAttr("src")) {
+                script = new PendingScript(resolveUrl(e, authority), -1);
+                externalScripts.add(script);
+            } else {
+                script = new PendingScript(null, scriptElements++);
+                script.code.complete(PageScript.inline(script.inlineIndex, e.data()));
+            }
+            scripts.add(script);
+        }
+    }
+
+    private static String resolveUrl(Element e, String authority) {
+        String externalScriptUrl = e.absUrl("src");
+        if (!externalScriptUrl.isEmpty())
+            return externalScriptUrl;
+        // Document has no base uri, thus resolve manually
+        externalScriptUrl = e.attr("src");
+        if (!externalScriptUrl.startsWith("http")) {
+            if (externalScriptUrl.startsWith("/"))
+                externalScriptUrl = "https://" + authority + externalScriptUrl;
+            else
+                externalScriptUrl = "https://" + authority + "/" + externalScriptUrl;
+        }
+        return externalScriptUrl;
+    }
+
+    /**
+     * Starts downloading the external scripts in the background.
+     */
+    void start() {
+        fetchMore();
+    }
+
+    private void fetchMore() {
+        List<PendingScript> toFetch = new ArrayList<>();
+        synchronized (this) {
+            while (!closed && fetching < maxParallelFetches && nextToFetch < externalScripts.size()) {
+                toFetch.add(externalScripts.get(nextToFetch++));
+                fetching++;
+            }
+        }
+        for (PendingScript script : toFetch) {
+            script.fetch = scheduler.submit(hostOf(script.url), () -> PageScript.external(script.url, fetcher.fetch(script.url)));
+            script.fetch.whenComplete((result, error) -> {
+                if (error != null) script.code.completeExceptionally(error);
+                else script.code.complete(result);
+                synchronized (this) {
+                    fetching--;
+                }
+                fetchMore();
+            });
+        }
+    }
+
+    private static String hostOf(String url) {
+        try {
+            return new URL(url).getAuthority();
+        } catch (MalformedURLException e) {
+            return url;
+        }
+    }
+
+    /**
+     * Returns true if there are scripts left, that weren't returned by {@link #next()} yet.
+     */
+    boolean hasNext() {
+        return nextToReturn < scripts.size();
+    }
+
+    /**
+     * Waits until the next script in document order is available and returns it.
+     *
+     * @throws IOException if downloading the script failed.
+     */
+    PageScript next() throws IOException {
+        PendingScript script = scripts.get(nextToReturn++);
+        try {
+            return script.code.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for script '" + script.url + "'.", e);
+        } catch (CancellationException e) {
+            throw new IOException("Download of script '" + script.url + "' was cancelled.", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) throw (IOException) cause;
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            throw new IOException("Failed to download script '" + script.url + "'.", cause);
+        }
+    }
+
+    /**
+     * Cancels downloads of scripts that weren't started yet.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+        }
+        for (PendingScript script : externalScripts) {
+            CompletableFuture<PageScript> fetch = script.fetch;
+            if (fetch != null) fetch.cancel(false);
+            script.code.cancel(false);
+        }
+    }
+
+    /**
+     * Downloads the code of a script.
+     */
+    interface Fetcher {
+        String fetch(String url) throws IOException;
+    }
+
+    private static class PendingScript {
+        private final String url;
+        private final int inlineIndex;
+        private final CompletableFuture<PageScript> code = new CompletableFuture<>();
+        private volatile CompletableFuture<PageScript> fetch;
+
+        private PendingScript(String url, int inlineIndex) {
+            this.url = url;
+            this.inlineIndex = inlineIndex;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package crawl;
+
+import com.osiris.jgbrowser.JGBrowser;
+import com.osiris.jgbrowser.crawl.Crawl;
+import com.osiris.jgbrowser.crawl.CrawlOptions;
+import com.osiris.jgbrowser.crawl.CrawlResult;
+import com.osiris.jgbrowser.network.InMemoryResourceLoader;
+import com.osiris.jgbrowser.network.ResourceLoader;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class CrawlTest {
+    private final InMemoryResourceLoader pages = new InMemoryResourceLoader();
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger maxRunning = new AtomicInteger();
+    private final Map<String, AtomicInteger> runningPerHost = new ConcurrentHashMap<>();
+    private final AtomicInteger maxRunningPerHost = new AtomicInteger();
+
+    /**
+     * Loads from {@link #pages} with a small delay, while tracking the concurrency.
+     */
+    private final ResourceLoader slowLoader = request -> {
+        AtomicInteger hostCount = runningPerHost.computeIfAbsent(new URL(request.getUrl()).getAuthority(), k -> new AtomicInteger());
+        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+        maxRunningPerHost.accumulateAndGet(hostCount.incrementAndGet(), Math::max);
+        try {
+            Thread.sleep(20);
+            return pages.load(request);
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        } finally {
+            hostCount.decrementAndGet();
+            running.decrementAndGet();
+        }
+    };
+
+    private CrawlOptions options() {
+        return new CrawlOptions().windowConfigurator(b -> b.resourceLoader(slowLoader).httpCacheSize(0));
+    }
+
+    @Test
+    void testBoundedConcurrency() {
+        List<String> urls = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            String url = "https://host" + (i % 3) + ".com/page" + i;
+            pages.put(url, "text/html", "<html><head><title>Page " + i + "</title></head></html>");
+            urls.add(url);
+        }
+        urls.add("https://host0.com/missing");
+        Set<String> titles = new HashSet<>();
+        int failed = 0;
+        try (JGBrowser browser = new JGBrowser();
+             Crawl<String> crawl = browser.loadAll(urls, options().maxConcurrency(4).maxConcurrencyPerHost(2),
+                     window -> window.getDocument().title())) {
+            Assertions.assertEquals(4, browser.getContextPool().getMinSize()); // Prewarmed
+            while (crawl.hasNext()) {
+                CrawlResult<String> result = crawl.next();
+                if (result.isSuccess()) titles.add(result.getValue());
+                else failed++;
+            }
+            Assertions.assertEquals(0, browser.getContextPool().getMinSize()); // Restored once done
+        }
+        Assertions.assertEquals(30, titles.size());
+        Assertions.assertEquals(1, failed);
+        Assertions.assertTrue(maxRunning.get() <= 4, "max running: " + maxRunning.get());
+        Assertions.assertTrue(maxRunningPerHost.get() <= 2, "max running per host: " + maxRunningPerHost.get());
+    }
+
+    @Test
+    void testBackpressure() throws InterruptedException {
+        pages.put("https://example.com/", "text/html", "<html></html>");
+        // Endless input
+        Iterable<String> urls = () -> new Iterator<String>() {
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public String next() {
+                return "https://example.com/";
+            }
+        };
+        try (JGBrowser browser = new JGBrowser();
+             Crawl<?> crawl = browser.loadAll(urls, options().maxConcurrency(2).maxPending(4))) {
+            for (int i = 0; i < 3; i++) {
+                Assertions.assertTrue(crawl.next().isSuccess());
+            }
+            Thread.sleep(200);
+            Assertions.assertTrue(crawl.getSubmittedCount() <= 4 + 3, "submitted: " + crawl.getSubmittedCount());
+            crawl.close();
+            Assertions.assertEquals(0, browser.getContextPool().getMinSize());
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package javascript;
+
+import com.osiris.jgbrowser.JGBrowser;
+import com.osiris.jgbrowser.js.apis.console.ConsoleLevel;
+import com.osiris.jgbrowser.js.apis.console.JS_API_Console;
+import com.osiris.jgbrowser.js.apis.console.OverflowPolicy;
+import com.osiris.jgbrowser.js.apis.performance.PerformanceEntry;
+import com.osiris.jgbrowser.js.apis.performance.PerformanceTimeline;
+import com.osiris.jgbrowser.utils.RingBuffer;
+import com.osiris.jgbrowser.window.JGWindow;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+class ConsoleTest {
+
+    @Test
+    void testDisabledLevelsAreNotFormatted() {
+        AtomicInteger formatted = new AtomicInteger();
+        Object data = new Object() {
+            @Override
+            public String toString() {
+                formatted.incrementAndGet();
+                return "data";
+            }
+        };
+        JS_API_Console console = new JS_API_Console();
+        console.log(data);
+        Assertions.assertFalse(console.isEnabled(ConsoleLevel.LOG));
+        Assertions.assertEquals(0, formatted.get());
+
+        List<String> messages = Collections.synchronizedList(new ArrayList<>());
+        console.onWarn(messages::add);
+        console.log(data);
+        console.warn(data, 1);
+        console.flush();
+        Assertions.assertEquals(1, formatted.get());
+        Assertions.assertEquals(Collections.singletonList("data 1"), messages);
+    }
+
+    @Test
+    void testPerWindowOutputAndOrder() {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (JGBrowser browser = new JGBrowser();
+             JGWindow window = browser.openCustomWindow().debugOutputStream(output).consoleOverflowPolicy(OverflowPolicy.BLOCK).build();
+             JGWindow silentWindow = browser.openWindow()) {
+            JS_API_Console console = window.getJavaScriptContext().getConsole();
+            List<String> messages = Collections.synchronizedList(new ArrayList<>());
+            console.onLog(messages::add);
+            window.executeJS("for (let i = 0; i < 5000; i++) console.log('msg', i); console.assert(false, 'x');");
+            console.flush();
+            Assertions.assertEquals(5000, messages.size());
+            for (int i = 0; i < messages.size(); i++) {
+                Assertions.assertEquals("msg " + i, messages.get(i));
+            }
+            Assertions.assertEquals(0, console.getDroppedCount());
+            String out = output.toString();
+            Assertions.assertTrue(out.contains("msg 4999"));
+            Assertions.assertTrue(out.contains("Assertion failed: x"));
+
+            Assertions.assertFalse(silentWindow.getJavaScriptContext().getConsole().isEnabled(ConsoleLevel.LOG));
+        }
+    }
+
+    @Test
+    void testScriptArgumentsAreConvertedWhenFormatted() throws Exception {
+        try (JGBrowser browser = new JGBrowser(); JGWindow window = browser.openWindow()) {
+            JS_API_Console console = window.getJavaScriptContext().getConsole();
+            List<String> messages = Collections.synchronizedList(new ArrayList<>());
+            console.onWarn(messages::add);
+            window.executeJS("const o = {a: 1}; console.log(o); console.warn('text', 42, 1.5, true, null, undefined, [1, 2], o);" +
+                    "console.time(); console.timeEnd(undefined); console.count(o); console.table([o]);");
+            console.flush();
+            Assertions.assertEquals(Collections.singletonList("text 42 1.5 true null undefined (2)[1, 2] {a: 1}"), messages);
+            List<PerformanceEntry> timers = window.getJavaScriptContext().getPerformance().getTimeline()
+                    .getEntriesByType(PerformanceTimeline.TYPE_CONSOLE_TIME);
+            Assertions.assertEquals(1, timers.size());
+            Assertions.assertEquals("default", timers.get(0).getName());
+        }
+    }
+
+    @Test
+    void testOverflowPolicies() throws InterruptedException {
+        for (OverflowPolicy policy : new OverflowPolicy[]{OverflowPolicy.DROP_NEWEST, OverflowPolicy.DROP_OLDEST}) {
+            JS_API_Console console = new JS_API_Console(null, 8);
+            console.setOverflowPolicy(policy);
+            CountDownLatch blocked = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            List<String> messages = Collections.synchronizedList(new ArrayList<>());
+            console.onLog(message -> {
+                if (message.equals("0")) {
+                    blocked.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException ignored) {
+                    }
+                }
+                messages.add(message);
+            });
+            try {
+                console.log("0");
+                blocked.await(); // The background thread is now stuck delivering message 0
+                for (int i = 1; i <= 100; i++) {
+                    console.log(String.valueOf(i));
+                }
+            } finally {
+                release.countDown();
+            }
+            console.flush();
+            Assertions.assertEquals(100 - 8, console.getDroppedCount(ConsoleLevel.LOG), policy.name());
+            Assertions.assertEquals(9, messages.size(), policy.name());
+            Assertions.assertEquals(policy == OverflowPolicy.DROP_NEWEST ? "8" : "100", messages.get(8), policy.name());
+        }
+    }
+
+    @Test
+    void testConsolesTakeTurns() throws InterruptedException {
+        ExecutorService drainer = Executors.newSingleThreadExecutor();
+        try {
+            JS_API_Console busy = new JS_API_Console(null, 4096);
+            JS_API_Console quiet = new JS_API_Console();
+            busy.setDrainer(drainer);
+            quiet.setDrainer(drainer);
+            AtomicInteger busyDelivered = new AtomicInteger();
+            AtomicInteger busyDeliveredBeforeQuiet = new AtomicInteger(-1);
+            busy.onLog(message -> busyDelivered.incrementAndGet());
+            quiet.onLog(message -> busyDeliveredBeforeQuiet.set(busyDelivered.get()));
+            CountDownLatch gate = new CountDownLatch(1);
+            drainer.execute(() -> {
+                try {
+                    gate.await();
+                } catch (InterruptedException ignored) {
+                }
+            });
+            for (int i = 0; i < 4000; i++) {
+                busy.log(i);
+            }
+            quiet.log("quiet");
+            gate.countDown();
+            long deadline = System.currentTimeMillis() + 10000;
+            while (busyDelivered.get() < 4000 && System.currentTimeMillis() < deadline)
+                Thread.sleep(10);
+            Assertions.assertEquals(4000, busyDelivered.get());
+            Assertions.assertTrue(busyDeliveredBeforeQuiet.get() >= 0 && busyDeliveredBeforeQuiet.get() < 4000,
+                    "delivered before quiet: " + busyDeliveredBeforeQuiet.get());
+        } finally {
+            drainer.shutdownNow();
+        }
+    }
+
+    @Test
+    void testBrowsersDontShareDrainer() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        try (JGBrowser browser = new JGBrowser();
+             JGBrowser otherBrowser = new JGBrowser();
+             JGWindow stuckWindow = browser.openWindow();
+             JGWindow window = otherBrowser.openWindow()) {
+            stuckWindow.getJavaScriptContext().getConsole().onLog(message -> {
+                try {
+                    release.await(); // Slow listener
+                } catch (InterruptedException ignored) {
+                }
+            });
+            stuckWindow.executeJS("console.log('stuck')");
+            CountDownLatch delivered = new CountDownLatch(1);
+            window.getJavaScriptContext().getConsole().onLog(message -> delivered.countDown());
+            window.executeJS("console.log('delivered')");
+            boolean wasDelivered = delivered.await(10, TimeUnit.SECONDS);
+            release.countDown(); // Before closing, which flushes the stuck console
+            Assertions.assertTrue(wasDelivered);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void testRingBuffer() throws InterruptedException {
+        RingBuffer<Long> buffer = new RingBuffer<>(100);
+        Assertions.assertEquals(128, buffer.capacity());
+        int producers = 4, perProducer = 50000;
+        AtomicLong sum = new AtomicLong();
+        AtomicInteger received = new AtomicInteger();
+        Thread consumer = new Thread(() -> {
+            while (received.get() < producers * perProducer) {
+                Long value = buffer.poll();
+                if (value == null) Thread.yield();
+                else {
+                    sum.addAndGet(value);
+                    received.incrementAndGet();
+                }
+            }
+        });
+        consumer.start();
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            Thread thread = new Thread(() -> {
+                for (long i = 1; i <= perProducer; i++) {
+                    while (!buffer.offer(i)) Thread.yield();
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) thread.join();
+        consumer.join(30000);
+        Assertions.assertEquals(producers * perProducer, received.get());
+        Assertions.assertEquals(producers * ((long) perProducer * (perProducer + 1) / 2), sum.get());
+        Assertions.assertTrue(buffer.isEmpty());
+        Assertions.assertNull(buffer.poll());
+    }
+}
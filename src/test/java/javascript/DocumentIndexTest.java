@@ -0,0 +1,73 @@
+package javascript;
+
+import com.osiris.jgbrowser.JGBrowser;
+import com.osiris.jgbrowser.js.apis.dom.DocumentIndex;
+import com.osiris.jgbrowser.window.JGWindow;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+class DocumentIndexTest {
+    private static final String HTML = "<html><body>" +
+            "<div id='a' class='x y'><p id='dup' class='x'>1</p></div>" +
+            "<div id='b' class='y'><p id='dup'>2</p></div>" +
+            "</body></html>";
+
+    private static String ids(List<Element> elements) {
+        return elements.stream().map(Element::id).collect(Collectors.joining(","));
+    }
+
+    @Test
+    void testLookups() {
+        DocumentIndex index = new DocumentIndex(Jsoup.parse(HTML));
+        Assertions.assertFalse(index.isBuilt());
+        Assertions.assertEquals("1", index.getElementById("dup").text());
+        Assertions.assertTrue(index.isBuilt());
+        Assertions.assertEquals(2, index.getElementsById("dup").size());
+        Assertions.assertEquals("a,dup", ids(index.getElementsByClassName("x")));
+        Assertions.assertEquals("a", ids(index.getElementsByClassName(" y  x ")));
+        Assertions.assertEquals("", ids(index.getElementsByClassName("X")));
+        Assertions.assertEquals("a,b", ids(index.getElementsByTagName("DIV")));
+        Assertions.assertNull(index.getElementById("missing"));
+        Assertions.assertEquals(1, index.getBuildCount());
+    }
+
+    @Test
+    void testIncrementalUpdatesFromJavaScript() {
+        Document document = Jsoup.parse(HTML);
+        try (JGBrowser browser = new JGBrowser();
+             JGWindow window = browser.openWindow()) {
+            window.getJavaScriptContext().getDocument().setDocument(document);
+            DocumentIndex index = window.getDocumentIndex();
+            Assertions.assertEquals("a", window.getElementById("a").id());
+
+            window.executeJS("var b = document.getElementById('b');" +
+                    "var p = document.createElement('p'); p.id = 'new'; p.className = 'x';" +
+                    "b.prepend(p);" + // Inserted between existing elements of class x
+                    "document.body.insertBefore(b, document.getElementById('a'));" + // Moves b and its children before a
+                    "document.getElementById('a').classList.remove('x');" +
+                    "document.getElementById('a').id = 'c';");
+            Assertions.assertEquals("new,dup", ids(window.getElementsByClassName("x")));
+            Assertions.assertEquals("2", window.getElementById("dup").text());
+            Assertions.assertNull(window.getElementById("a"));
+            Assertions.assertEquals("c", window.getElementById("c").id());
+            Assertions.assertEquals("b,c", ids(window.getElementsByTagName("div")));
+
+            window.executeJS("document.getElementById('c').remove(); document.body.innerHTML += '';");
+            Assertions.assertNull(window.getElementById("c"));
+            Assertions.assertEquals("", ids(window.getElementsByClassName("x y")));
+            Assertions.assertEquals(1, index.getBuildCount()); // Never rebuilt
+
+            // Direct jsoup changes require invalidating
+            document.body().appendElement("span").id("java");
+            index.invalidate();
+            Assertions.assertEquals("span", window.getElementById("java").tagName());
+            Assertions.assertEquals(2, index.getBuildCount());
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package javascript;
+
+import com.osiris.jgbrowser.JGBrowser;
+import com.osiris.jgbrowser.window.JGWindow;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static javascript.TestWindows.eval;
+import static javascript.TestWindows.open;
+
+class DomBridgeTest {
+    private static final String HTML = "<html><head><title>Test</title></head><body>" +
+            "<div id='main' class='a b'><p class='item'>One</p><p class='item last'>Two</p><!--note--></div>" +
+            "</body></html>";
+
+    @Test
+    void testQueriesAndIdentity() throws IOException {
+        try (JGBrowser browser = new JGBrowser();
+             JGWindow window = open(browser, HTML)) {
+            Assertions.assertEquals("Test", eval(window, "document.title"));
+            Assertions.assertEquals(9, eval(window, "document.nodeType"));
+            Assertions.assertEquals(true, eval(window, "document.getElementById('main') === document.querySelector('#main')"));
+            Assertions.assertEquals(true, eval(window, "document.body.firstChild === document.getElementById('main')"));
+            Assertions.assertEquals(true, eval(window, "document.body.parentNode === document.documentElement"));
+            Assertions.assertEquals(true, eval(window, "document.documentElement.parentNode === document"));
+            Assertions.assertEquals(2, eval(window, "document.querySelectorAll('p.item').length"));
+            Assertions.assertEquals(1, eval(window, "document.getElementsByClassName('item last').length"));
+            Assertions.assertEquals("One,Two", eval(window, "Array.from(document.getElementsByTagName('p')).map(p => p.textContent).join(',')"));
+            Assertions.assertEquals(true, eval(window, "document.getElementById('main').lastChild.nodeType === Node.COMMENT_NODE"));
+            Assertions.assertEquals("note", eval(window, "document.getElementById('main').lastChild.data"));
+            Assertions.assertEquals("DIV", eval(window, "document.querySelector('.item').parentElement.tagName"));
+            Assertions.assertEquals(true, eval(window, "document.querySelector('.item').closest('div').matches('#main.a')"));
+            Assertions.assertEquals(null, eval(window, "document.querySelector('span')"));
+            Assertions.assertThrows(Exception.class, () -> eval(window, "document.querySelector('p[')"));
+        }
+    }
+
+    @Test
+    void testMutations() throws IOException {
+        try (JGBrowser browser = new JGBrowser();
+             JGWindow window = open(browser, HTML)) {
+            Document document = window.getDocument();
+            eval(window, "var main = document.getElementById('main');" +
+                    "var span = document.createElement('span');" +
+                    "span.textContent = 'Three';" +
+                    "main.appendChild(span);" +
+                    "main.insertBefore(document.createTextNode('Zero'), main.firstChild);" +
+                    "main.removeChild(main.querySelector('.last'));" +
+                    "main.setAttribute('data-x', '1');" +
+                    "main.classList.add('c');" +
+                    "main.classList.remove('a');" +
+                    "main.classList.toggle('b');");
+            Assertions.assertEquals("<div id=\"main\" class=\"c\" data-x=\"1\">Zero<p class=\"item\">One</p><!--note--><span>Three</span></div>",
+                    document.getElementById("main").outerHtml().replaceAll("\\s*\\n\\s*", ""));
+            Assertions.assertEquals(true, eval(window, "main.lastChild === span && span.isConnected"));
+
+            eval(window, "span.remove(); main.innerHTML = '<b>bold</b> text';");
+            Assertions.assertEquals(false, eval(window, "span.isConnected"));
+            Assertions.assertEquals("bold text", document.getElementById("main").text());
+            Assertions.assertEquals(2, eval(window, "main.childNodes.length"));
+            Assertions.assertThrows(Exception.class, () -> eval(window, "main.appendChild(document.body)"));
+            Assertions.assertEquals(true, eval(window, "var clone = main.cloneNode(true); clone.parentNode === null && clone.childNodes.length === 2"));
+        }
+    }
+
+    @Test
+    void testExpandosSurviveGarbageCollection() throws InterruptedException, IOException {
+        try (JGBrowser browser = new JGBrowser();
+             JGWindow window = open(browser, HTML)) {
+            eval(window, "document.getElementById('main').myData = 42;");
+            for (int i = 0; i < 3; i++) {
+                System.gc();
+                Thread.sleep(10);
+            }
+            Assertions.assertEquals(42, eval(window, "document.getElementById('main').myData"));
+            Assertions.assertEquals(true, eval(window, "'myData' in document.getElementById('main')"));
+
+            window.load(TestWindows.URL); // New document
+            Assertions.assertEquals(null, eval(window, "document.getElementById('main').myData"));
+        }
+    }
+}
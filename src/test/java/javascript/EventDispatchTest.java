@@ -0,0 +1,97 @@
+package javascript;
+
+import com.osiris.jgbrowser.JGBrowser;
+import com.osiris.jgbrowser.js.apis.dom.JS_EventInit;
+import com.osiris.jgbrowser.window.JGWindow;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Collections;
+
+import static javascript.TestWindows.eval;
+import static javascript.TestWindows.open;
+
+class EventDispatchTest {
+    private static final String HTML = "<html><body><div id='outer'><div id='inner'><button id='btn'>Click</button></div></div></body></html>";
+
+    @Test
+    void testPhases() throws IOException {
+        try (JGBrowser browser = new JGBrowser();
+             JGWindow window = open(browser, HTML)) {
+            eval(window, "var log = [];" +
+                    "function logger(name) { return e => log.push(name + ':' + e.eventPhase + ':' + (e.currentTarget.id || e.currentTarget.nodeName)); }" +
+                    "var outer = document.getElementById('outer'), inner = document.getElementById('inner'), btn = document.getElementById('btn');" +
+                    "document.addEventListener('click', logger('doc-capture'), true);" +
+                    "outer.addEventListener('click', logger('outer-capture'), {capture: true});" +
+                    "outer.addEventListener('click', logger('outer-bubble'));" +
+                    "btn.addEventListener('click', logger('btn'));" +
+                    "btn.addEventListener('click', logger('btn-capture'), true);" +
+                    "document.addEventListener('click', logger('doc-bubble'));");
+            Assertions.assertEquals(true, eval(window, "btn.dispatchEvent(new Event('click', {bubbles: true}))"));
+            Assertions.assertEquals("doc-capture:1:#document,outer-capture:1:outer,btn-capture:2:btn,btn:2:btn,outer-bubble:3:outer,doc-bubble:3:#document",
+                    eval(window, "log.join(',')"));
+
+            // Non-bubbling events only reach capture listeners and the target
+            eval(window, "log = []; btn.dispatchEvent(new Event('click'));");
+            Assertions.assertEquals("doc-capture:1:#document,outer-capture:1:outer,btn-capture:2:btn,btn:2:btn", eval(window, "log.join(',')"));
+
+            // After dispatch
+            Assertions.assertEquals(true, eval(window, "var e = new Event('click'); btn.dispatchEvent(e); e.eventPhase === Event.NONE && e.currentTarget === null && e.target === btn"));
+        }
+    }
+
+    @Test
+    void testStopPropagationAndPreventDefault() throws IOException {
+        try (JGBrowser browser = new JGBrowser();
+             JGWindow window = open(browser, HTML)) {
+            eval(window, "var log = [];" +
+                    "var outer = document.getElementById('outer'), inner = document.getElementById('inner'), btn = document.getElementById('btn');" +
+                    "inner.addEventListener('a', e => { log.push('inner1'); e.stopPropagation(); });" +
+                    "inner.addEventListener('a', e => log.push('inner2'));" +
+                    "outer.addEventListener('a', e => log.push('outer'));" +
+                    "inner.addEventListener('b', e => { log.push('inner1'); e.stopImmediatePropagation(); });" +
+                    "inner.addEventListener('b', e => log.push('inner2'));" +
+                    "btn.addEventListener('c', e => e.preventDefault());" +
+                    "btn.addEventListener('d', e => e.preventDefault(), {passive: true});" +
+                    "var onceCount = 0; btn.addEventListener('e', () => onceCount++, {once: true});" +
+                    "function removed() { log.push('removed'); }" +
+                    "btn.addEventListener('f', () => btn.removeEventListener('f', removed));" +
+                    "btn.addEventListener('f', removed);" +
+                    "btn.addEventListener('g', () => { throw new Error('should not stop dispatch'); });" +
+                    "btn.addEventListener('g', { handleEvent(e) { this.handled = e.type; } });");
+            eval(window, "btn.dispatchEvent(new Event('a', {bubbles: true}))");
+            Assertions.assertEquals("inner1,inner2", eval(window, "log.join(',')"));
+            eval(window, "log = []; btn.dispatchEvent(new Event('b', {bubbles: true}))");
+            Assertions.assertEquals("inner1", eval(window, "log.join(',')"));
+            Assertions.assertEquals(false, eval(window, "btn.dispatchEvent(new Event('c', {cancelable: true}))"));
+            Assertions.assertEquals(true, eval(window, "btn.dispatchEvent(new Event('c'))")); // Not cancelable
+            Assertions.assertEquals(true, eval(window, "btn.dispatchEvent(new Event('d', {cancelable: true}))")); // Passive
+            Assertions.assertEquals(1, eval(window, "btn.dispatchEvent(new Event('e')); btn.dispatchEvent(new Event('e')); onceCount"));
+            Assertions.assertEquals("", eval(window, "log = []; btn.dispatchEvent(new Event('f')); log.join(',')"));
+            Assertions.assertEquals(true, eval(window, "var handler = { handleEvent(e) { this.handled = e.type; } };" +
+                    "btn.addEventListener('g', handler); btn.dispatchEvent(new Event('g')); handler.handled === 'g'"));
+            Assertions.assertThrows(Exception.class, () -> eval(window, "btn.dispatchEvent({type: 'x'})"));
+        }
+    }
+
+    @Test
+    void testFireEventFromJava() throws IOException {
+        try (JGBrowser browser = new JGBrowser();
+             JGWindow window = open(browser, HTML)) {
+            Document document = window.getDocument();
+            eval(window, "var clicks = [];" +
+                    "document.getElementById('outer').addEventListener('click', e => { clicks.push(e.isTrusted + ':' + e.target.id + ':' + e.clientX); e.preventDefault(); });");
+            Assertions.assertTrue(window.fireEvent(document.getElementById("btn"), "click", null)); // Doesn't bubble
+            Assertions.assertFalse(window.submit(() -> window.getJavaScriptContext().getDocument().fireEvent(document.getElementById("btn"), "click",
+                    new JS_EventInit(true, true), Collections.singletonMap("clientX", 42))).join());
+            for (int i = 0; i < 100; i++) {
+                window.fireEvent(document.getElementById("inner"), "click", new JS_EventInit(true, false));
+            }
+            Assertions.assertEquals(101, eval(window, "clicks.length"));
+            Assertions.assertEquals("true:btn:42", eval(window, "clicks[0]"));
+            Assertions.assertEquals("true:inner:undefined", eval(window, "clicks[100]"));
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package javascript;
+
+import com.osiris.jgbrowser.JGBrowser;
+import com.osiris.jgbrowser.js.context.GraalContext;
+import com.osiris.jgbrowser.utils.TimerWheel;
+import com.osiris.jgbrowser.window.JGWindow;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+class EventLoopTest {
+
+    private static String log(JGWindow window) {
+        return window.getJavaScriptContext().getRawContext().eval("js", "log.join(',')").asString();
+    }
+
+    @Test
+    void testOrderAndVirtualTime() throws InterruptedException {
+        try (JGBrowser browser = new JGBrowser();
+             JGWindow window = browser.openCustomWindow().virtualTime(true).build()) {
+            window.executeJS("var log = [];" +
+                    "setTimeout(() => log.push('carousel'), 5000);" +
+                    "setTimeout((a, b) => log.push(a + b), 10, 'b', '1');" +
+                    "setTimeout('log.push(\"b2\")', 10);" +
+                    "setTimeout(() => log.push('a'), 0);" +
+                    "var cancelled = setTimeout(() => log.push('cancelled'), 1);" +
+                    "clearTimeout(cancelled);" +
+                    "var count = 0;" +
+                    "var interval = setInterval(() => { log.push('i' + (++count)); if (count === 3) clearInterval(interval); }, 1000);" +
+                    "setTimeout(() => { throw new Error('should not stop the loop'); }, 2);" +
+                    "queueMicrotask(() => log.push('micro'));");
+            Assertions.assertEquals("micro", log(window)); // Microtasks run right after the script
+            long start = System.currentTimeMillis();
+            Assertions.assertTrue(window.runUntilIdle(60000));
+            Assertions.assertTrue(System.currentTimeMillis() - start < 2000);
+            Assertions.assertEquals("micro,a,b1,b2,i1,i2,i3,carousel", log(window));
+            Assertions.assertEquals(5000, window.getJavaScriptContext().getTimers().now());
+        }
+    }
+
+    @Test
+    void testRealTimeAndTimeout() throws InterruptedException {
+        try (JGBrowser browser = new JGBrowser();
+             JGWindow window = browser.openWindow()) {
+            window.executeJS("var log = []; setTimeout(() => log.push('done'), 50);");
+            long start = System.currentTimeMillis();
+            Assertions.assertTrue(window.runUntilIdle(5000));
+            Assertions.assertTrue(System.currentTimeMillis() - start >= 40);
+            Assertions.assertEquals("done", log(window));
+
+            window.executeJS("setInterval(() => {}, 0);");
+            Assertions.assertFalse(window.runUntilIdle(100));
+            Assertions.assertEquals(1, window.getJavaScriptContext().getTimers().getPendingCount());
+        }
+    }
+
+    @Test
+    void testPooledContextAfterTimersRan() throws InterruptedException {
+        try (JGBrowser browser = new JGBrowser()) {
+            JGWindow window = browser.openWindow();
+            GraalContext context = window.getJavaScriptContext();
+            Thread.sleep(50);
+            Assertions.assertTrue(window.runUntilIdle(0)); // Advances the timer wheel, without making the context dirty
+            window.close();
+
+            JGWindow window2 = browser.openCustomWindow().virtualTime(true).build();
+            Assertions.assertSame(context, window2.getJavaScriptContext());
+            window2.executeJS("var log = []; setTimeout(() => log.push('done'), 10);");
+            Assertions.assertTimeoutPreemptively(Duration.ofSeconds(10), () -> Assertions.assertTrue(window2.runUntilIdle(1000)));
+            Assertions.assertEquals("done", log(window2));
+            Assertions.assertEquals(10, context.getTimers().now());
+            window2.close();
+        }
+    }
+
+    @Test
+    void testTimerWheel() {
+        TimerWheel<String> wheel = new TimerWheel<>(1, 8);
+        wheel.schedule("far", 1000);
+        wheel.schedule("second", 5);
+        TimerWheel.Timeout<String> cancelled = wheel.schedule("cancelled", 3);
+        wheel.schedule("first", 5 - 1);
+        Assertions.assertTrue(wheel.cancel(cancelled));
+        Assertions.assertEquals(4, wheel.nextDeadline());
+        Assertions.assertEquals(0, wheel.expire(3).size());
+        List<String> due = new ArrayList<>();
+        wheel.expire(10).forEach(t -> due.add(t.getTask()));
+        Assertions.assertEquals("[first, second]", due.toString());
+        Assertions.assertEquals(1000, wheel.nextDeadline());
+        Assertions.assertEquals(0, wheel.expire(999).size());
+        Assertions.assertEquals("far", wheel.expire(1000).get(0).getTask());
+        Assertions.assertTrue(wheel.isEmpty());
+
+        wheel.schedule("cleared", 1500);
+        wheel.clear(); // The clock starts from 0 again
+        wheel.schedule("restarted", 10);
+        Assertions.assertEquals(10, wheel.nextDeadline());
+        Assertions.assertEquals("restarted", wheel.expire(10).get(0).getTask());
+    }
+}
@@ -0,0 +1,94 @@
+package javascript;
+
+import com.osiris.jgbrowser.JGBrowser;
+import com.osiris.jgbrowser.js.context.GraalContext;
+import com.osiris.jgbrowser.js.context.GraalContextPool;
+import com.osiris.jgbrowser.window.JGWindow;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class GraalContextPoolTest {
+
+    @Test
+    void testCleanContextGetsReused() {
+        try (JGBrowser browser = new JGBrowser()) {
+            GraalContextPool pool = browser.getContextPool();
+            JGWindow window = browser.openWindow();
+            GraalContext context = window.getJavaScriptContext();
+            window.close();
+            Assertions.assertFalse(context.isClosed());
+            Assertions.assertEquals(1, pool.getIdleCount());
+
+            JGWindow window2 = browser.openWindow();
+            Assertions.assertSame(context, window2.getJavaScriptContext());
+            Assertions.assertSame(window2, context.getWindow());
+            Assertions.assertEquals(1, pool.getHits());
+            Assertions.assertEquals(1, pool.getMisses());
+            window2.close();
+        }
+    }
+
+    @Test
+    void testDirtyContextGetsDiscarded() {
+        try (JGBrowser browser = new JGBrowser()) {
+            GraalContextPool pool = browser.getContextPool();
+            JGWindow window = browser.openWindow();
+            GraalContext context = window.getJavaScriptContext();
+            window.executeJS("let myPageVariable = 1;");
+            window.close();
+            Assertions.assertTrue(context.isClosed());
+            Assertions.assertEquals(0, pool.getIdleCount());
+            Assertions.assertEquals(1, pool.getDiscarded());
+        }
+    }
+
+    @Test
+    void testRawContextAccessMakesDirty() {
+        try (JGBrowser browser = new JGBrowser()) {
+            JGWindow window = browser.openWindow();
+            window.getJavaScriptContext().getRawContext().eval("js", "var secret = 'from-window-1';");
+            window.close();
+
+            JGWindow window2 = browser.openWindow();
+            Assertions.assertEquals(0, browser.getContextPool().getHits());
+            Assertions.assertEquals("undefined", window2.submit(() ->
+                    window2.getJavaScriptContext().eval("typeof secret", "test").asString()).join());
+            window2.close();
+        }
+    }
+
+    @Test
+    void testDoubleCloseReleasesOnce() {
+        try (JGBrowser browser = new JGBrowser()) {
+            GraalContextPool pool = browser.getContextPool();
+            JGWindow window = browser.openWindow();
+            GraalContext context = window.getJavaScriptContext();
+            window.close();
+            window.close();
+            Assertions.assertTrue(window.isClosed());
+            Assertions.assertEquals(1, pool.getIdleCount());
+            pool.release(context); // Already idle
+            Assertions.assertEquals(1, pool.getIdleCount());
+
+            JGWindow window2 = browser.openWindow();
+            JGWindow window3 = browser.openWindow();
+            Assertions.assertNotSame(window2.getJavaScriptContext(), window3.getJavaScriptContext());
+            window2.close();
+            window3.close();
+        }
+    }
+
+    @Test
+    void testMinSizeGetsPreWarmed() throws InterruptedException {
+        try (JGBrowser browser = new JGBrowser()) {
+            GraalContextPool pool = browser.getContextPool().setMinSize(2);
+            long deadline = System.currentTimeMillis() + 30000;
+            while (pool.getIdleCount() < 2 && System.currentTimeMillis() < deadline)
+                Thread.sleep(10);
+            Assertions.assertEquals(2, pool.getIdleCount());
+            browser.openWindow().close();
+            Assertions.assertEquals(1, pool.getHits());
+            Assertions.assertEquals(0, pool.getMisses());
+        }
+    }
+}
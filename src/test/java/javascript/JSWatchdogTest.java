@@ -0,0 +1,82 @@
+package javascript;
+
+import com.osiris.jgbrowser.JGBrowser;
+import com.osiris.jgbrowser.exceptions.JavaScriptException;
+import com.osiris.jgbrowser.js.context.JSWatchdog;
+import com.osiris.jgbrowser.js.context.KillReason;
+import com.osiris.jgbrowser.network.InMemoryResourceLoader;
+import com.osiris.jgbrowser.window.JGWindow;
+import org.graalvm.polyglot.proxy.ProxyExecutable;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+class JSWatchdogTest {
+
+    @Test
+    void testTimeout() {
+        InMemoryResourceLoader loader = new InMemoryResourceLoader()
+                .put("https://example.com/", "text/html", "<html><script>while(true){}</script></html>");
+        try (JGBrowser browser = new JGBrowser();
+             JGWindow window = browser.openCustomWindow().jsTimeout(1).resourceLoader(loader).httpCacheSize(0).build()) {
+            long start = System.currentTimeMillis();
+            JavaScriptException e = Assertions.assertThrows(JavaScriptException.class, () -> window.load("https://example.com/"));
+            Assertions.assertTrue(System.currentTimeMillis() - start < 10000);
+            Assertions.assertEquals(KillReason.TIMEOUT, e.getReason());
+            Assertions.assertTrue(e.getSourceName().startsWith("inline-script-0.js"), e.getSourceName());
+            Assertions.assertEquals(1, browser.getJSWatchdog().getKilledCount(KillReason.TIMEOUT));
+            // Interrupted, not closed, thus still usable
+            window.executeJS("var alive = true;");
+        }
+    }
+
+    @Test
+    void testStatementLimit() {
+        try (JGBrowser browser = new JGBrowser();
+             JGWindow window = browser.openCustomWindow().statementLimit(10000).build()) {
+            window.executeJS("for (var i = 0; i < 100; i++) {}"); // Below the limit
+            window.executeJS("for (var i = 0; i < 100; i++) {}"); // Limit is per evaluation
+            JavaScriptException e = Assertions.assertThrows(JavaScriptException.class,
+                    () -> window.executeJS("for (var i = 0; i < 1000000; i++) {}"));
+            Assertions.assertEquals(KillReason.STATEMENT_LIMIT, e.getReason());
+            Assertions.assertEquals(1, browser.getJSWatchdog().getKilledCount());
+            // Every context on the shared engine must use the same source predicate
+            try (JGWindow window2 = browser.openCustomWindow().statementLimit(20000).build()) {
+                window2.executeJS("for (var i = 0; i < 100; i++) {}");
+            }
+        }
+    }
+
+    @Test
+    void testSimultaneousTimeoutsDontWaitForEachOther() throws InterruptedException {
+        try (JGBrowser browser = new JGBrowser();
+             JGWindow window1 = browser.openCustomWindow().jsTimeout(1).build();
+             JGWindow window2 = browser.openCustomWindow().jsTimeout(1).build()) {
+            JSWatchdog watchdog = browser.getJSWatchdog().setGraceMillis(2000);
+            // Host code ignores interrupts, thus both contexts must be closed forcefully after the grace period
+            ProxyExecutable spin = args -> {
+                long end = System.currentTimeMillis() + 6000;
+                while (System.currentTimeMillis() < end) ;
+                return null;
+            };
+            for (JGWindow window : new JGWindow[]{window1, window2}) {
+                window.submit(() -> {
+                    window.getJavaScriptContext().getRawContext().getBindings("js").putMember("spin", spin);
+                    return null;
+                }).join();
+            }
+            long start = System.currentTimeMillis();
+            CompletableFuture<?> run1 = window1.executeJSAsync("spin()");
+            CompletableFuture<?> run2 = window2.executeJSAsync("spin()");
+            while (watchdog.getForceClosedCount() < 2 && System.currentTimeMillis() - start < 15000)
+                Thread.sleep(10);
+            long elapsed = System.currentTimeMillis() - start;
+            Assertions.assertEquals(2, watchdog.getForceClosedCount());
+            // One after another would take 1s timeout + 2 * 2s grace
+            Assertions.assertTrue(elapsed < 4500, "both closed after " + elapsed + "ms");
+            Assertions.assertThrows(Exception.class, run1::join);
+            Assertions.assertThrows(Exception.class, run2::join);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package javascript;
+
+import com.osiris.jgbrowser.js.apis.JS_API;
+import com.osiris.jgbrowser.js.apis.JS_APIProvider;
+import com.osiris.jgbrowser.js.context.GraalContext;
+
+/**
+ * Makes {@link JS_API_Example} available in every context, discovered via <br>
+ * src/test/resources/META-INF/services/com.osiris.jgbrowser.js.apis.JS_APIProvider <br>
+ */
+public class JS_API_ExampleProvider implements JS_APIProvider {
+
+    @Override
+    public String getName() {
+        return "example";
+    }
+
+    @Override
+    public String[] getDependencies() {
+        return new String[]{"document"};
+    }
+
+    @Override
+    public JS_API create(GraalContext context) {
+        return new JS_API_Example();
+    }
+}
@@ -0,0 +1,136 @@
+package javascript;
+
+import com.osiris.jgbrowser.JGBrowser;
+import com.osiris.jgbrowser.exceptions.DuplicateFoundException;
+import com.osiris.jgbrowser.js.apis.JS_API;
+import com.osiris.jgbrowser.js.apis.JS_APIProvider;
+import com.osiris.jgbrowser.js.apis.JS_APIRegistry;
+import com.osiris.jgbrowser.js.context.GraalContext;
+import com.osiris.jgbrowser.js.context.WebApiBootstrap;
+import com.osiris.jgbrowser.window.JGWindow;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+class LazyApiTest {
+
+    @Test
+    void testApisLoadOnFirstAccess() throws Exception {
+        try (JGBrowser browser = new JGBrowser(); JGWindow window = browser.openWindow();
+             GraalContext context = new GraalContext(window)) {
+            Assertions.assertTrue(context.getLoadedApis().isEmpty());
+            Assertions.assertNotNull(context.getApiBootstrap().getRegistry().get("example")); // Discovered via ServiceLoader
+
+            Assertions.assertEquals("function", context.eval("typeof setTimeout", "test.js").asString());
+            Assertions.assertEquals(Collections.singletonList("__jgTimers"), new ArrayList<>(context.getLoadedApis()));
+            Assertions.assertEquals("function", context.eval("typeof clearTimeout", "test.js").asString());
+            Assertions.assertEquals(1, context.getLoadedApis().size());
+
+            // Written before read, thus never loaded:
+            Assertions.assertEquals(5, context.eval("performance = 5; performance", "test.js").asInt());
+            Assertions.assertFalse(context.getLoadedApis().contains("performance"));
+
+            // Dependencies load first:
+            Assertions.assertEquals("Hello world!", context.eval("example.returnSomething()", "test.js").asString());
+            Assertions.assertEquals(Arrays.asList("__jgTimers", "document", "example"), new ArrayList<>(context.getLoadedApis()));
+
+            List<String> messages = new ArrayList<>();
+            context.getConsole().onLog(messages::add);
+            context.eval("console.assert(true); console.log('lazy')", "test.js");
+            context.getConsole().flush();
+            Assertions.assertEquals(Collections.singletonList("lazy"), messages);
+
+            Assertions.assertThrows(DuplicateFoundException.class, () -> context.registerAndLoad(new JS_API_Example(), false));
+        }
+    }
+
+    @Test
+    void testBootstrapIsSharedUntilApisChange() throws Exception {
+        try (JGBrowser browser = new JGBrowser()) {
+            WebApiBootstrap bootstrap = browser.getApiBootstrap();
+            Assertions.assertTrue(bootstrap.isBundled("console"));
+            Assertions.assertFalse(bootstrap.isBundled("example"));
+            Assertions.assertSame(bootstrap.getApiSource("custom", "var a;"), bootstrap.getApiSource("custom", "var a;"));
+            Assertions.assertEquals("var b;", bootstrap.getApiSource("custom", "var b;").getCharacters().toString());
+            try (JGWindow window = browser.openWindow()) {
+                Assertions.assertSame(bootstrap, window.getJavaScriptContext().getApiBootstrap());
+                Assertions.assertSame(bootstrap, browser.getApiBootstrap());
+            }
+
+            browser.registerApi(new JS_APIProvider() {
+                @Override
+                public String getName() {
+                    return "answer";
+                }
+
+                @Override
+                public String getOptionalJSCode() {
+                    return "globalThis.answer = {value: 42};";
+                }
+
+                @Override
+                public JS_API create(GraalContext context) {
+                    return new JS_API_Example() {
+                        @Override
+                        public String getJSGlobalVarName() {
+                            return "answer";
+                        }
+                    };
+                }
+            });
+            WebApiBootstrap rebuilt = browser.getApiBootstrap();
+            Assertions.assertNotSame(bootstrap, rebuilt);
+            Assertions.assertTrue(rebuilt.isBundled("answer"));
+            Assertions.assertNull(bootstrap.getRegistry().get("answer"));
+            try (JGWindow window = browser.openWindow()) {
+                GraalContext context = window.getJavaScriptContext();
+                Assertions.assertSame(rebuilt, context.getApiBootstrap());
+                Assertions.assertEquals(42, context.eval("answer.value", "test.js").asInt());
+                Assertions.assertEquals("function", context.eval("typeof console.assert", "test.js").asString()); // Bundled too
+            }
+            Assertions.assertThrows(DuplicateFoundException.class, () -> browser.registerApi(provider("document")));
+        }
+    }
+
+    @Test
+    void testRegistryOrder() throws Exception {
+        JS_APIProvider a = provider("a");
+        JS_APIProvider b = provider("b", "a");
+        JS_APIProvider c = provider("c", "b", "document");
+        JS_APIRegistry registry = JS_APIRegistry.builtIn().addAll(Arrays.asList(c, b, a));
+        List<String> names = new ArrayList<>();
+        for (JS_APIProvider provider : registry.getProviders()) {
+            names.add(provider.getName());
+        }
+        Assertions.assertEquals(Arrays.asList("a", "b", "c"), names.subList(names.size() - 3, names.size()));
+        Assertions.assertSame(registry.get("__jgTimers"), registry.getByGlobal("setInterval"));
+
+        Assertions.assertThrows(DuplicateFoundException.class, () -> registry.add(provider("a")));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new JS_APIRegistry().add(b));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new JS_APIRegistry()
+                .addAll(Arrays.asList(provider("x", "y"), provider("y", "x"))));
+    }
+
+    private static JS_APIProvider provider(String name, String... dependencies) {
+        return new JS_APIProvider() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public String[] getDependencies() {
+                return dependencies;
+            }
+
+            @Override
+            public JS_API create(GraalContext context) {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+}
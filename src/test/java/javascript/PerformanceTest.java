@@ -0,0 +1,97 @@
+package javascript;
+
+import com.osiris.jgbrowser.JGBrowser;
+import com.osiris.jgbrowser.js.apis.performance.PerformanceEntry;
+import com.osiris.jgbrowser.js.apis.performance.PerformanceTimeline;
+import com.osiris.jgbrowser.window.JGWindow;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static javascript.TestWindows.eval;
+
+class PerformanceTest {
+
+    @Test
+    void testMarksAndMeasures() {
+        try (JGBrowser browser = new JGBrowser();
+             JGWindow window = browser.openWindow()) {
+            Assertions.assertEquals(true, eval(window, "var a = performance.now(); var b = performance.now(); b >= a && a >= 0"));
+            Assertions.assertEquals(true, eval(window, "performance.timeOrigin > 1600000000000"));
+            eval(window, "performance.mark('start');" +
+                    "for (let i = 0; i < 10000; i++) {}" +
+                    "performance.mark('end');" +
+                    "performance.mark('fixed', {startTime: 5});" +
+                    "var m1 = performance.measure('loop', 'start', 'end');" +
+                    "var m2 = performance.measure('fromOrigin');" +
+                    "var m3 = performance.measure('options', {start: 'fixed', duration: 10});");
+            Assertions.assertEquals(true, eval(window, "m1.entryType === 'measure' && m1.duration >= 0 && m1.startTime === performance.getEntriesByName('start')[0].startTime"));
+            Assertions.assertEquals(true, eval(window, "m2.startTime === 0 && m2.duration > 0"));
+            Assertions.assertEquals(true, eval(window, "m3.startTime === 5 && m3.duration === 10"));
+            Assertions.assertEquals(3, eval(window, "performance.getEntriesByType('mark').length"));
+            Assertions.assertEquals("fromOrigin,fixed,options,start,loop,end", eval(window, "performance.getEntries().map(e => e.name).join(',')"));
+            Assertions.assertThrows(Exception.class, () -> eval(window, "performance.measure('x', 'missing')"));
+
+            eval(window, "performance.clearMarks('start'); performance.clearMeasures();");
+            Assertions.assertEquals("fixed,end", eval(window, "performance.getEntries().map(e => e.name).join(',')"));
+            Assertions.assertEquals(2, window.getPerformanceTimeline().size());
+        }
+    }
+
+    @Test
+    void testConsoleTimers() {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (JGBrowser browser = new JGBrowser();
+             JGWindow window = browser.openCustomWindow().debugOutputStream(output).build()) {
+            window.executeJS("console.time(); console.time('work'); console.timeLog('work', 'halfway'); console.timeEnd('work'); console.timeEnd('work');");
+            window.getJavaScriptContext().getConsole().flush();
+            String out = output.toString();
+            Assertions.assertTrue(out.matches("(?s).*work: \\d+\\.\\d{3} ms halfway.*"), out);
+            Assertions.assertTrue(out.matches("(?s).*work: \\d+\\.\\d{3} ms\\R.*"), out);
+            Assertions.assertTrue(out.contains("Timer 'work' does not exist"), out);
+            List<PerformanceEntry> entries = window.getPerformanceTimeline().getEntriesByType(PerformanceTimeline.TYPE_CONSOLE_TIME);
+            Assertions.assertEquals(1, entries.size());
+            Assertions.assertEquals("work", entries.get(0).getName());
+            Assertions.assertEquals(0, eval(window, "performance.getEntries().length")); // Not visible to JavaScript
+        }
+    }
+
+    @Test
+    void testTimelineAfterLoad() throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/page.html", exchange -> {
+            byte[] body = ("<html><head>" +
+                    "<script>performance.mark('boot');</script>" +
+                    "<script>var x = 0; for (let i = 0; i < 200000; i++) x += i; performance.measure('compute', 'boot');</script>" +
+                    "</head><body></body></html>").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "text/html; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        try (JGBrowser browser = new JGBrowser();
+             JGWindow window = browser.openWindow()) {
+            eval(window, "performance.mark('previous page')");
+            window.load("http://127.0.0.1:" + server.getAddress().getPort() + "/page.html");
+            PerformanceTimeline timeline = window.getPerformanceTimeline();
+            Assertions.assertTrue(timeline.getEntries("previous page", null).isEmpty());
+            Assertions.assertEquals(2, timeline.getEntriesByType(PerformanceTimeline.TYPE_SCRIPT).size());
+            Assertions.assertEquals(1, timeline.getEntries("compute", PerformanceTimeline.TYPE_MEASURE).size());
+            List<PerformanceEntry> slowest = timeline.getSlowest(2);
+            Assertions.assertEquals(2, slowest.size());
+            Assertions.assertTrue(slowest.get(0).getDuration() >= slowest.get(1).getDuration());
+            Assertions.assertTrue(slowest.get(0).getDuration() >= timeline.getEntriesByType(PerformanceTimeline.TYPE_SCRIPT).get(1).getDuration());
+        } finally {
+            server.stop(0);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package javascript;
+
+import com.osiris.jgbrowser.JGBrowser;
+import com.osiris.jgbrowser.window.JGWindow;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class SharedEngineTest {
+
+    @Test
+    void testWindowsShareEngine() {
+        try (JGBrowser browser = new JGBrowser();
+             JGWindow window1 = browser.openWindow();
+             JGWindow window2 = browser.openWindow();
+             JGWindow isolated = browser.openCustomWindow().isolatedEngine(true).build()) {
+            Assertions.assertSame(browser.getEngine(), window1.getJavaScriptContext().getRawContext().getEngine());
+            Assertions.assertSame(browser.getEngine(), window2.getJavaScriptContext().getRawContext().getEngine());
+            Assertions.assertNotSame(browser.getEngine(), isolated.getJavaScriptContext().getRawContext().getEngine());
+        }
+    }
+
+    @Test
+    void testCloseBrowserClosesEngine() {
+        JGBrowser browser = new JGBrowser();
+        JGWindow window = browser.openWindow();
+        browser.close();
+        Assertions.assertTrue(browser.isClosed());
+        Assertions.assertThrows(IllegalStateException.class, browser::getEngine);
+        Assertions.assertThrows(RuntimeException.class, () -> window.executeJS("1 + 1")); // Context was closed too
+        window.close();
+    }
+}
@@ -0,0 +1,51 @@
+package javascript;
+
+import com.osiris.jgbrowser.JGBrowser;
+import com.osiris.jgbrowser.js.context.SourceCache;
+import com.osiris.jgbrowser.window.JGWindow;
+import org.graalvm.polyglot.Source;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class SourceCacheTest {
+
+    private static String bigScript(int id) {
+        StringBuilder sb = new StringBuilder("var result" + id + " = 0;\n");
+        for (int i = 0; i < 50; i++) {
+            sb.append("result").append(id).append(" += ").append(i).append(";\n");
+        }
+        return sb.toString();
+    }
+
+    @Test
+    void testSameScriptIsSharedAcrossWindows() {
+        try (JGBrowser browser = new JGBrowser()) {
+            SourceCache cache = browser.getSourceCache();
+            String script = bigScript(0);
+            try (JGWindow window1 = browser.openWindow();
+                 JGWindow window2 = browser.openWindow()) {
+                window1.getJavaScriptContext().eval(script, "https://cdn.example.com/lib.js");
+                window2.getJavaScriptContext().eval(script, "https://cdn.example.com/lib.js");
+            }
+            Assertions.assertEquals(1, cache.getMisses());
+            Assertions.assertEquals(1, cache.getHits());
+            Assertions.assertEquals(0.5, cache.getHitRate());
+            Assertions.assertTrue(cache.getByteFootprint() >= 2L * script.length());
+            Source source = cache.get(script, "https://cdn.example.com/lib.js");
+            Assertions.assertTrue(browser.getEngine().getCachedSources().contains(source));
+        }
+    }
+
+    @Test
+    void testEviction() {
+        SourceCache cache = new SourceCache().setMaxEntries(2);
+        Source first = cache.get(bigScript(1), "1.js");
+        cache.get(bigScript(2), "2.js");
+        cache.get(bigScript(1), "1.js"); // 2.js is now the least recently used source
+        cache.get(bigScript(3), "3.js");
+        Assertions.assertEquals(2, cache.getEntryCount());
+        Assertions.assertEquals(1, cache.getEvictions());
+        Assertions.assertSame(first, cache.get(bigScript(1), "1.js"));
+        Assertions.assertNotSame(cache.get(bigScript(1), "other-name.js"), first);
+    }
+}
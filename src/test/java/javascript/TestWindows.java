@@ -0,0 +1,33 @@
+package javascript;
+
+import com.osiris.jgbrowser.JGBrowser;
+import com.osiris.jgbrowser.network.InMemoryResourceLoader;
+import com.osiris.jgbrowser.window.JGWindow;
+
+import java.io.IOException;
+
+/**
+ * Helpers for tests, that run JavaScript against a page. <br>
+ * Everything goes through the window, like it would for a real page, thus the JavaScript context is only accessed on the windows' lane. <br>
+ */
+class TestWindows {
+    static final String URL = "https://example.com/";
+
+    /**
+     * Opens a window and loads the provided html as {@link #URL} into it.
+     */
+    static JGWindow open(JGBrowser browser, String html) throws IOException {
+        JGWindow window = browser.openCustomWindow()
+                .resourceLoader(new InMemoryResourceLoader().put(URL, "text/html", html))
+                .httpCacheSize(0).build();
+        window.load(URL);
+        return window;
+    }
+
+    /**
+     * Runs the provided code on the windows' lane and returns its result as Java object.
+     */
+    static Object eval(JGWindow window, String js) {
+        return window.submit(() -> window.getJavaScriptContext().eval(js, "test.js").as(Object.class)).join();
+    }
+}
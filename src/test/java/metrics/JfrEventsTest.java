@@ -0,0 +1,63 @@
+package metrics;
+
+import com.osiris.jgbrowser.JGBrowser;
+import com.osiris.jgbrowser.jfr.JFR;
+import com.osiris.jgbrowser.network.InMemoryResourceLoader;
+import com.osiris.jgbrowser.window.JGWindow;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+class JfrEventsTest {
+
+    @Test
+    void testEventsGetRecorded() throws Exception {
+        Assertions.assertTrue(JFR.AVAILABLE);
+        String html = "<html><head><script src='/app.js'></script></head><body><div class='item'></div></body></html>";
+        String js = "var found = document.querySelectorAll('div.item').length; document.body.innerHTML = '<p>replaced</p>';";
+        InMemoryResourceLoader loader = new InMemoryResourceLoader()
+                .put("https://example.com/", "text/html", html)
+                .put("https://example.com/app.js", "text/javascript", js);
+        Path file = Files.createTempFile("jgbrowser", ".jfr");
+        try (Recording recording = new Recording()) {
+            for (String name : new String[]{"Fetch", "Script", "ApiRegistration", "ApiCall"}) {
+                recording.enable("com.osiris.jgbrowser." + name).withThreshold(Duration.ZERO);
+            }
+            recording.start();
+            try (JGBrowser browser = new JGBrowser();
+                 JGWindow window = browser.openCustomWindow().resourceLoader(loader).httpCacheSize(0).isolatedEngine(true).build()) {
+                window.load("https://example.com/");
+            }
+            recording.stop();
+            recording.dump(file);
+
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            List<String> fetches = events.stream().filter(e -> e.getEventType().getName().equals("com.osiris.jgbrowser.Fetch"))
+                    .map(e -> e.getString("resourceType") + " " + e.getString("url") + " " + e.getInt("status") + " " + e.getLong("bytes"))
+                    .collect(Collectors.toList());
+            Assertions.assertTrue(fetches.contains("DOCUMENT https://example.com/ 200 " + html.length()), fetches.toString());
+            Assertions.assertTrue(fetches.contains("SCRIPT https://example.com/app.js 200 " + js.length()), fetches.toString());
+
+            Assertions.assertTrue(events.stream().anyMatch(e -> e.getEventType().getName().equals("com.osiris.jgbrowser.Script")
+                    && "https://example.com/app.js".equals(e.getString("source")) && !e.getBoolean("failed")));
+            Assertions.assertTrue(events.stream().anyMatch(e -> e.getEventType().getName().equals("com.osiris.jgbrowser.ApiRegistration")
+                    && "document".equals(e.getString("globalVarName"))));
+            List<String> calls = events.stream().filter(e -> e.getEventType().getName().equals("com.osiris.jgbrowser.ApiCall"))
+                    .map(e -> e.getString("api") + "." + e.getString("method") + "(" + e.getString("argument") + ")")
+                    .collect(Collectors.toList());
+            Assertions.assertTrue(calls.contains("Element.querySelectorAll(div.item)") || calls.contains("Document.querySelectorAll(div.item)"), calls.toString());
+            Assertions.assertTrue(calls.contains("Element.innerHTML(<p>replaced</p>)"), calls.toString());
+        } finally {
+            new File(file.toString()).delete();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package metrics;
+
+import com.osiris.jgbrowser.JGBrowser;
+import com.osiris.jgbrowser.metrics.HistogramSnapshot;
+import com.osiris.jgbrowser.metrics.LatencyHistogram;
+import com.osiris.jgbrowser.metrics.LoadMetricsSnapshot;
+import com.osiris.jgbrowser.metrics.LoadPhase;
+import com.osiris.jgbrowser.network.InMemoryResourceLoader;
+import com.osiris.jgbrowser.window.JGWindow;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Random;
+
+class LoadMetricsTest {
+
+    @Test
+    void testHistogramAccuracy() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Assertions.assertEquals(0, histogram.snapshot().getP99Nanos());
+        Random random = new Random(42);
+        long[] values = new long[100_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (long) (Math.exp(random.nextDouble() * 25)); // 1ns to 72s
+            histogram.record(values[i]);
+        }
+        histogram.record(-5); // Counted as 0
+        Arrays.sort(values);
+        HistogramSnapshot snapshot = histogram.snapshot();
+        Assertions.assertEquals(values.length + 1, snapshot.getCount());
+        Assertions.assertEquals(values[values.length - 1], snapshot.getMaxNanos());
+        Assertions.assertEquals(snapshot.getMaxNanos(), snapshot.getPercentileNanos(100));
+        for (double percentile : new double[]{10, 50, 90, 99, 99.9}) {
+            long expected = values[(int) Math.ceil(percentile / 100 * (values.length + 1)) - 2];
+            long actual = snapshot.getPercentileNanos(percentile);
+            Assertions.assertTrue(actual >= expected && actual <= expected * 1.07 + 1,
+                    "p" + percentile + " expected ~" + expected + " but was " + actual);
+        }
+        histogram.reset();
+        Assertions.assertEquals(0, histogram.snapshot().getCount());
+    }
+
+    @Test
+    void testPhasesAndJMX() throws Exception {
+        InMemoryResourceLoader loader = new InMemoryResourceLoader()
+                .put("https://example.com/", "text/html", "<html><head>" +
+                        "<script src='/a.js'></script><script>var b = a + 1;</script>" +
+                        "</head><body></body></html>")
+                .put("https://example.com/a.js", "text/javascript", "var a = 1;")
+                .put("https://example.com/broken", "text/html", "<script>throw new Error('broken');</script>");
+        try (JGBrowser browser = new JGBrowser()) {
+            LoadMetricsSnapshot before = browser.getLoadMetrics().snapshot();
+            try (JGWindow window = browser.openCustomWindow().resourceLoader(loader).httpCacheSize(0).build()) {
+                window.load("https://example.com/");
+                window.load("https://example.com/");
+                Assertions.assertThrows(Exception.class, () -> window.load("https://example.com/broken"));
+            }
+            LoadMetricsSnapshot snapshot = browser.getLoadMetrics().snapshot();
+            Assertions.assertEquals(2, snapshot.getPagesLoaded());
+            Assertions.assertEquals(1, snapshot.getPagesFailed());
+            Assertions.assertEquals(2, snapshot.get(LoadPhase.PAGE).getCount());
+            Assertions.assertEquals(3, snapshot.get(LoadPhase.DOCUMENT_FETCH).getCount());
+            Assertions.assertEquals(3, snapshot.get(LoadPhase.DOCUMENT_PARSE).getCount());
+            Assertions.assertEquals(2, snapshot.get(LoadPhase.SCRIPT_FETCH).getCount());
+            Assertions.assertEquals(5, snapshot.get(LoadPhase.SCRIPT_COMPILE).getCount());
+            Assertions.assertEquals(4, snapshot.get(LoadPhase.SCRIPT_EVAL).getCount()); // The broken script didn't finish
+            Assertions.assertTrue(snapshot.get(LoadPhase.API_REGISTRATION).getCount() >= 1);
+            Assertions.assertTrue(snapshot.get(LoadPhase.PAGE).getMaxNanos() >= snapshot.get(LoadPhase.SCRIPT_EVAL).getP50Nanos());
+            Assertions.assertTrue(snapshot.getPagesPerSecond(before) > 0);
+
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName("com.osiris.jgbrowser:type=LoadMetrics,browser=" + browser.getName());
+            Assertions.assertEquals(2L, server.getAttribute(name, "PagesLoaded"));
+            ObjectName phase = new ObjectName("com.osiris.jgbrowser:type=LoadMetrics,browser=" + browser.getName() + ",phase=script-fetch");
+            Assertions.assertEquals(2L, server.getAttribute(phase, "Count"));
+            Assertions.assertTrue((Double) server.getAttribute(phase, "P99Millis") >= 0);
+            server.invoke(name, "reset", null, null);
+            Assertions.assertEquals(0, browser.getLoadMetrics().getPagesLoaded());
+
+            browser.close();
+            Assertions.assertFalse(server.isRegistered(name));
+            Assertions.assertFalse(server.isRegistered(phase));
+        }
+    }
+}
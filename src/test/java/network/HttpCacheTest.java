@@ -0,0 +1,120 @@
+package network;
+
+import com.osiris.jgbrowser.network.CachingResourceLoader;
+import com.osiris.jgbrowser.network.HttpCache;
+import com.osiris.jgbrowser.network.HttpResourceLoader;
+import com.osiris.jgbrowser.network.Resource;
+import com.osiris.jgbrowser.network.ResourceRequest;
+import com.osiris.jgbrowser.network.ResourceType;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class HttpCacheTest {
+
+    private static Map<String, List<String>> headers(String... nameAndValue) {
+        Map<String, List<String>> headers = new HashMap<>();
+        for (int i = 0; i < nameAndValue.length; i += 2) {
+            headers.put(nameAndValue[i], Collections.singletonList(nameAndValue[i + 1]));
+        }
+        return headers;
+    }
+
+    private static ByteBuffer body(String s) {
+        return ByteBuffer.wrap(s.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testFreshnessAndPersistence(@TempDir File dir) throws IOException {
+        long now = System.currentTimeMillis();
+        HttpCache cache = new HttpCache(dir, 1024 * 1024);
+        cache.put("https://a.com/fresh.js", 200, headers("Cache-Control", "max-age=60"), body("fresh"), now, now);
+        cache.put("https://a.com/stale.js", 200, headers("Cache-Control", "max-age=0", "ETag", "\"v1\""), body("stale"), now, now);
+        Assertions.assertNull(cache.put("https://a.com/nostore.js", 200, headers("Cache-Control", "no-store, max-age=60"), body("x"), now, now));
+        Assertions.assertNull(cache.put("https://a.com/novalidator.js", 200, headers(), body("x"), now, now));
+
+        // Re-open, like after a JVM restart
+        cache = new HttpCache(dir, 1024 * 1024);
+        Assertions.assertEquals(2, cache.getEntryCount());
+        HttpCache.Entry fresh = cache.get("https://a.com/fresh.js");
+        Assertions.assertTrue(fresh.isFresh(now + 1000));
+        Assertions.assertFalse(fresh.isFresh(now + 61000));
+        Assertions.assertEquals("fresh", StandardCharsets.UTF_8.decode(fresh.getBody()).toString());
+        HttpCache.Entry stale = cache.get("https://a.com/stale.js");
+        Assertions.assertFalse(stale.isFresh(now));
+        Assertions.assertEquals("\"v1\"", stale.getConditionalHeaders().get("If-None-Match"));
+        Assertions.assertNull(cache.get("https://a.com/nostore.js"));
+    }
+
+    @Test
+    void testLeastRecentlyUsedEviction(@TempDir File dir) throws IOException {
+        long now = System.currentTimeMillis();
+        char[] chars = new char[400];
+        Arrays.fill(chars, 'x');
+        String content = new String(chars);
+        HttpCache cache = new HttpCache(dir, 1400);
+        cache.put("https://a.com/1.js", 200, headers("Cache-Control", "max-age=60"), body(content), now, now);
+        cache.put("https://a.com/2.js", 200, headers("Cache-Control", "max-age=60"), body(content), now, now);
+        cache.get("https://a.com/1.js"); // 2.js is now the least recently used entry
+        cache.put("https://a.com/3.js", 200, headers("Cache-Control", "max-age=60"), body(content), now, now);
+        Assertions.assertTrue(cache.getSize() <= 1400);
+        Assertions.assertNotNull(cache.get("https://a.com/1.js"));
+        Assertions.assertNull(cache.get("https://a.com/2.js"));
+        Assertions.assertNotNull(cache.get("https://a.com/3.js"));
+        Assertions.assertEquals(1, cache.getEvictions());
+    }
+
+    @Test
+    void testConditionalRevalidation(@TempDir File dir) throws IOException {
+        AtomicInteger fullResponses = new AtomicInteger();
+        AtomicInteger notModifiedResponses = new AtomicInteger();
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/script.js", exchange -> {
+            exchange.getResponseHeaders().add("ETag", "\"v1\"");
+            exchange.getResponseHeaders().add("Cache-Control", "no-cache");
+            if ("\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                notModifiedResponses.incrementAndGet();
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+            fullResponses.incrementAndGet();
+            byte[] bytes = "var x = 1;".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        server.start();
+        try {
+            String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/script.js";
+            CachingResourceLoader loader = new CachingResourceLoader(new HttpResourceLoader(), new HttpCache(dir, 1024 * 1024));
+            try (Resource first = loader.load(new ResourceRequest(url, null, ResourceType.SCRIPT))) {
+                Assertions.assertFalse(first.isFromCache());
+                Assertions.assertEquals("var x = 1;", first.readString());
+            }
+            try (Resource second = loader.load(new ResourceRequest(url, null, ResourceType.SCRIPT))) {
+                Assertions.assertTrue(second.isFromCache());
+                Assertions.assertEquals("var x = 1;", second.readString());
+            }
+            Assertions.assertEquals(1, fullResponses.get());
+            Assertions.assertEquals(1, notModifiedResponses.get());
+        } finally {
+            server.stop(0);
+        }
+    }
+}
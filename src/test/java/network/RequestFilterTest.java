@@ -0,0 +1,142 @@
+package network;
+
+import com.osiris.jgbrowser.JGBrowser;
+import com.osiris.jgbrowser.exceptions.RequestBlockedException;
+import com.osiris.jgbrowser.network.InMemoryResourceLoader;
+import com.osiris.jgbrowser.network.ResourceType;
+import com.osiris.jgbrowser.network.filter.FilterRule;
+import com.osiris.jgbrowser.network.filter.FilteringResourceLoader;
+import com.osiris.jgbrowser.network.filter.RequestFilter;
+import com.osiris.jgbrowser.window.JGWindow;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+class RequestFilterTest {
+    private static final String PAGE = "https://news.example.com/article";
+
+    @Test
+    void testRuleSyntax() throws IOException {
+        RequestFilter filter = RequestFilter.parse(new StringReader("[Adblock Plus 2.0]\n" +
+                "! Comment\n" +
+                "||ads.example.net^\n" +
+                "/banner/*.js\n" +
+                "|https://cdn.example.org/track.js|\n" +
+                "&ad_id=\n" +
+                "||static.example-cdn.com/ads/$script,third-party\n" +
+                "@@||ads.example.net/allowed.js\n" +
+                "||tracker.example.io^$important\n" +
+                "@@||tracker.example.io^\n" +
+                "||local.example.com^$domain=example.com|~shop.example.com\n" +
+                "/BigAd.$match-case\n" +
+                "example.com##.ad\n" +
+                "/ads[0-9]/\n" +
+                "||example.com^$redirect=noop.js\n"));
+        Assertions.assertEquals(10, filter.getRuleCount());
+        Assertions.assertEquals(3, filter.getUnsupportedCount());
+
+        assertBlocked(filter, "https://ads.example.net/x.js");
+        assertBlocked(filter, "https://sub.ads.example.net:8080/x.js");
+        assertAllowed(filter, "https://ads.example.net.other.com/x.js"); // Not the same host
+        assertAllowed(filter, "https://notads.example.net/x.js");
+        assertAllowed(filter, "https://ads.example.net/allowed.js"); // Exception
+        assertBlocked(filter, "https://example.org/img/banner/top.js");
+        assertAllowed(filter, "https://example.org/img/banners/top.json");
+        assertBlocked(filter, "https://cdn.example.org/track.js");
+        assertAllowed(filter, "https://cdn.example.org/track.js?v=2"); // End anchor
+        assertBlocked(filter, "https://example.org/page?x=1&ad_id=5");
+        assertBlocked(filter, "https://static.example-cdn.com/ads/a.js");
+        assertAllowed(filter, "https://static.example-cdn.com/ads/a.js", ResourceType.SCRIPT, "https://www.example-cdn.com/"); // First-party
+        assertAllowed(filter, "https://static.example-cdn.com/ads/a.png", ResourceType.OTHER, PAGE); // Not a script
+        assertBlocked(filter, "https://tracker.example.io/t.js"); // Important wins over exception
+        assertBlocked(filter, "https://local.example.com/x.js", ResourceType.SCRIPT, "https://blog.example.com/");
+        assertAllowed(filter, "https://local.example.com/x.js", ResourceType.SCRIPT, "https://shop.example.com/");
+        assertAllowed(filter, "https://local.example.com/x.js", ResourceType.SCRIPT, "https://other.org/");
+        assertBlocked(filter, "https://example.org/BigAd.js");
+        assertAllowed(filter, "https://example.org/bigad.js");
+        // Pages are only blocked by rules with $document
+        assertAllowed(filter, "https://ads.example.net/", ResourceType.DOCUMENT, null);
+        assertBlocked(RequestFilter.of("||ads.example.net^$document"), "https://ads.example.net/", ResourceType.DOCUMENT, null);
+    }
+
+    @Test
+    void testSeparatorAndWildcards() {
+        RequestFilter filter = RequestFilter.of("^ad.js^", "||cdn.example.com/*/pixel^", "*/analytics.");
+        assertBlocked(filter, "https://example.com/ad.js");
+        assertBlocked(filter, "https://example.com/ad.js?v=1");
+        assertAllowed(filter, "https://example.com/bad.js");
+        assertBlocked(filter, "https://cdn.example.com/v1/v2/pixel?id=1");
+        assertBlocked(filter, "https://cdn.example.com/v1/pixel");
+        assertAllowed(filter, "https://cdn.example.com/v1/pixels");
+        assertBlocked(filter, "https://example.com/lib/analytics.min.js");
+    }
+
+    @Test
+    void testWindowBlocksScriptsAndCounts() throws IOException {
+        InMemoryResourceLoader loader = new InMemoryResourceLoader()
+                .put(PAGE, "text/html", "<html><head>" +
+                        "<script src='https://ads.example.net/ad.js'></script>" +
+                        "<script src='/app.js'></script>" +
+                        "<script src='/tracking.js'></script>" +
+                        "<script src='https://cdn.example.org/lib.js'></script>" +
+                        "</head></html>")
+                .put("https://ads.example.net/ad.js", "text/javascript", "var ad = true;")
+                .put("https://news.example.com/app.js", "text/javascript", "var app = true;")
+                .put("https://news.example.com/tracking.js", "text/javascript", "var tracking = true;")
+                .put("https://cdn.example.org/lib.js", "text/javascript", "var lib = true;");
+        RequestFilter filter = RequestFilter.of("||ads.example.net^", "||cdn.example.org^$third-party");
+        try (JGBrowser browser = new JGBrowser();
+             JGWindow window = browser.openCustomWindow().resourceLoader(loader).httpCacheSize(0)
+                     .requestFilter(filter)
+                     .allowRequests("||cdn.example.org/lib.js")
+                     .blockRequests("/tracking.js")
+                     .build()) {
+            window.load(PAGE);
+            Assertions.assertEquals(2, window.getLoadedScripts().size());
+            Assertions.assertTrue(window.getJavaScriptContext().getRawContext().eval("js", "app && lib").asBoolean());
+            Assertions.assertEquals("undefined", window.getJavaScriptContext().getRawContext().eval("js", "typeof ad").asString());
+            Assertions.assertEquals("undefined", window.getJavaScriptContext().getRawContext().eval("js", "typeof tracking").asString());
+
+            FilteringResourceLoader counters = window.getFilteringResourceLoader();
+            Assertions.assertEquals(2, counters.getBlockedRequests());
+            Assertions.assertEquals(2, counters.getBlockedRequests(ResourceType.SCRIPT));
+            Assertions.assertEquals(3, counters.getAllowedRequests());
+            Assertions.assertTrue(counters.getAllowedBytes() > "var app = true;var lib = true;".length());
+        }
+    }
+
+    @Test
+    void testBlockedDocumentFailsToLoad() throws IOException {
+        InMemoryResourceLoader loader = new InMemoryResourceLoader().put(PAGE, "text/html", "<html></html>");
+        try (JGBrowser browser = new JGBrowser();
+             JGWindow window = browser.openCustomWindow().resourceLoader(loader).httpCacheSize(0)
+                     .blockRequests("||news.example.com^$document").build()) {
+            Assertions.assertThrows(RequestBlockedException.class, () -> window.load(PAGE));
+            Assertions.assertEquals(1, window.getFilteringResourceLoader().getBlockedRequests(ResourceType.DOCUMENT));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> browser.openCustomWindow().blockRequests("/ads[0-9]/").build());
+        }
+    }
+
+    private static void assertBlocked(RequestFilter filter, String url) {
+        assertBlocked(filter, url, ResourceType.SCRIPT, PAGE);
+    }
+
+    private static void assertBlocked(RequestFilter filter, String url, ResourceType type, String documentUrl) {
+        Assertions.assertTrue(isBlocked(filter, url, type, documentUrl), "Expected to be blocked: " + url);
+    }
+
+    private static void assertAllowed(RequestFilter filter, String url) {
+        assertAllowed(filter, url, ResourceType.SCRIPT, PAGE);
+    }
+
+    private static void assertAllowed(RequestFilter filter, String url, ResourceType type, String documentUrl) {
+        Assertions.assertFalse(isBlocked(filter, url, type, documentUrl), "Expected to be allowed: " + url);
+    }
+
+    private static boolean isBlocked(RequestFilter filter, String url, ResourceType type, String documentUrl) {
+        FilterRule rule = filter.match(url, type, documentUrl);
+        return rule != null && !rule.isException();
+    }
+}
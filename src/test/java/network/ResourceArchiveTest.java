@@ -0,0 +1,106 @@
+package network;
+
+import com.osiris.jgbrowser.JGBrowser;
+import com.osiris.jgbrowser.network.InMemoryResourceLoader;
+import com.osiris.jgbrowser.network.archive.ArchiveWriter;
+import com.osiris.jgbrowser.network.archive.ReplayResourceLoader;
+import com.osiris.jgbrowser.network.archive.ResourceArchive;
+import com.osiris.jgbrowser.window.JGWindow;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+class ResourceArchiveTest {
+
+    @Test
+    void testRecordAndReplay(@TempDir File userDataDir) throws IOException {
+        InMemoryResourceLoader loader = new InMemoryResourceLoader()
+                .put("https://example.com/", "text/html", "<html><head><title>Home</title><script src='/lib.js'></script>" +
+                        "<script>var page = 'home';</script></head></html>")
+                .put("https://example.com/about", "text/html", "<html><head><title>About</title><script src='/lib.js'></script>" +
+                        "<script>var page = 'about';</script></head></html>")
+                .put("https://example.com/lib.js", "text/javascript", "var lib = 42;");
+        File archiveFile;
+        try (JGBrowser browser = new JGBrowser();
+             JGWindow window = browser.openCustomWindow().userDataDir(userDataDir).resourceLoader(loader).httpCacheSize(0)
+                     .recordArchive("example").build()) {
+            window.load("https://example.com/");
+            window.load("https://example.com/about");
+            archiveFile = window.getArchiveFile("example");
+            ArchiveWriter writer = browser.getArchiveWriter(archiveFile);
+            Assertions.assertEquals(3, writer.size());
+            Assertions.assertEquals("var lib = 42;".length(), writer.getDedupedBytes()); // Second load of lib.js
+        } // Completes the archive
+        Assertions.assertTrue(archiveFile.isFile());
+
+        loader.remove("https://example.com/lib.js"); // Replaying must not use the loader
+        try (JGBrowser browser = new JGBrowser();
+             JGWindow window = browser.openCustomWindow().userDataDir(userDataDir).resourceLoader(loader)
+                     .replayArchive("example").build()) {
+            window.load("https://example.com/about");
+            Assertions.assertEquals("About", window.getDocument().title());
+            Assertions.assertEquals(42, window.getJavaScriptContext().getRawContext().eval("js", "lib").asInt());
+            Assertions.assertEquals("about", window.getJavaScriptContext().getRawContext().eval("js", "page").asString());
+            Assertions.assertThrows(IOException.class, () -> window.load("https://example.com/missing"));
+
+            ReplayResourceLoader replay = (ReplayResourceLoader) window.getResourceLoader();
+            Assertions.assertTrue(replay.getArchive().isComplete());
+            Assertions.assertEquals(2, replay.getHits());
+            Assertions.assertEquals(1, replay.getMisses());
+        }
+    }
+
+    @Test
+    void testIncompleteArchiveIsScannedAndContinued(@TempDir File dir) throws IOException {
+        File file = new File(dir, "archive.jga");
+        File crashed = new File(dir, "crashed.jga");
+        Map<String, List<String>> headers = Collections.singletonMap("content-type", Collections.singletonList("text/plain"));
+        try (ArchiveWriter writer = new ArchiveWriter(file)) {
+            writer.write("http://example.com/", "https://example.com/", 200, headers, bytes("home"));
+            writer.write("https://example.com/a", "https://example.com/a", 404, headers, bytes("home"));
+            Files.copy(file.toPath(), crashed.toPath()); // Like after a crash, without index
+        }
+
+        ResourceArchive archive = ResourceArchive.open(crashed);
+        Assertions.assertFalse(archive.isComplete());
+        Assertions.assertEquals(2, archive.size());
+        ResourceArchive.Record record = archive.get("http://example.com/");
+        Assertions.assertEquals("https://example.com/", record.getUrl());
+        Assertions.assertEquals("text/plain", record.getHeaders().get("content-type").get(0));
+        Assertions.assertEquals("home", string(archive.getBody(record)));
+        Assertions.assertEquals(404, archive.get("https://example.com/a").getStatus());
+
+        try (ArchiveWriter writer = new ArchiveWriter(crashed)) {
+            Assertions.assertEquals(2, writer.size());
+            writer.write("https://example.com/b", "https://example.com/b", 200, headers, bytes("home")); // Same body
+            writer.write("https://example.com/a", "https://example.com/a", 200, headers, bytes("a"));
+            Assertions.assertEquals("home".length(), writer.getDedupedBytes());
+        }
+        archive = ResourceArchive.open(crashed);
+        Assertions.assertTrue(archive.isComplete());
+        Assertions.assertEquals(3, archive.size());
+        Assertions.assertEquals("home", string(archive.getBody(archive.get("https://example.com/b"))));
+        Assertions.assertEquals(200, archive.get("https://example.com/a").getStatus());
+        Assertions.assertEquals("a", string(archive.getBody(archive.get("https://example.com/a"))));
+        Assertions.assertNull(archive.get("https://example.com/c"));
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String string(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,97 @@
+package network;
+
+import com.osiris.jgbrowser.JGBrowser;
+import com.osiris.jgbrowser.network.FileSystemResourceLoader;
+import com.osiris.jgbrowser.network.HttpResourceLoader;
+import com.osiris.jgbrowser.network.InMemoryResourceLoader;
+import com.osiris.jgbrowser.network.Resource;
+import com.osiris.jgbrowser.network.ResourceRequest;
+import com.osiris.jgbrowser.network.ResourceType;
+import com.osiris.jgbrowser.window.JGWindow;
+import com.sun.net.httpserver.HttpServer;
+import org.jsoup.HttpStatusException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.zip.GZIPOutputStream;
+
+class ResourceLoaderTest {
+
+    @Test
+    void testInMemoryLoader() throws IOException {
+        InMemoryResourceLoader loader = new InMemoryResourceLoader()
+                .put("https://example.com/", "text/html", "<html><head><title>Offline</title>" +
+                        "<script src='/app.js'></script></head></html>")
+                .put("https://example.com/app.js", "text/javascript", "var loaded = true;");
+        try (JGBrowser browser = new JGBrowser();
+             JGWindow window = browser.openCustomWindow().resourceLoader(loader).httpCacheSize(0).build()) {
+            window.load("https://example.com/");
+            Assertions.assertEquals("Offline", window.getDocument().title());
+            Assertions.assertTrue(window.getJavaScriptContext().getRawContext().eval("js", "loaded").asBoolean());
+            Assertions.assertThrows(HttpStatusException.class, () -> window.load("https://example.com/missing"));
+        }
+    }
+
+    @Test
+    void testFileSystemLoader(@TempDir File root) throws IOException {
+        File site = new File(root, "example.com");
+        Files.createDirectories(new File(site, "js").toPath());
+        Files.write(new File(site, "index.html").toPath(),
+                "<html><head><script src='js/app.js'></script></head></html>".getBytes(StandardCharsets.UTF_8));
+        Files.write(new File(site, "js/app.js").toPath(), "var fromDisk = 42;".getBytes(StandardCharsets.UTF_8));
+        FileSystemResourceLoader loader = new FileSystemResourceLoader(root);
+        Assertions.assertNull(loader.fileOf("https://example.com/../../etc/passwd"));
+        try (JGBrowser browser = new JGBrowser();
+             JGWindow window = browser.openCustomWindow().resourceLoader(loader).httpCacheSize(0).build()) {
+            window.load("https://example.com/");
+            Assertions.assertEquals(42, window.getJavaScriptContext().getRawContext().eval("js", "fromDisk").asInt());
+        }
+    }
+
+    @Test
+    void testContentEncoding() throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            byte[] body = "encoded".getBytes(StandardCharsets.UTF_8);
+            if (exchange.getRequestURI().getPath().equals("/gzip")) {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+                    gzip.write(body);
+                }
+                body = bytes.toByteArray();
+                exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+            } else {
+                exchange.getResponseHeaders().add("Content-Encoding", "br"); // Not decoded
+            }
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        try {
+            String base = "http://127.0.0.1:" + server.getAddress().getPort();
+            HttpResourceLoader loader = new HttpResourceLoader();
+            try (Resource resource = loader.load(new ResourceRequest(base + "/gzip", Collections.emptyMap(), ResourceType.OTHER))) {
+                Assertions.assertEquals("encoded", resource.readString());
+                Assertions.assertNull(resource.getHeader("content-encoding"));
+                Assertions.assertNull(resource.getHeader("content-length"));
+            }
+            try (Resource resource = loader.load(new ResourceRequest(base + "/br", Collections.emptyMap(), ResourceType.OTHER))) {
+                Assertions.assertEquals("br", resource.getHeader("content-encoding"));
+                Assertions.assertEquals("7", resource.getHeader("content-length"));
+            }
+        } finally {
+            server.stop(0);
+        }
+    }
+}
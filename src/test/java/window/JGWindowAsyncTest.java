@@ -0,0 +1,64 @@
+package window;
+
+import com.osiris.jgbrowser.JGBrowser;
+import com.osiris.jgbrowser.network.InMemoryResourceLoader;
+import com.osiris.jgbrowser.window.JGWindow;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+class JGWindowAsyncTest {
+
+    @Test
+    void testManyWindowsFewThreads() {
+        InMemoryResourceLoader loader = new InMemoryResourceLoader();
+        for (int i = 0; i < 20; i++) {
+            loader.put("https://example.com/" + i, "text/html",
+                    "<html><head><title>" + i + "</title><script>var page = " + i + ";</script></head></html>");
+        }
+        try (JGBrowser browser = new JGBrowser().setWindowThreads(2)) {
+            List<JGWindow> windows = new ArrayList<>();
+            List<CompletableFuture<Integer>> pages = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                JGWindow window = browser.openCustomWindow().resourceLoader(loader).httpCacheSize(0).build();
+                windows.add(window);
+                pages.add(window.loadAsync("https://example.com/" + i)
+                        .thenCompose(w -> w.submit(() -> w.getJavaScriptContext().getRawContext().eval("js", "page").asInt())));
+            }
+            for (int i = 0; i < 20; i++) {
+                Assertions.assertEquals(i, pages.get(i).join());
+                Assertions.assertEquals(String.valueOf(i), windows.get(i).getDocument().title());
+            }
+            CompletableFuture.allOf(windows.stream().map(JGWindow::closeAsync).toArray(CompletableFuture[]::new)).join();
+        }
+    }
+
+    @Test
+    void testSerializedAccessFromManyThreads() throws Exception {
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        try (JGBrowser browser = new JGBrowser();
+             JGWindow window = browser.openWindow()) {
+            window.executeJS("var counter = 0;");
+            List<CompletableFuture<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                // Mix blocking and async calls from different threads
+                if (i % 2 == 0)
+                    futures.add(CompletableFuture.runAsync(() -> window.executeJS("counter++;"), callers));
+                else
+                    futures.add(window.executeJSAsync("counter++;"));
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+            Assertions.assertEquals(100, window.submit(() ->
+                    window.getJavaScriptContext().getRawContext().eval("js", "counter").asInt()).join());
+        } finally {
+            callers.shutdown();
+            callers.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package window;
+
+import com.osiris.jgbrowser.JGBrowser;
+import com.osiris.jgbrowser.window.JGWindow;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class JGWindowLoadTest {
+    private static HttpServer server;
+    private static String baseUrl;
+    private static final AtomicInteger runningScriptRequests = new AtomicInteger();
+    private static final AtomicInteger maxRunningScriptRequests = new AtomicInteger();
+
+    @BeforeAll
+    static void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/inline.html", exchange -> {
+            byte[] body = ("<html><head>" +
+                    "<script>var counter = 0; counter++;</script>" +
+                    "<script>counter++;</script>" +
+                    "<script>counter++;</script>" +
+                    "</head><body></body></html>").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "text/html; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.createContext("/external.html", exchange -> {
+            respond(exchange, "<html><head>" +
+                    "<script src='/scripts/a.js'></script>" +
+                    "<script>order.push('inline');</script>" +
+                    "<script src='scripts/b.js'></script>" +
+                    "<script src='" + baseUrl + "/scripts/c.js'></script>" +
+                    "</head><body></body></html>");
+        });
+        server.createContext("/scripts/", exchange -> {
+            maxRunningScriptRequests.accumulateAndGet(runningScriptRequests.incrementAndGet(), Math::max);
+            try {
+                String name = exchange.getRequestURI().getPath().substring("/scripts/".length(), "/scripts/".length() + 1);
+                // The first script is the slowest, to make sure execution still happens in document order
+                Thread.sleep(name.equals("a") ? 500 : 100);
+                respond(exchange, name.equals("a") ? "var order = ['a'];" : "order.push('" + name + "');");
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            } finally {
+                runningScriptRequests.decrementAndGet();
+            }
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    private static void respond(com.sun.net.httpserver.HttpExchange exchange, String text) throws IOException {
+        byte[] body = text.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void testEachScriptRunsOnce() throws Exception {
+        try (JGBrowser browser = new JGBrowser();
+             JGWindow window = browser.openWindow()) {
+            window.load(baseUrl + "/inline.html");
+            Assertions.assertEquals(3, window.getJavaScriptContext().getRawContext()
+                    .eval("js", "counter").asInt());
+            Assertions.assertEquals(3, window.getLoadedScripts().size());
+            Assertions.assertEquals("inline-script-2.js", window.getLoadedScripts().get(2).getName());
+            Assertions.assertTrue(window.getLoadedJavaScriptCode().contains("<script> number 1"));
+        }
+    }
+
+    @Test
+    void testExternalScriptsAreFetchedInParallelAndRunInOrder() throws Exception {
+        try (JGBrowser browser = new JGBrowser();
+             JGWindow window = browser.openCustomWindow().maxParallelFetches(3).build()) {
+            window.load(baseUrl + "/external.html");
+            Assertions.assertEquals("a,inline,b,c", window.getJavaScriptContext().getRawContext()
+                    .eval("js", "order.join()").asString());
+            Assertions.assertEquals(baseUrl + "/scripts/b.js", window.getLoadedScripts().get(2).getName());
+            Assertions.assertTrue(maxRunningScriptRequests.get() > 1, "Scripts were not fetched in parallel");
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package window;
+
+import com.osiris.jgbrowser.JGBrowser;
+import com.osiris.jgbrowser.network.InMemoryResourceLoader;
+import com.osiris.jgbrowser.trace.TraceCategory;
+import com.osiris.jgbrowser.trace.TraceLevel;
+import com.osiris.jgbrowser.trace.Tracer;
+import com.osiris.jgbrowser.window.JGWindow;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class TracingTest {
+    private static final InMemoryResourceLoader LOADER = new InMemoryResourceLoader()
+            .put("https://example.com/", "text/html", "<html><head><script src='/a.js'></script></head></html>")
+            .put("https://example.com/a.js", "text/javascript", "var a = 1;");
+
+    @Test
+    void testDisabledMessagesAreNotBuilt() {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        Map<TraceCategory, TraceLevel> levels = new EnumMap<>(TraceCategory.class);
+        levels.put(TraceCategory.EVAL, TraceLevel.TRACE);
+        Tracer tracer = new Tracer(new PrintStream(output, true), TraceLevel.INFO, levels);
+        AtomicInteger built = new AtomicInteger();
+        tracer.debug(TraceCategory.FETCH, () -> "fetch " + built.incrementAndGet());
+        tracer.info(TraceCategory.FETCH, () -> "fetch " + built.incrementAndGet());
+        tracer.trace(TraceCategory.EVAL, () -> "eval " + built.incrementAndGet());
+        Tracer.OFF.error(TraceCategory.API, () -> "api " + built.incrementAndGet());
+        Assertions.assertEquals(2, built.get());
+        Assertions.assertEquals("[INFO] [fetch] fetch 1" + System.lineSeparator() + "[TRACE] [eval] eval 2" + System.lineSeparator(),
+                output.toString());
+        Assertions.assertFalse(Tracer.OFF.isEnabled(TraceCategory.API, TraceLevel.ERROR));
+        Assertions.assertThrows(NullPointerException.class, () -> new Tracer(null, TraceLevel.INFO));
+    }
+
+    @Test
+    void testWindowCategories() throws Exception {
+        try (JGBrowser browser = new JGBrowser()) {
+            ByteArrayOutputStream all = new ByteArrayOutputStream();
+            try (JGWindow window = browser.openCustomWindow().resourceLoader(LOADER).httpCacheSize(0)
+                    .debugOutputStream(all).build()) {
+                window.load("https://example.com/");
+            }
+            String out = all.toString();
+            for (TraceCategory category : TraceCategory.values()) {
+                Assertions.assertTrue(out.contains("] [" + category.getId() + "] "), category + " missing in: " + out);
+            }
+            Assertions.assertTrue(out.contains("[DEBUG] [eval] Executing JavaScript code from: https://example.com/a.js"), out);
+
+            ByteArrayOutputStream fetchOnly = new ByteArrayOutputStream();
+            try (JGWindow window = browser.openCustomWindow().resourceLoader(LOADER).httpCacheSize(0)
+                    .debugOutputStream(fetchOnly).traceLevel(TraceLevel.OFF).traceLevel(TraceCategory.FETCH, TraceLevel.DEBUG).build()) {
+                window.load("https://example.com/");
+            }
+            for (String line : fetchOnly.toString().split("\\R")) {
+                Assertions.assertTrue(line.contains("] [fetch] "), line);
+            }
+            Assertions.assertTrue(fetchOnly.toString().contains("Loaded script: 200 https://example.com/a.js"), fetchOnly.toString());
+
+            try (JGWindow window = browser.openCustomWindow().build()) {
+                Assertions.assertSame(Tracer.OFF, window.getTracer());
+            }
+        }
+    }
+}